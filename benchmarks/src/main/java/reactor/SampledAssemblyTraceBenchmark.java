@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.DebugOptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+
+/**
+ * Compares the assembly of a chain of operators under the sampled
+ * {@link Hooks#onOperatorDebug(DebugOptions)} mode, with and without the call-site
+ * cache, to the assembly without any tracing (see {@link AssemblyTraceBenchmark}).
+ */
+@BenchmarkMode({Mode.AverageTime})
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SampledAssemblyTraceBenchmark {
+
+	@Param({"0.0", "0.01", "0.1", "1.0"})
+	double sampleRate;
+
+	@Param({"true", "false"})
+	boolean callSiteCache;
+
+	@Param({"10", "40"})
+	int stackSize;
+
+	@Setup
+	public void setup() {
+		DebugOptions options = DebugOptions.sampleRate(sampleRate);
+		Hooks.onOperatorDebug(callSiteCache ? options : options.callSiteCacheSize(0));
+	}
+
+	@TearDown
+	public void tearDown() {
+		Hooks.resetOnOperatorDebug();
+	}
+
+	@Benchmark
+	public void assembly(Blackhole bh) {
+		stack(stackSize, bh);
+	}
+
+	private void stack(int i, Blackhole bh) {
+		if (i == 0) {
+			Flux<Integer> flux = Flux.just(1)
+			                         .map(d -> d)
+			                         .filter(d -> true)
+			                         .doOnNext(d -> {
+			                         })
+			                         .map(d -> d)
+			                         .take(1);
+
+			bh.consume(flux);
+		}
+		else {
+			stack(i - 1, bh);
+		}
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link Flux#buffer(int)}, which grows {@link java.util.ArrayList} buffers,
+ * against {@link Flux#bufferArray(int, java.util.function.IntFunction)} and
+ * {@link Flux#bufferPooled(int)}. Run with the GC profiler ({@code -prof gc}) to compare
+ * the allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BufferArrayBenchmark {
+
+	@Param({"100000"})
+	int count;
+
+	@Param({"16", "10000"})
+	int maxSize;
+
+	@Benchmark
+	public void list(Blackhole bh) {
+		Flux.range(0, count)
+		    .buffer(maxSize)
+		    .subscribe(b -> consume(b, bh));
+	}
+
+	@Benchmark
+	public void array(Blackhole bh) {
+		Flux.range(0, count)
+		    .bufferArray(maxSize, Integer[]::new)
+		    .subscribe(b -> {
+			    for (Integer v : b) {
+				    bh.consume(v);
+			    }
+		    });
+	}
+
+	@Benchmark
+	public void pooled(Blackhole bh) {
+		Flux.range(0, count)
+		    .bufferPooled(maxSize)
+		    .subscribe(b -> {
+			    consume(b, bh);
+			    b.release();
+		    });
+	}
+
+	static void consume(List<Integer> buffer, Blackhole bh) {
+		for (int i = 0; i < buffer.size(); i++) {
+			bh.consume(buffer.get(i));
+		}
+	}
+}
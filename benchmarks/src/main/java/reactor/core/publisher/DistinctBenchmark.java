@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.HashSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares the ways of tracking seen keys in {@link Flux#distinct}: a {@link HashSet}
+ * (the previous default), the default open-addressing set, unboxed {@code long} keys and
+ * a bloom filter. Run with {@code -prof gc} to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DistinctBenchmark {
+
+	@Param({"1000", "1000000"})
+	int count;
+
+	@Param({"hashSet", "openHashSet", "longKeys", "bloom"})
+	String store;
+
+	Flux<Long> distinct;
+
+	@Setup
+	public void setup() {
+		//every key is seen twice
+		Flux<Long> source = Flux.range(0, count * 2)
+		                        .map(i -> (long) (i >> 1) * 31);
+		switch (store) {
+			case "hashSet":
+				distinct = source.distinct(v -> v, HashSet::new);
+				break;
+			case "openHashSet":
+				distinct = source.distinct();
+				break;
+			case "longKeys":
+				distinct = source.distinct(v -> v, DistinctStore.longKeys());
+				break;
+			default:
+				distinct = source.distinct(v -> v, DistinctStore.bloom(count, 0.01));
+		}
+	}
+
+	@Benchmark
+	public void distinct(Blackhole bh) {
+		bh.consume(distinct.blockLast());
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares {@link Flux#groupBy(java.util.function.Function)} with the variant bounding
+ * the live groups through {@link GroupByOptions#maxGroups(int)}, on a source with a
+ * high cardinality of keys where most groups are short-lived. Run with {@code -prof gc}
+ * to compare the allocation rates, as the bounded variant reuses the group queues.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GroupByEvictionBenchmark {
+
+	@Param({"100000"})
+	int count;
+
+	@Param({"1000", "100000"})
+	int keys;
+
+	@Param({"unbounded", "maxGroups"})
+	String groups;
+
+	Flux<Integer> grouped;
+
+	@Setup
+	public void setup() {
+		//runs of 4 consecutive values share a key
+		Flux<Integer> source = Flux.range(0, count);
+		Flux<GroupedFlux<Integer, Integer>> groupBy = "unbounded".equals(groups)
+				? source.groupBy(i -> (i >> 2) % keys)
+				: source.groupBy(i -> (i >> 2) % keys, GroupByOptions.maxGroups(64));
+		grouped = groupBy.flatMap(g -> g, Integer.MAX_VALUE);
+	}
+
+	@Benchmark
+	public void groupBy(Blackhole bh) {
+		bh.consume(grouped.blockLast());
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compares a {@link LongFlux} pipeline against the equivalent boxed {@link Flux}
+ * pipeline ({@link FluxRange} followed by fused maps, filter and reduction/buffering).
+ * Run with the GC profiler ({@code -prof gc}) to compare the allocation rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class LongFluxBenchmark {
+
+	@Param({"1000", "1000000"})
+	int count;
+
+	@Benchmark
+	public Long boxedSum() {
+		return Flux.range(0, count)
+		           .map(i -> (long) i * 3)
+		           .filter(v -> (v & 1) == 0)
+		           .reduce(0L, Long::sum)
+		           .block();
+	}
+
+	@Benchmark
+	public Long primitiveSum() {
+		return LongFlux.range(0, count)
+		               .map(v -> v * 3)
+		               .filter(v -> (v & 1) == 0)
+		               .sum()
+		               .block();
+	}
+
+	@Benchmark
+	public Long boxedScan() {
+		return Flux.range(0, count)
+		           .map(i -> (long) i)
+		           .scan(Long::sum)
+		           .blockLast();
+	}
+
+	@Benchmark
+	public Long primitiveScan() {
+		return LongFlux.range(0, count)
+		               .scan(Long::sum)
+		               .boxed()
+		               .blockLast();
+	}
+
+	@Benchmark
+	public void boxedBuffer(Blackhole bh) {
+		Flux.range(0, count)
+		    .map(i -> (long) i)
+		    .buffer(256)
+		    .subscribe(bh::consume);
+	}
+
+	@Benchmark
+	public void primitiveBuffer(Blackhole bh) {
+		LongFlux.range(0, count)
+		        .buffer(256)
+		        .subscribe(bh::consume);
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the k-way merge of {@link Flux#mergeOrdered(Comparator, org.reactivestreams.Publisher[])}
+ * and {@link ParallelFlux#sorted(Comparator)} when the number of sorted sources (or rails)
+ * grows, with a fixed total of {@code 100_000} elements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MergeOrderedBenchmark {
+
+	static final int TOTAL = 100_000;
+
+	@Param({"10", "100", "1000"})
+	int sources;
+
+	Flux<Integer>[] fluxes;
+
+	ParallelFlux<Integer> rails;
+
+	@Setup
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		int perSource = TOTAL / sources;
+		fluxes = new Flux[sources];
+		for (int i = 0; i < sources; i++) {
+			int offset = i;
+			fluxes[i] = Flux.range(0, perSource).map(v -> v * sources + offset);
+		}
+		rails = Flux.range(0, TOTAL)
+		            .map(v -> (v * 7919) % TOTAL)
+		            .parallel(sources);
+	}
+
+	@Benchmark
+	public void mergeOrdered(Blackhole bh) {
+		bh.consume(Flux.mergeOrdered(Comparator.<Integer>naturalOrder(), fluxes).blockLast());
+	}
+
+	@Benchmark
+	public void parallelSorted(Blackhole bh) {
+		bh.consume(rails.sorted(Comparator.naturalOrder(), TOTAL / sources).blockLast());
+	}
+
+	@Benchmark
+	public void parallelOrdered(Blackhole bh) {
+		bh.consume(rails.ordered(Comparator.naturalOrder()).blockLast());
+	}
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Compares {@link ParallelFlux#sorted(Comparator, int)}, which merges the sorted rails
+ * on a single thread, with {@link ParallelFlux#sorted(Comparator, int, Scheduler)},
+ * which merges them in parallel. The {@code first} benchmarks only wait for the first
+ * element of the result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSortBenchmark {
+
+	@Param({"100000", "1000000"})
+	int count;
+
+	Integer[] values;
+
+	Scheduler scheduler;
+
+	ParallelFlux<Integer> rails;
+
+	@Setup
+	public void setup() {
+		Random random = new Random(42);
+		values = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = random.nextInt();
+		}
+		scheduler = Schedulers.parallel();
+		rails = Flux.fromArray(values)
+		            .parallel()
+		            .runOn(scheduler);
+	}
+
+	@Benchmark
+	public void sequentialMerge(Blackhole bh) {
+		bh.consume(rails.sorted(Comparator.naturalOrder(), count).blockLast());
+	}
+
+	@Benchmark
+	public void parallelMerge(Blackhole bh) {
+		bh.consume(rails.sorted(Comparator.naturalOrder(), count, scheduler).blockLast());
+	}
+
+	@Benchmark
+	public void sequentialMergeFirst(Blackhole bh) {
+		bh.consume(rails.sorted(Comparator.naturalOrder(), count).blockFirst());
+	}
+
+	@Benchmark
+	public void parallelMergeFirst(Blackhole bh) {
+		bh.consume(rails.sorted(Comparator.naturalOrder(), count, scheduler).blockFirst());
+	}
+}
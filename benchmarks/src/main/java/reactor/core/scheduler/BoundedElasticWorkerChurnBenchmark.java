@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures the cost of picking and releasing executors in
+ * {@link Schedulers#newBoundedElastic(int, int, String)} when many threads concurrently
+ * create and dispose workers, with {@code held} workers per thread kept busy so that
+ * picking has to go past idle executors once the cap is reached.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@Threads(8)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BoundedElasticWorkerChurnBenchmark {
+
+	@Param({"8", "80", "800"})
+	int threadCap;
+
+	Scheduler scheduler;
+
+	@Setup
+	public void setup() {
+		scheduler = Schedulers.newBoundedElastic(threadCap, Integer.MAX_VALUE, "churn");
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.dispose();
+	}
+
+	@State(Scope.Thread)
+	public static class Held {
+
+		@Param({"0", "4"})
+		int held;
+
+		Scheduler.Worker[] workers;
+
+		@Setup
+		public void setup(BoundedElasticWorkerChurnBenchmark benchmark) {
+			workers = new Scheduler.Worker[held];
+			for (int i = 0; i < held; i++) {
+				workers[i] = benchmark.scheduler.createWorker();
+			}
+		}
+
+		@TearDown
+		public void tearDown() {
+			for (Scheduler.Worker worker : workers) {
+				worker.dispose();
+			}
+		}
+	}
+
+	@Benchmark
+	public void createAndDisposeWorker(Held held, Blackhole bh) {
+		Scheduler.Worker worker = scheduler.createWorker();
+		bh.consume(worker);
+		worker.dispose();
+	}
+
+	@Benchmark
+	public void scheduleDirect(Held held, Blackhole bh) {
+		bh.consume(scheduler.schedule(() -> {}));
+	}
+}
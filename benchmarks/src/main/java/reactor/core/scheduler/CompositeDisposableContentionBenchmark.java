@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+
+/**
+ * Measures the contention on the {@link Disposable.Composite} that workers use to track
+ * their tasks: {@code addRemove} has 4 threads adding then removing their own resource
+ * from a shared composite, comparing {@link Disposables#composite()} with
+ * {@link ConcurrentCompositeDisposable}, while {@code scheduleDispose} has 4 threads
+ * scheduling a delayed task on a shared {@link Schedulers#newParallel(String, int) parallel}
+ * worker and disposing it right away. The latter doesn't depend on {@code impl}, as
+ * workers always use {@link ConcurrentCompositeDisposable}, and is meant to be compared
+ * with the {@code jmhBaseline} task.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Group)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CompositeDisposableContentionBenchmark {
+
+	static final Runnable NOOP = () -> { };
+
+	@Param({"list", "concurrent"})
+	String impl;
+
+	Disposable.Composite composite;
+
+	Scheduler scheduler;
+
+	Scheduler.Worker worker;
+
+	@State(Scope.Thread)
+	public static class Resource {
+
+		final Disposable disposable = Disposables.single();
+	}
+
+	@Setup
+	public void setup() {
+		composite = "list".equals(impl) ? Disposables.composite() : new ConcurrentCompositeDisposable();
+		scheduler = Schedulers.newParallel("compositeBenchmark", 1);
+		worker = scheduler.createWorker();
+	}
+
+	@TearDown
+	public void tearDown() {
+		composite.dispose();
+		worker.dispose();
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	@Group("addRemove")
+	@GroupThreads(4)
+	public boolean addRemove(Resource resource) {
+		composite.add(resource.disposable);
+		return composite.remove(resource.disposable);
+	}
+
+	@Benchmark
+	@Group("scheduleDispose")
+	@GroupThreads(4)
+	public void scheduleDispose() {
+		worker.schedule(NOOP, 1, TimeUnit.HOURS).dispose();
+	}
+}
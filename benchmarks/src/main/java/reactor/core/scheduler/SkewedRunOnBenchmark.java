@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+/**
+ * Compares {@link Schedulers#newParallel(String, int)} and
+ * {@link Schedulers#newWorkStealing(String, int)} when {@code ParallelFlux.runOn} rails
+ * have uneven costs: when {@code skewed}, one rail out of 4 is {@code heavyFactor} times
+ * more expensive than the others. Since rails are assigned to threads round-robin, the
+ * heavy rails of the parallel scheduler tend to pile up on the same thread.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SkewedRunOnBenchmark {
+
+	@Param({"parallel", "workStealing"})
+	String schedulerType;
+
+	@Param({"false", "true"})
+	boolean skewed;
+
+	@Param({"100"})
+	int heavyFactor;
+
+	int threads;
+	int rails;
+	Scheduler scheduler;
+
+	@Setup
+	public void setup() {
+		threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		rails = threads * 4;
+		if ("parallel".equals(schedulerType)) {
+			scheduler = Schedulers.newParallel("skewedRunOn", threads, true);
+		}
+		else {
+			scheduler = Schedulers.newWorkStealing("skewedRunOn", threads, true);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	public void runOn(Blackhole bh) {
+		final int railCount = rails;
+		final long heavyTokens = skewed ? 10L * heavyFactor : 10L;
+		bh.consume(Flux.range(0, 10_000)
+		               .parallel(railCount)
+		               .runOn(scheduler)
+		               .map(i -> {
+			               int rail = i % railCount;
+			               Blackhole.consumeCPU(rail % 4 == 0 ? heavyTokens : 10L);
+			               return i;
+		               })
+		               .sequential()
+		               .blockLast());
+	}
+}
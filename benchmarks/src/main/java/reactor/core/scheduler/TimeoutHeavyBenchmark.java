@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Compares delayed task scheduling on {@link Schedulers#newParallel(String, int)}, which
+ * tracks delays in a {@link TimerWheel}, with a {@link ScheduledThreadPoolExecutor}
+ * wrapped by {@link Schedulers#fromExecutorService}, which tracks them in its delay queue.
+ * Each pipeline applies a {@code timeout} to {@code concurrency} inner sources that
+ * complete immediately, so that virtually all the timeouts get cancelled.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class TimeoutHeavyBenchmark {
+
+	@Param({"timerWheel", "delayQueue"})
+	String schedulerType;
+
+	@Param({"1000", "100000"})
+	int concurrency;
+
+	Scheduler scheduler;
+
+	@Setup
+	public void setup() {
+		int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+		if ("timerWheel".equals(schedulerType)) {
+			scheduler = Schedulers.newParallel("timeoutHeavy", threads, true);
+		}
+		else {
+			ScheduledThreadPoolExecutor executor =
+					(ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(threads);
+			executor.setRemoveOnCancelPolicy(true);
+			scheduler = Schedulers.fromExecutorService(executor);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		scheduler.dispose();
+	}
+
+	@Benchmark
+	public void cancelledTimeouts(Blackhole bh) {
+		bh.consume(Flux.range(0, concurrency)
+		               .flatMap(i -> Mono.just(i)
+		                                 .timeout(Duration.ofSeconds(10), scheduler),
+				               concurrency)
+		               .blockLast());
+	}
+
+	@Benchmark
+	public void scheduleAndCancel(Blackhole bh) {
+		for (int i = 0; i < concurrency; i++) {
+			Disposable d = scheduler.schedule(NOOP, 10, TimeUnit.SECONDS);
+			d.dispose();
+			bh.consume(d);
+		}
+	}
+
+	static final Runnable NOOP = () -> { };
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.tools.agent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.math.MathFlux;
+
+/**
+ * Compares the cost of loading the classes of a jar, as done at application startup,
+ * in the three debug modes:
+ * <ul>
+ *     <li>{@code noDebug}: the classes are loaded as is</li>
+ *     <li>{@code agent}: each class is instrumented when loaded, like the
+ *     {@link ReactorDebugAgent} does</li>
+ *     <li>{@code prebuilt}: the classes were instrumented at build time by the
+ *     {@link ReactorDebugInstrumenter} (or the {@link ReactorDebugByteBuddyPlugin}) and are
+ *     loaded as is</li>
+ * </ul>
+ * The jar defaults to the reactor-extra one, whose classes use Reactor operators, and can
+ * be set with {@code -p jar=/path/to/app.jar}. Each invocation loads every class of the
+ * jar in a new class loader.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Warmup(iterations = 10)
+@Measurement(iterations = 20)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DebugInstrumentationStartupBenchmark {
+
+	@Param({"noDebug", "agent", "prebuilt"})
+	String mode;
+
+	@Param("")
+	String jar;
+
+	Path                tmp;
+	Map<String, byte[]> classes;
+
+	@Setup
+	public void setup() throws Exception {
+		Path source = jar.isEmpty()
+				? Paths.get(MathFlux.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+				: Paths.get(jar);
+
+		if (mode.equals("prebuilt")) {
+			tmp = Files.createTempDirectory("reactor-debug-startup");
+			Path instrumented = tmp.resolve("instrumented.jar");
+			new ReactorDebugInstrumenter().instrument(source, instrumented);
+			source = instrumented;
+		}
+
+		classes = new LinkedHashMap<>();
+		try (ZipFile zip = new ZipFile(source.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (name.endsWith(".class") && !name.endsWith("module-info.class") && !name.startsWith("META-INF/")) {
+					try (InputStream in = zip.getInputStream(entry)) {
+						classes.put(name.substring(0, name.length() - 6).replace('/', '.'),
+								ReactorDebugInstrumenter.readAll(in));
+					}
+				}
+			}
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		if (tmp != null) {
+			Files.deleteIfExists(tmp.resolve("instrumented.jar"));
+			Files.deleteIfExists(tmp);
+		}
+	}
+
+	@Benchmark
+	public void loadClasses(Blackhole bh) {
+		JarClassLoader loader = new JarClassLoader(classes, mode.equals("agent"));
+		for (String name : classes.keySet()) {
+			try {
+				bh.consume(loader.loadClass(name));
+			}
+			catch (ClassNotFoundException | LinkageError e) {
+				//optional dependencies of the jar
+				bh.consume(e);
+			}
+		}
+	}
+
+	static final class JarClassLoader extends ClassLoader {
+
+		final Map<String, byte[]> classes;
+		final boolean             instrument;
+
+		JarClassLoader(Map<String, byte[]> classes, boolean instrument) {
+			super(JarClassLoader.class.getClassLoader());
+			this.classes = classes;
+			this.instrument = instrument;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!classes.containsKey(name)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> loaded = findLoadedClass(name);
+				return loaded != null ? loaded : findClass(name);
+			}
+		}
+
+		@Override
+		protected Class<?> findClass(String name) throws ClassNotFoundException {
+			byte[] bytes = classes.get(name);
+			if (bytes == null) {
+				throw new ClassNotFoundException(name);
+			}
+			if (instrument) {
+				bytes = ReactorDebugInstrumenter.instrument(bytes);
+			}
+			return defineClass(name, bytes, 0, bytes.length);
+		}
+	}
+}
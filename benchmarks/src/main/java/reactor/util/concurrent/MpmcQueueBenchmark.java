@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of {@link Queues#mpmc(int)} against an {@link ArrayBlockingQueue}
+ * of the same capacity when 3 threads offer while 2 threads poll. Scores count attempts,
+ * including offers to a full queue and polls of an empty one.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Group)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MpmcQueueBenchmark {
+
+	static final Integer VALUE = 1;
+
+	@Param({"mpmc", "arrayBlocking"})
+	String impl;
+
+	@Param({"1024"})
+	int capacity;
+
+	Queue<Integer> queue;
+
+	@Setup
+	public void setup() {
+		queue = "mpmc".equals(impl) ? Queues.<Integer>mpmc(capacity).get() : new ArrayBlockingQueue<>(capacity);
+	}
+
+	@TearDown
+	public void tearDown() {
+		queue.clear();
+	}
+
+	@Benchmark
+	@Group("mpmc")
+	@GroupThreads(3)
+	public boolean offer() {
+		return queue.offer(VALUE);
+	}
+
+	@Benchmark
+	@Group("mpmc")
+	@GroupThreads(2)
+	public Integer poll() {
+		return queue.poll();
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the throughput of the multi-producer/single-consumer {@link Queues} when 3
+ * threads offer concurrently while a single thread polls. To keep the unbounded queues
+ * from growing while the producers outpace the consumer, each producer stops offering
+ * once its share of the backlog reaches {@code capacity}, which also keeps the bounded
+ * queues comparable. Scores count attempts, including skipped offers and empty polls.
+ */
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Group)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultiProducerQueueBenchmark {
+
+	static final Integer VALUE = 1;
+	static final int     PRODUCERS = 3;
+
+	@Param({"mpscLinked", "mpscArray", "mpscUnboundedArray"})
+	String impl;
+
+	@Param({"1024"})
+	int capacity;
+
+	Queue<Integer> queue;
+
+	/**
+	 * Only written by the consumer, read by the producers to estimate the backlog.
+	 */
+	volatile long polled;
+
+	@Setup
+	public void setup() {
+		switch (impl) {
+			case "mpscLinked":
+				queue = Queues.<Integer>unboundedMultiproducer().get();
+				break;
+			case "mpscArray":
+				queue = Queues.<Integer>mpscArray(capacity).get();
+				break;
+			case "mpscUnboundedArray":
+				queue = Queues.<Integer>mpscUnboundedArray(Queues.SMALL_BUFFER_SIZE).get();
+				break;
+			default:
+				throw new IllegalArgumentException("unknown impl " + impl);
+		}
+		polled = 0L;
+	}
+
+	@TearDown
+	public void tearDown() {
+		queue.clear();
+	}
+
+	@State(Scope.Thread)
+	public static class Producer {
+
+		long offered;
+	}
+
+	@Benchmark
+	@Group("mpsc")
+	@GroupThreads(PRODUCERS)
+	public boolean offer(Producer producer) {
+		if (producer.offered - polled / PRODUCERS >= capacity) {
+			return false;
+		}
+		if (queue.offer(VALUE)) {
+			producer.offered++;
+			return true;
+		}
+		return false;
+	}
+
+	@Benchmark
+	@Group("mpsc")
+	@GroupThreads(1)
+	public Integer poll() {
+		Integer v = queue.poll();
+		if (v != null) {
+			polled++;
+		}
+		return v;
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.util.context;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the {@link Context} operations for contexts of 1 to 32 keys, notably past
+ * the 5 keys of the dedicated implementations. Run with {@code -prof gc} to compare the
+ * allocations per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(value = 1)
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ContextBenchmark {
+
+	@Param({"1", "2", "4", "8", "16", "32"})
+	int size;
+
+	Object[]                keys;
+	Context                 context;
+	Context                 fiveKeys;
+	ContextKey<Integer>[]   typedKeys;
+	Context                 typedContext;
+
+	@Setup
+	public void setup() {
+		keys = new Object[size];
+		Context c = Context.empty();
+		for (int i = 0; i < size; i++) {
+			keys[i] = "key" + i;
+			c = c.put(keys[i], i);
+		}
+		context = c;
+
+		@SuppressWarnings("unchecked")
+		ContextKey<Integer>[] typed = new ContextKey[size];
+		Context tc = Context.empty();
+		for (int i = 0; i < size; i++) {
+			typed[i] = ContextKey.of("key" + i);
+			tc = tc.put(typed[i], i);
+		}
+		typedKeys = typed;
+		typedContext = tc;
+
+		fiveKeys = Context.of("other1", 1, "other2", 2, "other3", 3, "other4", 4, "other5", 5);
+	}
+
+	@Benchmark
+	public Context putNewKey() {
+		return context.put("newKey", "value");
+	}
+
+	@Benchmark
+	public Context putExistingKey() {
+		return context.put(keys[size / 2], "value");
+	}
+
+	@Benchmark
+	public Context putAll() {
+		return context.putAll(fiveKeys);
+	}
+
+	@Benchmark
+	public Context delete() {
+		return context.delete(keys[size / 2]);
+	}
+
+	@Benchmark
+	public Object get() {
+		return context.get(keys[size / 2]);
+	}
+
+	@Benchmark
+	public Integer getTypedKey() {
+		return typedContext.get(typedKeys[size / 2]);
+	}
+
+	@Benchmark
+	public Context buildByPuts() {
+		Context c = Context.empty();
+		for (Object key : keys) {
+			c = c.put(key, key);
+		}
+		return c;
+	}
+}
@@ -96,6 +96,23 @@ public class ReactorBlockHoundIntegrationTest {
 		}
 	}
 
+	@Test
+	public void shouldNotReportIdleWorkStealingLanes() throws Exception {
+		Scheduler scheduler = Schedulers.newWorkStealing("idleLanes", 2);
+		try {
+			for (int i = 0; i < 10; i++) {
+				CompletableFuture<Object> future = new CompletableFuture<>();
+				scheduler.schedule(() -> future.complete(null));
+				future.get(1, TimeUnit.SECONDS);
+				//let the lanes park in between tasks
+				Thread.sleep(10);
+			}
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
 	void expectBlockingCall(String desc, Consumer<CompletableFuture<Object>> callable) {
 		Assertions
 				.assertThatThrownBy(() -> {
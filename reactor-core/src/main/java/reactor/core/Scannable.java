@@ -31,6 +31,7 @@ import java.util.stream.StreamSupport;
 import org.reactivestreams.Subscriber;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Scheduler.Worker;
+import reactor.core.scheduler.TaskMetrics;
 import reactor.util.annotation.Nullable;
 import reactor.util.function.Tuple2;
 
@@ -210,6 +211,12 @@ public interface Scannable {
 		 */
 		public static final Attr<Stream<Tuple2<String, String>>> TAGS = new Attr<>(null);
 
+		/**
+		 * A {@link TaskMetrics} snapshot of the tasks run by a {@link reactor.core.scheduler.Scheduler},
+		 * for the flavors that record them. Defaults to {@literal null}.
+		 */
+		public static final Attr<TaskMetrics> TASK_METRICS = new Attr<>(null);
+
 		/**
 		 * Meaningful and always applicable default value for the attribute, returned
 		 * instead of {@literal null} when a specific value hasn't been defined for a
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+/**
+ * Options for {@link Hooks#onOperatorDebug(DebugOptions)}, tuning how often and how
+ * the assembly call-site of operators is captured.
+ * <p>
+ * With a {@link #sampleRate(double) sample rate} lower than {@code 1}, only that
+ * fraction of the operator instantiations is decorated with an assembly traceback,
+ * the others being left untouched. This trades completeness of the tracebacks for an
+ * overhead low enough to keep the debug mode enabled in production.
+ * <p>
+ * Captured call-sites are additionally cached per user code location (class, method
+ * and bytecode index), so that operators repeatedly assembled from the same line of
+ * code share a single assembly snapshot rather than each retaining its own. This cache
+ * is only effective on Java 9+ and can be sized or disabled via
+ * {@link #callSiteCacheSize(int)}.
+ */
+public final class DebugOptions {
+
+	static final int DEFAULT_CALL_SITE_CACHE_SIZE = 4096;
+
+	/**
+	 * Capture the assembly call-site of a random fraction of the operator
+	 * instantiations, between {@code 0} (never) and {@code 1} (always).
+	 *
+	 * @param sampleRate the fraction of operator instantiations to trace
+	 * @return a new {@link DebugOptions}
+	 */
+	public static DebugOptions sampleRate(double sampleRate) {
+		if (!(sampleRate >= 0d && sampleRate <= 1d)) {
+			throw new IllegalArgumentException("sampleRate must be between 0 and 1, was: " + sampleRate);
+		}
+		return new DebugOptions(sampleRate, DEFAULT_CALL_SITE_CACHE_SIZE);
+	}
+
+	final double sampleRate;
+	final int    callSiteCacheSize;
+
+	DebugOptions(double sampleRate, int callSiteCacheSize) {
+		this.sampleRate = sampleRate;
+		this.callSiteCacheSize = callSiteCacheSize;
+	}
+
+	/**
+	 * Set the maximum number of distinct call-sites whose assembly snapshot is cached
+	 * and shared between operators assembled from the same location, {@code 0}
+	 * disabling the cache. Once full, the cache keeps its entries and new call-sites
+	 * are captured per operator. Defaults to {@value #DEFAULT_CALL_SITE_CACHE_SIZE}.
+	 *
+	 * @param callSiteCacheSize the maximum number of cached call-sites
+	 * @return a new {@link DebugOptions}
+	 */
+	public DebugOptions callSiteCacheSize(int callSiteCacheSize) {
+		if (callSiteCacheSize < 0) {
+			throw new IllegalArgumentException("callSiteCacheSize must be positive or zero, was: " + callSiteCacheSize);
+		}
+		return new DebugOptions(sampleRate, callSiteCacheSize);
+	}
+
+	/**
+	 * @return the fraction of operator instantiations that get traced
+	 */
+	public double getSampleRate() {
+		return sampleRate;
+	}
+
+	/**
+	 * @return the maximum number of cached call-sites, {@code 0} if caching is disabled
+	 */
+	public int getCallSiteCacheSize() {
+		return callSiteCacheSize;
+	}
+
+	@Override
+	public String toString() {
+		return "DebugOptions{sampleRate=" + sampleRate + ", callSiteCacheSize=" + callSiteCacheSize + '}';
+	}
+}
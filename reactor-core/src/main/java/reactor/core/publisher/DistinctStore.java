@@ -0,0 +1,561 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A strategy for tracking the keys already seen by
+ * {@link Flux#distinct(java.util.function.Function, DistinctStore)}, trading exactness
+ * for memory. Each {@link org.reactivestreams.Subscriber} gets its own store.
+ * <ul>
+ *     <li>{@link #hashSet()}: exact, keeps each key in an open-addressing hash set</li>
+ *     <li>{@link #longKeys()}: exact, keeps {@code long} keys unboxed</li>
+ *     <li>{@link #bloom(long, double)}: approximate, a fixed size bloom filter that
+ *     doesn't retain the keys but can falsely consider a new key as already seen</li>
+ *     <li>{@link #window(Duration, int, Scheduler)}: exact within a window, forgets keys
+ *     after a time to live and beyond a maximum number of keys</li>
+ * </ul>
+ *
+ * @param <K> the type of tracked keys
+ */
+public abstract class DistinctStore<K> {
+
+	/**
+	 * Track keys in an open-addressing hash set, which stores the keys in a single
+	 * array instead of allocating a node per key. This is the store used by default by
+	 * {@link Flux#distinct()} and {@link Flux#distinct(java.util.function.Function)}.
+	 *
+	 * @param <K> the type of tracked keys
+	 * @return a {@link DistinctStore} of keys compared by {@link Object#equals(Object)}
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K> DistinctStore<K> hashSet() {
+		return (DistinctStore<K>) HASH_SET;
+	}
+
+	/**
+	 * Track {@code long} keys in an open-addressing table of primitive {@code long},
+	 * which retains neither the boxed keys nor a node per key.
+	 *
+	 * @return a {@link DistinctStore} of {@code long} keys
+	 */
+	public static DistinctStore<Long> longKeys() {
+		return LONG_KEYS;
+	}
+
+	/**
+	 * Track keys approximately in a bloom filter, sized for the expected number of
+	 * distinct keys and the desired probability of false positives. The filter has a
+	 * fixed size and never retains the keys, but a key that was never seen before can be
+	 * considered as already seen, in which case the corresponding element is filtered
+	 * out. The filter hashes {@link Long} and {@link Double} keys on their full 64 bits
+	 * and other keys on their {@link Object#hashCode()}, so two keys of another type
+	 * with the same hash code are always considered duplicates of one another: use
+	 * {@link #bloom(long, double, ToLongFunction)} to provide a 64-bit hash for them.
+	 * <p>
+	 * Inserting more than {@code expectedInsertions} keys raises the probability of
+	 * false positives above {@code falsePositiveProbability}.
+	 *
+	 * @param expectedInsertions the expected number of distinct keys
+	 * @param falsePositiveProbability the desired probability of falsely considering a
+	 * new key as already seen, strictly between 0 and 1
+	 * @param <K> the type of tracked keys
+	 * @return an approximate {@link DistinctStore}
+	 */
+	public static <K> DistinctStore<K> bloom(long expectedInsertions, double falsePositiveProbability) {
+		return newBloom(expectedInsertions, falsePositiveProbability, null);
+	}
+
+	/**
+	 * Track keys approximately in a bloom filter, sized for the expected number of
+	 * distinct keys and the desired probability of false positives, deriving the bit
+	 * indexes of each key from the 64-bit hash computed by the given {@code hasher}.
+	 * Keys with the same 64-bit hash are always considered duplicates of one another.
+	 * <p>
+	 * Inserting more than {@code expectedInsertions} keys raises the probability of
+	 * false positives above {@code falsePositiveProbability}.
+	 *
+	 * @param expectedInsertions the expected number of distinct keys
+	 * @param falsePositiveProbability the desired probability of falsely considering a
+	 * new key as already seen, strictly between 0 and 1
+	 * @param hasher the {@link ToLongFunction} computing the 64-bit hash of a key
+	 * @param <K> the type of tracked keys
+	 * @return an approximate {@link DistinctStore}
+	 * @see #bloom(long, double)
+	 */
+	public static <K> DistinctStore<K> bloom(long expectedInsertions,
+			double falsePositiveProbability,
+			ToLongFunction<? super K> hasher) {
+		Objects.requireNonNull(hasher, "hasher");
+		return newBloom(expectedInsertions, falsePositiveProbability, hasher);
+	}
+
+	static <K> Bloom<K> newBloom(long expectedInsertions,
+			double falsePositiveProbability,
+			@Nullable ToLongFunction<? super K> hasher) {
+		if (expectedInsertions <= 0) {
+			throw new IllegalArgumentException("expectedInsertions > 0 required but it was " + expectedInsertions);
+		}
+		if (!(falsePositiveProbability > 0d && falsePositiveProbability < 1d)) {
+			throw new IllegalArgumentException("falsePositiveProbability must be between 0 and 1 (exclusive) but it was " + falsePositiveProbability);
+		}
+		return new Bloom<>(expectedInsertions, falsePositiveProbability, hasher);
+	}
+
+	/**
+	 * Track keys for a limited time and up to a maximum number of keys, so that an
+	 * infinite sequence can be deduplicated with bounded memory. A key is considered as
+	 * seen if it was last tracked less than {@code ttl} ago, as measured by the
+	 * {@link Scheduler#now(TimeUnit) clock} of the given {@link Scheduler}, and if it
+	 * wasn't evicted since to make room for newer keys: once {@code maxKeys} keys are
+	 * tracked, tracking a new key evicts the oldest tracked key. Duplicates don't
+	 * extend the time a key is tracked for.
+	 *
+	 * @param ttl the duration after which a tracked key is forgotten, strictly positive
+	 * @param maxKeys the maximum number of tracked keys, strictly positive
+	 * @param clock the {@link Scheduler} to read time from
+	 * @param <K> the type of tracked keys
+	 * @return a {@link DistinctStore} of recent keys
+	 */
+	public static <K> DistinctStore<K> window(Duration ttl, int maxKeys, Scheduler clock) {
+		Objects.requireNonNull(ttl, "ttl");
+		Objects.requireNonNull(clock, "clock");
+		if (ttl.isNegative() || ttl.isZero()) {
+			throw new IllegalArgumentException("ttl must be strictly positive but it was " + ttl);
+		}
+		if (maxKeys <= 0) {
+			throw new IllegalArgumentException("maxKeys > 0 required but it was " + maxKeys);
+		}
+		long ttlNanos;
+		try {
+			ttlNanos = ttl.toNanos();
+		}
+		catch (ArithmeticException overflow) {
+			ttlNanos = Long.MAX_VALUE;
+		}
+		return new Window<>(ttl, ttlNanos, maxKeys, clock);
+	}
+
+	DistinctStore() {
+	}
+
+	/**
+	 * @return a new empty {@link KeySet} for a single subscriber
+	 */
+	abstract KeySet<K> newKeySet();
+
+	/**
+	 * The per-subscriber tracking of seen keys.
+	 *
+	 * @param <K> the type of tracked keys
+	 */
+	interface KeySet<K> {
+
+		/**
+		 * Track the given key.
+		 *
+		 * @param key the key
+		 * @return true if the key was not seen before, false otherwise
+		 */
+		boolean add(K key);
+
+		/**
+		 * Forget all the tracked keys.
+		 */
+		void clear();
+	}
+
+	static final DistinctStore<Object> HASH_SET = new DistinctStore<Object>() {
+		@Override
+		KeySet<Object> newKeySet() {
+			return new OpenHashSet<>();
+		}
+
+		@Override
+		public String toString() {
+			return "DistinctStore.hashSet()";
+		}
+	};
+
+	static final DistinctStore<Long> LONG_KEYS = new DistinctStore<Long>() {
+		@Override
+		KeySet<Long> newKeySet() {
+			return new LongKeySet();
+		}
+
+		@Override
+		public String toString() {
+			return "DistinctStore.longKeys()";
+		}
+	};
+
+	static final class Bloom<K> extends DistinctStore<K> {
+
+		final long   expectedInsertions;
+		final double falsePositiveProbability;
+		final long   numBits;
+		final int    numHashes;
+		@Nullable
+		final ToLongFunction<? super K> hasher;
+
+		Bloom(long expectedInsertions,
+				double falsePositiveProbability,
+				@Nullable ToLongFunction<? super K> hasher) {
+			this.expectedInsertions = expectedInsertions;
+			this.falsePositiveProbability = falsePositiveProbability;
+			this.hasher = hasher;
+			double ln2 = Math.log(2);
+			long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (ln2 * ln2));
+			// at least one word, at most Integer.MAX_VALUE words
+			this.numBits = Math.min(Math.max(64L, (m + 63) & ~63L), ((long) Integer.MAX_VALUE) << 6);
+			this.numHashes = Math.max(1, (int) Math.round((double) numBits / expectedInsertions * ln2));
+		}
+
+		@Override
+		KeySet<K> newKeySet() {
+			return new BloomKeySet<>(numBits, numHashes, hasher);
+		}
+
+		@Override
+		public String toString() {
+			return "DistinctStore.bloom(" + expectedInsertions + ", " + falsePositiveProbability + ")";
+		}
+	}
+
+	static final class Window<K> extends DistinctStore<K> {
+
+		final Duration  ttl;
+		final long      ttlNanos;
+		final int       maxKeys;
+		final Scheduler clock;
+
+		Window(Duration ttl, long ttlNanos, int maxKeys, Scheduler clock) {
+			this.ttl = ttl;
+			this.ttlNanos = ttlNanos;
+			this.maxKeys = maxKeys;
+			this.clock = clock;
+		}
+
+		@Override
+		KeySet<K> newKeySet() {
+			return new WindowKeySet<>(ttlNanos, maxKeys, clock);
+		}
+
+		@Override
+		public String toString() {
+			return "DistinctStore.window(" + ttl + ", " + maxKeys + ")";
+		}
+	}
+
+	/**
+	 * Keys are tracked in an {@link OpenHashSet} and, in the order they were added, in a
+	 * ring buffer along with the time they were added at. As that order is also the order
+	 * of expiration, both expired keys and keys evicted for size are always at the head
+	 * of the ring, so that each key is added and removed once in {@code O(1)}.
+	 */
+	static final class WindowKeySet<K> implements KeySet<K> {
+
+		static final int INITIAL_CAPACITY = 16;
+
+		final long      ttlNanos;
+		final int       maxKeys;
+		final Scheduler clock;
+
+		final OpenHashSet<K> set;
+
+		Object[] ring;
+		long[]   times;
+		int      head;
+		int      size;
+
+		WindowKeySet(long ttlNanos, int maxKeys, Scheduler clock) {
+			this.ttlNanos = ttlNanos;
+			this.maxKeys = maxKeys;
+			this.clock = clock;
+			this.set = new OpenHashSet<>();
+			reset();
+		}
+
+		void reset() {
+			int c = Math.min(INITIAL_CAPACITY, maxKeys);
+			ring = new Object[c];
+			times = new long[c];
+			head = 0;
+			size = 0;
+		}
+
+		@Override
+		public boolean add(K key) {
+			long now = clock.now(TimeUnit.NANOSECONDS);
+			while (size != 0 && now - times[head] >= ttlNanos) {
+				evictHead();
+			}
+			if (!set.add(key)) {
+				return false;
+			}
+			if (size == maxKeys) {
+				evictHead();
+			}
+			else if (size == ring.length) {
+				grow();
+			}
+			int tail = head + size;
+			if (tail >= ring.length) {
+				tail -= ring.length;
+			}
+			ring[tail] = key;
+			times[tail] = now;
+			size++;
+			return true;
+		}
+
+		int size() {
+			return size;
+		}
+
+		void evictHead() {
+			Object[] r = ring;
+			int h = head;
+			set.remove(r[h]);
+			r[h] = null;
+			head = h + 1 == r.length ? 0 : h + 1;
+			size--;
+		}
+
+		void grow() {
+			Object[] r = ring;
+			long[] t = times;
+			int length = r.length;
+			int newLength = (int) Math.min((long) length << 1, maxKeys);
+			Object[] nr = new Object[newLength];
+			long[] nt = new long[newLength];
+			int first = length - head;
+			System.arraycopy(r, head, nr, 0, first);
+			System.arraycopy(r, 0, nr, first, head);
+			System.arraycopy(t, head, nt, 0, first);
+			System.arraycopy(t, 0, nt, first, head);
+			ring = nr;
+			times = nt;
+			head = 0;
+		}
+
+		@Override
+		public void clear() {
+			set.clear();
+			reset();
+		}
+	}
+
+	/**
+	 * A bloom filter over a 64-bit hash of keys, with the bit indexes derived from two
+	 * 64-bit mixes of the hash (double hashing). Without a {@code hasher}, {@link Long}
+	 * and {@link Double} keys are hashed on their bits and other keys on their
+	 * {@link Object#hashCode()}.
+	 */
+	static final class BloomKeySet<K> implements KeySet<K> {
+
+		final long[] bits;
+		final long   numBits;
+		final int    numHashes;
+		@Nullable
+		final ToLongFunction<? super K> hasher;
+
+		BloomKeySet(long numBits, int numHashes, @Nullable ToLongFunction<? super K> hasher) {
+			this.bits = new long[(int) (numBits >>> 6)];
+			this.numBits = numBits;
+			this.numHashes = numHashes;
+			this.hasher = hasher;
+		}
+
+		long hash(K key) {
+			ToLongFunction<? super K> hasher = this.hasher;
+			if (hasher != null) {
+				return hasher.applyAsLong(key);
+			}
+			if (key instanceof Long) {
+				return (Long) key;
+			}
+			if (key instanceof Double) {
+				return Double.doubleToLongBits((Double) key);
+			}
+			return key.hashCode();
+		}
+
+		@Override
+		public boolean add(K key) {
+			long h1 = mix64(hash(key));
+			long h2 = mix64(h1) | 1L;
+			long[] bits = this.bits;
+			boolean changed = false;
+
+			for (int i = 0; i < numHashes; i++) {
+				long index = ((h1 + i * h2) & Long.MAX_VALUE) % numBits;
+				int word = (int) (index >>> 6);
+				long mask = 1L << index;
+				long w = bits[word];
+				if ((w & mask) == 0L) {
+					bits[word] = w | mask;
+					changed = true;
+				}
+			}
+			return changed;
+		}
+
+		@Override
+		public void clear() {
+			Arrays.fill(bits, 0L);
+		}
+	}
+
+	/**
+	 * An open-addressing set of primitive {@code long} with linear probing, where
+	 * {@code 0} marks the empty slots and is tracked separately.
+	 */
+	static final class LongKeySet implements KeySet<Long> {
+
+		static final int   INITIAL_CAPACITY = 16;
+		static final int   MAX_CAPACITY     = 1 << 30;
+		static final float LOAD_FACTOR      = 0.75f;
+
+		long[]  keys;
+		int     mask;
+		int     maxSize;
+		int     size;
+		boolean hasZero;
+
+		LongKeySet() {
+			reset();
+		}
+
+		void reset() {
+			keys = new long[INITIAL_CAPACITY];
+			mask = INITIAL_CAPACITY - 1;
+			maxSize = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+			size = 0;
+			hasZero = false;
+		}
+
+		@Override
+		public boolean add(Long key) {
+			long k = key;
+			if (k == 0L) {
+				if (hasZero) {
+					return false;
+				}
+				hasZero = true;
+				return true;
+			}
+			long[] a = keys;
+			int m = mask;
+			int pos = mix(k) & m;
+			for (; ; ) {
+				long current = a[pos];
+				if (current == 0L) {
+					a[pos] = k;
+					if (++size >= maxSize) {
+						rehash();
+					}
+					return true;
+				}
+				if (current == k) {
+					return false;
+				}
+				pos = (pos + 1) & m;
+			}
+		}
+
+		boolean contains(long k) {
+			if (k == 0L) {
+				return hasZero;
+			}
+			long[] a = keys;
+			int m = mask;
+			int pos = mix(k) & m;
+			for (; ; ) {
+				long current = a[pos];
+				if (current == 0L) {
+					return false;
+				}
+				if (current == k) {
+					return true;
+				}
+				pos = (pos + 1) & m;
+			}
+		}
+
+		int size() {
+			return hasZero ? size + 1 : size;
+		}
+
+		void rehash() {
+			long[] a = keys;
+			int length = a.length;
+			if (length == MAX_CAPACITY) {
+				if (size >= length - 1) {
+					throw new IllegalStateException("LongKeySet is full");
+				}
+				maxSize = length - 1;
+				return;
+			}
+			int newLength = length << 1;
+			int m = newLength - 1;
+			long[] b = new long[newLength];
+
+			for (long k : a) {
+				if (k != 0L) {
+					int pos = mix(k) & m;
+					while (b[pos] != 0L) {
+						pos = (pos + 1) & m;
+					}
+					b[pos] = k;
+				}
+			}
+
+			this.keys = b;
+			this.mask = m;
+			this.maxSize = (int) (newLength * LOAD_FACTOR);
+		}
+
+		@Override
+		public void clear() {
+			reset();
+		}
+
+		static int mix(long k) {
+			long h = k * 0x9E3779B97F4A7C15L;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+
+	static long mix64(long h) {
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -39,9 +38,11 @@ import java.util.function.BiPredicate;
 import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.LongConsumer;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.logging.Level;
 import java.util.stream.Collector;
 import java.util.stream.Stream;
@@ -2430,6 +2431,23 @@ public abstract class Flux<T> implements CorePublisher<T> {
 		return transformer.apply(this);
 	}
 
+	/**
+	 * Convert this {@link Flux} into a {@link LongFlux} by applying a {@link ToLongFunction}
+	 * to each value, so that the operators applied downstream work on unboxed {@code long}
+	 * values.
+	 *
+	 * <blockquote><pre>
+	 * {@code flux.asLongFlux(Long::longValue).map(v -> v * 2).sum()}
+	 * </pre></blockquote>
+	 *
+	 * @param mapper the function converting each value to a {@code long}
+	 *
+	 * @return a {@link LongFlux} of the converted values
+	 */
+	public final LongFlux asLongFlux(ToLongFunction<? super T> mapper) {
+		return LongFlux.from(this, mapper);
+	}
+
 	/**
 	 * Subscribe to this {@link Flux} and <strong>block indefinitely</strong>
 	 * until the upstream signals its first value or completes. Returns that value,
@@ -2573,6 +2591,66 @@ public abstract class Flux<T> implements CorePublisher<T> {
 		return onAssembly(new FluxBuffer<>(this, maxSize, bufferSupplier));
 	}
 
+	/**
+	 * Collect incoming values into multiple arrays that will be emitted by the returned
+	 * {@link Flux} each time the given max size is reached or once this Flux completes.
+	 * Arrays are allocated once with their final size, rather than grown as values are
+	 * collected, and the last array is trimmed to the number of remaining values.
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/bufferWithMaxSize.svg" alt="">
+	 *
+	 * @reactor.discard This operator discards the currently open buffer upon cancellation or error triggered by a data signal,
+	 * as well as latest unbuffered element if the arrayFactory fails.
+	 *
+	 * @param maxSize the maximum collected size
+	 * @param arrayFactory the function creating the arrays, eg. {@code String[]::new}, which
+	 * is invoked with {@code maxSize} and must return an array of that length
+	 *
+	 * @return a microbatched {@link Flux} of arrays
+	 */
+	public final Flux<T[]> bufferArray(int maxSize, IntFunction<T[]> arrayFactory) {
+		return onAssembly(new FluxBufferArray<>(this, maxSize, arrayFactory));
+	}
+
+	/**
+	 * Collect incoming values into multiple {@link PooledBuffer} that will be emitted
+	 * by the returned {@link Flux} each time the given max size is reached or once this
+	 * Flux completes. Buffers that are {@link PooledBuffer#release() released} once
+	 * processed are reused, up to {@link Queues#XS_BUFFER_SIZE} of them.
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/bufferWithMaxSize.svg" alt="">
+	 *
+	 * @reactor.discard This operator discards the currently open buffer upon cancellation or error triggered by a data signal.
+	 *
+	 * @param maxSize the maximum collected size
+	 *
+	 * @return a microbatched {@link Flux} of {@link PooledBuffer}
+	 * @see #bufferPooled(int, int)
+	 */
+	public final Flux<PooledBuffer<T>> bufferPooled(int maxSize) {
+		return bufferPooled(maxSize, Queues.XS_BUFFER_SIZE);
+	}
+
+	/**
+	 * Collect incoming values into multiple {@link PooledBuffer} that will be emitted
+	 * by the returned {@link Flux} each time the given max size is reached or once this
+	 * Flux completes. Buffers that are {@link PooledBuffer#release() released} once
+	 * processed are kept in a pool of the given size, from which subsequent buffers are
+	 * taken before allocating new ones. Buffers must not be accessed after being released.
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/bufferWithMaxSize.svg" alt="">
+	 *
+	 * @reactor.discard This operator discards the currently open buffer upon cancellation or error triggered by a data signal.
+	 *
+	 * @param maxSize the maximum collected size
+	 * @param poolSize the maximum number of released buffers kept for reuse
+	 *
+	 * @return a microbatched {@link Flux} of {@link PooledBuffer}
+	 */
+	public final Flux<PooledBuffer<T>> bufferPooled(int maxSize, int poolSize) {
+		return onAssembly(new FluxBufferPooled<>(this, maxSize, poolSize));
+	}
+
 	/**
 	 * Collect incoming values into multiple {@link List} buffers that will be emitted
 	 * by the returned {@link Flux} each time the given max size is reached or once this
@@ -4113,10 +4191,13 @@ public abstract class Flux<T> implements CorePublisher<T> {
 	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
 	 * seen and filter out duplicates.
 	 * <p>
-	 * The values themselves are recorded into a {@link HashSet} for distinct detection.
+	 * The values themselves are recorded into an open-addressing hash set (see
+	 * {@link DistinctStore#hashSet()}) for distinct detection.
 	 * Use {@code distinct(Object::hashcode)} if you want a more lightweight approach that
 	 * doesn't retain all the objects, but is more susceptible to falsely considering two
-	 * elements as distinct due to a hashcode collision.
+	 * elements as distinct due to a hashcode collision, or
+	 * {@link #distinct(Function, DistinctStore)} with a {@link DistinctStore#bloom(long, double)}
+	 * for an approximate approach with a fixed memory footprint.
 	 *
 	 * <p>
 	 * <img class="marble" src="doc-files/marbles/distinct.svg" alt="">
@@ -4134,7 +4215,8 @@ public abstract class Flux<T> implements CorePublisher<T> {
 	/**
 	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
 	 * seen and filter out duplicates, as compared by a key extracted through the user
-	 * provided {@link Function}.
+	 * provided {@link Function}. The keys are recorded into an open-addressing hash set
+	 * (see {@link DistinctStore#hashSet()}).
 	 *
 	 * <p>
 	 * <img class="marble" src="doc-files/marbles/distinctWithKey.svg" alt="">
@@ -4152,6 +4234,89 @@ public abstract class Flux<T> implements CorePublisher<T> {
 		return distinct(keySelector, hashSetSupplier());
 	}
 
+	/**
+	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
+	 * seen and filter out duplicates, as compared by a key extracted through the user
+	 * provided {@link Function} and tracked in a store created by the given
+	 * {@link DistinctStore} strategy: {@link DistinctStore#longKeys()} for unboxed
+	 * {@code long} keys or {@link DistinctStore#bloom(long, double)} for approximate
+	 * distinct detection in a fixed amount of memory.
+	 *
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/distinctWithKey.svg" alt="">
+	 *
+	 * @reactor.discard This operator discards elements that don't match the distinct predicate,
+	 * including those falsely considered as seen by an approximate {@link DistinctStore}.
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param store the {@link DistinctStore} strategy used to track seen keys
+	 *
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with distinct keys
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			DistinctStore<V> store) {
+		Objects.requireNonNull(store, "store");
+		return this.distinct(keySelector, store::newKeySet, DistinctStore.KeySet::add,
+				DistinctStore.KeySet::clear);
+	}
+
+	/**
+	 * For each {@link Subscriber}, filter out elements from this {@link Flux} whose key,
+	 * as extracted through the user provided {@link Function}, was recently seen: a key
+	 * is remembered for the given {@code ttl} after the element that introduced it was
+	 * emitted, as measured by the {@link Schedulers#parallel() parallel} scheduler, and
+	 * at most {@code maxKeys} keys are remembered at once (the oldest being forgotten
+	 * first). This allows deduplicating an infinite sequence with bounded memory.
+	 * See {@link DistinctStore#window(Duration, int, Scheduler)}.
+	 *
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/distinctWithKey.svg" alt="">
+	 *
+	 * @reactor.discard This operator discards elements that don't match the distinct predicate.
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param ttl the duration for which a key is remembered, strictly positive
+	 * @param maxKeys the maximum number of keys remembered at once, strictly positive
+	 *
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with keys that weren't recently seen
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			Duration ttl, int maxKeys) {
+		return distinct(keySelector, ttl, maxKeys, Schedulers.parallel());
+	}
+
+	/**
+	 * For each {@link Subscriber}, filter out elements from this {@link Flux} whose key,
+	 * as extracted through the user provided {@link Function}, was recently seen: a key
+	 * is remembered for the given {@code ttl} after the element that introduced it was
+	 * emitted, as measured by the provided {@link Scheduler}, and at most
+	 * {@code maxKeys} keys are remembered at once (the oldest being forgotten first).
+	 * This allows deduplicating an infinite sequence with bounded memory.
+	 * See {@link DistinctStore#window(Duration, int, Scheduler)}.
+	 *
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/distinctWithKey.svg" alt="">
+	 *
+	 * @reactor.discard This operator discards elements that don't match the distinct predicate.
+	 *
+	 * @param keySelector function to compute comparison key for each element
+	 * @param ttl the duration for which a key is remembered, strictly positive
+	 * @param maxKeys the maximum number of keys remembered at once, strictly positive
+	 * @param timer a {@link Scheduler} instance to {@link Scheduler#now(TimeUnit) read time from}
+	 *
+	 * @param <V> the type of the key extracted from each value in this sequence
+	 *
+	 * @return a filtering {@link Flux} only emitting values with keys that weren't recently seen
+	 */
+	public final <V> Flux<T> distinct(Function<? super T, ? extends V> keySelector,
+			Duration ttl, int maxKeys, Scheduler timer) {
+		return distinct(keySelector, DistinctStore.window(ttl, maxKeys, timer));
+	}
+
 	/**
 	 * For each {@link Subscriber}, track elements from this {@link Flux} that have been
 	 * seen and filter out duplicates, as compared by a key extracted through the user
@@ -5469,6 +5634,66 @@ public abstract class Flux<T> implements CorePublisher<T> {
 				Queues.unbounded(prefetch), prefetch));
 	}
 
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique key, as produced by the provided keyMapper {@link Function}, bounding the
+	 * number of live groups as configured by the {@link GroupBySpec} (see {@link GroupByOptions}).
+	 * This suits a high cardinality of keys: groups that stay idle for the
+	 * {@link GroupBySpec#idleTimeout(Duration) idle timeout}, or the least recently active
+	 * group when a new group would exceed {@link GroupBySpec#maxGroups(int) maxGroups},
+	 * are completed once they have emitted the values they already received. A later value
+	 * with the key of an evicted group opens a new group for that key.
+	 *
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/groupByWithKeyMapper.svg" alt="">
+	 *
+	 * <p>
+	 * The groups need to be drained and consumed downstream for groupBy to work correctly.
+	 *
+	 * @param keyMapper the key mapping {@link Function} that evaluates an incoming data and returns a key.
+	 * @param options the {@link GroupBySpec} bounding the live groups
+	 * @param <K> the key type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <K> Flux<GroupedFlux<K, T>> groupBy(Function<? super T, ? extends K> keyMapper,
+			GroupBySpec options) {
+		return groupBy(keyMapper, identityFunction(), options);
+	}
+
+	/**
+	 * Divide this sequence into dynamically created {@link Flux} (or groups) for each
+	 * unique key, as produced by the provided keyMapper {@link Function}, bounding the
+	 * number of live groups as configured by the {@link GroupBySpec} (see {@link GroupByOptions}).
+	 * Source elements are also mapped to a different value using the {@code valueMapper}.
+	 * This suits a high cardinality of keys: groups that stay idle for the
+	 * {@link GroupBySpec#idleTimeout(Duration) idle timeout}, or the least recently active
+	 * group when a new group would exceed {@link GroupBySpec#maxGroups(int) maxGroups},
+	 * are completed once they have emitted the values they already received. A later value
+	 * with the key of an evicted group opens a new group for that key.
+	 *
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/groupByWithKeyMapperAndValueMapper.svg" alt="">
+	 *
+	 * <p>
+	 * The groups need to be drained and consumed downstream for groupBy to work correctly.
+	 *
+	 * @param keyMapper the key mapping function that evaluates an incoming data and returns a key.
+	 * @param valueMapper the value mapping function that evaluates which data to extract for re-routing.
+	 * @param options the {@link GroupBySpec} bounding the live groups
+	 * @param <K> the key type extracted from each value of this sequence
+	 * @param <V> the value type extracted from each value of this sequence
+	 *
+	 * @return a {@link Flux} of {@link GroupedFlux} grouped sequences
+	 */
+	public final <K, V> Flux<GroupedFlux<K, V>> groupBy(Function<? super T, ? extends K> keyMapper,
+			Function<? super T, ? extends V> valueMapper, GroupBySpec options) {
+		return onAssembly(new FluxGroupBy<>(this, keyMapper, valueMapper,
+				Queues.unbounded(Queues.SMALL_BUFFER_SIZE),
+				Queues.unbounded(Queues.SMALL_BUFFER_SIZE), Queues.SMALL_BUFFER_SIZE,
+				Objects.requireNonNull(options, "options")));
+	}
+
 	/**
 	 * Map values from two Publishers into time windows and emit combination of values
 	 * in case their windows overlap. The emitted elements are obtained by passing the
@@ -6728,6 +6953,55 @@ public abstract class Flux<T> implements CorePublisher<T> {
 				Queues.get(prefetch));
 	}
 
+	/**
+	 * Prepare this {@link Flux} by dividing data on a number of 'rails' matching the
+	 * provided {@code parallelism} parameter, routing each value to the rail matching the
+	 * hash of the key extracted from it. All values sharing a key thus go through the same
+	 * rail, in their original order, which makes per-rail aggregations like
+	 * {@link ParallelFlux#reduce(java.util.function.BiFunction) reduce},
+	 * {@link ParallelFlux#collect(Supplier, BiConsumer) collect} or {@link ParallelFlux#groups() groups}
+	 * partitioned by key, without the per-group queues of {@link #groupBy(Function)}.
+	 * Note that to actually perform the work in parallel, you should call
+	 * {@link ParallelFlux#runOn(Scheduler)} afterward.
+	 * <p>
+	 * Unlike the round-robin {@link #parallel(int)}, a rail that doesn't request can hold
+	 * the other rails back once the values routed to it fill up the prefetch.
+	 *
+	 * @param parallelism the number of parallel rails
+	 * @param keyExtractor the function extracting the partitioning key from each value
+	 *
+	 * @return a new {@link ParallelFlux} instance
+	 */
+	public final ParallelFlux<T> parallel(int parallelism, Function<? super T, ?> keyExtractor) {
+		return parallel(parallelism, Queues.SMALL_BUFFER_SIZE, keyExtractor);
+	}
+
+	/**
+	 * Prepare this {@link Flux} by dividing data on a number of 'rails' matching the
+	 * provided {@code parallelism} parameter, routing each value to the rail matching the
+	 * hash of the key extracted from it, and using a custom prefetch amount for dealing
+	 * with the source {@link Flux}'s values. All values sharing a key thus go through the
+	 * same rail, in their original order. Note that to actually perform the work in
+	 * parallel, you should call {@link ParallelFlux#runOn(Scheduler)} afterward.
+	 * <p>
+	 * At most {@code prefetch} values are buffered across all the rails, so a rail that
+	 * doesn't request can hold the other rails back once the values routed to it fill
+	 * up the prefetch.
+	 *
+	 * @param parallelism the number of parallel rails
+	 * @param prefetch the number of values to prefetch from the source
+	 * @param keyExtractor the function extracting the partitioning key from each value
+	 *
+	 * @return a new {@link ParallelFlux} instance
+	 */
+	public final ParallelFlux<T> parallel(int parallelism, int prefetch, Function<? super T, ?> keyExtractor) {
+		return ParallelFlux.onAssembly(new ParallelPartitionSource<>(this,
+				keyExtractor,
+				parallelism,
+				prefetch,
+				Queues.get(prefetch)));
+	}
+
 	/**
 	 * Prepare a {@link ConnectableFlux} which shares this {@link Flux} sequence and
 	 * dispatches values to subscribers in a backpressure-aware manner. Prefetch will
@@ -6887,6 +7161,42 @@ public abstract class Flux<T> implements CorePublisher<T> {
 		return publishOn(scheduler, delayError, prefetch, prefetch);
 	}
 
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Worker}, prefetching according to the given {@link PrefetchPolicy}.
+	 * <p>
+	 * This operator influences the threading context where the rest of the operators in
+	 * the chain below it will execute, up to a new occurrence of {@code publishOn}.
+	 * <p>
+	 * <img class="marble" src="doc-files/marbles/publishOnForFlux.svg" alt="">
+	 * <p>
+	 * With {@link PrefetchPolicy#adaptive()}, the boundary starts with a small prefetch
+	 * and buffer, grows them when the consumer keeps up with the producer so that
+	 * requests are amortized over larger batches, and shrinks them back when the
+	 * consumer is the slower side.
+	 * <blockquote><pre>
+	 * {@code flux.publishOn(Schedulers.single(), PrefetchPolicy.adaptive()).subscribe() }
+	 * </pre></blockquote>
+	 *
+	 * @reactor.discard This operator discards elements it internally queued for backpressure upon cancellation or error triggered by a data signal.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Worker} where to publish
+	 * @param prefetchPolicy the {@link PrefetchPolicy} of the asynchronous boundary
+	 *
+	 * @return a {@link Flux} producing asynchronously
+	 */
+	public final Flux<T> publishOn(Scheduler scheduler, PrefetchPolicy prefetchPolicy) {
+		if (!prefetchPolicy.isAdaptive()) {
+			return publishOn(scheduler, prefetchPolicy.minPrefetch());
+		}
+		if (this instanceof Callable) {
+			return publishOn(scheduler, true, prefetchPolicy.minPrefetch(), prefetchPolicy.minPrefetch());
+		}
+		return onAssembly(new FluxPublishOn<>(this, scheduler, true, prefetchPolicy.minPrefetch(),
+				prefetchPolicy.maxPrefetch(), prefetchPolicy.minPrefetch(),
+				Queues.unbounded(prefetchPolicy.minPrefetch())));
+	}
+
 	final Flux<T> publishOn(Scheduler scheduler, boolean delayError, int prefetch, int lowTide) {
 		if (this instanceof Callable) {
 			if (this instanceof Fuseable.ScalarCallable) {
@@ -9867,8 +10177,10 @@ public abstract class Flux<T> implements CorePublisher<T> {
 			source = (Flux<T>) hook.apply(source);
 		}
 		if (Hooks.GLOBAL_TRACE) {
-			AssemblySnapshot stacktrace = new AssemblySnapshot(null, Traces.callSiteSupplierFactory.get());
-			source = (Flux<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			AssemblySnapshot stacktrace = Hooks.captureAssembly();
+			if (stacktrace != null) {
+				source = (Flux<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			}
 		}
 		return source;
 	}
@@ -9913,8 +10225,10 @@ public abstract class Flux<T> implements CorePublisher<T> {
 			source = (ConnectableFlux<T>) hook.apply(source);
 		}
 		if (Hooks.GLOBAL_TRACE) {
-			AssemblySnapshot stacktrace = new AssemblySnapshot(null, Traces.callSiteSupplierFactory.get());
-			source = (ConnectableFlux<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			AssemblySnapshot stacktrace = Hooks.captureAssembly();
+			if (stacktrace != null) {
+				source = (ConnectableFlux<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			}
 		}
 		return source;
 	}
@@ -10147,7 +10461,7 @@ public abstract class Flux<T> implements CorePublisher<T> {
 	@SuppressWarnings("rawtypes")
 	static final Supplier        LIST_SUPPLIER           = ArrayList::new;
 	@SuppressWarnings("rawtypes")
-	static final Supplier        SET_SUPPLIER            = HashSet::new;
+	static final Supplier        SET_SUPPLIER            = OpenHashSet::new;
 	static final BooleanSupplier ALWAYS_BOOLEAN_SUPPLIER = () -> true;
 	static final BiPredicate     OBJECT_EQUAL            = Object::equals;
 	@SuppressWarnings("rawtypes")
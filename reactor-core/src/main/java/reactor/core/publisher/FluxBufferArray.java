@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Buffers a certain number of subsequent elements into arrays of that exact size and
+ * emits them, the last array being trimmed to the number of remaining elements.
+ *
+ * @param <T> the source value type
+ * @see FluxBuffer
+ */
+final class FluxBufferArray<T> extends InternalFluxOperator<T, T[]> {
+
+	final int size;
+
+	final IntFunction<T[]> arrayFactory;
+
+	FluxBufferArray(Flux<? extends T> source, int size, IntFunction<T[]> arrayFactory) {
+		super(source);
+		if (size <= 0) {
+			throw new IllegalArgumentException("size > 0 required but it was " + size);
+		}
+		this.size = size;
+		this.arrayFactory = Objects.requireNonNull(arrayFactory, "arrayFactory");
+	}
+
+	@Override
+	public CoreSubscriber<? super T> subscribeOrReturn(CoreSubscriber<? super T[]> actual) {
+		return new BufferArraySubscriber<>(actual, size, arrayFactory);
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PREFETCH) return size;
+
+		return super.scanUnsafe(key);
+	}
+
+	static final class BufferArraySubscriber<T> implements InnerOperator<T, T[]> {
+
+		final CoreSubscriber<? super T[]> actual;
+
+		final IntFunction<T[]> arrayFactory;
+
+		final int size;
+
+		T[] buffer;
+
+		int index;
+
+		Subscription s;
+
+		boolean done;
+
+		BufferArraySubscriber(CoreSubscriber<? super T[]> actual,
+				int size,
+				IntFunction<T[]> arrayFactory) {
+			this.actual = actual;
+			this.size = size;
+			this.arrayFactory = arrayFactory;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				s.request(Operators.multiplyCap(n, size));
+			}
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+			discardBuffer();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t, actual.currentContext());
+				return;
+			}
+
+			T[] b = buffer;
+			if (b == null) {
+				try {
+					b = Objects.requireNonNull(arrayFactory.apply(size),
+							"The arrayFactory returned a null array");
+					if (b.length != size) {
+						throw new IllegalStateException("The arrayFactory returned an array of length " +
+								b.length + " instead of " + size);
+					}
+				}
+				catch (Throwable e) {
+					Context ctx = actual.currentContext();
+					onError(Operators.onOperatorError(s, e, t, ctx));
+					Operators.onDiscard(t, ctx); //this is in no buffer
+					return;
+				}
+				buffer = b;
+			}
+
+			int i = index;
+			b[i++] = t;
+
+			if (i == size) {
+				buffer = null;
+				index = 0;
+				actual.onNext(b);
+			}
+			else {
+				index = i;
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+			discardBuffer();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			T[] b = buffer;
+
+			if (b != null && index != 0) {
+				buffer = null;
+				actual.onNext(Arrays.copyOf(b, index));
+			}
+			actual.onComplete();
+		}
+
+		void discardBuffer() {
+			T[] b = buffer;
+			if (b != null) {
+				buffer = null;
+				Operators.onDiscardMultiple(Arrays.asList(b).subList(0, index), actual.currentContext());
+			}
+		}
+
+		@Override
+		public CoreSubscriber<? super T[]> actual() {
+			return actual;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+			if (key == Attr.BUFFERED) return buffer != null ? index : 0;
+			if (key == Attr.CAPACITY) return size;
+			if (key == Attr.PREFETCH) return size;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Queue;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Buffers a certain number of subsequent elements into {@link PooledBuffer} and emits
+ * them. Buffers {@link PooledBuffer#release() released} by downstream go back to a
+ * bounded pool that is polled before allocating new buffers.
+ * <p>
+ * Buffers are only taken from the pool by the thread signalling {@code onNext}, while
+ * they can be released by any thread: the pool is thus a bounded MPSC queue.
+ *
+ * @param <T> the source value type
+ * @see FluxBuffer
+ */
+final class FluxBufferPooled<T> extends InternalFluxOperator<T, PooledBuffer<T>> {
+
+	final int size;
+
+	final int poolSize;
+
+	FluxBufferPooled(Flux<? extends T> source, int size, int poolSize) {
+		super(source);
+		if (size <= 0) {
+			throw new IllegalArgumentException("size > 0 required but it was " + size);
+		}
+		if (poolSize <= 0) {
+			throw new IllegalArgumentException("poolSize > 0 required but it was " + poolSize);
+		}
+		this.size = size;
+		this.poolSize = poolSize;
+	}
+
+	@Override
+	public CoreSubscriber<? super T> subscribeOrReturn(CoreSubscriber<? super PooledBuffer<T>> actual) {
+		return new BufferPooledSubscriber<>(actual, size, Queues.<PooledBuffer<T>>mpscArray(poolSize).get());
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PREFETCH) return size;
+
+		return super.scanUnsafe(key);
+	}
+
+	static final class BufferPooledSubscriber<T> implements InnerOperator<T, PooledBuffer<T>> {
+
+		final CoreSubscriber<? super PooledBuffer<T>> actual;
+
+		final Queue<PooledBuffer<T>> pool;
+
+		final int size;
+
+		PooledBuffer<T> buffer;
+
+		Subscription s;
+
+		boolean done;
+
+		BufferPooledSubscriber(CoreSubscriber<? super PooledBuffer<T>> actual,
+				int size,
+				Queue<PooledBuffer<T>> pool) {
+			this.actual = actual;
+			this.size = size;
+			this.pool = pool;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				s.request(Operators.multiplyCap(n, size));
+			}
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+			discardBuffer();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t, actual.currentContext());
+				return;
+			}
+
+			PooledBuffer<T> b = buffer;
+			if (b == null) {
+				b = pool.poll();
+				if (b == null) {
+					b = new PooledBuffer<>(size, pool);
+				}
+				else {
+					b.reuse();
+				}
+				buffer = b;
+			}
+
+			b.append(t);
+
+			if (b.isFull()) {
+				buffer = null;
+				actual.onNext(b);
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+			discardBuffer();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			PooledBuffer<T> b = buffer;
+
+			if (b != null && !b.isEmpty()) {
+				buffer = null;
+				actual.onNext(b);
+			}
+			actual.onComplete();
+		}
+
+		void discardBuffer() {
+			PooledBuffer<T> b = buffer;
+			if (b != null) {
+				buffer = null;
+				Operators.onDiscardMultiple(b, actual.currentContext());
+				b.clearElements();
+			}
+		}
+
+		@Override
+		public CoreSubscriber<? super PooledBuffer<T>> actual() {
+			return actual;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+			if (key == Attr.BUFFERED) {
+				PooledBuffer<T> b = buffer;
+				return b != null ? b.size() : 0;
+			}
+			if (key == Attr.CAPACITY) return size;
+			if (key == Attr.PREFETCH) return size;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+	}
+}
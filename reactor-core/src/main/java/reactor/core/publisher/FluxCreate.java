@@ -133,7 +133,7 @@ final class FluxCreate<T> extends Flux<T> implements SourceProducer<T> {
 
 		SerializedSink(BaseSink<T> sink) {
 			this.sink = sink;
-			this.mpscQueue = Queues.<T>unboundedMultiproducer().get();
+			this.mpscQueue = Queues.<T>mpscUnboundedArray(Queues.XS_BUFFER_SIZE).get();
 		}
 
 		@Override
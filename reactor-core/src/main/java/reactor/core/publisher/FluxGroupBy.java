@@ -16,10 +16,16 @@
 
 package reactor.core.publisher;
 
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
@@ -30,10 +36,14 @@ import java.util.stream.Stream;
 import org.reactivestreams.Subscriber;
 import org.reactivestreams.Subscription;
 import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
 import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
 import reactor.util.context.Context;
 
 /**
@@ -58,12 +68,25 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 	final int prefetch;
 
+	@Nullable
+	final GroupBySpec options;
+
 	FluxGroupBy(Flux<? extends T> source,
 			Function<? super T, ? extends K> keySelector,
 			Function<? super T, ? extends V> valueSelector,
 			Supplier<? extends Queue<GroupedFlux<K, V>>> mainQueueSupplier,
 			Supplier<? extends Queue<V>> groupQueueSupplier,
 			int prefetch) {
+		this(source, keySelector, valueSelector, mainQueueSupplier, groupQueueSupplier, prefetch, null);
+	}
+
+	FluxGroupBy(Flux<? extends T> source,
+			Function<? super T, ? extends K> keySelector,
+			Function<? super T, ? extends V> valueSelector,
+			Supplier<? extends Queue<GroupedFlux<K, V>>> mainQueueSupplier,
+			Supplier<? extends Queue<V>> groupQueueSupplier,
+			int prefetch,
+			@Nullable GroupBySpec options) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
@@ -75,6 +98,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 		this.groupQueueSupplier =
 				Objects.requireNonNull(groupQueueSupplier, "groupQueueSupplier");
 		this.prefetch = prefetch;
+		this.options = options;
 	}
 
 	@Override
@@ -83,7 +107,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 				mainQueueSupplier.get(),
 				groupQueueSupplier,
 				prefetch,
-				keySelector, valueSelector);
+				keySelector, valueSelector, options);
 	}
 
 	@Override
@@ -102,6 +126,8 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 		final int                                       prefetch;
 		final Map<K, UnicastGroupedFlux<K, V>>          groupMap;
 		final CoreSubscriber<? super GroupedFlux<K, V>> actual;
+		@Nullable
+		final GroupEviction<K, V>                       eviction;
 
 		volatile int wip;
 
@@ -142,6 +168,16 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 				int prefetch,
 				Function<? super T, ? extends K> keySelector,
 				Function<? super T, ? extends V> valueSelector) {
+			this(actual, queue, groupQueueSupplier, prefetch, keySelector, valueSelector, null);
+		}
+
+		GroupByMain(CoreSubscriber<? super GroupedFlux<K, V>> actual,
+				Queue<GroupedFlux<K, V>> queue,
+				Supplier<? extends Queue<V>> groupQueueSupplier,
+				int prefetch,
+				Function<? super T, ? extends K> keySelector,
+				Function<? super T, ? extends V> valueSelector,
+				@Nullable GroupBySpec options) {
 			this.actual = actual;
 			this.queue = queue;
 			this.groupQueueSupplier = groupQueueSupplier;
@@ -149,6 +185,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			this.groupMap = new ConcurrentHashMap<>();
 			this.keySelector = keySelector;
 			this.valueSelector = valueSelector;
+			this.eviction = options != null ? new GroupEviction<>(this, options) : null;
 			GROUP_COUNT.lazySet(this, 1);
 		}
 
@@ -162,6 +199,9 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			if (Operators.validate(this.s, s)) {
 				this.s = s;
 				actual.onSubscribe(this);
+				if (eviction != null) {
+					eviction.start();
+				}
 				s.request(Operators.unboundedOrPrefetch(prefetch));
 			}
 		}
@@ -185,6 +225,11 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 				return;
 			}
 
+			if (eviction != null) {
+				eviction.onNext(key, value);
+				return;
+			}
+
 			UnicastGroupedFlux<K, V> g = groupMap.get(key);
 
 			if (g == null) {
@@ -222,6 +267,9 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			if(done){
 				return;
 			}
+			if (eviction != null) {
+				eviction.terminate();
+			}
 			for (UnicastGroupedFlux<K, V> g : groupMap.values()) {
 				g.onComplete();
 			}
@@ -255,6 +303,9 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 				e = new IllegalStateException("FluxGroupBy.signalAsyncError called without error set");
 			}
 			groupCount = 0;
+			if (eviction != null) {
+				eviction.terminate();
+			}
 			for (UnicastGroupedFlux<K, V> g : groupMap.values()) {
 				g.onError(e);
 			}
@@ -274,7 +325,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 		public void cancel() {
 			if (CANCELLED.compareAndSet(this, 0, 1)) {
 				if (GROUP_COUNT.decrementAndGet(this) == 0) {
-					s.cancel();
+					cancelUpstream();
 				}
 				else if (!enableAsyncFusion) {
 						if (WIP.getAndIncrement(this) == 0) {
@@ -294,13 +345,25 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			}
 		}
 
-		void groupTerminated(K key) {
+		void groupTerminated(UnicastGroupedFlux<K, V> g) {
 			if (groupCount == 0) {
 				return;
 			}
-			groupMap.remove(key);
+			if (eviction != null) {
+				eviction.remove(g);
+			}
+			else {
+				groupMap.remove(g.key, g);
+			}
 			if (GROUP_COUNT.decrementAndGet(this) == 0) {
-				s.cancel();
+				cancelUpstream();
+			}
+		}
+
+		void cancelUpstream() {
+			s.cancel();
+			if (eviction != null) {
+				eviction.terminate();
 			}
 		}
 
@@ -509,21 +572,88 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 		int produced;
 
+		/**
+		 * The eviction the queue is offered back to once the group is terminated and
+		 * nothing polls it anymore, null unless the groups are bounded by a
+		 * {@link GroupBySpec}.
+		 */
+		@Nullable
+		final GroupEviction<K, V> eviction;
+
+		/**
+		 * The time of the last value, guarded by the {@link GroupEviction} lock.
+		 */
+		long lastActive;
+
+		/**
+		 * The parent of an evicted group, which still needs to replenish the values
+		 * it drains after {@link #doTerminate()}.
+		 */
+		@Nullable
+		GroupByMain<?, K, V> evictedFrom;
+
+		boolean recycled;
+
 		UnicastGroupedFlux(K key,
 				Queue<V> queue,
 				GroupByMain<?, K, V> parent,
 				int prefetch) {
+			this(key, queue, parent, prefetch, null);
+		}
+
+		UnicastGroupedFlux(K key,
+				Queue<V> queue,
+				GroupByMain<?, K, V> parent,
+				int prefetch,
+				@Nullable GroupEviction<K, V> eviction) {
 			this.key = key;
 			this.queue = queue;
 			this.context = parent.currentContext();
 			this.parent = parent;
 			this.limit = Operators.unboundedOrLimit(prefetch);
+			this.eviction = eviction;
 		}
 
 		void doTerminate() {
 			GroupByMain<?, K, V> r = parent;
 			if (r != null && PARENT.compareAndSet(this, r, null)) {
-				r.groupTerminated(key);
+				r.groupTerminated(this);
+			}
+		}
+
+		/**
+		 * Complete this group once it drained the values it already received, without
+		 * giving up the replenishment of these values from the parent.
+		 */
+		void evict() {
+			evictedFrom = parent;
+			onComplete();
+		}
+
+		/**
+		 * Clear the queue, offering it back to the {@link GroupEviction} pool if any so
+		 * that a new group can reuse it: this must be the last access to the queue.
+		 */
+		void discardQueue() {
+			GroupEviction<K, V> e = eviction;
+			if (e == null) {
+				queue.clear();
+			}
+			else if (!recycled) {
+				recycled = true;
+				e.recycle(this);
+			}
+		}
+
+		void replenish(long n) {
+			if (n != 0L) {
+				GroupByMain<?, K, V> main = parent;
+				if (main == null) {
+					main = evictedFrom;
+				}
+				if (main != null) {
+					main.s.request(n);
+				}
 			}
 		}
 
@@ -544,6 +674,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 					boolean empty = t == null;
 
 					if (checkTerminated(d, empty, a, q)) {
+						replenish(e);
 						return;
 					}
 
@@ -558,15 +689,13 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 				if (r == e) {
 					if (checkTerminated(done, q.isEmpty(), a, q)) {
+						replenish(e);
 						return;
 					}
 				}
 
 				if (e != 0) {
-					GroupByMain<?, K, V> main = parent;
-					if (main != null) {
-						main.s.request(e);
-					}
+					replenish(e);
 					if (r != Long.MAX_VALUE) {
 						REQUESTED.addAndGet(this, -e);
 					}
@@ -587,7 +716,10 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			for (; ; ) {
 
 				if (cancelled) {
-					q.clear();
+					if (eviction == null) {
+						q.clear();
+					}
+					//otherwise the fused subscriber discards the queue when clearing it
 					actual = null;
 					return;
 				}
@@ -634,13 +766,14 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 		boolean checkTerminated(boolean d, boolean empty, Subscriber<?> a, Queue<?> q) {
 			if (cancelled) {
-				q.clear();
+				discardQueue();
 				actual = null;
 				return true;
 			}
 			if (d && empty) {
 				Throwable e = error;
 				actual = null;
+				discardQueue();
 				if (e != null) {
 					a.onError(e);
 				}
@@ -655,8 +788,15 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 		public void onNext(V t) {
 			Subscriber<? super V> a = actual;
+			signalNext(a, t, queue.offer(t));
+		}
 
-			if (!queue.offer(t)) {
+		/**
+		 * Signal a value offered (or not) to the queue, {@code a} being the subscriber
+		 * read before offering.
+		 */
+		void signalNext(@Nullable Subscriber<? super V> a, V t, boolean offered) {
+			if (!offered) {
 				onError(Operators.onOperatorError(this, Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL), t,
 						actual.currentContext()));
 				return;
@@ -720,7 +860,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 			if (!outputFused) {
 				if (WIP.getAndIncrement(this) == 0) {
-					queue.clear();
+					discardQueue();
 				}
 			}
 		}
@@ -742,10 +882,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			int p = produced;
 			if (p != 0) {
 				produced = 0;
-				GroupByMain<?, K, V> main = parent;
-				if (main != null) {
-					main.s.request(p);
-				}
+				replenish(p);
 			}
 		}
 
@@ -765,7 +902,13 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 
 		@Override
 		public void clear() {
-			queue.clear();
+			if (cancelled || done) {
+				//the fused subscriber doesn't poll a terminated group after clearing it
+				discardQueue();
+			}
+			else {
+				queue.clear();
+			}
 		}
 
 		@Override
@@ -784,7 +927,7 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 			if (key == Attr.TERMINATED) return done;
 			if (key == Attr.CANCELLED) return cancelled;
 			if (key == Attr.ERROR) return error;
-			if (key == Attr.BUFFERED) return queue != null ? queue.size() : 0;
+			if (key == Attr.BUFFERED) return queue != null && !recycled ? queue.size() : 0;
 			if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
 
 			return InnerProducer.super.scanUnsafe(key);
@@ -796,4 +939,162 @@ final class FluxGroupBy<T, K, V> extends InternalFluxOperator<T, GroupedFlux<K,
 		}
 
 	}
+
+	/**
+	 * Bounds the live groups of a {@link GroupByMain} as configured by a {@link GroupBySpec},
+	 * tracking them by access order in addition to the main's group map. All the
+	 * mutations of both maps happen while holding this instance's lock, and groups are
+	 * only signalled once it is released.
+	 */
+	static final class GroupEviction<K, V> implements Runnable {
+
+		final GroupByMain<?, K, V>                      main;
+		final long                                      idleNanos;
+		final int                                       maxGroups;
+		final Scheduler                                 timer;
+		final LinkedHashMap<K, UnicastGroupedFlux<K, V>> lru;
+		final Queue<Queue<V>>                           pool;
+
+		volatile Disposable task;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<GroupEviction, Disposable> TASK =
+				AtomicReferenceFieldUpdater.newUpdater(GroupEviction.class, Disposable.class, "task");
+
+		GroupEviction(GroupByMain<?, K, V> main, GroupBySpec options) {
+			this.main = main;
+			this.idleNanos = options.idleTimeout != null ? options.idleTimeout.toNanos() : 0L;
+			this.maxGroups = options.maxGroups;
+			this.timer = options.timer != null ? options.timer : Schedulers.parallel();
+			this.lru = new LinkedHashMap<>(16, 0.75f, true);
+			this.pool = Queues.<Queue<V>>mpscArray(Queues.SMALL_BUFFER_SIZE).get();
+		}
+
+		void start() {
+			if (idleNanos != 0L) {
+				schedule(idleNanos);
+			}
+		}
+
+		void schedule(long delayNanos) {
+			try {
+				OperatorDisposables.replace(TASK, this,
+						timer.schedule(this, delayNanos, TimeUnit.NANOSECONDS));
+			}
+			catch (RejectedExecutionException ree) {
+				Throwable e = Operators.onRejectedExecution(ree, main.s, null, null,
+						main.actual.currentContext());
+				//the timer thread races with the upstream, stop it before the main records
+				//the error and delivers it from its drain loop
+				main.cancelUpstream();
+				main.onError(e);
+			}
+		}
+
+		void terminate() {
+			OperatorDisposables.dispose(TASK, this);
+			synchronized (this) {
+				lru.clear();
+			}
+		}
+
+		void onNext(K key, V value) {
+			GroupByMain<?, K, V> m = main;
+			UnicastGroupedFlux<K, V> g;
+			UnicastGroupedFlux<K, V> evicted = null;
+			boolean created = false;
+			Subscriber<? super V> a;
+			boolean offered;
+
+			synchronized (this) {
+				g = lru.get(key);
+				if (g == null) {
+					// if the main is cancelled, don't create new groups
+					if (m.cancelled != 0) {
+						return;
+					}
+					if (lru.size() >= maxGroups) {
+						Iterator<UnicastGroupedFlux<K, V>> it = lru.values().iterator();
+						evicted = it.next();
+						it.remove();
+						m.groupMap.remove(evicted.key, evicted);
+					}
+					Queue<V> q = pool.poll();
+					if (q == null) {
+						q = m.groupQueueSupplier.get();
+					}
+
+					GroupByMain.GROUP_COUNT.getAndIncrement(m);
+					g = new UnicastGroupedFlux<>(key, q, m, m.prefetch, this);
+					lru.put(key, g);
+					m.groupMap.put(key, g);
+					created = true;
+				}
+				if (idleNanos != 0L) {
+					g.lastActive = timer.now(TimeUnit.NANOSECONDS);
+				}
+				a = g.actual;
+				offered = g.queue.offer(value);
+			}
+
+			if (evicted != null) {
+				evicted.evict();
+			}
+			g.signalNext(a, value, offered);
+			if (created) {
+				m.queue.offer(g);
+				m.drain();
+			}
+		}
+
+		void remove(UnicastGroupedFlux<K, V> g) {
+			synchronized (this) {
+				lru.remove(g.key, g);
+				main.groupMap.remove(g.key, g);
+			}
+		}
+
+		/**
+		 * Offer the queue of a terminated group back to the pool, once the group is
+		 * removed so that no value can be offered to the queue anymore.
+		 */
+		void recycle(UnicastGroupedFlux<K, V> g) {
+			remove(g);
+			g.queue.clear();
+			pool.offer(g.queue);
+		}
+
+		@Override
+		public void run() {
+			List<UnicastGroupedFlux<K, V>> idle = null;
+			long delay = idleNanos;
+
+			synchronized (this) {
+				long now = timer.now(TimeUnit.NANOSECONDS);
+				Iterator<UnicastGroupedFlux<K, V>> it = lru.values().iterator();
+				while (it.hasNext()) {
+					UnicastGroupedFlux<K, V> g = it.next();
+					long elapsed = now - g.lastActive;
+					if (elapsed < idleNanos) {
+						delay = idleNanos - elapsed;
+						break;
+					}
+					it.remove();
+					main.groupMap.remove(g.key, g);
+					if (idle == null) {
+						idle = new ArrayList<>();
+					}
+					idle.add(g);
+				}
+			}
+
+			if (idle != null) {
+				for (UnicastGroupedFlux<K, V> g : idle) {
+					g.evict();
+				}
+			}
+			if (task != OperatorDisposables.DISPOSED) {
+				schedule(delay);
+			}
+		}
+	}
 }
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Exposes a {@link LongFlux} as a {@link Flux}, boxing its values as they cross the
+ * boundary.
+ */
+final class FluxLongBoxed extends Flux<Long> implements Scannable {
+
+	final LongFlux source;
+
+	FluxLongBoxed(LongFlux source) {
+		this.source = source;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super Long> actual) {
+		source.subscribe(actual);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	static LongSubscriber boxing(CoreSubscriber<? super Long> actual) {
+		if (actual instanceof Fuseable.ConditionalSubscriber) {
+			return new BoxingConditionalSubscriber((Fuseable.ConditionalSubscriber<? super Long>) actual);
+		}
+		return new BoxingSubscriber(actual);
+	}
+
+	static final class BoxingSubscriber implements LongSubscriber {
+
+		final CoreSubscriber<? super Long> actual;
+
+		BoxingSubscriber(CoreSubscriber<? super Long> actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			actual.onSubscribe(s);
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			actual.onNext(v);
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			actual.onComplete();
+		}
+	}
+
+	static final class BoxingConditionalSubscriber implements LongSubscriber {
+
+		final Fuseable.ConditionalSubscriber<? super Long> actual;
+
+		BoxingConditionalSubscriber(Fuseable.ConditionalSubscriber<? super Long> actual) {
+			this.actual = actual;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			actual.onSubscribe(s);
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			return actual.tryOnNext(v);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			actual.onComplete();
+		}
+	}
+}
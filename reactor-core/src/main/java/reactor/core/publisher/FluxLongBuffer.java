@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Arrays;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Buffers the values of a {@link LongFlux} into {@code long[]} arrays of a given size,
+ * the last one being trimmed to the number of remaining values.
+ *
+ * @see FluxBuffer
+ */
+final class FluxLongBuffer extends Flux<long[]> implements Scannable {
+
+	final LongFlux source;
+
+	final int size;
+
+	FluxLongBuffer(LongFlux source, int size) {
+		if (size <= 0) {
+			throw new IllegalArgumentException("size > 0 required but it was " + size);
+		}
+		this.source = source;
+		this.size = size;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super long[]> actual) {
+		source.subscribeLong(new BufferSubscriber(actual, size));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+		if (key == Attr.PREFETCH) return size;
+
+		return null;
+	}
+
+	static final class BufferSubscriber implements LongSubscriber, Subscription, Scannable {
+
+		final CoreSubscriber<? super long[]> actual;
+
+		final int size;
+
+		Subscription s;
+
+		boolean done;
+
+		long[] buffer;
+
+		int index;
+
+		BufferSubscriber(CoreSubscriber<? super long[]> actual, int size) {
+			this.actual = actual;
+			this.size = size;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			if (done) {
+				return true;
+			}
+
+			long[] b = buffer;
+			if (b == null) {
+				b = new long[size];
+				buffer = b;
+			}
+			int i = index;
+			b[i++] = v;
+
+			if (i == size) {
+				buffer = null;
+				index = 0;
+				actual.onNext(b);
+			}
+			else {
+				index = i;
+			}
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			buffer = null;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+
+			long[] b = buffer;
+			if (b != null) {
+				buffer = null;
+				actual.onNext(Arrays.copyOf(b, index));
+			}
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				s.request(Operators.multiplyCap(n, size));
+			}
+		}
+
+		@Override
+		public void cancel() {
+			buffer = null;
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.ACTUAL) return actual;
+			if (key == Attr.TERMINATED) return done;
+			if (key == Attr.BUFFERED) return index;
+			if (key == Attr.CAPACITY) return size;
+
+			return null;
+		}
+	}
+}
@@ -123,6 +123,11 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 	}
 
 
+	/**
+	 * Keeps the current value of each inner in a {@link MergeOrderedHeap}, so that picking
+	 * the smallest one is {@code O(log n)}, and only polls again the inners whose value has
+	 * been emitted (or which had no value yet).
+	 */
 	static final class MergeOrderedMainProducer<T> implements InnerProducer<T> {
 
 		static final Object DONE = new Object();
@@ -131,6 +136,12 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 		final MergeOrderedInnerSubscriber<T>[] subscribers;
 		final Comparator<? super T> comparator;
 		final Object[] values;
+		final MergeOrderedHeap<T> heap;
+		/** the inners whose value has been consumed, and which need to be polled again */
+		final int[] pending;
+
+		int pendingCount;
+		int doneCount;
 
 		volatile Throwable error;
 		static final AtomicReferenceFieldUpdater<MergeOrderedMainProducer, Throwable> ERROR =
@@ -166,6 +177,12 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 				this.subscribers[i] = new MergeOrderedInnerSubscriber<>(this, prefetch);
 			}
 			this.values = new Object[n];
+			this.heap = new MergeOrderedHeap<>(values, comparator);
+			this.pending = new int[n];
+			for (int i = 0; i < n; i++) {
+				this.pending[i] = i;
+			}
+			this.pendingCount = n;
 		}
 
 		void subscribe(Publisher<? extends T>[] sources) {
@@ -218,7 +235,6 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 
 			int missed = 1;
 			CoreSubscriber<? super T> actual = this.actual;
-			Comparator<? super T> comparator = this.comparator;
 
 			MergeOrderedInnerSubscriber<T>[] subscribers = this.subscribers;
 			int n = subscribers.length;
@@ -233,6 +249,7 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 				for (;;) {
 					if (cancelled != 0) {
 						Arrays.fill(values, null);
+						heap.clear();
 
 						for (MergeOrderedInnerSubscriber<T> inner : subscribers) {
 							inner.queue.clear();
@@ -240,33 +257,35 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 						return;
 					}
 
-					int done = 0;
-					int nonEmpty = 0;
-					for (int i = 0; i < n; i++) {
-						Object o = values[i];
-						if (o == DONE) {
-							done++;
-							nonEmpty++;
-						}
-						else if (o == null) {
-							boolean innerDone = subscribers[i].done;
-							o = subscribers[i].queue.poll();
-							if (o != null) {
-								values[i] = o;
-								nonEmpty++;
+					int pendingCount = this.pendingCount;
+					int stillPending = 0;
+					for (int j = 0; j < pendingCount; j++) {
+						int i = pending[j];
+						boolean innerDone = subscribers[i].done;
+						Object o = subscribers[i].queue.poll();
+						if (o != null) {
+							values[i] = o;
+							try {
+								heap.offer(i);
 							}
-							else if (innerDone) {
-								values[i] = DONE;
-								done++;
-								nonEmpty++;
+							catch (Throwable ex) {
+								Exceptions.addThrowable(ERROR, this, ex);
+								cancel();
+								actual.onError(Exceptions.terminate(ERROR, this));
+								return;
 							}
 						}
+						else if (innerDone) {
+							values[i] = DONE;
+							doneCount++;
+						}
 						else {
-							nonEmpty++;
+							pending[stillPending++] = i;
 						}
 					}
+					this.pendingCount = stillPending;
 
-					if (done == n) {
+					if (doneCount == n) {
 						Throwable ex = error;
 						if (ex == null) {
 							actual.onComplete();
@@ -276,38 +295,25 @@ final class FluxMergeOrdered<T> extends Flux<T> implements SourceProducer<T> {
 						return;
 					}
 
-					if (nonEmpty != n || e >= r) {
+					if (stillPending != 0 || e >= r) {
 						break;
 					}
 
-					T min = null;
-					int minIndex = -1;
-
-					int i = 0;
-					for (Object o : values) {
-						if (o != DONE) {
-							boolean smaller;
-							try {
-								@SuppressWarnings("unchecked")
-								T t = (T) o;
-								smaller = min == null || comparator.compare(min, t) > 0;
-							} catch (Throwable ex) {
-								Exceptions.addThrowable(ERROR, this, ex);
-								cancel();
-								actual.onError(Exceptions.terminate(ERROR, this));
-								return;
-							}
-							if (smaller) {
-								@SuppressWarnings("unchecked")
-								T t = (T) o;
-								min = t;
-								minIndex = i;
-							}
-						}
-						i++;
+					int minIndex;
+					try {
+						minIndex = heap.poll();
+					}
+					catch (Throwable ex) {
+						Exceptions.addThrowable(ERROR, this, ex);
+						cancel();
+						actual.onError(Exceptions.terminate(ERROR, this));
+						return;
 					}
 
+					@SuppressWarnings("unchecked")
+					T min = (T) values[minIndex];
 					values[minIndex] = null;
+					pending[this.pendingCount++] = minIndex;
 
 					actual.onNext(min);
 
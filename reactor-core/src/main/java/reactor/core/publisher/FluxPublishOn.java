@@ -21,6 +21,7 @@ import java.util.Queue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.reactivestreams.Subscriber;
@@ -31,6 +32,7 @@ import reactor.core.Fuseable;
 import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Scheduler.Worker;
 import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.BatchQueue;
 
 /**
  * Emits events on a different thread specified by a scheduler callback.
@@ -49,6 +51,8 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 
 	final int prefetch;
 
+	final int maxPrefetch;
+
 	final int lowTide;
 
 	FluxPublishOn(Flux<? extends T> source,
@@ -57,13 +61,32 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 			int prefetch,
 			int lowTide,
 			Supplier<? extends Queue<T>> queueSupplier) {
+		this(source, scheduler, delayError, prefetch, prefetch, lowTide, queueSupplier);
+	}
+
+	/**
+	 * @param prefetch the initial prefetch, which is also the minimum one when adaptive
+	 * @param maxPrefetch the maximum prefetch the window can grow to, adaptive if
+	 * greater than {@code prefetch}
+	 */
+	FluxPublishOn(Flux<? extends T> source,
+			Scheduler scheduler,
+			boolean delayError,
+			int prefetch,
+			int maxPrefetch,
+			int lowTide,
+			Supplier<? extends Queue<T>> queueSupplier) {
 		super(source);
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
+		if (maxPrefetch < prefetch) {
+			throw new IllegalArgumentException("maxPrefetch >= prefetch required but it was " + maxPrefetch);
+		}
 		this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
 		this.delayError = delayError;
 		this.prefetch = prefetch;
+		this.maxPrefetch = maxPrefetch;
 		this.lowTide = lowTide;
 		this.queueSupplier = Objects.requireNonNull(queueSupplier, "queueSupplier");
 	}
@@ -93,6 +116,7 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 					worker,
 					delayError,
 					prefetch,
+					maxPrefetch,
 					lowTide,
 					queueSupplier));
 			return null;
@@ -102,6 +126,7 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 				worker,
 				delayError,
 				prefetch,
+				maxPrefetch,
 				lowTide,
 				queueSupplier);
 	}
@@ -119,7 +144,9 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 
 		final int prefetch;
 
-		final int limit;
+		final int maxPrefetch;
+
+		int limit;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -152,13 +179,32 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 
 		long produced;
 
+		int window;
+
+		boolean starved;
+
+		boolean stalled;
+
 		boolean outputFused;
 
+		final Consumer<T> drainedEmitter = this::emitDrained;
+
+		PublishOnSubscriber(CoreSubscriber<? super T> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int prefetch,
+				int lowTide,
+				Supplier<? extends Queue<T>> queueSupplier) {
+			this(actual, scheduler, worker, delayError, prefetch, prefetch, lowTide, queueSupplier);
+		}
+
 		PublishOnSubscriber(CoreSubscriber<? super T> actual,
 				Scheduler scheduler,
 				Worker worker,
 				boolean delayError,
 				int prefetch,
+				int maxPrefetch,
 				int lowTide,
 				Supplier<? extends Queue<T>> queueSupplier) {
 			this.actual = actual;
@@ -166,8 +212,45 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
+			this.maxPrefetch = maxPrefetch;
 			this.queueSupplier = queueSupplier;
-			this.limit = Operators.unboundedOrLimit(prefetch, lowTide);
+			this.window = prefetch;
+			this.limit = maxPrefetch > prefetch ? Operators.unboundedOrLimit(prefetch) :
+					Operators.unboundedOrLimit(prefetch, lowTide);
+		}
+
+		/**
+		 * Compute the amount to request from upstream once {@code n} elements have been
+		 * consumed. When adaptive, the window halves (down to {@link #prefetch}) if
+		 * downstream demand ran out while elements were still queued since the last
+		 * replenish, as the consumer is the slower side and the extra buffer is wasted.
+		 * Otherwise it doubles (up to {@link #maxPrefetch}) if the queue ran dry while
+		 * downstream still had demand, or if the remaining downstream demand covers the
+		 * whole window, as the consumer keeps up and larger batches amortize requests.
+		 *
+		 * @param n the number of elements consumed since the last replenish
+		 * @param demand the remaining downstream demand
+		 * @return the amount to request
+		 */
+		long replenish(long n, long demand) {
+			if (maxPrefetch == prefetch) {
+				return n;
+			}
+			int w = window;
+			int next = w;
+			if (stalled) {
+				next = Math.max(w >> 1, prefetch);
+			}
+			else if (starved || demand >= w) {
+				next = w >= maxPrefetch >> 1 ? maxPrefetch : w << 1;
+			}
+			starved = false;
+			stalled = false;
+			if (next != w) {
+				window = next;
+				limit = Operators.unboundedOrLimit(next);
+			}
+			return n + next - w;
 		}
 
 		@Override
@@ -396,6 +479,8 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 
 			final Subscriber<? super T> a = actual;
 			final Queue<T> q = queue;
+			@SuppressWarnings("unchecked")
+			final BatchQueue<T> bq = sourceMode == NONE && q instanceof BatchQueue ? (BatchQueue<T>) q : null;
 
 			long e = produced;
 
@@ -404,6 +489,23 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 				long r = requested;
 
 				while (e != r) {
+					int n = 0;
+					if (bq != null && !cancelled && (delayError || !done)) {
+						// emit what is already queued in one batch, up to the next replenish
+						n = bq.drain(drainedEmitter, (int) Math.min(r - e, limit - e));
+					}
+					if (n != 0) {
+						e += n;
+						if (e == limit) {
+							if (r != Long.MAX_VALUE) {
+								r = REQUESTED.addAndGet(this, -e);
+							}
+							s.request(replenish(e, r));
+							e = 0L;
+						}
+						continue;
+					}
+
 					boolean d = done;
 					T v;
 
@@ -433,6 +535,7 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 					}
 
 					if (empty) {
+						starved = !d;
 						break;
 					}
 
@@ -443,13 +546,18 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 						if (r != Long.MAX_VALUE) {
 							r = REQUESTED.addAndGet(this, -e);
 						}
-						s.request(e);
+						s.request(replenish(e, r));
 						e = 0L;
 					}
 				}
 
-				if (e == r && checkTerminated(done, q.isEmpty(), a, null)) {
-					return;
+				if (e == r) {
+					if (checkTerminated(done, q.isEmpty(), a, null)) {
+						return;
+					}
+					if (maxPrefetch != prefetch && !q.isEmpty()) {
+						stalled = true;
+					}
 				}
 
 				int w = wip;
@@ -466,6 +574,19 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 			}
 		}
 
+		/**
+		 * Emit a value drained in batch from the queue, or discard it if cancelled
+		 * in the middle of the batch.
+		 */
+		void emitDrained(T v) {
+			if (cancelled) {
+				Operators.onDiscard(v, actual.currentContext());
+			}
+			else {
+				actual.onNext(v);
+			}
+		}
+
 		void runBackfused() {
 			int missed = 1;
 
@@ -588,7 +709,7 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 			if (key == Attr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == Attr.ERROR) return error;
 			if (key == Attr.DELAY_ERROR) return delayError;
-			if (key == Attr.PREFETCH) return prefetch;
+			if (key == Attr.PREFETCH) return window;
 			if (key == Attr.RUN_ON) return worker;
 
 			return InnerOperator.super.scanUnsafe(key);
@@ -635,14 +756,19 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 		@Nullable
 		public T poll() {
 			T v = queue.poll();
-			if (v != null && sourceMode != SYNC) {
-				long p = produced + 1;
-				if (p == limit) {
-					produced = 0;
-					s.request(p);
+			if (sourceMode != SYNC) {
+				if (v != null) {
+					long p = produced + 1;
+					if (p == limit) {
+						produced = 0;
+						s.request(replenish(p, 0L));
+					}
+					else {
+						produced = p;
+					}
 				}
-				else {
-					produced = p;
+				else if (!done) {
+					starved = true;
 				}
 			}
 			return v;
@@ -676,7 +802,9 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 
 		final int prefetch;
 
-		final int limit;
+		final int maxPrefetch;
+
+		int limit;
 
 		final Supplier<? extends Queue<T>> queueSupplier;
 
@@ -714,6 +842,12 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 
 		long consumed;
 
+		int window;
+
+		boolean starved;
+
+		boolean stalled;
+
 		boolean outputFused;
 
 		PublishOnConditionalSubscriber(ConditionalSubscriber<? super T> actual,
@@ -723,13 +857,61 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 				int prefetch,
 				int lowTide,
 				Supplier<? extends Queue<T>> queueSupplier) {
+			this(actual, scheduler, worker, delayError, prefetch, prefetch, lowTide, queueSupplier);
+		}
+
+		PublishOnConditionalSubscriber(ConditionalSubscriber<? super T> actual,
+				Scheduler scheduler,
+				Worker worker,
+				boolean delayError,
+				int prefetch,
+				int maxPrefetch,
+				int lowTide,
+				Supplier<? extends Queue<T>> queueSupplier) {
 			this.actual = actual;
 			this.worker = worker;
 			this.scheduler = scheduler;
 			this.delayError = delayError;
 			this.prefetch = prefetch;
+			this.maxPrefetch = maxPrefetch;
 			this.queueSupplier = queueSupplier;
-			this.limit = Operators.unboundedOrLimit(prefetch, lowTide);
+			this.window = prefetch;
+			this.limit = maxPrefetch > prefetch ? Operators.unboundedOrLimit(prefetch) :
+					Operators.unboundedOrLimit(prefetch, lowTide);
+		}
+
+		/**
+		 * Compute the amount to request from upstream once {@code n} elements have been
+		 * consumed. When adaptive, the window halves (down to {@link #prefetch}) if
+		 * downstream demand ran out while elements were still queued since the last
+		 * replenish, as the consumer is the slower side and the extra buffer is wasted.
+		 * Otherwise it doubles (up to {@link #maxPrefetch}) if the queue ran dry while
+		 * downstream still had demand, or if the remaining downstream demand covers the
+		 * whole window, as the consumer keeps up and larger batches amortize requests.
+		 *
+		 * @param n the number of elements consumed since the last replenish
+		 * @param demand the remaining downstream demand
+		 * @return the amount to request
+		 */
+		long replenish(long n, long demand) {
+			if (maxPrefetch == prefetch) {
+				return n;
+			}
+			int w = window;
+			int next = w;
+			if (stalled) {
+				next = Math.max(w >> 1, prefetch);
+			}
+			else if (starved || demand >= w) {
+				next = w >= maxPrefetch >> 1 ? maxPrefetch : w << 1;
+			}
+			starved = false;
+			stalled = false;
+			if (next != w) {
+				window = next;
+				limit = Operators.unboundedOrLimit(next);
+			}
+			return n + next - w;
 		}
 
 		@Override
@@ -984,6 +1166,7 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 					}
 
 					if (empty) {
+						starved = !d;
 						break;
 					}
 
@@ -994,13 +1177,18 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 					polled++;
 
 					if (polled == limit) {
-						s.request(polled);
+						s.request(replenish(polled, r - emitted));
 						polled = 0L;
 					}
 				}
 
-				if (emitted == r && checkTerminated(done, q.isEmpty(), a, null)) {
-					return;
+				if (emitted == r) {
+					if (checkTerminated(done, q.isEmpty(), a, null)) {
+						return;
+					}
+					if (maxPrefetch != prefetch && !q.isEmpty()) {
+						stalled = true;
+					}
 				}
 
 				int w = wip;
@@ -1081,7 +1269,7 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 			if (key == Attr.BUFFERED) return queue != null ? queue.size() : 0;
 			if (key == Attr.ERROR) return error;
 			if (key == Attr.DELAY_ERROR) return delayError;
-			if (key == Attr.PREFETCH) return prefetch;
+			if (key == Attr.PREFETCH) return window;
 			if (key == Attr.RUN_ON) return worker;
 
 			return InnerOperator.super.scanUnsafe(key);
@@ -1188,14 +1376,19 @@ final class FluxPublishOn<T> extends InternalFluxOperator<T, T> implements Fusea
 		@Nullable
 		public T poll() {
 			T v = queue.poll();
-			if (v != null && sourceMode != SYNC) {
-				long p = consumed + 1;
-				if (p == limit) {
-					consumed = 0;
-					s.request(p);
+			if (sourceMode != SYNC) {
+				if (v != null) {
+					long p = consumed + 1;
+					if (p == limit) {
+						consumed = 0;
+						s.request(replenish(p, 0L));
+					}
+					else {
+						consumed = p;
+					}
 				}
-				else {
-					consumed = p;
+				else if (!done) {
+					starved = true;
 				}
 			}
 			return v;
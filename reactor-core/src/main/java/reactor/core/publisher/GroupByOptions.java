@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.time.Duration;
+
+/**
+ * Factories of {@link GroupBySpec}, the options of
+ * {@link Flux#groupBy(java.util.function.Function, GroupBySpec)} that bound the
+ * number of live groups for sequences with a high cardinality of keys, e.g.
+ * {@code flux.groupBy(Event::userId, GroupByOptions.idleTimeout(Duration.ofMinutes(5)).maxGroups(10_000))}.
+ */
+public final class GroupByOptions {
+
+	/**
+	 * Complete and evict groups that haven't received any value for the given duration.
+	 *
+	 * @param idleTimeout the duration after which an idle group is completed, strictly positive
+	 * @return a {@link GroupBySpec} with the given idle timeout and no maximum number of groups
+	 * @see GroupBySpec#idleTimeout(Duration)
+	 */
+	public static GroupBySpec idleTimeout(Duration idleTimeout) {
+		return GroupBySpec.DEFAULT.idleTimeout(idleTimeout);
+	}
+
+	/**
+	 * Bound the number of live groups, completing and evicting the least recently
+	 * active group when a value needs a new group.
+	 *
+	 * @param maxGroups the maximum number of live groups, strictly positive
+	 * @return a {@link GroupBySpec} with the given maximum number of groups and no idle timeout
+	 * @see GroupBySpec#maxGroups(int)
+	 */
+	public static GroupBySpec maxGroups(int maxGroups) {
+		return GroupBySpec.DEFAULT.maxGroups(maxGroups);
+	}
+
+	private GroupByOptions() {
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Immutable options of {@link Flux#groupBy(java.util.function.Function, GroupBySpec)},
+ * to be created through {@link GroupByOptions}. A group evicted because it was idle or
+ * because of the maximum number of groups is completed (after emitting the values it
+ * already received), and a later value with the same key opens a new group. The queues
+ * of terminated groups are pooled and reused by new groups.
+ */
+public final class GroupBySpec {
+
+	static final GroupBySpec DEFAULT = new GroupBySpec(null, Integer.MAX_VALUE, null);
+
+	@Nullable
+	final Duration  idleTimeout;
+	final int       maxGroups;
+	/**
+	 * The timer of the idle timeout, null to use {@link Schedulers#parallel()} as
+	 * resolved when subscribing.
+	 */
+	@Nullable
+	final Scheduler timer;
+
+	GroupBySpec(@Nullable Duration idleTimeout, int maxGroups, @Nullable Scheduler timer) {
+		this.idleTimeout = idleTimeout;
+		this.maxGroups = maxGroups;
+		this.timer = timer;
+	}
+
+	/**
+	 * Set the duration after which a group that hasn't received any value is completed
+	 * and evicted, as measured by the {@link #timer(Scheduler) timer}.
+	 *
+	 * @param idleTimeout the duration after which an idle group is completed, strictly positive
+	 * @return a new {@link GroupBySpec} with the given idle timeout
+	 */
+	public GroupBySpec idleTimeout(Duration idleTimeout) {
+		Objects.requireNonNull(idleTimeout, "idleTimeout");
+		if (idleTimeout.isNegative() || idleTimeout.isZero()) {
+			throw new IllegalArgumentException("idleTimeout must be strictly positive but it was " + idleTimeout);
+		}
+		return new GroupBySpec(idleTimeout, maxGroups, timer);
+	}
+
+	/**
+	 * Set the maximum number of live groups: when a value needs a new group and that
+	 * many groups are live, the least recently active group is completed and evicted.
+	 *
+	 * @param maxGroups the maximum number of live groups, strictly positive
+	 * @return a new {@link GroupBySpec} with the given maximum number of groups
+	 */
+	public GroupBySpec maxGroups(int maxGroups) {
+		if (maxGroups <= 0) {
+			throw new IllegalArgumentException("maxGroups > 0 required but it was " + maxGroups);
+		}
+		return new GroupBySpec(idleTimeout, maxGroups, timer);
+	}
+
+	/**
+	 * Set the {@link Scheduler} used to measure and trigger the
+	 * {@link #idleTimeout(Duration) idle timeout}, {@link Schedulers#parallel()} by default.
+	 *
+	 * @param timer the {@link Scheduler} for the idle timeout
+	 * @return a new {@link GroupBySpec} with the given timer
+	 */
+	public GroupBySpec timer(Scheduler timer) {
+		return new GroupBySpec(idleTimeout, maxGroups, Objects.requireNonNull(timer, "timer"));
+	}
+
+	@Override
+	public String toString() {
+		return "GroupBySpec{idleTimeout=" + idleTimeout + ", maxGroups=" + maxGroups +
+				", timer=" + (timer != null ? timer : "Schedulers.parallel()") + "}";
+	}
+}
@@ -22,9 +22,12 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.reactivestreams.Publisher;
 
@@ -35,6 +38,7 @@ import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.annotation.Nullable;
 import reactor.util.context.Context;
+import reactor.util.context.ContextKey;
 
 /**
  * A set of overridable lifecycle hooks that can be used for cross-cutting
@@ -337,6 +341,25 @@ public abstract class Hooks {
 	 */
 	public static void onOperatorDebug() {
 		log.debug("Enabling stacktrace debugging via onOperatorDebug");
+		DEBUG_OPTIONS = null;
+		CALL_SITE_SNAPSHOTS.clear();
+		GLOBAL_TRACE = true;
+	}
+
+	/**
+	 * Enable operator stack recorder like {@link #onOperatorDebug()}, tuned by the given
+	 * {@link DebugOptions}. Typically, {@link DebugOptions#sampleRate(double)} only
+	 * captures the declaration stack of a fraction of the operator instantiations,
+	 * keeping the overhead of the debug mode low enough for production. Call-sites
+	 * are also shared between operators assembled from the same line of code.
+	 *
+	 * @param options the {@link DebugOptions} to apply
+	 */
+	public static void onOperatorDebug(DebugOptions options) {
+		Objects.requireNonNull(options, "options");
+		log.debug("Enabling stacktrace debugging via onOperatorDebug with {}", options);
+		DEBUG_OPTIONS = options;
+		CALL_SITE_SNAPSHOTS.clear();
 		GLOBAL_TRACE = true;
 	}
 
@@ -345,6 +368,8 @@ public abstract class Hooks {
 	 */
 	public static void resetOnOperatorDebug() {
 		GLOBAL_TRACE = false;
+		DEBUG_OPTIONS = null;
+		CALL_SITE_SNAPSHOTS.clear();
 	}
 
 	/**
@@ -608,8 +633,33 @@ public abstract class Hooks {
 	 */
 	static final String KEY_ON_REJECTED_EXECUTION = "reactor.onRejectedExecution.local";
 
+	/*
+	 * The typed counterparts of the keys above, under which the operators store the local
+	 * hooks. The hooks are looked up by typed key first, then by the String key of the
+	 * same name, see Operators#localHook.
+	 */
+	static final ContextKey<Consumer<? super Throwable>> CONTEXT_KEY_ON_ERROR_DROPPED =
+			ContextKey.of(KEY_ON_ERROR_DROPPED);
+	static final ContextKey<Consumer<Object>> CONTEXT_KEY_ON_NEXT_DROPPED =
+			ContextKey.of(KEY_ON_NEXT_DROPPED);
+	static final ContextKey<BiFunction<? super Throwable, Object, ? extends Throwable>> CONTEXT_KEY_ON_OPERATOR_ERROR =
+			ContextKey.of(KEY_ON_OPERATOR_ERROR);
+	static final ContextKey<Consumer<Object>> CONTEXT_KEY_ON_DISCARD =
+			ContextKey.of(KEY_ON_DISCARD);
+	static final ContextKey<BiFunction<? super Throwable, Object, ? extends Throwable>> CONTEXT_KEY_ON_REJECTED_EXECUTION =
+			ContextKey.of(KEY_ON_REJECTED_EXECUTION);
+
 	static boolean GLOBAL_TRACE = initStaticGlobalTrace();
 
+	/**
+	 * The {@link DebugOptions} of the global operator debug, {@code null} to capture
+	 * every operator instantiation.
+	 */
+	@Nullable
+	static DebugOptions DEBUG_OPTIONS;
+
+	static final Map<Supplier<String>, AssemblySnapshot> CALL_SITE_SNAPSHOTS = new ConcurrentHashMap<>();
+
 
 	static boolean DETECT_CONTEXT_LOSS = false;
 
@@ -654,6 +704,41 @@ public abstract class Hooks {
 		return addAssemblyInfo(publisher, new AssemblySnapshot(callSite));
 	}
 
+	/**
+	 * Capture the assembly call-site of the operator being instantiated, according to
+	 * the {@link #DEBUG_OPTIONS}.
+	 *
+	 * @return the {@link AssemblySnapshot} to attach to the operator, or null if this
+	 * instantiation is not sampled
+	 */
+	@Nullable
+	static AssemblySnapshot captureAssembly() {
+		DebugOptions options = DEBUG_OPTIONS;
+		if (options == null) {
+			return new AssemblySnapshot(null, Traces.callSiteSupplierFactory.get());
+		}
+		double sampleRate = options.sampleRate;
+		if (sampleRate < 1d && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+			return null;
+		}
+		Supplier<String> callSite = Traces.callSiteSupplierFactory.get();
+		if (options.callSiteCacheSize == 0 || !(callSite instanceof Traces.CallSite)) {
+			return new AssemblySnapshot(null, callSite);
+		}
+		AssemblySnapshot snapshot = CALL_SITE_SNAPSHOTS.get(callSite);
+		if (snapshot != null) {
+			return snapshot;
+		}
+		snapshot = new AssemblySnapshot(null, callSite);
+		if (CALL_SITE_SNAPSHOTS.size() < options.callSiteCacheSize) {
+			AssemblySnapshot previous = CALL_SITE_SNAPSHOTS.putIfAbsent(callSite, snapshot);
+			if (previous != null) {
+				return previous;
+			}
+		}
+		return snapshot;
+	}
+
 	static <T, P extends Publisher<T>> Publisher<T> addAssemblyInfo(P publisher, AssemblySnapshot stacktrace) {
 		if (publisher instanceof Callable) {
 			if (publisher instanceof Mono) {
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+import java.util.function.ToLongFunction;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import reactor.core.CorePublisher;
+import reactor.core.CoreSubscriber;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.concurrent.Queues;
+
+/**
+ * A {@link Publisher} of {@code long} values that passes them from operator to operator
+ * without boxing them, similar to what {@link java.util.stream.LongStream} is to
+ * {@link java.util.stream.Stream}.
+ * <p>
+ * Values are only boxed when they leave the {@link LongFlux}, ie. when it is
+ * {@link #subscribe(Subscriber) subscribed to} directly or converted back to a
+ * {@link Flux} with {@link #boxed()}. Operators that produce something else than
+ * {@code long} values, like {@link #buffer(int)} or {@link #sum()}, directly return a
+ * {@link Flux} or a {@link Mono}. Consecutive {@link #map(LongUnaryOperator) maps} and
+ * {@link #filter(LongPredicate) filters} are fused into a single operator at assembly.
+ * <p>
+ * As they would require boxing, {@link Hooks} only apply at the boundary with
+ * {@link Flux} and {@link Mono}, and the discard hook isn't invoked for {@code long}
+ * values that get filtered out or dropped.
+ */
+public abstract class LongFlux implements CorePublisher<Long> {
+
+	/**
+	 * Build a {@link LongFlux} that will only emit a sequence of {@code count} incrementing
+	 * {@code long} values, starting from {@code start}. That is, emit values between
+	 * {@code start} (included) and {@code start + count} (excluded) then complete.
+	 *
+	 * @param start the first long to be emitted
+	 * @param count the total number of incrementing values to emit, including the first value
+	 * @return a ranged {@link LongFlux}
+	 * @see Flux#range(int, int)
+	 */
+	public static LongFlux range(long start, long count) {
+		return new LongFluxRange(start, count);
+	}
+
+	/**
+	 * Unbox the {@link Number numbers} emitted by a {@link Publisher} into a
+	 * {@link LongFlux}, using {@link Number#longValue()}.
+	 *
+	 * @param source the {@link Publisher} to unbox
+	 * @return a new {@link LongFlux}
+	 */
+	public static LongFlux from(Publisher<? extends Number> source) {
+		if (source instanceof FluxLongBoxed) {
+			return ((FluxLongBoxed) source).source;
+		}
+		return from(source, Number::longValue);
+	}
+
+	/**
+	 * Convert the values emitted by a {@link Publisher} into a {@link LongFlux}, using the
+	 * provided {@link ToLongFunction}.
+	 *
+	 * @param source the {@link Publisher} to convert
+	 * @param mapper the function converting each value to a {@code long}
+	 * @param <T> the type of values emitted by the source
+	 * @return a new {@link LongFlux}
+	 * @see Flux#asLongFlux(ToLongFunction)
+	 */
+	public static <T> LongFlux from(Publisher<? extends T> source, ToLongFunction<? super T> mapper) {
+		return new LongFluxFromPublisher<>(source, mapper);
+	}
+
+	/**
+	 * Transform the values emitted by this {@link LongFlux} by applying a
+	 * {@link LongUnaryOperator} to each of them.
+	 *
+	 * @param mapper the function to apply to each value
+	 * @return a transformed {@link LongFlux}
+	 * @see Flux#map(java.util.function.Function)
+	 */
+	public final LongFlux map(LongUnaryOperator mapper) {
+		if (this instanceof LongFluxMap) {
+			LongFluxMap previous = (LongFluxMap) this;
+			return new LongFluxMap(previous.source, previous.mapper.andThen(mapper));
+		}
+		return new LongFluxMap(this, mapper);
+	}
+
+	/**
+	 * Evaluate each value against the given {@link LongPredicate}. If the predicate test
+	 * succeeds, the value is emitted. If the predicate test fails, the value is ignored
+	 * and a request of 1 is made upstream.
+	 *
+	 * @param predicate the {@link LongPredicate} to test values against
+	 * @return a new {@link LongFlux} containing only values that pass the predicate test
+	 * @see Flux#filter(java.util.function.Predicate)
+	 */
+	public final LongFlux filter(LongPredicate predicate) {
+		if (this instanceof LongFluxFilter) {
+			LongFluxFilter previous = (LongFluxFilter) this;
+			return new LongFluxFilter(previous.source, previous.predicate.and(predicate));
+		}
+		return new LongFluxFilter(this, predicate);
+	}
+
+	/**
+	 * Reduce this {@link LongFlux} values with an accumulator {@link LongBinaryOperator}
+	 * and also emit the intermediate results of this function. The first value is emitted
+	 * as is.
+	 *
+	 * @param accumulator the accumulating {@link LongBinaryOperator}, called with the
+	 * previous result and the current value
+	 * @return an accumulating {@link LongFlux}
+	 * @see Flux#scan(java.util.function.BiFunction)
+	 */
+	public final LongFlux scan(LongBinaryOperator accumulator) {
+		return new LongFluxScan(this, accumulator);
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Scheduler.Worker Worker}, prefetching {@link Queues#SMALL_BUFFER_SIZE} values
+	 * into a {@code long[]} ring buffer.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Scheduler.Worker} where to publish
+	 * @return a {@link LongFlux} producing asynchronously on a given {@link Scheduler}
+	 * @see Flux#publishOn(Scheduler)
+	 */
+	public final LongFlux publishOn(Scheduler scheduler) {
+		return publishOn(scheduler, Queues.SMALL_BUFFER_SIZE);
+	}
+
+	/**
+	 * Run onNext, onComplete and onError on a supplied {@link Scheduler}
+	 * {@link Scheduler.Worker Worker}, prefetching values into a {@code long[]} ring buffer.
+	 *
+	 * @param scheduler a {@link Scheduler} providing the {@link Scheduler.Worker} where to publish
+	 * @param prefetch the number of values to request from upstream, which also sizes
+	 * the ring buffer and hence can't exceed {@code 2^30}
+	 * @return a {@link LongFlux} producing asynchronously on a given {@link Scheduler}
+	 * @see Flux#publishOn(Scheduler, int)
+	 */
+	public final LongFlux publishOn(Scheduler scheduler, int prefetch) {
+		return new LongFluxPublishOn(this, scheduler, prefetch);
+	}
+
+	/**
+	 * Collect incoming values into {@code long[]} buffers that will be emitted by the
+	 * returned {@link Flux} each time the given max size is reached or once this
+	 * {@link LongFlux} completes, in which case the last buffer is trimmed to the
+	 * remaining values.
+	 *
+	 * @param maxSize the maximum collected size
+	 * @return a microbatched {@link Flux} of {@code long[]}
+	 * @see Flux#buffer(int)
+	 */
+	public final Flux<long[]> buffer(int maxSize) {
+		return Flux.onAssembly(new FluxLongBuffer(this, maxSize));
+	}
+
+	/**
+	 * Reduce the values from this {@link LongFlux} into a single {@code long}, starting
+	 * from an initial value and applying a {@link LongBinaryOperator}, and emit it.
+	 *
+	 * @param initial the initial value of the reduction
+	 * @param accumulator the reducing {@link LongBinaryOperator}, called with the previous
+	 * result and the current value
+	 * @return a reduced {@link Mono}
+	 * @see Flux#reduce(Object, java.util.function.BiFunction)
+	 */
+	public final Mono<Long> reduce(long initial, LongBinaryOperator accumulator) {
+		return Mono.onAssembly(new MonoLongReduce(this, initial, accumulator));
+	}
+
+	/**
+	 * Sum the values from this {@link LongFlux}, emitting {@code 0} if it is empty.
+	 * Overflows aren't detected.
+	 *
+	 * @return a {@link Mono} of the sum
+	 */
+	public final Mono<Long> sum() {
+		return reduce(0L, Long::sum);
+	}
+
+	/**
+	 * Convert this {@link LongFlux} to a {@link Flux}, boxing its values.
+	 *
+	 * @return a {@link Flux} of the boxed values
+	 */
+	public final Flux<Long> boxed() {
+		return Flux.onAssembly(new FluxLongBoxed(this));
+	}
+
+	/**
+	 * Subscribe to this {@link LongFlux}, its values being boxed when they are passed to
+	 * the given {@link CoreSubscriber}.
+	 *
+	 * @param actual the {@link CoreSubscriber} to pass the boxed values to
+	 */
+	@Override
+	public final void subscribe(CoreSubscriber<? super Long> actual) {
+		subscribeLong(FluxLongBoxed.boxing(actual));
+	}
+
+	/**
+	 * Subscribe to this {@link LongFlux}, its values being boxed when they are passed to
+	 * the given {@link Subscriber}.
+	 *
+	 * @param s the {@link Subscriber} to pass the boxed values to
+	 */
+	@Override
+	public final void subscribe(Subscriber<? super Long> s) {
+		subscribe(Operators.toCoreSubscriber(s));
+	}
+
+	/**
+	 * Subscribe a {@link LongSubscriber} to this {@link LongFlux}.
+	 *
+	 * @param actual the {@link LongSubscriber}
+	 */
+	abstract void subscribeLong(LongSubscriber actual);
+}
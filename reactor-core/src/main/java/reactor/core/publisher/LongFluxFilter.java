@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Filters out the values of a {@link LongFlux} that don't match a {@link LongPredicate}.
+ *
+ * @see FluxFilter
+ */
+final class LongFluxFilter extends LongFlux implements Scannable {
+
+	final LongFlux source;
+
+	final LongPredicate predicate;
+
+	LongFluxFilter(LongFlux source, LongPredicate predicate) {
+		this.source = source;
+		this.predicate = Objects.requireNonNull(predicate, "predicate");
+	}
+
+	@Override
+	void subscribeLong(LongSubscriber actual) {
+		source.subscribeLong(new FilterSubscriber(actual, predicate));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+
+		return null;
+	}
+
+	static final class FilterSubscriber implements LongSubscriber, Subscription, Scannable {
+
+		final LongSubscriber actual;
+
+		final LongPredicate predicate;
+
+		Subscription s;
+
+		boolean done;
+
+		FilterSubscriber(LongSubscriber actual, LongPredicate predicate) {
+			this.actual = actual;
+			this.predicate = predicate;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			if (done) {
+				return true;
+			}
+
+			boolean b;
+			try {
+				b = predicate.test(v);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v, actual.currentContext()));
+				return true;
+			}
+
+			return b && actual.tryOnNext(v);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.ToLongFunction;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Unboxes the values of a {@link Publisher} into a {@link LongFlux}, by applying a
+ * {@link ToLongFunction} to each of them.
+ *
+ * @param <T> the source value type
+ */
+final class LongFluxFromPublisher<T> extends LongFlux implements Scannable {
+
+	final Publisher<? extends T> source;
+
+	final ToLongFunction<? super T> mapper;
+
+	LongFluxFromPublisher(Publisher<? extends T> source, ToLongFunction<? super T> mapper) {
+		this.source = Objects.requireNonNull(source, "source");
+		this.mapper = Objects.requireNonNull(mapper, "mapper");
+	}
+
+	@Override
+	void subscribeLong(LongSubscriber actual) {
+		source.subscribe(new UnboxingSubscriber<>(actual, mapper));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+
+		return null;
+	}
+
+	static final class UnboxingSubscriber<T> implements CoreSubscriber<T>, Subscription, Scannable {
+
+		final LongSubscriber actual;
+
+		final ToLongFunction<? super T> mapper;
+
+		Subscription s;
+
+		boolean done;
+
+		UnboxingSubscriber(LongSubscriber actual, ToLongFunction<? super T> mapper) {
+			this.actual = actual;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t, actual.currentContext());
+				return;
+			}
+
+			long v;
+			try {
+				v = mapper.applyAsLong(t);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, t, actual.currentContext()));
+				return;
+			}
+
+			if (!actual.tryOnNext(v)) {
+				s.request(1);
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongUnaryOperator;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Maps the values of a {@link LongFlux} with a {@link LongUnaryOperator}.
+ *
+ * @see FluxMap
+ */
+final class LongFluxMap extends LongFlux implements Scannable {
+
+	final LongFlux source;
+
+	final LongUnaryOperator mapper;
+
+	LongFluxMap(LongFlux source, LongUnaryOperator mapper) {
+		this.source = source;
+		this.mapper = Objects.requireNonNull(mapper, "mapper");
+	}
+
+	@Override
+	void subscribeLong(LongSubscriber actual) {
+		source.subscribeLong(new MapSubscriber(actual, mapper));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+
+		return null;
+	}
+
+	static final class MapSubscriber implements LongSubscriber, Subscription, Scannable {
+
+		final LongSubscriber actual;
+
+		final LongUnaryOperator mapper;
+
+		Subscription s;
+
+		boolean done;
+
+		MapSubscriber(LongSubscriber actual, LongUnaryOperator mapper) {
+			this.actual = actual;
+			this.mapper = mapper;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			if (done) {
+				return true;
+			}
+
+			long r;
+			try {
+				r = mapper.applyAsLong(v);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v, actual.currentContext()));
+				return true;
+			}
+
+			return actual.tryOnNext(r);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+
+			return null;
+		}
+	}
+}
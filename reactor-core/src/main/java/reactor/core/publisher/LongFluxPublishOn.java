@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Scheduler.Worker;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+import reactor.util.context.Context;
+
+/**
+ * Emits the values of a {@link LongFlux} on a {@link Scheduler} {@link Worker}, buffering
+ * them in a {@code long[]} ring buffer rather than in a queue of boxed values.
+ *
+ * @see FluxPublishOn
+ */
+final class LongFluxPublishOn extends LongFlux implements Scannable {
+
+	/**
+	 * The largest prefetch, as it sizes the ring buffer which can't be unbounded.
+	 */
+	static final int MAX_PREFETCH = 1 << 30;
+
+	final LongFlux source;
+
+	final Scheduler scheduler;
+
+	final int prefetch;
+
+	LongFluxPublishOn(LongFlux source, Scheduler scheduler, int prefetch) {
+		if (prefetch <= 0 || prefetch > MAX_PREFETCH) {
+			throw new IllegalArgumentException("0 < prefetch <= " + MAX_PREFETCH + " required but it was " + prefetch);
+		}
+		this.source = source;
+		this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+		this.prefetch = prefetch;
+	}
+
+	@Override
+	void subscribeLong(LongSubscriber actual) {
+		Worker worker = Objects.requireNonNull(scheduler.createWorker(),
+				"The scheduler returned a null worker");
+
+		source.subscribeLong(new PublishOnSubscriber(actual, worker, prefetch));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+		if (key == Attr.RUN_ON) return scheduler;
+		if (key == Attr.PREFETCH) return prefetch;
+
+		return null;
+	}
+
+	/**
+	 * The ring buffer is written by the upstream thread and read by the worker only: as
+	 * upstream never emits more than the outstanding requests, and requests are only made
+	 * once values have been read, the producer never overwrites a value that hasn't been
+	 * read yet. The ordered store of {@link #producerIndex} publishes the written slot.
+	 */
+	static final class PublishOnSubscriber
+			implements LongSubscriber, Subscription, Runnable, Scannable {
+
+		final LongSubscriber actual;
+
+		final Worker worker;
+
+		final int prefetch;
+
+		final int limit;
+
+		final long[] buffer;
+
+		final int mask;
+
+		Subscription s;
+
+		volatile boolean cancelled;
+
+		volatile boolean done;
+
+		Throwable error;
+
+		volatile long producerIndex;
+		static final AtomicLongFieldUpdater<PublishOnSubscriber> PRODUCER_INDEX =
+				AtomicLongFieldUpdater.newUpdater(PublishOnSubscriber.class, "producerIndex");
+
+		volatile long consumerIndex;
+		static final AtomicLongFieldUpdater<PublishOnSubscriber> CONSUMER_INDEX =
+				AtomicLongFieldUpdater.newUpdater(PublishOnSubscriber.class, "consumerIndex");
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<PublishOnSubscriber> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(PublishOnSubscriber.class, "wip");
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<PublishOnSubscriber> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(PublishOnSubscriber.class, "requested");
+
+		long produced;
+
+		long consumed;
+
+		PublishOnSubscriber(LongSubscriber actual, Worker worker, int prefetch) {
+			this.actual = actual;
+			this.worker = worker;
+			this.prefetch = prefetch;
+			this.limit = Operators.unboundedOrLimit(prefetch);
+			int capacity = Queues.ceilingNextPowerOfTwo(prefetch);
+			this.buffer = new long[capacity];
+			this.mask = capacity - 1;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+				s.request(prefetch);
+			}
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			if (done) {
+				return true;
+			}
+			long pi = producerIndex;
+			if (pi - consumerIndex == buffer.length) {
+				error = Operators.onOperatorError(s,
+						Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL),
+						v, actual.currentContext());
+				done = true;
+			}
+			else {
+				buffer[(int) pi & mask] = v;
+				PRODUCER_INDEX.lazySet(this, pi + 1);
+			}
+			trySchedule(this, null, null);
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			error = t;
+			done = true;
+			trySchedule(null, t, null);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			trySchedule(null, null, null);
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.addCap(REQUESTED, this, n);
+				trySchedule(this, null, null);
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (cancelled) {
+				return;
+			}
+			cancelled = true;
+			s.cancel();
+			worker.dispose();
+		}
+
+		void trySchedule(@Nullable Subscription subscription,
+				@Nullable Throwable suppressed,
+				@Nullable Object dataSignal) {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+			try {
+				worker.schedule(this);
+			}
+			catch (RejectedExecutionException ree) {
+				actual.onError(Operators.onRejectedExecution(ree, subscription, suppressed,
+						dataSignal, actual.currentContext()));
+			}
+		}
+
+		@Override
+		public void run() {
+			int missed = 1;
+
+			final LongSubscriber a = actual;
+			final long[] b = buffer;
+			final int m = mask;
+
+			long emitted = produced;
+			long polled = consumed;
+			long ci = consumerIndex;
+
+			for (; ; ) {
+
+				long r = requested;
+
+				while (emitted != r) {
+					boolean d = done;
+					boolean empty = ci == producerIndex;
+
+					if (checkTerminated(d, empty, a)) {
+						return;
+					}
+
+					if (empty) {
+						break;
+					}
+
+					long v = b[(int) ci & m];
+					CONSUMER_INDEX.lazySet(this, ++ci);
+
+					if (a.tryOnNext(v)) {
+						emitted++;
+					}
+
+					if (++polled == limit) {
+						s.request(polled);
+						polled = 0L;
+					}
+				}
+
+				if (emitted == r && checkTerminated(done, ci == producerIndex, a)) {
+					return;
+				}
+
+				int w = wip;
+				if (missed == w) {
+					produced = emitted;
+					consumed = polled;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		boolean checkTerminated(boolean d, boolean empty, LongSubscriber a) {
+			if (cancelled) {
+				return true;
+			}
+			if (d && empty) {
+				//errors are delayed until the buffered values are drained, like publishOn
+				Throwable e = error;
+				try {
+					if (e != null) {
+						a.onError(e);
+					}
+					else {
+						a.onComplete();
+					}
+				}
+				finally {
+					worker.dispose();
+				}
+				return true;
+			}
+			return false;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.CANCELLED) return cancelled;
+			if (key == Attr.TERMINATED) return done;
+			if (key == Attr.BUFFERED) return (int) (producerIndex - consumerIndex);
+			if (key == Attr.ERROR) return error;
+			if (key == Attr.PREFETCH) return prefetch;
+			if (key == Attr.RUN_ON) return worker;
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Emits a range of {@code long} values, without boxing them.
+ *
+ * @see FluxRange
+ */
+final class LongFluxRange extends LongFlux {
+
+	final long start;
+
+	final long end;
+
+	LongFluxRange(long start, long count) {
+		if (count < 0L) {
+			throw new IllegalArgumentException("count >= 0 required but it was " + count);
+		}
+		if (start > Long.MAX_VALUE - count) {
+			throw new IllegalArgumentException("start + count must be less than Long.MAX_VALUE + 1");
+		}
+		this.start = start;
+		this.end = start + count;
+	}
+
+	@Override
+	void subscribeLong(LongSubscriber actual) {
+		if (start == end) {
+			actual.onSubscribe(Operators.emptySubscription());
+			actual.onComplete();
+			return;
+		}
+		actual.onSubscribe(new RangeSubscription(actual, start, end));
+	}
+
+	static final class RangeSubscription implements Subscription, Scannable {
+
+		final LongSubscriber actual;
+
+		final long end;
+
+		volatile boolean cancelled;
+
+		long index;
+
+		volatile long requested;
+		static final AtomicLongFieldUpdater<RangeSubscription> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(RangeSubscription.class, "requested");
+
+		RangeSubscription(LongSubscriber actual, long start, long end) {
+			this.actual = actual;
+			this.index = start;
+			this.end = end;
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				if (Operators.addCap(REQUESTED, this, n) == 0) {
+					if (n == Long.MAX_VALUE) {
+						fastPath();
+					}
+					else {
+						slowPath(n);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void cancel() {
+			cancelled = true;
+		}
+
+		void fastPath() {
+			final long e = end;
+			final LongSubscriber a = actual;
+
+			for (long i = index; i != e; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				a.tryOnNext(i);
+			}
+
+			if (cancelled) {
+				return;
+			}
+
+			a.onComplete();
+		}
+
+		void slowPath(long n) {
+			final LongSubscriber a = actual;
+
+			long f = end;
+			long e = 0;
+			long i = index;
+
+			for (; ; ) {
+
+				if (cancelled) {
+					return;
+				}
+
+				while (e != n && i != f) {
+
+					boolean b = a.tryOnNext(i);
+
+					if (cancelled) {
+						return;
+					}
+
+					if (b) {
+						e++;
+					}
+					i++;
+				}
+
+				if (cancelled) {
+					return;
+				}
+
+				if (i == f) {
+					a.onComplete();
+					return;
+				}
+
+				n = requested;
+				if (n == e) {
+					index = i;
+					n = REQUESTED.addAndGet(this, -e);
+					if (n == 0) {
+						return;
+					}
+					e = 0;
+				}
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.CANCELLED) return cancelled;
+			if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+			if (key == Attr.TERMINATED) return index == end;
+
+			return null;
+		}
+	}
+}
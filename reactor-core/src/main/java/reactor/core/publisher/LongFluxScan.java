@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Emits the running accumulation of the values of a {@link LongFlux}, starting with its
+ * first value, as computed by a {@link LongBinaryOperator}.
+ *
+ * @see FluxScan
+ */
+final class LongFluxScan extends LongFlux implements Scannable {
+
+	final LongFlux source;
+
+	final LongBinaryOperator accumulator;
+
+	LongFluxScan(LongFlux source, LongBinaryOperator accumulator) {
+		this.source = source;
+		this.accumulator = Objects.requireNonNull(accumulator, "accumulator");
+	}
+
+	@Override
+	void subscribeLong(LongSubscriber actual) {
+		source.subscribeLong(new ScanSubscriber(actual, accumulator));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+
+		return null;
+	}
+
+	static final class ScanSubscriber implements LongSubscriber, Subscription, Scannable {
+
+		final LongSubscriber actual;
+
+		final LongBinaryOperator accumulator;
+
+		Subscription s;
+
+		boolean done;
+
+		boolean hasValue;
+
+		long value;
+
+		ScanSubscriber(LongSubscriber actual, LongBinaryOperator accumulator) {
+			this.actual = actual;
+			this.accumulator = accumulator;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			if (done) {
+				return true;
+			}
+
+			if (!hasValue) {
+				hasValue = true;
+				value = v;
+				return actual.tryOnNext(v);
+			}
+
+			long r;
+			try {
+				r = accumulator.applyAsLong(value, v);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v, actual.currentContext()));
+				return true;
+			}
+
+			value = r;
+			return actual.tryOnNext(r);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			s.cancel();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+
+			return null;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import org.reactivestreams.Subscription;
+import reactor.util.context.Context;
+
+/**
+ * The primitive counterpart of a {@link Fuseable.ConditionalSubscriber} used between the
+ * operators of a {@link LongFlux}, so that values are passed along as {@code long} and
+ * only get boxed when they leave the {@link LongFlux} chain.
+ * <p>
+ * Like {@link Fuseable.ConditionalSubscriber#tryOnNext(Object)}, {@link #tryOnNext(long)}
+ * returns {@code false} when a value has been dropped (eg. filtered out), in which case
+ * it doesn't count towards the downstream demand and sources can emit the next value
+ * without waiting for a new {@link Subscription#request(long) request}.
+ */
+interface LongSubscriber {
+
+	/**
+	 * @param s the {@link Subscription} of the upstream operator
+	 * @see org.reactivestreams.Subscriber#onSubscribe(Subscription)
+	 */
+	void onSubscribe(Subscription s);
+
+	/**
+	 * Try consuming the value and return true if successful.
+	 *
+	 * @param v the value to consume
+	 * @return true if the value has been consumed, false if it has been dropped and a new
+	 * value can be sent immediately
+	 */
+	boolean tryOnNext(long v);
+
+	/**
+	 * @param t the error signal
+	 * @see org.reactivestreams.Subscriber#onError(Throwable)
+	 */
+	void onError(Throwable t);
+
+	/**
+	 * @see org.reactivestreams.Subscriber#onComplete()
+	 */
+	void onComplete();
+
+	/**
+	 * @return the {@link Context} of the downstream subscriber
+	 */
+	Context currentContext();
+}
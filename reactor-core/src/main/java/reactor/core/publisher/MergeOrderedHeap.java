@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Comparator;
+
+/**
+ * A binary min-heap of source indexes, ordered by the current head value of each source
+ * as stored in a shared {@code heads} array, used to pick the smallest head in
+ * {@code O(log n)} when merging {@code n} sorted sources. Sources with equal heads are
+ * ordered by index, so that the lowest index is picked first.
+ * <p>
+ * The heap doesn't catch exceptions thrown by the {@link Comparator}, and is left in an
+ * undefined state if that happens.
+ *
+ * @param <T> the value type
+ */
+final class MergeOrderedHeap<T> {
+
+	final Object[] heads;
+
+	final Comparator<? super T> comparator;
+
+	final int[] heap;
+
+	int size;
+
+	MergeOrderedHeap(Object[] heads, Comparator<? super T> comparator) {
+		this.heads = heads;
+		this.comparator = comparator;
+		this.heap = new int[heads.length];
+	}
+
+	int size() {
+		return size;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Add the given source, whose head must already be stored in {@code heads}.
+	 *
+	 * @param index the index of the source
+	 */
+	void offer(int index) {
+		int k = size++;
+		int[] h = heap;
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			int p = h[parent];
+			if (!less(index, p)) {
+				break;
+			}
+			h[k] = p;
+			k = parent;
+		}
+		h[k] = index;
+	}
+
+	/**
+	 * @return the index of the source with the smallest head, without removing it
+	 */
+	int peek() {
+		return heap[0];
+	}
+
+	/**
+	 * Remove and return the source with the smallest head.
+	 *
+	 * @return the index of the source with the smallest head
+	 */
+	int poll() {
+		int[] h = heap;
+		int top = h[0];
+		int n = --size;
+		if (n > 0) {
+			siftDown(h[n], n);
+		}
+		return top;
+	}
+
+	/**
+	 * Re-position the source at the top of the heap after its head has been replaced
+	 * in {@code heads}.
+	 */
+	void topChanged() {
+		siftDown(heap[0], size);
+	}
+
+	void siftDown(int index, int n) {
+		int[] h = heap;
+		int k = 0;
+		int half = n >>> 1;
+		while (k < half) {
+			int child = (k << 1) + 1;
+			int c = h[child];
+			int right = child + 1;
+			if (right < n && less(h[right], c)) {
+				child = right;
+				c = h[child];
+			}
+			if (!less(c, index)) {
+				break;
+			}
+			h[k] = c;
+			k = child;
+		}
+		h[k] = index;
+	}
+
+	@SuppressWarnings("unchecked")
+	boolean less(int a, int b) {
+		int c = comparator.compare((T) heads[a], (T) heads[b]);
+		return c < 0 || (c == 0 && a < b);
+	}
+}
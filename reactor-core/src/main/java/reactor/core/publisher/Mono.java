@@ -4845,8 +4845,10 @@ public abstract class Mono<T> implements CorePublisher<T> {
 			source = (Mono<T>) hook.apply(source);
 		}
 		if (Hooks.GLOBAL_TRACE) {
-			AssemblySnapshot stacktrace = new AssemblySnapshot(null, Traces.callSiteSupplierFactory.get());
-			source = (Mono<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			AssemblySnapshot stacktrace = Hooks.captureAssembly();
+			if (stacktrace != null) {
+				source = (Mono<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			}
 		}
 		return source;
 	}
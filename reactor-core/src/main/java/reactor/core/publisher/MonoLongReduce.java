@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.function.LongBinaryOperator;
+
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Reduces the values of a {@link LongFlux} into a single {@code long}, starting from an
+ * initial value, and only boxes the result.
+ *
+ * @see MonoReduceSeed
+ */
+final class MonoLongReduce extends Mono<Long> implements Scannable {
+
+	final LongFlux source;
+
+	final long initial;
+
+	final LongBinaryOperator accumulator;
+
+	MonoLongReduce(LongFlux source, long initial, LongBinaryOperator accumulator) {
+		this.source = source;
+		this.initial = initial;
+		this.accumulator = Objects.requireNonNull(accumulator, "accumulator");
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super Long> actual) {
+		source.subscribeLong(new ReduceSubscriber(actual, initial, accumulator));
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+
+		return null;
+	}
+
+	static final class ReduceSubscriber extends Operators.MonoSubscriber<Long, Long>
+			implements LongSubscriber {
+
+		final LongBinaryOperator accumulator;
+
+		Subscription s;
+
+		boolean done;
+
+		long accumulated;
+
+		ReduceSubscriber(CoreSubscriber<? super Long> actual,
+				long initial,
+				LongBinaryOperator accumulator) {
+			super(actual);
+			this.accumulated = initial;
+			this.accumulator = accumulator;
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED) return done;
+			if (key == Attr.PARENT) return s;
+
+			return super.scanUnsafe(key);
+		}
+
+		@Override
+		public void cancel() {
+			super.cancel();
+			s.cancel();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				actual.onSubscribe(this);
+
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(Long t) {
+			tryOnNext(t);
+		}
+
+		@Override
+		public boolean tryOnNext(long v) {
+			if (done) {
+				return true;
+			}
+			try {
+				accumulated = accumulator.applyAsLong(accumulated, v);
+			}
+			catch (Throwable e) {
+				onError(Operators.onOperatorError(s, e, v, actual.currentContext()));
+			}
+			return true;
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			complete(accumulated);
+		}
+	}
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * A {@link java.util.Set} using open addressing with linear probing in a single array
+ * of references, so that tracking a key doesn't cost a node object as in a
+ * {@link java.util.HashSet}. Null values are not supported and its iterator doesn't
+ * support removal.
+ * <p>
+ * This implementation is not thread-safe.
+ *
+ * @param <T> the value type
+ */
+final class OpenHashSet<T> extends AbstractSet<T> implements DistinctStore.KeySet<T> {
+
+	static final int   INITIAL_CAPACITY = 16;
+	static final int   MAX_CAPACITY     = 1 << 30;
+	static final float LOAD_FACTOR      = 0.75f;
+
+	Object[] keys;
+	int      mask;
+	int      maxSize;
+	int      size;
+
+	OpenHashSet() {
+		this(INITIAL_CAPACITY);
+	}
+
+	OpenHashSet(int capacity) {
+		int c = capacity <= 2 ? 2 :
+				capacity >= MAX_CAPACITY ? MAX_CAPACITY : Integer.highestOneBit(capacity - 1) << 1;
+		this.keys = new Object[c];
+		this.mask = c - 1;
+		this.maxSize = (int) (c * LOAD_FACTOR);
+	}
+
+	static int mix(int x) {
+		int h = x * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	@Override
+	public boolean add(T value) {
+		Objects.requireNonNull(value, "value");
+		Object[] a = keys;
+		int m = mask;
+		int pos = mix(value.hashCode()) & m;
+		for (; ; ) {
+			Object current = a[pos];
+			if (current == null) {
+				a[pos] = value;
+				if (++size >= maxSize) {
+					rehash();
+				}
+				return true;
+			}
+			if (current.equals(value)) {
+				return false;
+			}
+			pos = (pos + 1) & m;
+		}
+	}
+
+	@Override
+	public boolean contains(@Nullable Object o) {
+		return o != null && indexOf(o) >= 0;
+	}
+
+	@Override
+	public boolean remove(@Nullable Object o) {
+		if (o == null) {
+			return false;
+		}
+		int pos = indexOf(o);
+		if (pos < 0) {
+			return false;
+		}
+		removeEntry(pos);
+		return true;
+	}
+
+	int indexOf(Object o) {
+		Object[] a = keys;
+		int m = mask;
+		int pos = mix(o.hashCode()) & m;
+		for (; ; ) {
+			Object current = a[pos];
+			if (current == null) {
+				return -1;
+			}
+			if (current.equals(o)) {
+				return pos;
+			}
+			pos = (pos + 1) & m;
+		}
+	}
+
+	void removeEntry(int pos) {
+		Object[] a = keys;
+		int m = mask;
+		size--;
+
+		// shift back the following entries of the probe sequence into the hole
+		for (; ; ) {
+			int last = pos;
+			Object current;
+			for (; ; ) {
+				pos = (pos + 1) & m;
+				current = a[pos];
+				if (current == null) {
+					a[last] = null;
+					return;
+				}
+				int slot = mix(current.hashCode()) & m;
+				if (last <= pos ? (last >= slot || slot > pos) : (last >= slot && slot > pos)) {
+					break;
+				}
+			}
+			a[last] = current;
+		}
+	}
+
+	void rehash() {
+		Object[] a = keys;
+		int length = a.length;
+		if (length == MAX_CAPACITY) {
+			if (size >= length - 1) {
+				throw new IllegalStateException("OpenHashSet is full");
+			}
+			maxSize = length - 1;
+			return;
+		}
+		int newLength = length << 1;
+		int m = newLength - 1;
+		Object[] b = new Object[newLength];
+
+		for (Object o : a) {
+			if (o != null) {
+				int pos = mix(o.hashCode()) & m;
+				while (b[pos] != null) {
+					pos = (pos + 1) & m;
+				}
+				b[pos] = o;
+			}
+		}
+
+		this.keys = b;
+		this.mask = m;
+		this.maxSize = (int) (newLength * LOAD_FACTOR);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove all the values and shrink back to the initial capacity.
+	 */
+	@Override
+	public void clear() {
+		keys = new Object[INITIAL_CAPACITY];
+		mask = INITIAL_CAPACITY - 1;
+		maxSize = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+		size = 0;
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return new Iterator<T>() {
+			final Object[] a = keys;
+			int index = advance(0);
+
+			int advance(int from) {
+				Object[] a = this.a;
+				while (from < a.length && a[from] == null) {
+					from++;
+				}
+				return from;
+			}
+
+			@Override
+			public boolean hasNext() {
+				return index < a.length;
+			}
+
+			@Override
+			@SuppressWarnings("unchecked")
+			public T next() {
+				if (index >= a.length) {
+					throw new NoSuchElementException();
+				}
+				T value = (T) a[index];
+				index = advance(index + 1);
+				return value;
+			}
+		};
+	}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+/**
+ * A point-in-time view of the activity of one operator, as collected by an
+ * {@link OperatorProfiler}. The statistics are aggregated over all the subscriptions to
+ * the same operator of the same sequence, the operator being identified by its
+ * {@link #sequence() sequence name}, its {@link #index() position} in the sequence and
+ * its {@link #operator() step name}.
+ * <p>
+ * Counters are cumulative since the profiler was enabled, so that rates can be derived
+ * from two snapshots. The time spent in {@code onNext} is only measured for a sample of
+ * the signals, and extrapolated to all of them by {@link #estimatedOnNextNanos()}.
+ */
+public final class OperatorProfile {
+
+	final String sequence;
+	final int    index;
+	final String operator;
+	final long   onNextCount;
+	final long   requested;
+	final long   buffered;
+	final int    subscribers;
+	final long   sampledOnNextCount;
+	final long   sampledOnNextNanos;
+
+	OperatorProfile(String sequence, int index, String operator, long onNextCount,
+			long requested, long buffered, int subscribers, long sampledOnNextCount,
+			long sampledOnNextNanos) {
+		this.sequence = sequence;
+		this.index = index;
+		this.operator = operator;
+		this.onNextCount = onNextCount;
+		this.requested = requested;
+		this.buffered = buffered;
+		this.subscribers = subscribers;
+		this.sampledOnNextCount = sampledOnNextCount;
+		this.sampledOnNextNanos = sampledOnNextNanos;
+	}
+
+	/**
+	 * @return the name of the sequence, as given by {@link Flux#name(String)}, or
+	 * {@code "reactor"} if it wasn't named
+	 */
+	public String sequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the position of the operator in its sequence, the first operator after
+	 * the source being at {@code 1}
+	 */
+	public int index() {
+		return index;
+	}
+
+	/**
+	 * @return the {@link reactor.core.Scannable#stepName() step name} of the operator
+	 */
+	public String operator() {
+		return operator;
+	}
+
+	/**
+	 * @return the number of {@code onNext} signals received by the operator
+	 */
+	public long onNextCount() {
+		return onNextCount;
+	}
+
+	/**
+	 * @return the total amount requested by the operator from its upstream,
+	 * {@link Long#MAX_VALUE} if it requested an unbounded amount
+	 */
+	public long requested() {
+		return requested;
+	}
+
+	/**
+	 * @return the number of elements currently buffered by the operator, summed over
+	 * its active subscribers
+	 */
+	public long buffered() {
+		return buffered;
+	}
+
+	/**
+	 * @return the number of currently active subscribers of the operator
+	 */
+	public int subscribers() {
+		return subscribers;
+	}
+
+	/**
+	 * @return the number of {@code onNext} signals whose processing time was measured
+	 */
+	public long sampledOnNextCount() {
+		return sampledOnNextCount;
+	}
+
+	/**
+	 * @return the time spent processing the sampled {@code onNext} signals, excluding
+	 * the time spent in the downstream operators
+	 */
+	public long sampledOnNextNanos() {
+		return sampledOnNextNanos;
+	}
+
+	/**
+	 * @return the mean time spent processing one {@code onNext} signal, excluding the
+	 * time spent in the downstream operators, or {@code 0} if no signal was sampled
+	 */
+	public double meanOnNextNanos() {
+		return sampledOnNextCount == 0 ? 0d : (double) sampledOnNextNanos / sampledOnNextCount;
+	}
+
+	/**
+	 * Estimate the total time spent processing {@code onNext} signals, by extrapolating
+	 * the {@link #meanOnNextNanos() mean time} of the sampled signals to all the signals
+	 * received by the operator. The operators with the highest estimate are the
+	 * bottlenecks of their sequence.
+	 *
+	 * @return the estimated time spent processing {@code onNext} signals, in nanoseconds
+	 */
+	public long estimatedOnNextNanos() {
+		return (long) (meanOnNextNanos() * Math.max(onNextCount, sampledOnNextCount));
+	}
+
+	@Override
+	public String toString() {
+		return "OperatorProfile{" + sequence + "#" + index + " " + operator +
+				", onNext=" + onNextCount +
+				", requested=" + (requested == Long.MAX_VALUE ? "unbounded" : requested) +
+				", buffered=" + buffered +
+				", subscribers=" + subscribers +
+				", meanOnNextNanos=" + (long) meanOnNextNanos() + '}';
+	}
+}
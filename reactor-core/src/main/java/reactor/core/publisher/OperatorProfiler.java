@@ -0,0 +1,489 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Disposable;
+import reactor.core.Fuseable;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.Metrics;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Collects per-operator statistics for every sequence assembled while it is enabled, in
+ * order to locate the bottlenecks of a running pipeline. Each operator is decorated via
+ * {@link Hooks#onEachOperator(String, java.util.function.Function)}, and the operators of
+ * a sequence are located by walking the {@link Scannable} graph of their subscribers
+ * ({@link Scannable.Attr#PARENT} and {@link Scannable.Attr#ACTUAL}).
+ * <p>
+ * For each operator the profiler counts the {@code onNext} signals it receives and the
+ * amount it requests from its upstream, reads how many elements it currently buffers
+ * ({@link Scannable.Attr#BUFFERED}) and measures the time it spends in {@code onNext},
+ * excluding the time spent in the downstream operators. Counting is cheap, but timing
+ * is not: the time is only measured during short windows that cover the given
+ * {@code sampleRate} fraction of the wall-clock time.
+ * <p>
+ * Profiling disables the {@link Fuseable fusion} between operators, so it is meant to be
+ * enabled on demand while investigating a pipeline, then {@link #dispose() disposed}.
+ * Only the sequences assembled while the profiler is enabled are profiled.
+ *
+ * <pre>
+ * OperatorProfiler profiler = OperatorProfiler.enable(0.01);
+ * //assemble and run the pipeline...
+ * profiler.snapshot().forEach(System.out::println);
+ * profiler.dispose();
+ * </pre>
+ */
+public final class OperatorProfiler implements Disposable {
+
+	/**
+	 * Enable profiling of the operators assembled from now on, measuring the time spent
+	 * in {@code onNext} during {@code sampleRate} of the wall-clock time. A {@code sampleRate}
+	 * of {@code 1} measures every signal, {@code 0} only counts them. Enabling a new
+	 * profiler replaces the previous one for the operators assembled afterwards.
+	 *
+	 * @param sampleRate the fraction of the time during which {@code onNext} is timed,
+	 * between 0 and 1
+	 * @return the enabled {@link OperatorProfiler}, to be disposed once done
+	 */
+	public static OperatorProfiler enable(double sampleRate) {
+		return enable(sampleRate, Schedulers.parallel());
+	}
+
+	static OperatorProfiler enable(double sampleRate, Scheduler timer) {
+		if (sampleRate < 0d || sampleRate > 1d) {
+			throw new IllegalArgumentException("sampleRate must be between 0 and 1, was: " + sampleRate);
+		}
+		OperatorProfiler profiler = new OperatorProfiler();
+		profiler.startSampling(sampleRate, timer);
+		Hooks.onEachOperator(HOOK_KEY, profiler.hook);
+		return profiler;
+	}
+
+	static final String HOOK_KEY = "reactor.operatorProfiler";
+
+	/**
+	 * The duration of a window during which {@code onNext} signals are timed.
+	 */
+	static final long SAMPLING_WINDOW_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	static final Comparator<OperatorProfile> BOTTLENECKS_FIRST =
+			Comparator.comparingLong(OperatorProfile::estimatedOnNextNanos)
+			          .reversed()
+			          .thenComparing(OperatorProfile::sequence)
+			          .thenComparingInt(OperatorProfile::index);
+
+	/**
+	 * The time spent in the sampled downstream operators during the current
+	 * {@code onNext}, to be subtracted from the time measured by the enclosing operator.
+	 */
+	static final ThreadLocal<long[]> DOWNSTREAM_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+	final ConcurrentMap<String, OperatorStats>  stats     = new ConcurrentHashMap<>();
+	final List<Consumer<? super OperatorStats>> exporters = new CopyOnWriteArrayList<>();
+
+	final Function<? super Publisher<Object>, ? extends Publisher<Object>> hook;
+
+	volatile boolean    sampling;
+	volatile boolean    disposed;
+	volatile Disposable samplingTask;
+
+	OperatorProfiler() {
+		this.hook = Operators.lift((scannable, actual) -> new ProfilingSubscriber<>(actual, this, scannable));
+	}
+
+	void startSampling(double sampleRate, Scheduler timer) {
+		if (sampleRate == 1d) {
+			sampling = true;
+		}
+		else if (sampleRate > 0d) {
+			long period = (long) (SAMPLING_WINDOW_NANOS / sampleRate);
+			samplingTask = timer.schedulePeriodically(() -> {
+				sampling = true;
+				timer.schedule(() -> sampling = false, SAMPLING_WINDOW_NANOS, TimeUnit.NANOSECONDS);
+			}, period, period, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Take a snapshot of the statistics of all the profiled operators, the operators
+	 * with the highest {@link OperatorProfile#estimatedOnNextNanos() estimated time}
+	 * spent in {@code onNext} first.
+	 *
+	 * @return the {@link OperatorProfile} of each profiled operator, bottlenecks first
+	 */
+	public List<OperatorProfile> snapshot() {
+		List<OperatorProfile> profiles = new ArrayList<>(stats.size());
+		for (OperatorStats s : stats.values()) {
+			profiles.add(s.snapshot());
+		}
+		profiles.sort(BOTTLENECKS_FIRST);
+		return profiles;
+	}
+
+	/**
+	 * Publish the statistics of the profiled operators, including the ones profiled
+	 * later on, as meters of the given Micrometer {@code MeterRegistry}. The meters are
+	 * tagged with the sequence name ({@code flow}), the position ({@code index}) and the
+	 * step name ({@code operator}) of each operator.
+	 * <p>
+	 * The registry is typed as {@link Object} so that Micrometer remains an optional
+	 * dependency.
+	 *
+	 * @param registry the {@code io.micrometer.core.instrument.MeterRegistry} to register
+	 * the meters to
+	 * @return this {@link OperatorProfiler}
+	 * @throws IllegalStateException if Micrometer is not on the classpath
+	 * @throws IllegalArgumentException if the registry is not a {@code MeterRegistry}
+	 */
+	public OperatorProfiler bindTo(Object registry) {
+		if (!Metrics.isInstrumentationAvailable()) {
+			throw new IllegalStateException("Micrometer is not available on the classpath");
+		}
+		Consumer<OperatorStats> exporter = OperatorProfilerMeters.exporter(registry);
+		exporters.add(exporter);
+		stats.values().forEach(exporter);
+		return this;
+	}
+
+	/**
+	 * Stop profiling the operators assembled from now on, and stop timing the signals
+	 * of the operators already profiled. Their signals keep being counted, so that
+	 * {@link #snapshot()} remains usable. The hook is left in place if a newer profiler
+	 * replaced this one.
+	 */
+	@Override
+	public void dispose() {
+		disposed = true;
+		synchronized (Hooks.log) {
+			if (Hooks.getOnEachOperatorHooks().get(HOOK_KEY) == hook) {
+				Hooks.resetOnEachOperator(HOOK_KEY);
+			}
+		}
+		Disposable task = samplingTask;
+		if (task != null) {
+			task.dispose();
+		}
+		sampling = false;
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	OperatorStats stats(String sequence, int index, String operator) {
+		String key = sequence + '#' + index + ' ' + operator;
+		OperatorStats s = stats.get(key);
+		if (s == null) {
+			OperatorStats created = new OperatorStats(sequence, index, operator);
+			s = stats.putIfAbsent(key, created);
+			if (s == null) {
+				s = created;
+				for (Consumer<? super OperatorStats> exporter : exporters) {
+					exporter.accept(created);
+				}
+			}
+		}
+		return s;
+	}
+
+	/**
+	 * The statistics of one operator, aggregated over all of its subscribers.
+	 */
+	static final class OperatorStats {
+
+		final String sequence;
+		final int    index;
+		final String operator;
+
+		final LongAdder onNext             = new LongAdder();
+		final LongAdder requested          = new LongAdder();
+		final LongAdder sampledOnNext      = new LongAdder();
+		final LongAdder sampledOnNextNanos = new LongAdder();
+
+		final Set<ProfilingSubscriber<?>> subscribers = ConcurrentHashMap.newKeySet();
+
+		volatile boolean unbounded;
+
+		OperatorStats(String sequence, int index, String operator) {
+			this.sequence = sequence;
+			this.index = index;
+			this.operator = operator;
+		}
+
+		void request(long n) {
+			if (n == Long.MAX_VALUE) {
+				unbounded = true;
+			}
+			else {
+				requested.add(n);
+			}
+		}
+
+		void sampled(long nanos) {
+			sampledOnNext.increment();
+			sampledOnNextNanos.add(nanos);
+		}
+
+		long requested() {
+			return unbounded ? Long.MAX_VALUE : requested.sum();
+		}
+
+		long buffered() {
+			long buffered = 0L;
+			for (ProfilingSubscriber<?> subscriber : subscribers) {
+				Integer b = Scannable.from(subscriber.actual).scan(Scannable.Attr.BUFFERED);
+				if (b != null) {
+					buffered += b;
+				}
+			}
+			return buffered;
+		}
+
+		OperatorProfile snapshot() {
+			return new OperatorProfile(sequence, index, operator, onNext.sum(),
+					requested(), buffered(), subscribers.size(), sampledOnNext.sum(),
+					sampledOnNextNanos.sum());
+		}
+	}
+
+	/**
+	 * Sits between an operator and its downstream subscriber, attributing the signals it
+	 * relays to the downstream operator: the operator that receives the {@code onNext}
+	 * signals and emits the requests. It is a {@link Fuseable.QueueSubscription} that
+	 * always rejects fusion, so that it can be placed after a {@link Fuseable} operator.
+	 */
+	static final class ProfilingSubscriber<T>
+			implements InnerOperator<T, T>, Fuseable.QueueSubscription<T> {
+
+		/**
+		 * How far to look for a neighbouring {@link ProfilingSubscriber} in the
+		 * {@link Scannable} graph, the subscriber of the operator in between included.
+		 */
+		static final int MAX_HOPS = 3;
+
+		/**
+		 * The operator name of a final subscriber that is not {@link Scannable}.
+		 */
+		static final String TERMINAL_SUBSCRIBER = "subscriber";
+
+		final CoreSubscriber<? super T> actual;
+		final OperatorProfiler          profiler;
+		@Nullable
+		final ProfilingSubscriber<?>    downstream;
+		final String                    sequence;
+		final String                    operatorName;
+
+		Subscription  s;
+		OperatorStats target;
+		boolean       done;
+
+		ProfilingSubscriber(CoreSubscriber<? super T> actual, OperatorProfiler profiler,
+				Scannable operator) {
+			this.actual = actual;
+			this.profiler = profiler;
+			this.downstream = downstream(actual);
+			this.operatorName = operator.stepName();
+			String name = operator.name();
+			if (!name.equals(operatorName)) {
+				this.sequence = name;
+			}
+			else if (downstream != null) {
+				this.sequence = downstream.sequence;
+			}
+			else {
+				this.sequence = FluxMetrics.REACTOR_DEFAULT_NAME;
+			}
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				ProfilingSubscriber<?> upstream = upstream(s);
+				int index = upstream == null || upstream.target == null ? 1 :
+						upstream.target.index + 1;
+				if (downstream != null) {
+					target = profiler.stats(downstream.sequence, index,
+							downstream.operatorName);
+				}
+				else {
+					Scannable subscriber = Scannable.from(actual);
+					target = profiler.stats(sequence, index,
+							subscriber.isScanAvailable() ? subscriber.stepName() :
+									TERMINAL_SUBSCRIBER);
+				}
+				target.subscribers.add(this);
+
+				actual.onSubscribe(this);
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			OperatorStats target = this.target;
+			target.onNext.increment();
+			if (!profiler.sampling) {
+				actual.onNext(t);
+				return;
+			}
+
+			long[] downstreamNanos = DOWNSTREAM_NANOS.get();
+			long outer = downstreamNanos[0];
+			downstreamNanos[0] = 0L;
+			long start = System.nanoTime();
+			try {
+				actual.onNext(t);
+			}
+			finally {
+				long elapsed = System.nanoTime() - start;
+				target.sampled(elapsed - downstreamNanos[0]);
+				downstreamNanos[0] = outer + elapsed;
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, actual.currentContext());
+				return;
+			}
+			done = true;
+			terminate();
+			actual.onError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			terminate();
+			actual.onComplete();
+		}
+
+		@Override
+		public void request(long n) {
+			target.request(n);
+			s.request(n);
+		}
+
+		@Override
+		public void cancel() {
+			terminate();
+			s.cancel();
+		}
+
+		void terminate() {
+			OperatorStats target = this.target;
+			if (target != null) {
+				target.subscribers.remove(this);
+			}
+		}
+
+		@Override
+		public int requestFusion(int requestedMode) {
+			return Fuseable.NONE;
+		}
+
+		@Override
+		@Nullable
+		public T poll() {
+			return null;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return false;
+		}
+
+		@Override
+		public void clear() {
+
+		}
+
+		@Override
+		public int size() {
+			return 0;
+		}
+
+		@Override
+		public CoreSubscriber<? super T> actual() {
+			return actual;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.TERMINATED) return done;
+
+			return InnerOperator.super.scanUnsafe(key);
+		}
+
+		@Nullable
+		static ProfilingSubscriber<?> downstream(CoreSubscriber<?> actual) {
+			if (actual instanceof ProfilingSubscriber) {
+				return (ProfilingSubscriber<?>) actual;
+			}
+			Iterator<? extends Scannable> it = Scannable.from(actual).actuals().iterator();
+			for (int i = 1; i < MAX_HOPS && it.hasNext(); i++) {
+				Scannable next = it.next();
+				if (next instanceof ProfilingSubscriber) {
+					return (ProfilingSubscriber<?>) next;
+				}
+			}
+			return null;
+		}
+
+		@Nullable
+		static ProfilingSubscriber<?> upstream(Subscription s) {
+			if (s instanceof ProfilingSubscriber) {
+				return (ProfilingSubscriber<?>) s;
+			}
+			Iterator<? extends Scannable> it = Scannable.from(s).parents().iterator();
+			for (int i = 1; i < MAX_HOPS && it.hasNext(); i++) {
+				Scannable next = it.next();
+				if (next instanceof ProfilingSubscriber) {
+					return (ProfilingSubscriber<?>) next;
+				}
+			}
+			return null;
+		}
+	}
+}
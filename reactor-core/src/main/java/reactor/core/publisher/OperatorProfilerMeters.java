@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import reactor.core.publisher.OperatorProfiler.OperatorStats;
+
+import static reactor.core.publisher.FluxMetrics.TAG_SEQUENCE_NAME;
+
+/**
+ * Publishes the statistics of an {@link OperatorProfiler} as Micrometer meters. This is
+ * the only profiler class referencing Micrometer, so that it is only loaded once
+ * Micrometer is known to be available.
+ */
+final class OperatorProfilerMeters {
+
+	/**
+	 * Function counter of the {@code onNext} signals received by the operator.
+	 */
+	static final String METER_ON_NEXT      = "reactor.operator.onNext";
+	/**
+	 * Function counter of the amount requested by the operator from its upstream,
+	 * unbounded requests excluded.
+	 */
+	static final String METER_REQUESTED    = "reactor.operator.requested";
+	/**
+	 * Gauge of the number of elements buffered by the operator.
+	 */
+	static final String METER_BUFFERED     = "reactor.operator.buffered";
+	/**
+	 * Function timer of the sampled time spent by the operator in {@code onNext}.
+	 */
+	static final String METER_ON_NEXT_TIME = "reactor.operator.onNext.time";
+
+	static final String TAG_INDEX    = "index";
+	static final String TAG_OPERATOR = "operator";
+
+	static Consumer<OperatorStats> exporter(Object registry) {
+		Objects.requireNonNull(registry, "registry");
+		if (!(registry instanceof MeterRegistry)) {
+			throw new IllegalArgumentException("registry must be a MeterRegistry, was: " + registry.getClass().getName());
+		}
+		MeterRegistry meterRegistry = (MeterRegistry) registry;
+		return stats -> register(stats, meterRegistry);
+	}
+
+	static void register(OperatorStats stats, MeterRegistry registry) {
+		Tags tags = Tags.of(TAG_SEQUENCE_NAME, stats.sequence,
+				TAG_INDEX, String.valueOf(stats.index),
+				TAG_OPERATOR, stats.operator);
+
+		FunctionCounter.builder(METER_ON_NEXT, stats, s -> s.onNext.sum())
+		               .tags(tags)
+		               .description("Counts the onNext signals received by the operator")
+		               .register(registry);
+
+		FunctionCounter.builder(METER_REQUESTED, stats, s -> s.requested.sum())
+		               .tags(tags)
+		               .description("Counts the amount requested by the operator, unbounded requests excluded")
+		               .register(registry);
+
+		Gauge.builder(METER_BUFFERED, stats, OperatorStats::buffered)
+		     .tags(tags)
+		     .description("Measures the number of elements buffered by the operator")
+		     .register(registry);
+
+		FunctionTimer.builder(METER_ON_NEXT_TIME, stats,
+				s -> s.sampledOnNext.sum(),
+				s -> s.sampledOnNextNanos.sum(),
+				TimeUnit.NANOSECONDS)
+		             .tags(tags)
+		             .description("Times the sampled onNext signals in the operator, downstream excluded")
+		             .register(registry);
+	}
+}
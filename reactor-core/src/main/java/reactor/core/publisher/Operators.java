@@ -44,6 +44,7 @@ import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.annotation.Nullable;
 import reactor.util.context.Context;
+import reactor.util.context.ContextKey;
 
 import static reactor.core.Fuseable.NONE;
 
@@ -389,12 +390,12 @@ public abstract class Operators {
 		};
 
 		return ctx -> {
-			Consumer<Object> consumer = ctx.getOrDefault(Hooks.KEY_ON_DISCARD, null);
+			Consumer<Object> consumer = localHook(ctx, Hooks.CONTEXT_KEY_ON_DISCARD);
 			if (consumer == null) {
-				return ctx.put(Hooks.KEY_ON_DISCARD, safeConsumer);
+				return ctx.put(Hooks.CONTEXT_KEY_ON_DISCARD, safeConsumer);
 			}
 			else {
-				return ctx.put(Hooks.KEY_ON_DISCARD, safeConsumer.andThen(consumer));
+				return ctx.put(Hooks.CONTEXT_KEY_ON_DISCARD, safeConsumer.andThen(consumer));
 			}
 		};
 	}
@@ -411,9 +412,9 @@ public abstract class Operators {
 	public static final Context enableOnDiscard(@Nullable Context target, Consumer<?> discardConsumer) {
 		Objects.requireNonNull(discardConsumer, "discardConsumer must be provided");
 		if (target == null) {
-			return Context.of(Hooks.KEY_ON_DISCARD, discardConsumer);
+			return Context.of(Hooks.CONTEXT_KEY_ON_DISCARD, discardConsumer);
 		}
-		return target.put(Hooks.KEY_ON_DISCARD, discardConsumer);
+		return target.put(Hooks.CONTEXT_KEY_ON_DISCARD, discardConsumer);
 	}
 
 	/**
@@ -433,7 +434,7 @@ public abstract class Operators {
 	 * @see #onDiscardQueueWithClear(Queue, Context, Function)
 	 */
 	public static <T> void onDiscard(@Nullable T element, Context context) {
-		Consumer<Object> hook = context.getOrDefault(Hooks.KEY_ON_DISCARD, null);
+		Consumer<Object> hook = localHook(context, Hooks.CONTEXT_KEY_ON_DISCARD);
 		if (element != null && hook != null) {
 			try {
 				hook.accept(element);
@@ -467,7 +468,7 @@ public abstract class Operators {
 			return;
 		}
 
-		Consumer<Object> hook = context.getOrDefault(Hooks.KEY_ON_DISCARD, null);
+		Consumer<Object> hook = localHook(context, Hooks.CONTEXT_KEY_ON_DISCARD);
 		if (hook == null) {
 			queue.clear();
 			return;
@@ -524,7 +525,7 @@ public abstract class Operators {
    * @see #onDiscardQueueWithClear(Queue, Context, Function)
    */
   public static void onDiscardMultiple(Stream<?> multiple, Context context) {
-		Consumer<Object> hook = context.getOrDefault(Hooks.KEY_ON_DISCARD, null);
+		Consumer<Object> hook = localHook(context, Hooks.CONTEXT_KEY_ON_DISCARD);
 		if (hook != null) {
 			try {
 				multiple.filter(Objects::nonNull)
@@ -556,7 +557,7 @@ public abstract class Operators {
    */
 	public static void onDiscardMultiple(@Nullable Collection<?> multiple, Context context) {
 		if (multiple == null) return;
-		Consumer<Object> hook = context.getOrDefault(Hooks.KEY_ON_DISCARD, null);
+		Consumer<Object> hook = localHook(context, Hooks.CONTEXT_KEY_ON_DISCARD);
 		if (hook != null) {
 			try {
 				if (multiple.isEmpty()) {
@@ -596,7 +597,7 @@ public abstract class Operators {
 		if (multiple == null) return;
 		if (!knownToBeFinite) return;
 
-		Consumer<Object> hook = context.getOrDefault(Hooks.KEY_ON_DISCARD, null);
+		Consumer<Object> hook = localHook(context, Hooks.CONTEXT_KEY_ON_DISCARD);
 		if (hook != null) {
 			try {
 				multiple.forEachRemaining(o -> {
@@ -626,7 +627,7 @@ public abstract class Operators {
 	 * @param context a context that might hold a local error consumer
 	 */
 	public static void onErrorDropped(Throwable e, Context context) {
-		Consumer<? super Throwable> hook = context.getOrDefault(Hooks.KEY_ON_ERROR_DROPPED,null);
+		Consumer<? super Throwable> hook = localHook(context, Hooks.CONTEXT_KEY_ON_ERROR_DROPPED);
 		if (hook == null) {
 			hook = Hooks.onErrorDroppedHook;
 		}
@@ -650,7 +651,7 @@ public abstract class Operators {
 	public static <T> void onNextDropped(T t, Context context) {
 		Objects.requireNonNull(t, "onNext");
 		Objects.requireNonNull(context, "context");
-		Consumer<Object> hook = context.getOrDefault(Hooks.KEY_ON_NEXT_DROPPED, null);
+		Consumer<Object> hook = localHook(context, Hooks.CONTEXT_KEY_ON_NEXT_DROPPED);
 		if (hook == null) {
 			hook = Hooks.onNextDroppedHook;
 		}
@@ -721,7 +722,7 @@ public abstract class Operators {
 
 		Throwable t = Exceptions.unwrap(error);
 		BiFunction<? super Throwable, Object, ? extends Throwable> hook =
-				context.getOrDefault(Hooks.KEY_ON_OPERATOR_ERROR, null);
+				localHook(context, Hooks.CONTEXT_KEY_ON_OPERATOR_ERROR);
 		if (hook == null) {
 			hook = Hooks.onOperatorErrorHook;
 		}
@@ -755,6 +756,25 @@ public abstract class Operators {
 		return onRejectedExecution(original, null, null, null, context);
 	}
 
+	/**
+	 * Look up a sequence-specific hook in the {@link Context}, by its typed key first,
+	 * then by the {@link String} key of the same name that users can also put in the
+	 * {@link Context}.
+	 *
+	 * @param context the context in which to look for the hook
+	 * @param key the typed key of the hook
+	 * @param <T> the type of the hook
+	 * @return the hook, or null if none
+	 */
+	@Nullable
+	static <T> T localHook(Context context, ContextKey<T> key) {
+		T hook = context.getOrDefault(key, null);
+		if (hook == null) {
+			hook = context.getOrDefault(key.name(), null);
+		}
+		return hook;
+	}
+
 	static final OnNextFailureStrategy onNextErrorStrategy(Context context) {
 		OnNextFailureStrategy strategy = null;
 
@@ -977,8 +997,10 @@ public abstract class Operators {
 			@Nullable Object dataSignal,
 			Context context) {
 		//we "cheat" to apply the special key for onRejectedExecution in onOperatorError
-		if (context.hasKey(Hooks.KEY_ON_REJECTED_EXECUTION)) {
-			context = context.put(Hooks.KEY_ON_OPERATOR_ERROR, context.get(Hooks.KEY_ON_REJECTED_EXECUTION));
+		BiFunction<? super Throwable, Object, ? extends Throwable> reeHook =
+				localHook(context, Hooks.CONTEXT_KEY_ON_REJECTED_EXECUTION);
+		if (reeHook != null) {
+			context = context.put(Hooks.CONTEXT_KEY_ON_OPERATOR_ERROR, reeHook);
 		}
 
 		//don't create REE if original is a reactor-produced REE (not including singletons)
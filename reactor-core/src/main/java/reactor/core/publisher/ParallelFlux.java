@@ -291,16 +291,7 @@ public abstract class ParallelFlux<T> implements CorePublisher<T> {
 	 */
 	public final Mono<List<T>> collectSortedList(Comparator<? super T> comparator,
 			int capacityHint) {
-		int ch = capacityHint / parallelism() + 1;
-		ParallelFlux<List<T>> railReduced =
-				reduce(() -> new ArrayList<>(ch), (a, b) -> {
-					a.add(b);
-					return a;
-				});
-		ParallelFlux<List<T>> railSorted = railReduced.map(list -> {
-			list.sort(comparator);
-			return list;
-		});
+		ParallelFlux<List<T>> railSorted = sortRails(comparator, capacityHint);
 
 		Mono<List<T>> merged = railSorted.reduce((a, b) -> sortedMerger(a, b, comparator));
 
@@ -894,11 +885,55 @@ public abstract class ParallelFlux<T> implements CorePublisher<T> {
 	 * @return the new {@link ParallelFlux} instance
 	 */
 	public final ParallelFlux<T> runOn(Scheduler scheduler, int prefetch) {
+		return runOn(scheduler, prefetch, RailAffinity.ROUND_ROBIN);
+	}
+
+	/**
+	 * Specifies where each 'rail' will observe its incoming values with no work-stealing,
+	 * default prefetch amount and the given {@link RailAffinity}.
+	 * <p>
+	 * This operator uses the default prefetch size returned by {@code
+	 * Queues.SMALL_BUFFER_SIZE}.
+	 * <p>
+	 * With {@link RailAffinity#STICKY}, the operator calls {@code Scheduler.createWorker(int)}
+	 * with the index of each rail, so that a {@link Scheduler} with a fixed set of threads
+	 * like {@link reactor.core.scheduler.Schedulers#parallel()} always runs a given rail on
+	 * the same thread, across subscriptions and across chained {@code runOn} stages.
+	 * With {@link RailAffinity#ROUND_ROBIN}, this is equivalent to {@link #runOn(Scheduler)}.
+	 *
+	 * @param scheduler the scheduler to use
+	 * @param affinity the {@link RailAffinity} deciding how rails are assigned to workers
+	 *
+	 * @return the new {@link ParallelFlux} instance
+	 */
+	public final ParallelFlux<T> runOn(Scheduler scheduler, RailAffinity affinity) {
+		return runOn(scheduler, Queues.SMALL_BUFFER_SIZE, affinity);
+	}
+
+	/**
+	 * Specifies where each 'rail' will observe its incoming values with no work-stealing,
+	 * a given prefetch amount and the given {@link RailAffinity}.
+	 * <p>
+	 * With {@link RailAffinity#STICKY}, the operator calls {@code Scheduler.createWorker(int)}
+	 * with the index of each rail, so that a {@link Scheduler} with a fixed set of threads
+	 * like {@link reactor.core.scheduler.Schedulers#parallel()} always runs a given rail on
+	 * the same thread, across subscriptions and across chained {@code runOn} stages.
+	 * With {@link RailAffinity#ROUND_ROBIN}, this is equivalent to {@link #runOn(Scheduler, int)}.
+	 *
+	 * @param scheduler the scheduler to use
+	 * @param prefetch the number of values to request on each 'rail' from the source
+	 * @param affinity the {@link RailAffinity} deciding how rails are assigned to workers
+	 *
+	 * @return the new {@link ParallelFlux} instance
+	 */
+	public final ParallelFlux<T> runOn(Scheduler scheduler, int prefetch, RailAffinity affinity) {
 		Objects.requireNonNull(scheduler, "scheduler");
+		Objects.requireNonNull(affinity, "affinity");
 		return onAssembly(new ParallelRunOn<>(this,
 				scheduler,
 				prefetch,
-				Queues.get(prefetch)));
+				Queues.get(prefetch),
+				affinity));
 	}
 
 	/**
@@ -958,19 +993,38 @@ public abstract class ParallelFlux<T> implements CorePublisher<T> {
 	 * @return the new Flux instance
 	 */
 	public final Flux<T> sorted(Comparator<? super T> comparator, int capacityHint) {
-		int ch = capacityHint / parallelism() + 1;
-		ParallelFlux<List<T>> railReduced = reduce(() -> new ArrayList<>(ch), (a, b) -> {
-					a.add(b);
-					return a;
-				});
-		ParallelFlux<List<T>> railSorted = railReduced.map(list -> {
-			list.sort(comparator);
-			return list;
-		});
+		ParallelFlux<List<T>> railSorted = sortRails(comparator, capacityHint);
 
 		return Flux.onAssembly(new ParallelMergeSort<>(railSorted, comparator));
 	}
 
+	/**
+	 * Sorts the 'rails' of this {@link ParallelFlux} and returns a Publisher that emits
+	 * the merge of the sorted rails, the merge itself being performed in parallel on the
+	 * given {@link Scheduler} (typically the one used to {@link #runOn(Scheduler) run}
+	 * the rails).
+	 * <p>
+	 * The sorted rails are merged two by two as a tree, and each of these merges is split
+	 * in ranges that are merged concurrently. Ranges of the final merge are emitted as
+	 * soon as they are complete, in order, instead of waiting for the whole merge. On
+	 * equal elements, the ones from the lowest rail are emitted first.
+	 * <p>
+	 * This operator requires a finite source ParallelFlux.
+	 *
+	 * @param comparator the comparator to use
+	 * @param capacityHint the expected number of total elements
+	 * @param scheduler the {@link Scheduler} to run the merge on
+	 *
+	 * @return the new Flux instance
+	 */
+	public final Flux<T> sorted(Comparator<? super T> comparator, int capacityHint,
+			Scheduler scheduler) {
+		Objects.requireNonNull(scheduler, "scheduler");
+		ParallelFlux<List<T>> railSorted = sortRails(comparator, capacityHint);
+
+		return Flux.onAssembly(new ParallelMergeSortTree<>(railSorted, comparator, scheduler));
+	}
+
 	/**
 	 * Subscribes an array of Subscribers to this {@link ParallelFlux} and triggers the
 	 * execution chain for all 'rails'.
@@ -1293,8 +1347,10 @@ public abstract class ParallelFlux<T> implements CorePublisher<T> {
 			source = (ParallelFlux<T>) hook.apply(source);
 		}
 		if (Hooks.GLOBAL_TRACE) {
-			AssemblySnapshot stacktrace = new AssemblySnapshot(null, Traces.callSiteSupplierFactory.get());
-			source = (ParallelFlux<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			AssemblySnapshot stacktrace = Hooks.captureAssembly();
+			if (stacktrace != null) {
+				source = (ParallelFlux<T>) Hooks.addAssemblyInfo(source, stacktrace);
+			}
 		}
 		return source;
 	}
@@ -1341,6 +1397,27 @@ public abstract class ParallelFlux<T> implements CorePublisher<T> {
 				onCancel));
 	}
 
+	/**
+	 * Collect each rail into a list and sort it, as the first step of the sorting
+	 * operators.
+	 *
+	 * @param comparator the comparator to sort each rail with
+	 * @param capacityHint the expected number of total elements
+	 *
+	 * @return a {@link ParallelFlux} of one sorted list per rail
+	 */
+	final ParallelFlux<List<T>> sortRails(Comparator<? super T> comparator, int capacityHint) {
+		int ch = capacityHint / parallelism() + 1;
+		ParallelFlux<List<T>> railReduced = reduce(() -> new ArrayList<>(ch), (a, b) -> {
+					a.add(b);
+					return a;
+				});
+		return railReduced.map(list -> {
+			list.sort(comparator);
+			return list;
+		});
+	}
+
 	static final <T> List<T> sortedMerger(List<T> a, List<T> b, Comparator<? super T> comparator) {
 		int n = a.size() + b.size();
 		if (n == 0) {
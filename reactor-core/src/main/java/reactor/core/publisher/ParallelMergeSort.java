@@ -33,7 +33,8 @@ import reactor.util.context.Context;
 
 /**
  * Given sorted rail sequences (according to the provided comparator) as List
- * emit the smallest item from these parallel Lists to the Subscriber.
+ * emit the smallest item from these parallel Lists to the Subscriber, the current item
+ * of each List being kept in a {@link MergeOrderedHeap}.
  * <p>
  * It expects the source to emit exactly one list (which could be empty).
  *
@@ -82,6 +83,12 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 
 		final int[] indexes;
 
+		final Object[] heads;
+
+		final MergeOrderedHeap<T> heap;
+
+		boolean heapInitialized;
+
 		final Comparator<? super T> comparator;
 		final CoreSubscriber<? super T> actual;
 
@@ -127,6 +134,8 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 			this.subscribers = s;
 			this.lists = new List[n];
 			this.indexes = new int[n];
+			this.heads = new Object[n];
+			this.heap = new MergeOrderedHeap<>(heads, comparator);
 			REMAINING.lazySet(this, n);
 		}
 
@@ -168,6 +177,7 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 				cancelAll();
 				if (WIP.getAndIncrement(this) == 0) {
 					Arrays.fill(lists, null);
+					Arrays.fill(heads, null);
 				}
 			}
 		}
@@ -204,16 +214,30 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 			Subscriber<? super T> a = actual;
 			List<T>[] lists = this.lists;
 			int[] indexes = this.indexes;
-			int n = indexes.length;
+			Object[] heads = this.heads;
+			MergeOrderedHeap<T> heap = this.heap;
 
 			for (; ; ) {
 
 				long r = requested;
 				long e = 0L;
 
+				if (!heapInitialized && !cancelled && error == null) {
+					// all the lists are available at this point
+					heapInitialized = true;
+					for (int i = 0; i < lists.length; i++) {
+						List<T> list = lists[i];
+						if (!list.isEmpty()) {
+							heads[i] = list.get(0);
+							heap.offer(i);
+						}
+					}
+				}
+
 				while (e != r) {
 					if (cancelled) {
 						Arrays.fill(lists, null);
+						Arrays.fill(heads, null);
 						return;
 					}
 
@@ -221,41 +245,33 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 					if (ex != null) {
 						cancelAll();
 						Arrays.fill(lists, null);
+						Arrays.fill(heads, null);
 						a.onError(ex);
 						return;
 					}
 
-					T min = null;
-					int minIndex = -1;
-
-					for (int i = 0; i < n; i++) {
-						List<T> list = lists[i];
-						int index = indexes[i];
-
-						if (list.size() != index) {
-							if (min == null) {
-								min = list.get(index);
-								minIndex = i;
-							}
-							else {
-								T b = list.get(index);
-								if (comparator.compare(min, b) > 0) {
-									min = b;
-									minIndex = i;
-								}
-							}
-						}
-					}
-
-					if (min == null) {
+					if (heap.isEmpty()) {
 						Arrays.fill(lists, null);
 						a.onComplete();
 						return;
 					}
 
-					a.onNext(min);
+					int minIndex = heap.peek();
+					@SuppressWarnings("unchecked")
+					T min = (T) heads[minIndex];
 
-					indexes[minIndex]++;
+					int index = ++indexes[minIndex];
+					List<T> list = lists[minIndex];
+					if (index != list.size()) {
+						heads[minIndex] = list.get(index);
+						heap.topChanged();
+					}
+					else {
+						heads[minIndex] = null;
+						heap.poll();
+					}
+
+					a.onNext(min);
 
 					e++;
 				}
@@ -263,6 +279,7 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 				if (e == r) { //TODO investigate condition always true
 					if (cancelled) {
 						Arrays.fill(lists, null);
+						Arrays.fill(heads, null);
 						return;
 					}
 
@@ -270,20 +287,12 @@ final class ParallelMergeSort<T> extends Flux<T> implements Scannable {
 					if (ex != null) {
 						cancelAll();
 						Arrays.fill(lists, null);
+						Arrays.fill(heads, null);
 						a.onError(ex);
 						return;
 					}
 
-					boolean empty = true;
-
-					for (int i = 0; i < n; i++) {
-						if (indexes[i] != lists[i].size()) {
-							empty = false;
-							break;
-						}
-					}
-
-					if (empty) {
+					if (heap.isEmpty()) {
 						Arrays.fill(lists, null);
 						a.onComplete();
 						return;
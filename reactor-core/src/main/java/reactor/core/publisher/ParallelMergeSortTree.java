@@ -0,0 +1,672 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Given sorted rail sequences (according to the provided comparator) as List, merge
+ * them on a {@link Scheduler} as a tree of pairwise merges and emit the result to the
+ * Subscriber.
+ * <p>
+ * Each level of the tree merges adjacent runs two by two, and each pairwise merge is
+ * itself split into ranges of the output that are merged concurrently (the split
+ * points being found by binary search), so that even the last level doesn't run on a
+ * single thread. The ranges of the last level are emitted as soon as they, and all the
+ * ranges before them, are merged. On equal elements the lowest rail is emitted first.
+ * <p>
+ * It expects the source to emit exactly one list (which could be empty).
+ *
+ * @param <T> the value type
+ */
+final class ParallelMergeSortTree<T> extends Flux<T> implements Scannable {
+
+	/**
+	 * The minimum number of elements merged by a single task.
+	 */
+	static final int MIN_CHUNK = 1024;
+
+	final ParallelFlux<List<T>> source;
+
+	final Comparator<? super T> comparator;
+
+	final Scheduler scheduler;
+
+	ParallelMergeSortTree(ParallelFlux<List<T>> source,
+			Comparator<? super T> comparator,
+			Scheduler scheduler) {
+		this.source = source;
+		this.comparator = comparator;
+		this.scheduler = scheduler;
+	}
+
+	@Override
+	public int getPrefetch() {
+		return Integer.MAX_VALUE;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T> actual) {
+		MergeTreeMain<T> parent =
+				new MergeTreeMain<>(actual, source.parallelism(), comparator, scheduler);
+		actual.onSubscribe(parent);
+
+		source.subscribe(parent.subscribers);
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.PARENT) return source;
+		if (key == Attr.PREFETCH) return getPrefetch();
+		if (key == Attr.RUN_ON) return scheduler;
+
+		return null;
+	}
+
+	/**
+	 * Find how many elements of the run {@code [aLo, aHi)} are among the first {@code p}
+	 * elements of its merge with the run {@code [aHi, bHi)}, elements of the first run
+	 * coming first when equal.
+	 */
+	@SuppressWarnings("unchecked")
+	static <T> int coRank(Object[] a, int aLo, int aHi, int bHi, int p,
+			Comparator<? super T> comparator) {
+		int lo = Math.max(0, p - (bHi - aHi));
+		int hi = Math.min(p, aHi - aLo);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			int j = p - i;
+			if (comparator.compare((T) a[aLo + i], (T) a[aHi + j - 1]) <= 0) {
+				lo = i + 1;
+			}
+			else {
+				hi = i;
+			}
+		}
+		return lo;
+	}
+
+	static final class MergeTreeMain<T> implements InnerProducer<T> {
+
+		final MergeTreeInner<T>[] subscribers;
+
+		final List<T>[] lists;
+
+		final Comparator<? super T> comparator;
+		final CoreSubscriber<? super T> actual;
+		final Scheduler scheduler;
+
+		/** The runs of the current level, as boundaries in {@link #buffer}. */
+		int[] bounds;
+		Object[] buffer;
+		Object[] spare;
+		int total;
+
+		int[] chunkBounds;
+		AtomicIntegerArray chunkDone;
+
+		/** Drain only: the number of emitted elements and of ready chunks. */
+		int emitted;
+		int readyChunks;
+
+		volatile Object[] output;
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<MergeTreeMain> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(MergeTreeMain.class, "wip");
+
+		volatile long requested;
+		@SuppressWarnings("rawtypes")
+		static final AtomicLongFieldUpdater<MergeTreeMain> REQUESTED =
+				AtomicLongFieldUpdater.newUpdater(MergeTreeMain.class, "requested");
+
+		volatile boolean cancelled;
+
+		volatile int remaining;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<MergeTreeMain> REMAINING =
+				AtomicIntegerFieldUpdater.newUpdater(MergeTreeMain.class, "remaining");
+
+		volatile int pending;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<MergeTreeMain> PENDING =
+				AtomicIntegerFieldUpdater.newUpdater(MergeTreeMain.class, "pending");
+
+		volatile Throwable error;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<MergeTreeMain, Throwable> ERROR =
+				AtomicReferenceFieldUpdater.newUpdater(MergeTreeMain.class,
+						Throwable.class,
+						"error");
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		MergeTreeMain(CoreSubscriber<? super T> actual,
+				int n,
+				Comparator<? super T> comparator,
+				Scheduler scheduler) {
+			this.comparator = comparator;
+			this.actual = actual;
+			this.scheduler = scheduler;
+			MergeTreeInner<T>[] s = new MergeTreeInner[n];
+
+			for (int i = 0; i < n; i++) {
+				s[i] = new MergeTreeInner<>(this, i);
+			}
+			this.subscribers = s;
+			this.lists = new List[n];
+			REMAINING.lazySet(this, n);
+		}
+
+		@Override
+		public final CoreSubscriber<? super T> actual() {
+			return actual;
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.ERROR) return error;
+			if (key == Attr.REQUESTED_FROM_DOWNSTREAM) return requested;
+			if (key == Attr.CANCELLED) return cancelled;
+			if (key == Attr.BUFFERED) return subscribers.length - remaining;
+			if (key == Attr.RUN_ON) return scheduler;
+
+			return InnerProducer.super.scanUnsafe(key);
+		}
+
+		@Override
+		public Stream<? extends Scannable> inners() {
+			return Stream.of(subscribers);
+		}
+
+		@Override
+		public void request(long n) {
+			if (Operators.validate(n)) {
+				Operators.addCap(REQUESTED, this, n);
+				drain();
+			}
+		}
+
+		@Override
+		public void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				cancelAll();
+				if (WIP.getAndIncrement(this) == 0) {
+					clear();
+				}
+			}
+		}
+
+		void cancelAll() {
+			for (MergeTreeInner<T> s : subscribers) {
+				s.cancel();
+			}
+		}
+
+		void clear() {
+			Arrays.fill(lists, null);
+			output = null;
+		}
+
+		void innerNext(List<T> value, int index) {
+			lists[index] = value;
+			if (REMAINING.decrementAndGet(this) == 0) {
+				startMerge();
+			}
+		}
+
+		void innerError(Throwable ex) {
+			if (ERROR.compareAndSet(this, null, ex)) {
+				cancelAll();
+				drain();
+			}
+			else if (error != ex) {
+				Operators.onErrorDropped(ex, actual.currentContext());
+			}
+		}
+
+		void startMerge() {
+			List<T>[] lists = this.lists;
+			int runs = 0;
+			int n = 0;
+			for (List<T> list : lists) {
+				if (!list.isEmpty()) {
+					runs++;
+					n += list.size();
+				}
+			}
+			total = n;
+
+			if (runs <= 1) {
+				Object[] out = new Object[n];
+				for (List<T> list : lists) {
+					if (!list.isEmpty()) {
+						out = list.toArray();
+					}
+				}
+				Arrays.fill(lists, null);
+				chunkBounds = new int[]{0, n};
+				chunkDone = new AtomicIntegerArray(1);
+				chunkDone.lazySet(0, 1);
+				output = out;
+				drain();
+				return;
+			}
+
+			// first level: gather the lists in a single buffer
+			Object[] b = new Object[n];
+			int[] bounds = new int[runs + 1];
+			@SuppressWarnings({"unchecked", "rawtypes"}) CopyTask<T>[] tasks = new CopyTask[runs];
+			int r = 0;
+			for (int i = 0; i < lists.length; i++) {
+				List<T> list = lists[i];
+				lists[i] = null;
+				if (!list.isEmpty()) {
+					tasks[r] = new CopyTask<>(this, list, b, bounds[r]);
+					bounds[r + 1] = bounds[r] + list.size();
+					r++;
+				}
+			}
+			this.buffer = b;
+			this.bounds = bounds;
+			PENDING.lazySet(this, runs);
+			schedule(tasks);
+		}
+
+		void nextLevel() {
+			Object[] from = buffer;
+			Object[] to = spare;
+			if (cancelled || error != null) {
+				buffer = null;
+				spare = null;
+				drain();
+				return;
+			}
+			if (to == null) {
+				to = new Object[total];
+			}
+			int[] b = bounds;
+			int runs = b.length - 1;
+			int pairs = (runs + 1) >> 1;
+			int parallelism = subscribers.length;
+
+			int[] nb = new int[pairs + 1];
+			@SuppressWarnings({"unchecked", "rawtypes"}) MergeTask<T>[][] pairTasks = new MergeTask[pairs][];
+			int count = 0;
+			for (int p = 0; p < pairs; p++) {
+				int lo = b[2 * p];
+				int mid = b[Math.min(2 * p + 1, runs)];
+				int hi = b[Math.min(2 * p + 2, runs)];
+				nb[p] = lo;
+
+				int len = hi - lo;
+				int chunks = Math.max(1, Math.min(len / MIN_CHUNK, parallelism));
+				@SuppressWarnings({"unchecked", "rawtypes"}) MergeTask<T>[] ts = new MergeTask[chunks];
+				int start = lo;
+				for (int c = 0; c < chunks; c++) {
+					int end = lo + (int) ((long) len * (c + 1) / chunks);
+					ts[c] = new MergeTask<>(this, from, to, lo, mid, hi, start, end,
+							pairs == 1 ? c : -1);
+					start = end;
+				}
+				pairTasks[p] = ts;
+				count += chunks;
+			}
+			nb[pairs] = total;
+
+			this.buffer = to;
+			this.spare = from;
+			this.bounds = nb;
+
+			@SuppressWarnings({"unchecked", "rawtypes"}) MergeTask<T>[] tasks = new MergeTask[count];
+			int k = 0;
+			for (MergeTask<T>[] ts : pairTasks) {
+				System.arraycopy(ts, 0, tasks, k, ts.length);
+				k += ts.length;
+			}
+
+			if (pairs == 1) {
+				int[] cb = new int[count + 1];
+				for (int c = 0; c < count; c++) {
+					cb[c] = tasks[c].outLo;
+				}
+				cb[count] = total;
+				chunkBounds = cb;
+				chunkDone = new AtomicIntegerArray(count);
+				buffer = null;
+				spare = null;
+				output = to;
+			}
+			else {
+				PENDING.lazySet(this, count);
+			}
+			schedule(tasks);
+		}
+
+		void schedule(Runnable[] tasks) {
+			for (Runnable task : tasks) {
+				try {
+					scheduler.schedule(task);
+				}
+				catch (Throwable ree) {
+					innerError(Operators.onRejectedExecution(ree, actual.currentContext()));
+					return;
+				}
+			}
+		}
+
+		void taskDone(int chunk) {
+			if (chunk >= 0) {
+				chunkDone.set(chunk, 1);
+				drain();
+			}
+			else if (PENDING.decrementAndGet(this) == 0) {
+				nextLevel();
+			}
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+
+			int missed = 1;
+			Subscriber<? super T> a = actual;
+
+			for (; ; ) {
+				if (cancelled) {
+					clear();
+					return;
+				}
+
+				Throwable ex = error;
+				if (ex != null) {
+					clear();
+					a.onError(ex);
+					return;
+				}
+
+				Object[] out = output;
+				if (out != null) {
+					AtomicIntegerArray done = chunkDone;
+					int c = readyChunks;
+					while (c < done.length() && done.get(c) != 0) {
+						c++;
+					}
+					readyChunks = c;
+					int limit = chunkBounds[c];
+
+					long r = requested;
+					long e = 0L;
+					int i = emitted;
+
+					while (e != r && i != limit) {
+						if (cancelled) {
+							clear();
+							return;
+						}
+
+						ex = error;
+						if (ex != null) {
+							clear();
+							a.onError(ex);
+							return;
+						}
+
+						@SuppressWarnings("unchecked")
+						T v = (T) out[i];
+						out[i] = null;
+						i++;
+
+						a.onNext(v);
+
+						e++;
+					}
+
+					emitted = i;
+
+					if (i == total) {
+						if (cancelled) {
+							clear();
+							return;
+						}
+						output = null;
+						a.onComplete();
+						return;
+					}
+
+					if (e != 0 && r != Long.MAX_VALUE) {
+						REQUESTED.addAndGet(this, -e);
+					}
+				}
+
+				int w = wip;
+				if (w == missed) {
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Copies a sorted rail list into the merge buffer.
+	 */
+	static final class CopyTask<T> implements Runnable {
+
+		final MergeTreeMain<T> parent;
+		final List<T> list;
+		final Object[] to;
+		final int offset;
+
+		CopyTask(MergeTreeMain<T> parent, List<T> list, Object[] to, int offset) {
+			this.parent = parent;
+			this.list = list;
+			this.to = to;
+			this.offset = offset;
+		}
+
+		@Override
+		public void run() {
+			if (!parent.cancelled) {
+				try {
+					List<T> list = this.list;
+					Object[] to = this.to;
+					int offset = this.offset;
+					int n = list.size();
+					for (int i = 0; i < n; i++) {
+						to[offset + i] = list.get(i);
+					}
+				}
+				catch (Throwable ex) {
+					parent.innerError(Operators.onOperatorError(ex,
+							parent.actual.currentContext()));
+					return;
+				}
+			}
+			parent.taskDone(-1);
+		}
+	}
+
+	/**
+	 * Merges the range {@code [outLo, outHi)} of the merge of the runs
+	 * {@code [lo, mid)} and {@code [mid, hi)}.
+	 */
+	static final class MergeTask<T> implements Runnable {
+
+		final MergeTreeMain<T> parent;
+		final Object[] from;
+		final Object[] to;
+		final int lo;
+		final int mid;
+		final int hi;
+		final int outLo;
+		final int outHi;
+		/** The index of the chunk in the last level, or -1. */
+		final int chunk;
+
+		MergeTask(MergeTreeMain<T> parent, Object[] from, Object[] to,
+				int lo, int mid, int hi, int outLo, int outHi, int chunk) {
+			this.parent = parent;
+			this.from = from;
+			this.to = to;
+			this.lo = lo;
+			this.mid = mid;
+			this.hi = hi;
+			this.outLo = outLo;
+			this.outHi = outHi;
+			this.chunk = chunk;
+		}
+
+		@Override
+		public void run() {
+			MergeTreeMain<T> parent = this.parent;
+			if (!parent.cancelled && parent.error == null) {
+				try {
+					merge(parent.comparator);
+				}
+				catch (Throwable ex) {
+					parent.innerError(Operators.onOperatorError(ex,
+							parent.actual.currentContext()));
+					return;
+				}
+			}
+			parent.taskDone(chunk);
+		}
+
+		@SuppressWarnings("unchecked")
+		void merge(Comparator<? super T> comparator) {
+			Object[] from = this.from;
+			Object[] to = this.to;
+			int lo = this.lo;
+			int mid = this.mid;
+			int hi = this.hi;
+
+			int i0 = coRank(from, lo, mid, hi, outLo - lo, comparator);
+			int i1 = coRank(from, lo, mid, hi, outHi - lo, comparator);
+			int i = lo + i0;
+			int iEnd = lo + i1;
+			int j = mid + (outLo - lo - i0);
+			int jEnd = mid + (outHi - lo - i1);
+			int k = outLo;
+
+			while (i < iEnd && j < jEnd) {
+				Object a = from[i];
+				Object b = from[j];
+				if (comparator.compare((T) b, (T) a) < 0) {
+					to[k++] = b;
+					j++;
+				}
+				else {
+					to[k++] = a;
+					i++;
+				}
+			}
+			if (i < iEnd) {
+				System.arraycopy(from, i, to, k, iEnd - i);
+			}
+			else if (j < jEnd) {
+				System.arraycopy(from, j, to, k, jEnd - j);
+			}
+		}
+	}
+
+	static final class MergeTreeInner<T> implements InnerConsumer<List<T>> {
+
+		final MergeTreeMain<T> parent;
+
+		final int index;
+
+		volatile Subscription s;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<MergeTreeInner, Subscription> S =
+				AtomicReferenceFieldUpdater.newUpdater(MergeTreeInner.class,
+						Subscription.class,
+						"s");
+
+		MergeTreeInner(MergeTreeMain<T> parent, int index) {
+			this.parent = parent;
+			this.index = index;
+		}
+
+		@Override
+		public Context currentContext() {
+			return parent.actual.currentContext();
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.CANCELLED) return s == Operators.cancelledSubscription();
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.ACTUAL) return parent;
+			if (key == Attr.PREFETCH) return Integer.MAX_VALUE;
+
+			return null;
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.setOnce(S, this, s)) {
+				s.request(Long.MAX_VALUE);
+			}
+		}
+
+		@Override
+		public void onNext(List<T> t) {
+			parent.innerNext(t, index);
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			parent.innerError(t);
+		}
+
+		@Override
+		public void onComplete() {
+			// ignored
+		}
+
+		void cancel() {
+			Operators.terminate(S, this);
+		}
+	}
+}
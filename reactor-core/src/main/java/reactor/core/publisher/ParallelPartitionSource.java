@@ -0,0 +1,430 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.context.Context;
+
+/**
+ * Dispatches the values from upstream to the rail matching the hash of their key, so
+ * that all the values sharing a key go through the same rail, in order. A value from
+ * upstream is sent to only one of the subscribers.
+ * <p>
+ * Each rail has its own queue, and the total number of values buffered across all the
+ * rails is bounded by the prefetch: upstream is replenished as values are emitted, so a
+ * rail that doesn't request can eventually stall the others.
+ *
+ * @param <T> the value type
+ */
+final class ParallelPartitionSource<T> extends ParallelFlux<T> implements Scannable {
+
+	final Publisher<? extends T> source;
+
+	final Function<? super T, ?> keyExtractor;
+
+	final int parallelism;
+
+	final int prefetch;
+
+	final Supplier<Queue<T>> queueSupplier;
+
+	ParallelPartitionSource(Publisher<? extends T> source,
+			Function<? super T, ?> keyExtractor,
+			int parallelism,
+			int prefetch,
+			Supplier<Queue<T>> queueSupplier) {
+		if (parallelism <= 0) {
+			throw new IllegalArgumentException("parallelism > 0 required but it was " + parallelism);
+		}
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		}
+		this.source = source;
+		this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor");
+		this.parallelism = parallelism;
+		this.prefetch = prefetch;
+		this.queueSupplier = queueSupplier;
+	}
+
+	@Override
+	public int getPrefetch() {
+		return prefetch;
+	}
+
+	@Override
+	public int parallelism() {
+		return parallelism;
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Scannable.Attr key) {
+		if (key == Attr.PARENT) return source;
+		if (key == Attr.PREFETCH) return getPrefetch();
+
+		return null;
+	}
+
+	@Override
+	public void subscribe(CoreSubscriber<? super T>[] subscribers) {
+		if (!validate(subscribers)) {
+			return;
+		}
+
+		source.subscribe(new PartitionSourceMain<>(subscribers, keyExtractor, prefetch, queueSupplier));
+	}
+
+	/**
+	 * Return the rail a given key is routed to, spreading the bits of its hash like
+	 * {@link java.util.HashMap} does.
+	 *
+	 * @param key the key of a value, possibly null
+	 * @param rails the number of rails
+	 * @return the index of the rail
+	 */
+	static int railOf(@Nullable Object key, int rails) {
+		int h = Objects.hashCode(key);
+		return Math.floorMod(h ^ (h >>> 16), rails);
+	}
+
+	static final class PartitionSourceMain<T> implements InnerConsumer<T> {
+
+		final CoreSubscriber<? super T>[] subscribers;
+
+		final Function<? super T, ?> keyExtractor;
+
+		final Queue<T>[] queues;
+
+		final AtomicLongArray requests;
+
+		final long[] emissions;
+
+		final int prefetch;
+
+		final int limit;
+
+		Subscription s;
+
+		Throwable error;
+
+		volatile boolean done;
+
+		volatile boolean cancelled;
+
+		volatile int wip;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<PartitionSourceMain> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(PartitionSourceMain.class, "wip");
+
+		/**
+		 * Counts how many subscribers were setup to delay triggering the
+		 * drain of upstream until all of them have been setup.
+		 */
+		volatile int subscriberCount;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<PartitionSourceMain> SUBSCRIBER_COUNT =
+				AtomicIntegerFieldUpdater.newUpdater(PartitionSourceMain.class, "subscriberCount");
+
+		int produced;
+
+		@SuppressWarnings("unchecked")
+		PartitionSourceMain(CoreSubscriber<? super T>[] subscribers,
+				Function<? super T, ?> keyExtractor,
+				int prefetch,
+				Supplier<Queue<T>> queueSupplier) {
+			this.subscribers = subscribers;
+			this.keyExtractor = keyExtractor;
+			this.prefetch = prefetch;
+			this.limit = Operators.unboundedOrLimit(prefetch);
+			this.requests = new AtomicLongArray(subscribers.length);
+			this.emissions = new long[subscribers.length];
+			this.queues = new Queue[subscribers.length];
+			for (int i = 0; i < queues.length; i++) {
+				queues[i] = queueSupplier.get();
+			}
+		}
+
+		@Override
+		@Nullable
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.PARENT) return s;
+			if (key == Attr.PREFETCH) return prefetch;
+			if (key == Attr.TERMINATED) return done;
+			if (key == Attr.CANCELLED) return cancelled;
+			if (key == Attr.ERROR) return error;
+			if (key == Attr.BUFFERED) {
+				int size = 0;
+				for (Queue<T> q : queues) {
+					size += q.size();
+				}
+				return size;
+			}
+
+			return null;
+		}
+
+		@Override
+		public Stream<? extends Scannable> inners() {
+			return Stream.of(subscribers).map(Scannable::from);
+		}
+
+		@Override
+		public Context currentContext() {
+			return subscribers[0].currentContext();
+		}
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			if (Operators.validate(this.s, s)) {
+				this.s = s;
+
+				setupSubscribers();
+
+				s.request(Operators.unboundedOrPrefetch(prefetch));
+			}
+		}
+
+		void setupSubscribers() {
+			int m = subscribers.length;
+
+			for (int i = 0; i < m; i++) {
+				if (cancelled) {
+					return;
+				}
+
+				SUBSCRIBER_COUNT.lazySet(this, i + 1);
+
+				subscribers[i].onSubscribe(new PartitionSourceInner<>(this, i, m));
+			}
+		}
+
+		@Override
+		public void onNext(T t) {
+			if (done) {
+				Operators.onNextDropped(t, currentContext());
+				return;
+			}
+			int rail;
+			try {
+				rail = railOf(keyExtractor.apply(t), queues.length);
+			}
+			catch (Throwable ex) {
+				onError(Operators.onOperatorError(s, ex, t, currentContext()));
+				return;
+			}
+			if (!queues[rail].offer(t)) {
+				onError(Operators.onOperatorError(s, Exceptions.failWithOverflow(Exceptions.BACKPRESSURE_ERROR_QUEUE_FULL), t, currentContext()));
+				return;
+			}
+			drain();
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			if (done) {
+				Operators.onErrorDropped(t, currentContext());
+				return;
+			}
+			error = t;
+			done = true;
+			drain();
+		}
+
+		@Override
+		public void onComplete() {
+			if (done) {
+				return;
+			}
+			done = true;
+			drain();
+		}
+
+		void cancel() {
+			if (!cancelled) {
+				cancelled = true;
+				this.s.cancel();
+
+				if (WIP.getAndIncrement(this) == 0) {
+					clear();
+				}
+			}
+		}
+
+		void clear() {
+			for (Queue<T> q : queues) {
+				q.clear();
+			}
+		}
+
+		void drain() {
+			if (WIP.getAndIncrement(this) != 0) {
+				return;
+			}
+
+			int missed = 1;
+
+			Queue<T>[] qs = queues;
+			CoreSubscriber<? super T>[] a = subscribers;
+			AtomicLongArray r = requests;
+			long[] e = emissions;
+			int n = qs.length;
+			int consumed = produced;
+
+			for (;;) {
+				if (cancelled) {
+					clear();
+					return;
+				}
+
+				boolean d = done;
+				if (d) {
+					Throwable ex = error;
+					if (ex != null) {
+						clear();
+						for (Subscriber<? super T> s : a) {
+							s.onError(ex);
+						}
+						return;
+					}
+				}
+
+				boolean empty = true;
+
+				for (int i = 0; i < n; i++) {
+					Queue<T> q = qs[i];
+					long ri = r.get(i);
+					long ei = e[i];
+
+					while (ei != ri) {
+						if (cancelled) {
+							clear();
+							return;
+						}
+
+						T v = q.poll();
+
+						if (v == null) {
+							break;
+						}
+
+						a[i].onNext(v);
+
+						ei++;
+
+						int c = ++consumed;
+						if (c == limit) {
+							consumed = 0;
+							s.request(c);
+						}
+					}
+
+					e[i] = ei;
+
+					if (!q.isEmpty()) {
+						empty = false;
+					}
+				}
+
+				if (d && empty) {
+					for (Subscriber<? super T> s : a) {
+						s.onComplete();
+					}
+					return;
+				}
+
+				int w = wip;
+				if (w == missed) {
+					produced = consumed;
+					missed = WIP.addAndGet(this, -missed);
+					if (missed == 0) {
+						break;
+					}
+				}
+				else {
+					missed = w;
+				}
+			}
+		}
+
+		static final class PartitionSourceInner<T> implements InnerProducer<T> {
+
+			final PartitionSourceMain<T> parent;
+
+			final int index;
+			final int length;
+
+			PartitionSourceInner(PartitionSourceMain<T> parent, int index, int length) {
+				this.index = index;
+				this.length = length;
+				this.parent = parent;
+			}
+
+			@Override
+			public CoreSubscriber<? super T> actual() {
+				return parent.subscribers[index];
+			}
+
+			@Override
+			@Nullable
+			public Object scanUnsafe(Attr key) {
+				if (key == Attr.PARENT) return parent;
+				if (key == Attr.BUFFERED) return parent.queues[index].size();
+
+				return InnerProducer.super.scanUnsafe(key);
+			}
+
+			@Override
+			public void request(long n) {
+				if (Operators.validate(n)) {
+					AtomicLongArray ra = parent.requests;
+					for (;;) {
+						long r = ra.get(index);
+						if (r == Long.MAX_VALUE) {
+							return;
+						}
+						long u = Operators.addCap(r, n);
+						if (ra.compareAndSet(index, r, u)) {
+							break;
+						}
+					}
+					if (parent.subscriberCount == length) {
+						parent.drain();
+					}
+				}
+			}
+
+			@Override
+			public void cancel() {
+				parent.cancel();
+			}
+		}
+	}
+}
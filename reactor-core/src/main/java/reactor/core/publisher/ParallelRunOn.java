@@ -38,9 +38,17 @@ final class ParallelRunOn<T> extends ParallelFlux<T> implements Scannable{
 	final int prefetch;
 
 	final Supplier<Queue<T>> queueSupplier;
-	
+
+	final RailAffinity affinity;
+
 	ParallelRunOn(ParallelFlux<? extends T> parent,
 			Scheduler scheduler, int prefetch, Supplier<Queue<T>> queueSupplier) {
+		this(parent, scheduler, prefetch, queueSupplier, RailAffinity.ROUND_ROBIN);
+	}
+
+	ParallelRunOn(ParallelFlux<? extends T> parent,
+			Scheduler scheduler, int prefetch, Supplier<Queue<T>> queueSupplier,
+			RailAffinity affinity) {
 		if (prefetch <= 0) {
 			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
 		}
@@ -48,6 +56,7 @@ final class ParallelRunOn<T> extends ParallelFlux<T> implements Scannable{
 		this.scheduler = scheduler;
 		this.prefetch = prefetch;
 		this.queueSupplier = queueSupplier;
+		this.affinity = affinity;
 	}
 
 	@Override
@@ -74,7 +83,7 @@ final class ParallelRunOn<T> extends ParallelFlux<T> implements Scannable{
 		boolean conditional = subscribers[0] instanceof Fuseable.ConditionalSubscriber;
 
 		for (int i = 0; i < n; i++) {
-			Worker w = scheduler.createWorker();
+			Worker w = affinity == RailAffinity.STICKY ? scheduler.createWorker(i) : scheduler.createWorker();
 
 			if (conditional) {
 				parents[i] = new FluxPublishOn.PublishOnConditionalSubscriber<>(
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A read-only {@link java.util.List} of buffered elements emitted by
+ * {@link Flux#bufferPooled(int, int)}, backed by an array that is reused for subsequent
+ * buffers once it has been {@link #release() released}.
+ * <p>
+ * A {@link PooledBuffer} must not be accessed once released. Buffers that are never
+ * released are simply garbage collected, in which case the operator allocates new ones.
+ *
+ * @param <T> the type of the buffered elements
+ */
+public final class PooledBuffer<T> extends AbstractList<T> implements RandomAccess {
+
+	final Object[] elements;
+
+	final Queue<PooledBuffer<T>> pool;
+
+	int size;
+
+	volatile int released;
+	@SuppressWarnings("rawtypes")
+	static final AtomicIntegerFieldUpdater<PooledBuffer> RELEASED =
+			AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "released");
+
+	PooledBuffer(int capacity, Queue<PooledBuffer<T>> pool) {
+		this.elements = new Object[capacity];
+		this.pool = pool;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public T get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		return (T) elements[index];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Return this buffer to the pool of the operator that emitted it, clearing it so that
+	 * it doesn't retain its elements. Only the first call has an effect.
+	 */
+	public void release() {
+		if (RELEASED.compareAndSet(this, 0, 1)) {
+			clearElements();
+			pool.offer(this);
+		}
+	}
+
+	/**
+	 * @return true if this buffer can't hold any more element
+	 */
+	boolean isFull() {
+		return size == elements.length;
+	}
+
+	void append(T t) {
+		elements[size++] = t;
+	}
+
+	void reuse() {
+		RELEASED.lazySet(this, 0);
+	}
+
+	void clearElements() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+}
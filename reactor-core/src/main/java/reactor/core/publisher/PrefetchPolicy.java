@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import reactor.util.concurrent.Queues;
+
+/**
+ * Describes how an asynchronous boundary like {@link Flux#publishOn(reactor.core.scheduler.Scheduler, PrefetchPolicy)}
+ * prefetches elements from its source: either a {@link #fixed(int) fixed} amount, replenished
+ * by batches of 75% of that amount, or an {@link #adaptive() adaptive} amount that starts
+ * small and grows or shrinks depending on whether the producer or the consumer is the
+ * slower side.
+ */
+public final class PrefetchPolicy {
+
+	/**
+	 * A fixed prefetch: the boundary requests {@code prefetch} elements upfront, then
+	 * replenishes by batches of 75% of that amount. This is equivalent to passing the
+	 * {@code prefetch} directly to the operator.
+	 *
+	 * @param prefetch the asynchronous boundary capacity
+	 * @return a fixed {@link PrefetchPolicy}
+	 */
+	public static PrefetchPolicy fixed(int prefetch) {
+		if (prefetch <= 0) {
+			throw new IllegalArgumentException("prefetch > 0 required but it was " + prefetch);
+		}
+		return new PrefetchPolicy(prefetch, prefetch);
+	}
+
+	/**
+	 * An adaptive prefetch that starts at {@link Queues#XS_BUFFER_SIZE} and can grow up
+	 * to four times {@link Queues#SMALL_BUFFER_SIZE}.
+	 *
+	 * @return an adaptive {@link PrefetchPolicy}
+	 * @see #adaptive(int, int)
+	 */
+	public static PrefetchPolicy adaptive() {
+		return adaptive(Queues.XS_BUFFER_SIZE, Queues.SMALL_BUFFER_SIZE * 4);
+	}
+
+	/**
+	 * An adaptive prefetch that starts at {@code minPrefetch} and is re-evaluated each time
+	 * the boundary replenishes: it doubles (up to {@code maxPrefetch}) if the buffer ran
+	 * dry while downstream still had demand, and halves (down to {@code minPrefetch}) if
+	 * downstream demand ran out while elements were still buffered. The buffer only
+	 * grows as needed, so short sequences don't allocate for the maximum.
+	 *
+	 * @param minPrefetch the initial and minimum prefetch
+	 * @param maxPrefetch the maximum prefetch, must be bounded
+	 * @return an adaptive {@link PrefetchPolicy}
+	 */
+	public static PrefetchPolicy adaptive(int minPrefetch, int maxPrefetch) {
+		if (minPrefetch <= 0) {
+			throw new IllegalArgumentException("minPrefetch > 0 required but it was " + minPrefetch);
+		}
+		if (maxPrefetch < minPrefetch || maxPrefetch == Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("maxPrefetch must be bounded and >= minPrefetch but it was " + maxPrefetch);
+		}
+		return new PrefetchPolicy(minPrefetch, maxPrefetch);
+	}
+
+	final int minPrefetch;
+	final int maxPrefetch;
+
+	PrefetchPolicy(int minPrefetch, int maxPrefetch) {
+		this.minPrefetch = minPrefetch;
+		this.maxPrefetch = maxPrefetch;
+	}
+
+	/**
+	 * @return the initial prefetch, which is also the minimum one if {@link #isAdaptive() adaptive}
+	 */
+	public int minPrefetch() {
+		return minPrefetch;
+	}
+
+	/**
+	 * @return the maximum prefetch, equal to {@link #minPrefetch()} if not {@link #isAdaptive() adaptive}
+	 */
+	public int maxPrefetch() {
+		return maxPrefetch;
+	}
+
+	/**
+	 * @return true if the prefetch can vary between {@link #minPrefetch()} and {@link #maxPrefetch()}
+	 */
+	public boolean isAdaptive() {
+		return maxPrefetch > minPrefetch;
+	}
+
+	@Override
+	public String toString() {
+		if (isAdaptive()) {
+			return "PrefetchPolicy{adaptive, min=" + minPrefetch + ", max=" + maxPrefetch + "}";
+		}
+		return "PrefetchPolicy{fixed=" + minPrefetch + "}";
+	}
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Strategies to assign the rails of a {@link ParallelFlux} to the workers of a
+ * {@link Scheduler} in {@link ParallelFlux#runOn(Scheduler, RailAffinity)}.
+ */
+public enum RailAffinity {
+
+	/**
+	 * Let the {@link Scheduler} pick the worker of each rail independently, with
+	 * {@link Scheduler#createWorker()}. Rails can land on different threads from one
+	 * subscription to the next, or from one {@code runOn} stage to the next.
+	 */
+	ROUND_ROBIN,
+	/**
+	 * Pin each rail to the thread matching its index, with {@link Scheduler#createWorker(int)}.
+	 * With a {@link Scheduler} that has a fixed set of threads, a given rail then always
+	 * runs on the same thread, across subscriptions and across chained {@code runOn}
+	 * stages using the same {@link Scheduler}, which keeps rail-local state on the same core.
+	 */
+	STICKY
+
+}
@@ -97,6 +97,49 @@ final class Traces {
 				.orElseThrow(() -> new IllegalStateException("Valid strategy not found"));
 	}
 
+	/**
+	 * A call-site {@link Supplier} that can tell which user code frame it was captured
+	 * from: two instances are equal when they originate from the same bytecode index of
+	 * the same method, that is when they would render the same assembly information.
+	 */
+	abstract static class CallSite implements Supplier<String> {
+
+		final String className;
+		final String methodName;
+		final int    byteCodeIndex;
+		final int    lineNumber;
+
+		CallSite(String className, String methodName, int byteCodeIndex, int lineNumber) {
+			this.className = className;
+			this.methodName = methodName;
+			this.byteCodeIndex = byteCodeIndex;
+			this.lineNumber = lineNumber;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof CallSite)) {
+				return false;
+			}
+			CallSite other = (CallSite) o;
+			return byteCodeIndex == other.byteCodeIndex
+					&& lineNumber == other.lineNumber
+					&& className.equals(other.className)
+					&& methodName.equals(other.methodName);
+		}
+
+		@Override
+		public int hashCode() {
+			int h = className.hashCode();
+			h = 31 * h + methodName.hashCode();
+			h = 31 * h + byteCodeIndex;
+			return 31 * h + lineNumber;
+		}
+	}
+
 	/**
 	 * Utility class for the call-site extracting on Java 9+.
 	 *
@@ -150,34 +193,54 @@ final class Traces {
 				return () -> "\t" + stack[0].toString() + "\n";
 			}
 
-			return () -> {
-				StringBuilder sb = new StringBuilder();
+			return new StackWalkerCallSite(stack);
+		}
+	}
 
-				for (int j = stack.length - 2; j > 0; j--) {
-					StackWalker.StackFrame previous = stack[j];
+	/**
+	 * A call-site captured by the {@link StackWalkerCallSiteSupplierFactory}, keyed
+	 * on the user code frame it was captured from.
+	 */
+	static final class StackWalkerCallSite extends CallSite {
 
-					if (!full) {
-						if (previous.isNativeMethod()) {
-							continue;
-						}
+		final StackWalker.StackFrame[] stack;
 
-						String previousRow = previous.getClassName() + "." + previous.getMethodName();
-						if (shouldSanitize(previousRow)) {
-							continue;
-						}
+		StackWalkerCallSite(StackWalker.StackFrame[] stack) {
+			super(stack[stack.length - 1].getClassName(),
+					stack[stack.length - 1].getMethodName(),
+					stack[stack.length - 1].getByteCodeIndex(),
+					stack[stack.length - 1].getLineNumber());
+			this.stack = stack;
+		}
+
+		@Override
+		public String get() {
+			StringBuilder sb = new StringBuilder();
+
+			for (int j = stack.length - 2; j > 0; j--) {
+				StackWalker.StackFrame previous = stack[j];
+
+				if (!full) {
+					if (previous.isNativeMethod()) {
+						continue;
 					}
-					sb.append("\t")
-					  .append(previous.toString())
-					  .append("\n");
-					break;
-				}
 
+					String previousRow = previous.getClassName() + "." + previous.getMethodName();
+					if (shouldSanitize(previousRow)) {
+						continue;
+					}
+				}
 				sb.append("\t")
-				  .append(stack[stack.length - 1].toString())
+				  .append(previous.toString())
 				  .append("\n");
+				break;
+			}
+
+			sb.append("\t")
+			  .append(stack[stack.length - 1].toString())
+			  .append("\n");
 
-				return sb.toString();
-			};
+			return sb.toString();
 		}
 	}
 
@@ -30,6 +30,7 @@ import reactor.core.Exceptions;
 import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.BatchQueue;
 import reactor.util.concurrent.Queues;
 import reactor.util.context.Context;
 
@@ -159,6 +160,8 @@ public final class UnicastProcessor<T>
 
 	volatile boolean cancelled;
 
+	final Consumer<T> drainedEmitter = this::emitDrained;
+
 	volatile int once;
 	@SuppressWarnings("rawtypes")
 	static final AtomicIntegerFieldUpdater<UnicastProcessor> ONCE =
@@ -224,6 +227,8 @@ public final class UnicastProcessor<T>
 		int missed = 1;
 
 		final Queue<T> q = queue;
+		@SuppressWarnings("unchecked")
+		final BatchQueue<T> bq = q instanceof BatchQueue ? (BatchQueue<T>) q : null;
 
 		for (;;) {
 
@@ -231,6 +236,15 @@ public final class UnicastProcessor<T>
 			long e = 0L;
 
 			while (r != e) {
+				if (bq != null && !cancelled) {
+					// emit what is already queued in one batch
+					int n = bq.drain(drainedEmitter, (int) Math.min(r - e, Integer.MAX_VALUE));
+					if (n != 0) {
+						e += n;
+						continue;
+					}
+				}
+
 				boolean d = done;
 
 				T t = q.poll();
@@ -266,6 +280,20 @@ public final class UnicastProcessor<T>
 		}
 	}
 
+	/**
+	 * Emit a value drained in batch from the queue, or discard it if cancelled in the
+	 * middle of the batch.
+	 */
+	void emitDrained(T t) {
+		CoreSubscriber<? super T> a = actual;
+		if (cancelled || a == null) {
+			Operators.onDiscard(t, currentContext());
+		}
+		else {
+			a.onNext(t);
+		}
+	}
+
 	void drainFused(CoreSubscriber<? super T> a) {
 		int missed = 1;
 
@@ -20,30 +20,27 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
-import java.util.Deque;
 import java.util.List;
 import java.util.Objects;
-import java.util.PriorityQueue;
-import java.util.Queue;
 import java.util.concurrent.Callable;
-import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.stream.Stream;
 
@@ -51,11 +48,13 @@ import reactor.core.Disposable;
 import reactor.core.Disposables;
 import reactor.core.Exceptions;
 import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
 
 /**
  * Scheduler that hosts a pool of 0-N single-threaded {@link BoundedScheduledExecutorService} and exposes workers
  * backed by these executors, making it suited for moderate amount of blocking work. Note that requests for workers
- * will pick an executor in a round-robin fashion, so tasks from a given worker might arbitrarily be impeded by
+ * will pick an idle executor if any, otherwise spin up a new one if under the cap, otherwise pick the executor
+ * currently backing the fewest workers. As a consequence, tasks from a given worker might arbitrarily be impeded by
  * long-running tasks of a sibling worker (and tasks are pinned to a given executor, so they won't be stolen
  * by an idle executor).
  *
@@ -96,9 +95,10 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 	final int maxThreads;
 	final int maxTaskQueuedPerThread;
 
-	final Clock         clock;
-	final ThreadFactory factory;
-	final long          ttlMillis;
+	final Clock               clock;
+	final ThreadFactory       factory;
+	final long                ttlMillis;
+	final TaskMetricsRecorder metrics;
 
 	volatile BoundedServices boundedServices;
 	static final AtomicReferenceFieldUpdater<BoundedElasticScheduler, BoundedServices> BOUNDED_SERVICES =
@@ -128,6 +128,7 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 		this.factory = threadFactory;
 		this.clock = Objects.requireNonNull(clock, "A Clock must be provided");
 		this.ttlMillis = ttlMillis;
+		this.metrics = new TaskMetricsRecorder();
 
 		this.boundedServices = new BoundedServices(this);
 		this.evictor = Executors.newScheduledThreadPool(1, EVICTOR_FACTORY);
@@ -157,7 +158,7 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 	 * ({@code Executors.newScheduledThreadPoolExecutor} with core and max pool size of 1).
 	 */
 	BoundedScheduledExecutorService createBoundedExecutorService() {
-		return new BoundedScheduledExecutorService(this.maxTaskQueuedPerThread, this.factory);
+		return new BoundedScheduledExecutorService(this.maxTaskQueuedPerThread, this.factory, this.metrics);
 	}
 
 	@Override
@@ -266,14 +267,14 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 	 * @return a best effort total count of the busy executors
 	 */
 	int estimateBusy() {
-		return BOUNDED_SERVICES.get(this).busyQueue.size();
+		return BOUNDED_SERVICES.get(this).busyStates().size();
 	}
 
 	/**
 	 * @return a best effort total count of the idle executors
 	 */
 	int estimateIdle() {
-		return BOUNDED_SERVICES.get(this).idleQueue.size();
+		return BOUNDED_SERVICES.get(this).idleStates().size();
 	}
 
 	/**
@@ -282,9 +283,13 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 	 * @return the total task capacity, or {@literal -1} if any backing executor's task queue size cannot be instrumented
 	 */
 	int estimateRemainingTaskCapacity() {
-		Queue<BoundedState> busyQueue = BOUNDED_SERVICES.get(this).busyQueue;
+		BoundedServices services = BOUNDED_SERVICES.get(this);
 		int totalTaskCapacity = maxTaskQueuedPerThread * maxThreads;
-		for (BoundedState state : busyQueue) {
+		for (int i = 0; i < services.states.length(); i++) {
+			BoundedState state = services.states.get(i);
+			if (state == null || state == CREATING) {
+				continue;
+			}
 			int stateQueueSize = state.estimateQueueSize();
 			if (stateQueueSize >= 0) {
 				totalTaskCapacity -= stateQueueSize;
@@ -302,15 +307,14 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 		if (key == Attr.BUFFERED) return estimateSize();
 		if (key == Attr.CAPACITY) return maxThreads;
 		if (key == Attr.NAME) return this.toString();
+		if (key == Attr.TASK_METRICS) return metrics.snapshot();
 
 		return null;
 	}
 
 	@Override
 	public Stream<? extends Scannable> inners() {
-		BoundedServices services = BOUNDED_SERVICES.get(this);
-		return Stream.concat(services.busyQueue.stream(), services.idleQueue.stream())
-		             .filter(obj -> obj != null && obj != CREATING);
+		return BOUNDED_SERVICES.get(this).liveStates().stream();
 	}
 
 	@Override
@@ -323,6 +327,21 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 	}
 
 
+	/**
+	 * The pool of {@link BoundedState}, held in a fixed array of {@code maxThreads} slots.
+	 * <p>
+	 * Selection of the least busy slot goes through a tournament tree of busy counts laid
+	 * over the slots: each leaf holds the weight of a slot (idle states first, then empty
+	 * slots where a new executor can be spun up, then busy states by increasing number of
+	 * workers backed) and each inner node holds the minimum of its two children. Picking
+	 * descends from the root in O(log n). A change to a slot's busy count is propagated
+	 * upwards with plain volatile writes, and stops at the first ancestor whose minimum
+	 * is unchanged, so that the nodes close to the root are rarely written. There is no
+	 * CAS on the tree: concurrent updates can leave it slightly stale, which only makes it
+	 * a less accurate hint. The slot itself is always claimed atomically, and a thread that
+	 * fails to claim a slot rewrites that slot's whole path before retrying, breaking ties
+	 * randomly so that contending threads spread over the equally weighted slots.
+	 */
 	static final class BoundedServices extends AtomicInteger implements Disposable {
 
 		/**
@@ -339,27 +358,51 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 		 */
 		static final ZoneId                       ZONE_UTC = ZoneId.of("UTC");
 
+		/**
+		 * The weight of a slot in which a new {@link BoundedState} can be created, which
+		 * comes after idle states (weight 0) and before busy states (weight of 2 and up).
+		 */
+		static final int                          FREE     = 1;
+		/**
+		 * The weight of a slot that cannot be picked, either because it is being created,
+		 * being evicted or is only there to pad the tree.
+		 */
+		static final int                          BLOCKED  = Integer.MAX_VALUE;
 
 		final BoundedElasticScheduler             parent;
 		//duplicated Clock field from parent so that SHUTDOWN can be instantiated and partially used
 		final Clock                               clock;
-		final Deque<BoundedState>                 idleQueue;
-		final PriorityBlockingQueue<BoundedState> busyQueue;
+		final AtomicReferenceArray<BoundedState>  states;
+		final AtomicIntegerArray                  tree;
+		final int                                 leaves;
 
 		//constructor for SHUTDOWN
 		private BoundedServices() {
 			this.parent = null;
 			this.clock = Clock.fixed(Instant.EPOCH, ZONE_UTC);
-			this.busyQueue = new PriorityBlockingQueue<>();
-			this.idleQueue = new ConcurrentLinkedDeque<>();
+			this.states = new AtomicReferenceArray<>(0);
+			this.leaves = 1;
+			this.tree = new AtomicIntegerArray(2);
+			this.tree.set(1, BLOCKED);
 		}
 
 		BoundedServices(BoundedElasticScheduler parent) {
 			this.parent = parent;
 			this.clock = parent.clock;
-			this.busyQueue = new PriorityBlockingQueue<>(parent.maxThreads,
-					Comparator.comparingInt(bs -> bs.markCount));
-			this.idleQueue = new ConcurrentLinkedDeque<>();
+			int n = parent.maxThreads;
+			this.states = new AtomicReferenceArray<>(n);
+			int l = 1;
+			while (l < n) {
+				l <<= 1;
+			}
+			this.leaves = l;
+			this.tree = new AtomicIntegerArray(2 * l);
+			for (int i = 0; i < l; i++) {
+				tree.lazySet(l + i, i < n ? FREE : BLOCKED);
+			}
+			for (int node = l - 1; node > 0; node--) {
+				tree.lazySet(node, Math.min(tree.get(2 * node), tree.get(2 * node + 1)));
+			}
 		}
 
 		/**
@@ -368,70 +411,222 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 		 */
 		void eviction() {
 			final long evictionTimestamp = parent.clock.millis();
-			List<BoundedState> idleCandidates = new ArrayList<>(idleQueue);
-			for (BoundedState candidate : idleCandidates) {
+			for (int i = 0; i < states.length(); i++) {
+				BoundedState candidate = states.get(i);
+				if (candidate == null || candidate == CREATING) {
+					continue;
+				}
 				if (candidate.tryEvict(evictionTimestamp, parent.ttlMillis)) {
-					idleQueue.remove(candidate);
-					decrementAndGet();
+					if (states.compareAndSet(i, candidate, null)) {
+						decrementLive();
+					}
+					update(i);
 				}
 			}
 		}
 
 		/**
 		 * Pick a {@link BoundedState}, prioritizing idle ones then spinning up a new one if enough capacity.
-		 * Otherwise, picks an active one by taking from a {@link PriorityQueue}. The picking is
-		 * optimistically re-attempted if the picked slot cannot be marked as picked.
+		 * Otherwise, picks the least busy active one. The slot is found by descending the
+		 * tree of busy counts, and the picking is optimistically re-attempted if the slot
+		 * cannot be claimed.
 		 *
 		 * @return the picked {@link BoundedState}
 		 */
 		BoundedState pick() {
+			boolean retry = false;
 			for (;;) {
-				int a = get();
-				if (a == DISPOSED) {
+				if (get() == DISPOSED) {
 					return CREATING; //synonym for shutdown, since the underlying executor is shut down
 				}
 
-				if (!idleQueue.isEmpty()) {
-					//try to find an idle resource
-					BoundedState bs = idleQueue.pollLast();
-					if (bs != null && bs.markPicked()) {
-						busyQueue.add(bs);
-						return bs;
-					}
-					//else optimistically retry (implicit continue here)
+				int index = leastBusy(retry);
+				if (index < 0) {
+					//every slot is transiently being created or evicted
+					Thread.yield();
+					continue;
 				}
-				else if (a < parent.maxThreads) {
-					//try to build a new resource
-					if (compareAndSet(a, a + 1)) {
+
+				BoundedState bs = states.get(index);
+				if (bs == null) {
+					//try to build a new resource in the empty slot
+					if (states.compareAndSet(index, null, CREATING)) {
+						update(index);
+						if (!incrementLive()) {
+							states.compareAndSet(index, CREATING, null);
+							update(index);
+							return CREATING;
+						}
 						ScheduledExecutorService s = Schedulers.decorateExecutorService(parent, parent.createBoundedExecutorService());
-						BoundedState newState = new BoundedState(this, s);
-						if (newState.markPicked()) {
-							busyQueue.add(newState);
-							return newState;
+						BoundedState newState = new BoundedState(this, s, index);
+						newState.markPicked();
+						states.set(index, newState);
+						update(index);
+						if (get() == DISPOSED) {
+							//disposed concurrently, ensure the new executor doesn't leak
+							newState.shutdown();
 						}
+						return newState;
 					}
-					//else optimistically retry (implicit continue here)
 				}
-				else {
-					//pick the least busy one
-					BoundedState s = busyQueue.poll();
-					if (s != null && s.markPicked()) {
-						busyQueue.add(s); //put it back in the queue with updated priority
-						return s;
+				else if (bs != CREATING) {
+					int markCount = bs.markCount;
+					if (markCount == 0) {
+						//an idle slot is claimed exclusively
+						if (bs.markPickedIfIdle()) {
+							return bs;
+						}
+					}
+					else if (markCount > 0 && tree.get(1) > FREE && bs.markPicked()) {
+						//a busy slot is only shared once no idle or empty slot is left
+						return bs;
 					}
-					//else optimistically retry (implicit continue here)
 				}
+				//the tree was stale for that slot, fix it then optimistically retry
+				repair(index);
+				retry = true;
 			}
 		}
 
-		void setIdle(BoundedState boundedState) {
-			//impl. note: reversed order could lead to a race condition where state is added to idleQueue
-			//then concurrently pick()ed into busyQueue then removed from same busyQueue.
-			if (this.busyQueue.remove(boundedState)) {
-				this.idleQueue.add(boundedState);
+		/**
+		 * Descend the tree towards the leaf with the smallest weight. Ties favor the left
+		 * side on a first attempt, so that sporadic work keeps reusing the same executors
+		 * and the others age out, and are broken randomly when retrying after contention.
+		 *
+		 * @param randomTies true to break ties randomly
+		 * @return the index of the least busy slot, or -1 if no slot can currently be picked
+		 */
+		int leastBusy(boolean randomTies) {
+			if (tree.get(1) == BLOCKED) {
+				return -1;
+			}
+			int bits = randomTies ? ThreadLocalRandom.current().nextInt() : 0;
+			int node = 1;
+			while (node < leaves) {
+				int left = 2 * node;
+				int l = tree.get(left);
+				int r = tree.get(left + 1);
+				if (l == r) {
+					node = left + (bits & 1);
+					bits >>>= 1;
+				}
+				else {
+					node = l < r ? left : left + 1;
+				}
+			}
+			int index = node - leaves;
+			return index < states.length() ? index : -1;
+		}
+
+		/**
+		 * Write the current weight of the given slot and propagate it upwards, stopping at
+		 * the first ancestor that already holds the minimum of its children.
+		 *
+		 * @param index the index of the slot
+		 */
+		void update(int index) {
+			propagate(index, true);
+		}
+
+		/**
+		 * Rewrite the weight of the given slot and the minimum of each of its ancestors up
+		 * to the root, fixing a path that concurrent updates left stale.
+		 *
+		 * @param index the index of the slot
+		 */
+		void repair(int index) {
+			propagate(index, false);
+		}
+
+		void propagate(int index, boolean stopIfUnchanged) {
+			if (index < 0 || index >= states.length()) {
+				return;
+			}
+			int node = leaves + index;
+			tree.set(node, weight(states.get(index)));
+			node >>= 1;
+			while (node > 0) {
+				int min = Math.min(tree.get(2 * node), tree.get(2 * node + 1));
+				if (tree.get(node) != min) {
+					tree.set(node, min);
+				}
+				else if (stopIfUnchanged) {
+					return;
+				}
+				node >>= 1;
 			}
 		}
 
+		static int weight(@Nullable BoundedState state) {
+			if (state == null) {
+				return FREE;
+			}
+			if (state == CREATING) {
+				return BLOCKED;
+			}
+			int markCount = state.markCount;
+			if (markCount < 0 || markCount == Integer.MAX_VALUE) {
+				return BLOCKED;
+			}
+			return markCount == 0 ? 0 : markCount + 1;
+		}
+
+		boolean incrementLive() {
+			for (;;) {
+				int a = get();
+				if (a == DISPOSED) {
+					return false;
+				}
+				if (compareAndSet(a, a + 1)) {
+					return true;
+				}
+			}
+		}
+
+		void decrementLive() {
+			for (;;) {
+				int a = get();
+				if (a <= 0) {
+					return;
+				}
+				if (compareAndSet(a, a - 1)) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @return a snapshot of the live {@link BoundedState}
+		 */
+		List<BoundedState> liveStates() {
+			List<BoundedState> list = new ArrayList<>();
+			for (int i = 0; i < states.length(); i++) {
+				BoundedState state = states.get(i);
+				if (state != null && state != CREATING) {
+					list.add(state);
+				}
+			}
+			return list;
+		}
+
+		/**
+		 * @return a snapshot of the {@link BoundedState} currently backing at least one worker or task
+		 */
+		List<BoundedState> busyStates() {
+			List<BoundedState> list = liveStates();
+			list.removeIf(state -> state.markCount <= 0);
+			return list;
+		}
+
+		/**
+		 * @return a snapshot of the {@link BoundedState} currently idle
+		 */
+		List<BoundedState> idleStates() {
+			List<BoundedState> list = liveStates();
+			list.removeIf(state -> state.markCount != 0);
+			return list;
+		}
+
 		@Override
 		public boolean isDisposed() {
 			return get() == DISPOSED;
@@ -440,8 +635,7 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 		@Override
 		public void dispose() {
 			set(DISPOSED);
-			idleQueue.forEach(BoundedState::shutdown);
-			busyQueue.forEach(BoundedState::shutdown);
+			liveStates().forEach(BoundedState::shutdown);
 		}
 	}
 
@@ -459,6 +653,10 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 
 		final BoundedServices          parent;
 		final ScheduledExecutorService executor;
+		/**
+		 * The index of the slot this state occupies in {@link BoundedServices}, or -1.
+		 */
+		final int                      index;
 
 		long idleSinceTimestamp = -1L;
 
@@ -466,8 +664,13 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 		static final AtomicIntegerFieldUpdater<BoundedState> MARK_COUNT = AtomicIntegerFieldUpdater.newUpdater(BoundedState.class, "markCount");
 
 		BoundedState(BoundedServices parent, ScheduledExecutorService executor) {
+			this(parent, executor, -1);
+		}
+
+		BoundedState(BoundedServices parent, ScheduledExecutorService executor, int index) {
 			this.parent = parent;
 			this.executor = executor;
+			this.index = index;
 		}
 
 		/**
@@ -493,11 +696,27 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 					return false; //being evicted
 				}
 				if (MARK_COUNT.compareAndSet(this, i, i + 1)) {
+					parent.update(index);
 					return true;
 				}
 			}
 		}
 
+		/**
+		 * Try to mark this idle {@link BoundedState} as picked, which only succeeds for
+		 * a single picker.
+		 *
+		 * @return true if this state was idle and could atomically be marked as picked,
+		 * false if it was picked or evicted in the meantime
+		 */
+		boolean markPickedIfIdle() {
+			if (MARK_COUNT.compareAndSet(this, 0, 1)) {
+				parent.update(index);
+				return true;
+			}
+			return false;
+		}
+
 		/**
 		 * Check if this {@link BoundedState} should be evicted by comparing its idleSince
 		 * timestamp to the evictionTimestamp and comparing the difference with the
@@ -540,12 +759,12 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 			if (picked == 0) {
 				//we released enough that this BoundedState is now idle
 				this.idleSinceTimestamp = parent.clock.millis();
-				parent.setIdle(this);
 			}
 			else {
 				//still picked by at least one worker, defensively ensure timestamp is not set
 				this.idleSinceTimestamp = -1L;
 			}
+			parent.update(index);
 		}
 
 		/**
@@ -604,15 +823,17 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 	 * lead Doug Lea's tip for enforcing a bound via {@link
 	 * ScheduledThreadPoolExecutor#getQueue()}.
 	 */
-	static final class BoundedScheduledExecutorService extends ScheduledThreadPoolExecutor
+	static final class BoundedScheduledExecutorService extends MeteredScheduledExecutorService
 			implements Scannable {
 
 		final int queueCapacity;
 
 		BoundedScheduledExecutorService(int queueCapacity, ThreadFactory factory) {
-			super(1, factory);
-			setMaximumPoolSize(1);
-			setRemoveOnCancelPolicy(true);
+			this(queueCapacity, factory, new TaskMetricsRecorder());
+		}
+
+		BoundedScheduledExecutorService(int queueCapacity, ThreadFactory factory, TaskMetricsRecorder metrics) {
+			super(factory, metrics);
 			if (queueCapacity < 1) {
 				throw new IllegalArgumentException(
 						"was expecting a non-zero positive queue capacity");
@@ -645,6 +866,7 @@ final class BoundedElasticScheduler implements Scheduler, Scannable {
 			}
 			int queueSize = super.getQueue().size();
 			if ((queueSize + taskCount) > queueCapacity) {
+				metrics.recordRejected();
 				throw Exceptions.failWithRejected("Task capacity of bounded elastic scheduler reached while scheduling " + taskCount + " tasks (" + (queueSize + taskCount) + "/" + queueCapacity + ")");
 			}
 		}
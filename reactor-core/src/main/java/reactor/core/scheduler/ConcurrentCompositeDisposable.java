@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.stream.Stream;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A lock-free {@link Disposable.Composite} used by workers to track their tasks, so
+ * that scheduling and completing tasks from different threads doesn't contend on a lock.
+ * <p>
+ * Resources are stored in open-addressed {@link Segment segments}, at a slot derived
+ * from their identity hash code and found again by linear probing, so that adding and
+ * removing doesn't allocate nor invoke user-defined {@link Object#hashCode()}. Removed
+ * resources leave a {@link #TOMBSTONE} that can be reused by subsequent additions: as
+ * a slot never goes back to {@code null}, the probing for a resource can stop at the
+ * first {@code null} slot. When no slot is free within {@link #MAX_PROBES} of the
+ * preferred one, resources overflow to a next segment twice as large.
+ * <p>
+ * Like {@link reactor.core.Disposables#composite()}, the same resource can be added
+ * several times and is then removed one occurrence at a time. Unlike it, there is no
+ * guarantee on the order in which resources are disposed.
+ */
+final class ConcurrentCompositeDisposable implements Disposable.Composite, Scannable {
+
+	static final int INITIAL_CAPACITY = 16;
+
+	static final int MAX_PROBES = 8;
+
+	static final Object TOMBSTONE = new Object();
+
+	volatile Segment head;
+	static final AtomicReferenceFieldUpdater<ConcurrentCompositeDisposable, Segment> HEAD =
+			AtomicReferenceFieldUpdater.newUpdater(ConcurrentCompositeDisposable.class, Segment.class, "head");
+
+	volatile boolean disposed;
+
+	@Override
+	public boolean add(Disposable d) {
+		Objects.requireNonNull(d, "d is null");
+		if (!disposed) {
+			int h = hash(d);
+			Segment s = head;
+			if (s == null) {
+				s = new Segment(INITIAL_CAPACITY);
+				if (!HEAD.compareAndSet(this, null, s)) {
+					s = head;
+				}
+			}
+			for (;;) {
+				if (s.tryAdd(d, h)) {
+					// a concurrent dispose() may have swept this slot already
+					if (disposed) {
+						if (s.tryRemove(d, h)) {
+							d.dispose();
+						}
+						return false;
+					}
+					return true;
+				}
+				s = s.nextOrCreate();
+			}
+		}
+		d.dispose();
+		return false;
+	}
+
+	@Override
+	public boolean remove(Disposable d) {
+		Objects.requireNonNull(d, "Disposable item is null");
+		if (disposed) {
+			return false;
+		}
+		int h = hash(d);
+		for (Segment s = head; s != null; s = s.next) {
+			if (s.tryRemove(d, h)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void dispose() {
+		if (disposed) {
+			return;
+		}
+		disposed = true;
+
+		List<Throwable> errors = null;
+		for (Segment s = head; s != null; s = s.next) {
+			for (int i = 0; i < s.length(); i++) {
+				Object o = s.get(i);
+				if (o == null || o == TOMBSTONE) {
+					continue;
+				}
+				o = s.getAndSet(i, TOMBSTONE);
+				if (o == null || o == TOMBSTONE) {
+					continue;
+				}
+				try {
+					((Disposable) o).dispose();
+				}
+				catch (Throwable ex) {
+					Exceptions.throwIfFatal(ex);
+					if (errors == null) {
+						errors = new ArrayList<>();
+					}
+					errors.add(ex);
+				}
+			}
+		}
+		if (errors != null) {
+			if (errors.size() == 1) {
+				throw Exceptions.propagate(errors.get(0));
+			}
+			throw Exceptions.multiple(errors);
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return disposed;
+	}
+
+	@Override
+	public int size() {
+		if (disposed) {
+			return 0;
+		}
+		int size = 0;
+		for (Segment s = head; s != null; s = s.next) {
+			for (int i = 0; i < s.length(); i++) {
+				Object o = s.get(i);
+				if (o != null && o != TOMBSTONE) {
+					size++;
+				}
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public Stream<? extends Scannable> inners() {
+		List<Scannable> inners = new ArrayList<>();
+		for (Segment s = head; s != null; s = s.next) {
+			for (int i = 0; i < s.length(); i++) {
+				Object o = s.get(i);
+				if (o instanceof Scannable) {
+					inners.add((Scannable) o);
+				}
+			}
+		}
+		return inners.stream();
+	}
+
+	@Override
+	@Nullable
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.CANCELLED) {
+			return isDisposed();
+		}
+		return null;
+	}
+
+	static int hash(Object o) {
+		int h = System.identityHashCode(o);
+		return h ^ (h >>> 16);
+	}
+
+	static final class Segment extends AtomicReferenceArray<Object> {
+
+		final int mask;
+
+		volatile Segment next;
+		static final AtomicReferenceFieldUpdater<Segment, Segment> NEXT =
+				AtomicReferenceFieldUpdater.newUpdater(Segment.class, Segment.class, "next");
+
+		Segment(int capacity) {
+			super(capacity);
+			this.mask = capacity - 1;
+		}
+
+		boolean tryAdd(Disposable d, int h) {
+			int probes = Math.min(MAX_PROBES, length());
+			for (int i = 0; i < probes; i++) {
+				int idx = (h + i) & mask;
+				Object o = get(idx);
+				if ((o == null || o == TOMBSTONE) && compareAndSet(idx, o, d)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		boolean tryRemove(Disposable d, int h) {
+			int probes = Math.min(MAX_PROBES, length());
+			for (int i = 0; i < probes; i++) {
+				int idx = (h + i) & mask;
+				Object o = get(idx);
+				if (o == null) {
+					return false;
+				}
+				if (o == d && compareAndSet(idx, d, TOMBSTONE)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		Segment nextOrCreate() {
+			Segment n = next;
+			if (n == null) {
+				n = new Segment(length() << 1);
+				if (!NEXT.compareAndSet(this, null, n)) {
+					n = next;
+				}
+			}
+			return n;
+		}
+	}
+}
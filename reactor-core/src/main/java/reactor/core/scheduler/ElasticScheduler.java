@@ -297,7 +297,7 @@ final class ElasticScheduler implements Scheduler, Scannable {
 
 		ElasticWorker(CachedService cached) {
 			this.cached = cached;
-			this.tasks = Disposables.composite();
+			this.tasks = new ConcurrentCompositeDisposable();
 		}
 
 		@Override
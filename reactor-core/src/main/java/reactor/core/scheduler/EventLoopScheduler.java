@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+import reactor.util.concurrent.WaitStrategy;
+
+/**
+ * Scheduler that hosts a fixed pool of event loop threads, each running a tight loop
+ * over its own MPSC queue of ready tasks. When its queue is empty, an event loop idles
+ * according to its own {@link WaitStrategy} rather than blocking on an executor's work
+ * queue, trading CPU for wake-up latency when a spinning or yielding strategy is used.
+ * {@link reactor.core.scheduler.Scheduler.Worker Workers} are pinned to an event loop
+ * round-robin, so they execute their tasks in FIFO order and never concurrently.
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically): delayed tasks
+ * are tracked by a single timer thread and handed over to the event loops once due.
+ */
+final class EventLoopScheduler implements Scheduler, Scannable {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	static final Loops SHUTDOWN = new Loops(new EventLoop[0], null);
+
+	final int n;
+
+	final ThreadFactory factory;
+
+	final Supplier<? extends WaitStrategy> waitStrategySupplier;
+
+	volatile Loops loops;
+	static final AtomicReferenceFieldUpdater<EventLoopScheduler, Loops> LOOPS =
+			AtomicReferenceFieldUpdater.newUpdater(EventLoopScheduler.class, Loops.class, "loops");
+
+	int roundRobin;
+
+	EventLoopScheduler(int n, ThreadFactory factory, Supplier<? extends WaitStrategy> waitStrategySupplier) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n > 0 required but it was " + n);
+		}
+		this.n = n;
+		this.factory = factory;
+		this.waitStrategySupplier = Objects.requireNonNull(waitStrategySupplier, "waitStrategySupplier");
+		LOOPS.lazySet(this, newLoops());
+	}
+
+	Loops newLoops() {
+		EventLoop[] a = new EventLoop[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = new EventLoop(this, i);
+		}
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, factory);
+		timer.setMaximumPoolSize(1);
+		timer.setRemoveOnCancelPolicy(true);
+		Loops l = new Loops(a, Schedulers.decorateExecutorService(this, timer));
+		for (EventLoop loop : a) {
+			loop.start(factory);
+		}
+		return l;
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return loops == SHUTDOWN;
+	}
+
+	@Override
+	public void start() {
+		Loops b = null;
+		for (;;) {
+			Loops a = loops;
+			if (a != SHUTDOWN) {
+				if (b != null) {
+					b.shutdown();
+				}
+				return;
+			}
+
+			if (b == null) {
+				b = newLoops();
+			}
+
+			if (LOOPS.compareAndSet(this, a, b)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		Loops a = loops;
+		if (a != SHUTDOWN) {
+			a = LOOPS.getAndSet(this, SHUTDOWN);
+			if (a != SHUTDOWN) {
+				a.shutdown();
+			}
+		}
+	}
+
+	int pick() {
+		// ignoring the race condition here, its already random who gets which loop
+		int idx = roundRobin;
+		if (idx >= n) {
+			idx = 0;
+			roundRobin = 1;
+		}
+		else {
+			roundRobin = idx + 1;
+		}
+		return idx;
+	}
+
+	/**
+	 * Enqueue a ready {@link Runnable} on the event loop of the given index.
+	 *
+	 * @param r the {@link Runnable} to submit
+	 * @param index the index of the event loop
+	 * @throws RejectedExecutionException if this scheduler has been disposed
+	 */
+	void submit(Runnable r, int index) {
+		EventLoop[] a = loops.loops;
+		if (a.length == 0) {
+			throw Exceptions.failWithRejected();
+		}
+		a[index].submit(r);
+	}
+
+	ScheduledExecutorService timer() {
+		Loops l = loops;
+		if (l == SHUTDOWN) {
+			throw Exceptions.failWithRejected();
+		}
+		return l.timer;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return schedule(task, 0L, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		int index = pick();
+		HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), r -> submit(r, index), null, HandOffTask.ONCE);
+		t.start(timer(), delay, 0L, unit);
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		int index = pick();
+		HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), r -> submit(r, index), null,
+				period <= 0L ? HandOffTask.INSTANT_PERIODIC : HandOffTask.PERIODIC);
+		try {
+			t.start(timer(), initialDelay, period, unit);
+		}
+		catch (IllegalArgumentException | NullPointerException ex) {
+			//IllegalArgumentException are wrapped into RejectedExecutionException and propagated up
+			throw new RejectedExecutionException(ex);
+		}
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new EventLoopWorker(this, pick());
+	}
+
+	@Override
+	public Worker createWorker(int affinity) {
+		return new EventLoopWorker(this, Math.floorMod(affinity, n));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder ts = new StringBuilder(Schedulers.EVENT_LOOP)
+				.append('(').append(n);
+		if (factory instanceof ReactorThreadFactory) {
+			ts.append(",\"").append(((ReactorThreadFactory) factory).get()).append('\"');
+		}
+		ts.append(')');
+		return ts.toString();
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+		if (key == Attr.CAPACITY || key == Attr.BUFFERED) return n; //BUFFERED: number of loops doesn't vary
+		if (key == Attr.NAME) return this.toString();
+
+		return null;
+	}
+
+	@Override
+	public Stream<? extends Scannable> inners() {
+		return Stream.of(loops.loops);
+	}
+
+	/**
+	 * The set of {@link EventLoop} and the timer that feeds them, which are replaced
+	 * together when the scheduler is restarted.
+	 */
+	static final class Loops {
+
+		final EventLoop[] loops;
+
+		final ScheduledExecutorService timer;
+
+		Loops(EventLoop[] loops, @Nullable ScheduledExecutorService timer) {
+			this.loops = loops;
+			this.timer = timer;
+		}
+
+		void shutdown() {
+			if (timer != null) {
+				timer.shutdownNow();
+			}
+			for (EventLoop loop : loops) {
+				loop.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * A thread draining its MPSC queue of ready {@link Runnable}. The number of submitted
+	 * tasks acts as the cursor the {@link WaitStrategy} waits on when the queue is empty.
+	 * Each loop gets its own {@link WaitStrategy}, so that a producer only ever wakes up
+	 * the loop it submits to.
+	 */
+	static final class EventLoop implements Runnable, LongSupplier, Scannable {
+
+		final EventLoopScheduler parent;
+		final int                index;
+		final Queue<Runnable>    queue;
+		final WaitStrategy       waitStrategy;
+		final Runnable           barrier;
+
+		Thread thread;
+
+		volatile boolean terminated;
+
+		volatile long submitted;
+		static final AtomicLongFieldUpdater<EventLoop> SUBMITTED =
+				AtomicLongFieldUpdater.newUpdater(EventLoop.class, "submitted");
+
+		EventLoop(EventLoopScheduler parent, int index) {
+			this.parent = parent;
+			this.index = index;
+			this.queue = Queues.<Runnable>unboundedMultiproducer().get();
+			this.waitStrategy = Objects.requireNonNull(parent.waitStrategySupplier.get(),
+					"waitStrategySupplier produced a null WaitStrategy");
+			this.barrier = this::checkTerminated;
+		}
+
+		void start(ThreadFactory factory) {
+			thread = factory.newThread(this);
+			thread.start();
+		}
+
+		void submit(Runnable r) {
+			if (terminated) {
+				throw Exceptions.failWithRejected();
+			}
+			queue.offer(r);
+			SUBMITTED.incrementAndGet(this);
+			waitStrategy.signalAllWhenBlocking();
+		}
+
+		void shutdown() {
+			terminated = true;
+			waitStrategy.signalAllWhenBlocking();
+			thread.interrupt();
+		}
+
+		void checkTerminated() {
+			if (terminated) {
+				WaitStrategy.alert();
+			}
+		}
+
+		@Override
+		public long getAsLong() {
+			return submitted;
+		}
+
+		@Override
+		public void run() {
+			final Queue<Runnable> q = queue;
+			long consumed = 0L;
+			for (;;) {
+				if (terminated) {
+					q.clear();
+					return;
+				}
+				Runnable r = q.poll();
+				if (r != null) {
+					consumed++;
+					try {
+						r.run();
+					}
+					catch (Throwable ex) {
+						Schedulers.handleError(ex);
+					}
+					continue;
+				}
+
+				idle(consumed + 1);
+			}
+		}
+
+		void idle(long sequence) {
+			try {
+				waitStrategy.waitFor(sequence, this, barrier);
+			}
+			catch (InterruptedException ex) {
+				//interrupted by shutdown, the loop re-checks the terminated state
+				Thread.interrupted();
+			}
+			catch (Throwable ex) {
+				if (!WaitStrategy.isAlert(ex)) {
+					Schedulers.handleError(ex);
+				}
+			}
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED || key == Attr.CANCELLED) return terminated;
+			if (key == Attr.BUFFERED) return queue.size();
+			if (key == Attr.PARENT) return parent;
+			if (key == Attr.NAME) return parent + ".loop" + index;
+
+			return null;
+		}
+	}
+
+	/**
+	 * A {@link reactor.core.scheduler.Scheduler.Worker} pinned to one {@link EventLoop},
+	 * keeping track of its pending tasks so that they can be disposed together.
+	 */
+	static final class EventLoopWorker implements Worker, Scannable {
+
+		final EventLoopScheduler parent;
+		final int                index;
+		final Composite          tasks;
+
+		EventLoopWorker(EventLoopScheduler parent, int index) {
+			this.parent = parent;
+			this.index = index;
+			this.tasks = new ConcurrentCompositeDisposable();
+		}
+
+		void enqueue(HandOffTask t) {
+			parent.submit(t, index);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			return schedule(task, 0L, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::enqueue, tasks, HandOffTask.ONCE);
+			if (!tasks.add(t)) {
+				throw Exceptions.failWithRejected();
+			}
+			try {
+				t.start(parent.timer(), delay, 0L, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				//RejectedExecutionException are propagated up
+				throw ex;
+			}
+			return t;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::enqueue, tasks,
+					period <= 0L ? HandOffTask.INSTANT_PERIODIC : HandOffTask.PERIODIC);
+			if (!tasks.add(t)) {
+				throw Exceptions.failWithRejected();
+			}
+			try {
+				t.start(parent.timer(), initialDelay, period, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				//RejectedExecutionException are propagated up
+				throw ex;
+			}
+			catch (IllegalArgumentException | NullPointerException ex) {
+				t.dispose();
+				//IllegalArgumentException are wrapped into RejectedExecutionException and propagated up
+				throw new RejectedExecutionException(ex);
+			}
+			return t;
+		}
+
+		@Override
+		public void dispose() {
+			tasks.dispose();
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return tasks.isDisposed();
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+			if (key == Attr.BUFFERED) return tasks.size();
+			if (key == Attr.PARENT) return parent;
+			if (key == Attr.NAME) return parent + ".worker";
+
+			return null;
+		}
+	}
+}
@@ -20,8 +20,8 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import reactor.core.Disposable;
-import reactor.core.Disposables;
 import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
 
 /**
  * @author Stephane Maldini
@@ -39,20 +39,33 @@ final class ExecutorServiceWorker implements Scheduler.Worker, Disposable, Scann
 	 */
 	final Composite disposables;
 
+	/**
+	 * The optional {@link TimerWheel} that tracks delayed tasks in place of the
+	 * {@link ScheduledExecutorService}
+	 */
+	@Nullable
+	final TimerWheel timer;
 
 	ExecutorServiceWorker(ScheduledExecutorService exec) {
 		this.exec = exec;
-		this.disposables = Disposables.composite();
+		this.timer = null;
+		this.disposables = new ConcurrentCompositeDisposable();
+	}
+
+	ExecutorServiceWorker(TimerWheel timer) {
+		this.exec = timer.exec;
+		this.timer = timer;
+		this.disposables = new ConcurrentCompositeDisposable();
 	}
 
 	@Override
 	public Disposable schedule(Runnable task) {
-		return Schedulers.workerSchedule(exec, disposables, task, 0L, TimeUnit.MILLISECONDS);
+		return Schedulers.workerSchedule(exec, timer, disposables, task, 0L, TimeUnit.MILLISECONDS);
 	}
 
 	@Override
 	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
-		return Schedulers.workerSchedule(exec, disposables, task, delay, unit);
+		return Schedulers.workerSchedule(exec, timer, disposables, task, delay, unit);
 	}
 
 	@Override
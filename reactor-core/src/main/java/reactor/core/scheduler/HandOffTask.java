@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.function.Consumer;
+
+import reactor.core.Disposable;
+import reactor.util.annotation.Nullable;
+
+/**
+ * A task for {@link Scheduler} implementations that run tasks on their own threads
+ * rather than on a {@link ScheduledExecutorService}. The task is handed off to a target
+ * (typically a Worker's queue) either immediately or, if delayed or periodic, once a
+ * timer {@link ScheduledExecutorService} fires ({@link #call()}). The actual execution
+ * happens in {@link #run()}, on whatever thread the target uses.
+ */
+final class HandOffTask implements Runnable, Callable<Void>, Disposable {
+
+	/** marker that the task was disposed, for the FUTURE field */
+	static final Future<Void> CANCELLED = new FutureTask<>(() -> null);
+
+	static final int ONCE             = 0;
+	static final int PERIODIC         = 1;
+	static final int INSTANT_PERIODIC = 2;
+
+	final Runnable              task;
+	final Consumer<HandOffTask> target;
+	@Nullable
+	final Composite             parent;
+	final int                   mode;
+
+	volatile Future<?> future;
+	static final AtomicReferenceFieldUpdater<HandOffTask, Future> FUTURE =
+			AtomicReferenceFieldUpdater.newUpdater(HandOffTask.class, Future.class, "future");
+
+	volatile int state;
+	static final AtomicIntegerFieldUpdater<HandOffTask> STATE =
+			AtomicIntegerFieldUpdater.newUpdater(HandOffTask.class, "state");
+
+	/** waiting for the timer, or for the next period */
+	static final int IDLE     = 0;
+	/** handed off to the target, pending execution */
+	static final int PENDING  = 1;
+	static final int DISPOSED = 2;
+
+	HandOffTask(Runnable task,
+			Consumer<HandOffTask> target,
+			@Nullable Composite parent,
+			int mode) {
+		this.task = task;
+		this.target = target;
+		this.parent = parent;
+		this.mode = mode;
+	}
+
+	/**
+	 * Hand the task off to its target right away, or arm the timer if it is delayed or
+	 * periodic. A {@link #PERIODIC} task is handed off again at each period, whereas an
+	 * {@link #INSTANT_PERIODIC} one is handed off again as soon as it has run.
+	 *
+	 * @param timer the timer to use for delayed and periodic tasks
+	 * @param initialDelay the initial delay amount, non-positive values indicate non-delayed scheduling
+	 * @param period the period, only used in {@link #PERIODIC} mode
+	 * @param unit the unit of measure of the delay and period
+	 */
+	void start(ScheduledExecutorService timer, long initialDelay, long period, TimeUnit unit) {
+		if (mode == PERIODIC) {
+			setFuture(timer.scheduleAtFixedRate(this::call, initialDelay, period, unit));
+		}
+		else if (initialDelay > 0L) {
+			setFuture(timer.schedule((Callable<Void>) this, initialDelay, unit));
+		}
+		else {
+			STATE.lazySet(this, PENDING);
+			target.accept(this);
+		}
+	}
+
+	/**
+	 * Hand the task off to its target once the timer fires. A periodic task whose
+	 * previous execution is still pending is not handed off twice.
+	 */
+	@Override
+	@Nullable
+	public Void call() {
+		if (STATE.compareAndSet(this, IDLE, PENDING)) {
+			try {
+				target.accept(this);
+			}
+			catch (Throwable ex) {
+				dispose();
+				Schedulers.handleError(ex);
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void run() {
+		if (state == DISPOSED) {
+			return;
+		}
+		try {
+			task.run();
+		}
+		catch (Throwable ex) {
+			Schedulers.handleError(ex);
+		}
+		finally {
+			if (mode == ONCE) {
+				dispose();
+			}
+			else if (STATE.compareAndSet(this, PENDING, IDLE) && mode == INSTANT_PERIODIC) {
+				call();
+			}
+		}
+	}
+
+	void setFuture(Future<?> f) {
+		if (!FUTURE.compareAndSet(this, null, f)) {
+			f.cancel(false);
+		}
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return state == DISPOSED;
+	}
+
+	@Override
+	public void dispose() {
+		if (STATE.getAndSet(this, DISPOSED) == DISPOSED) {
+			return;
+		}
+		Future f = FUTURE.getAndSet(this, CANCELLED);
+		if (f != null && f != CANCELLED) {
+			f.cancel(false);
+		}
+		if (parent != null) {
+			parent.remove(this);
+		}
+	}
+}
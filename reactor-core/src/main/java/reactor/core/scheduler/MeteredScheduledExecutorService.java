@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * A single-threaded {@link ScheduledThreadPoolExecutor} that records the latency and
+ * execution time of its tasks, as well as rejections, into a {@link TaskMetricsRecorder}.
+ * <p>
+ * The latency of a task is derived from its own trigger time rather than from a
+ * timestamp captured at submission, so that nothing has to be wrapped or allocated per
+ * task. The start time is kept in a plain field since it is only ever accessed from the
+ * single worker thread.
+ */
+class MeteredScheduledExecutorService extends ScheduledThreadPoolExecutor {
+
+	final TaskMetricsRecorder metrics;
+
+	long startNanos;
+
+	MeteredScheduledExecutorService(ThreadFactory factory, TaskMetricsRecorder metrics) {
+		super(1, factory);
+		setMaximumPoolSize(1);
+		setRemoveOnCancelPolicy(true);
+		setRejectedExecutionHandler(new MeteredAbortPolicy(metrics));
+		this.metrics = metrics;
+		metrics.register(this);
+	}
+
+	@Override
+	protected <V> RunnableScheduledFuture<V> decorateTask(Runnable runnable,
+			RunnableScheduledFuture<V> task) {
+		if (runnable instanceof TimerWheel.Tick) {
+			return new TickFuture<>(task);
+		}
+		return task;
+	}
+
+	@Override
+	protected void beforeExecute(Thread t, Runnable r) {
+		if (r instanceof TickFuture) {
+			//the timer wheel records the tasks it expires itself
+			return;
+		}
+		long latency = r instanceof Delayed ? -((Delayed) r).getDelay(TimeUnit.NANOSECONDS) : 0L;
+		metrics.latency.record(latency);
+		startNanos = System.nanoTime();
+	}
+
+	@Override
+	protected void afterExecute(Runnable r, Throwable t) {
+		if (r instanceof TickFuture) {
+			return;
+		}
+		metrics.recordCompleted(System.nanoTime() - startNanos);
+	}
+
+	@Override
+	protected void terminated() {
+		metrics.unregister(this);
+	}
+
+	/**
+	 * Marks the scheduled {@link TimerWheel.Tick ticks} of a {@link TimerWheel}, so that
+	 * they are not recorded as tasks.
+	 */
+	static final class TickFuture<V> implements RunnableScheduledFuture<V> {
+
+		final RunnableScheduledFuture<V> delegate;
+
+		TickFuture(RunnableScheduledFuture<V> delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean isPeriodic() {
+			return delegate.isPeriodic();
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return delegate.getDelay(unit);
+		}
+
+		@Override
+		public int compareTo(Delayed o) {
+			return delegate.compareTo(o instanceof TickFuture ? ((TickFuture<?>) o).delegate : o);
+		}
+
+		@Override
+		public void run() {
+			delegate.run();
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return delegate.cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return delegate.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return delegate.isDone();
+		}
+
+		@Override
+		public V get() throws InterruptedException, ExecutionException {
+			return delegate.get();
+		}
+
+		@Override
+		public V get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			return delegate.get(timeout, unit);
+		}
+	}
+
+	/**
+	 * Equivalent of {@link ThreadPoolExecutor.AbortPolicy} that also counts the rejection.
+	 */
+	static final class MeteredAbortPolicy implements RejectedExecutionHandler {
+
+		final TaskMetricsRecorder metrics;
+
+		MeteredAbortPolicy(TaskMetricsRecorder metrics) {
+			this.metrics = metrics;
+		}
+
+		@Override
+		public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+			metrics.recordRejected();
+			throw new RejectedExecutionException("Task " + r + " rejected from " + executor);
+		}
+	}
+}
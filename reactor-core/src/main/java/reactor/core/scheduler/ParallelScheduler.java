@@ -31,7 +31,7 @@ import reactor.core.Scannable;
 /**
  * Scheduler that hosts a fixed pool of single-threaded ScheduledExecutorService-based workers
  * and is suited for parallel work. This scheduler is time-capable (can schedule with
- * delay / periodically).
+ * delay / periodically): delayed tasks are tracked by a {@link TimerWheel} per executor.
  *
  * @author Stephane Maldini
  * @author Simon Baslé
@@ -45,16 +45,19 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
     
     final ThreadFactory factory;
 
-    volatile ScheduledExecutorService[] executors;
-    static final AtomicReferenceFieldUpdater<ParallelScheduler, ScheduledExecutorService[]> EXECUTORS =
-            AtomicReferenceFieldUpdater.newUpdater(ParallelScheduler.class, ScheduledExecutorService[].class, "executors");
+    final TaskMetricsRecorder metrics;
 
-    static final ScheduledExecutorService[] SHUTDOWN = new ScheduledExecutorService[0];
+    volatile TimerWheel[] executors;
+    static final AtomicReferenceFieldUpdater<ParallelScheduler, TimerWheel[]> EXECUTORS =
+            AtomicReferenceFieldUpdater.newUpdater(ParallelScheduler.class, TimerWheel[].class, "executors");
+
+    static final TimerWheel[] SHUTDOWN = new TimerWheel[0];
     
-    static final ScheduledExecutorService TERMINATED;
+    static final TimerWheel TERMINATED;
     static {
-        TERMINATED = Executors.newSingleThreadScheduledExecutor();
-        TERMINATED.shutdownNow();
+        ScheduledExecutorService terminated = Executors.newSingleThreadScheduledExecutor();
+        terminated.shutdownNow();
+        TERMINATED = new TimerWheel(terminated);
     }
 
     int roundRobin;
@@ -65,25 +68,24 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
         }
         this.n = n;
         this.factory = factory;
+        this.metrics = new TaskMetricsRecorder();
         init(n);
     }
 
     /**
      * Instantiates the default {@link ScheduledExecutorService} for the ParallelScheduler
-     * ({@code Executors.newScheduledThreadPoolExecutor} with core and max pool size of 1).
+     * (a {@link ScheduledThreadPoolExecutor} with core and max pool size of 1, recording
+     * the scheduler's {@link TaskMetrics}).
      */
     @Override
     public ScheduledExecutorService get() {
-        ScheduledThreadPoolExecutor poolExecutor = new ScheduledThreadPoolExecutor(1, factory);
-        poolExecutor.setMaximumPoolSize(1);
-        poolExecutor.setRemoveOnCancelPolicy(true);
-        return poolExecutor;
+        return new MeteredScheduledExecutorService(factory, metrics);
     }
     
     void init(int n) {
-        ScheduledExecutorService[] a = new ScheduledExecutorService[n];
+        TimerWheel[] a = new TimerWheel[n];
         for (int i = 0; i < n; i++) {
-            a[i] = Schedulers.decorateExecutorService(this, this.get());
+            a[i] = new TimerWheel(Schedulers.decorateExecutorService(this, this.get()), metrics);
         }
         EXECUTORS.lazySet(this, a);
     }
@@ -95,22 +97,22 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
 	@Override
     public void start() {
-        ScheduledExecutorService[] b = null;
+        TimerWheel[] b = null;
         for (;;) {
-            ScheduledExecutorService[] a = executors;
+            TimerWheel[] a = executors;
             if (a != SHUTDOWN) {
                 if (b != null) {
-                    for (ScheduledExecutorService exec : b) {
-                        exec.shutdownNow();
+                    for (TimerWheel timer : b) {
+                        timer.exec.shutdownNow();
                     }
                 }
                 return;
             }
 
             if (b == null) {
-                b = new ScheduledExecutorService[n];
+                b = new TimerWheel[n];
                 for (int i = 0; i < n; i++) {
-                    b[i] = Schedulers.decorateExecutorService(this, this.get());
+                    b[i] = new TimerWheel(Schedulers.decorateExecutorService(this, this.get()), metrics);
                 }
             }
             
@@ -122,19 +124,19 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
     @Override
     public void dispose() {
-        ScheduledExecutorService[] a = executors;
+        TimerWheel[] a = executors;
         if (a != SHUTDOWN) {
             a = EXECUTORS.getAndSet(this, SHUTDOWN);
             if (a != SHUTDOWN) {
-                for (ScheduledExecutorService exec : a) {
-                    exec.shutdownNow();
+                for (TimerWheel timer : a) {
+                    timer.exec.shutdownNow();
                 }
             }
         }
     }
     
-    ScheduledExecutorService pick() {
-        ScheduledExecutorService[] a = executors;
+    TimerWheel pick() {
+        TimerWheel[] a = executors;
         if (a != SHUTDOWN) {
             // ignoring the race condition here, its already random who gets which executor
             int idx = roundRobin;
@@ -151,12 +153,13 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
 
     @Override
     public Disposable schedule(Runnable task) {
-	    return Schedulers.directSchedule(pick(), task, null, 0L, TimeUnit.MILLISECONDS);
+	    return Schedulers.directSchedule(pick().exec, task, null, 0L, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
-	    return Schedulers.directSchedule(pick(), task, null, delay, unit);
+	    TimerWheel timer = pick();
+	    return Schedulers.directSchedule(timer.exec, timer, task, null, delay, unit);
     }
 
     @Override
@@ -164,7 +167,7 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
             long initialDelay,
             long period,
             TimeUnit unit) {
-	    return Schedulers.directSchedulePeriodically(pick(),
+	    return Schedulers.directSchedulePeriodically(pick().exec,
 			    task,
 			    initialDelay,
 			    period,
@@ -187,18 +190,32 @@ final class ParallelScheduler implements Scheduler, Supplier<ScheduledExecutorSe
         if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
         if (key == Attr.CAPACITY || key == Attr.BUFFERED) return n; //BUFFERED: number of workers doesn't vary
         if (key == Attr.NAME) return this.toString();
+        if (key == Attr.TASK_METRICS) return metrics.snapshot();
 
         return null;
     }
 
+    TimerWheel pick(int affinity) {
+        TimerWheel[] a = executors;
+        if (a != SHUTDOWN) {
+            return a[Math.floorMod(affinity, n)];
+        }
+        return TERMINATED;
+    }
+
     @Override
     public Stream<? extends Scannable> inners() {
         return Stream.of(executors)
-                .map(exec -> key -> Schedulers.scanExecutor(exec, key));
+                .map(timer -> key -> Schedulers.scanExecutor(timer.exec, key));
     }
 
     @Override
     public Worker createWorker() {
         return new ExecutorServiceWorker(pick());
     }
+
+    @Override
+    public Worker createWorker(int affinity) {
+        return new ExecutorServiceWorker(pick(affinity));
+    }
 }
@@ -42,5 +42,13 @@ public final class ReactorBlockHoundIntegration implements BlockHoundIntegration
         builder.allowBlockingCallsInside(SchedulerTask.class.getName(), "dispose");
 
         builder.allowBlockingCallsInside(ThreadPoolExecutor.class.getName(), "processWorkerExit");
+
+        // Idling and signalling rely on the user-provided WaitStrategy, which may spin, yield, park or lock
+        builder.allowBlockingCallsInside(EventLoopScheduler.EventLoop.class.getName(), "idle");
+        builder.allowBlockingCallsInside(EventLoopScheduler.EventLoop.class.getName(), "submit");
+        builder.allowBlockingCallsInside(EventLoopScheduler.EventLoop.class.getName(), "shutdown");
+
+        // Idle lanes park until a task is submitted to them or to a sibling they can steal from
+        builder.allowBlockingCallsInside(WorkStealingScheduler.Lane.class.getName(), "idle");
     }
 }
@@ -112,6 +112,23 @@ public interface Scheduler extends Disposable {
 	 */
 	Worker createWorker();
 
+	/**
+	 * Creates a worker of this Scheduler that is pinned to the backing thread associated
+	 * with the given affinity key, so that workers created with the same key consistently
+	 * run their tasks on the same thread (as long as this Scheduler isn't restarted).
+	 * This lets callers that partition their work, like {@link reactor.core.publisher.ParallelFlux}
+	 * rails, keep each partition on the same thread across subscriptions.
+	 * <p>
+	 * Schedulers that don't have a fixed set of backing threads ignore the key, which
+	 * is the default behavior: it simply delegates to {@link #createWorker()}.
+	 *
+	 * @param affinity the affinity key, mapped onto the backing threads modulo their number
+	 * @return the Worker instance.
+	 */
+	default Worker createWorker(int affinity) {
+		return createWorker();
+	}
+
 	/**
 	 * Instructs this Scheduler to release all resources and reject
 	 * any new tasks to be executed.
@@ -42,6 +42,7 @@ import reactor.util.Logger;
 import reactor.util.Loggers;
 import reactor.util.Metrics;
 import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.WaitStrategy;
 
 import static reactor.core.Exceptions.unwrap;
 
@@ -56,6 +57,7 @@ import static reactor.core.Exceptions.unwrap;
  *     <li>{@link #elastic()}: Optimized for longer executions, an alternative for blocking tasks where the number of active tasks (and threads) can grow indefinitely</li>
  *     <li>{@link #boundedElastic()}: Optimized for longer executions, an alternative for blocking tasks where the number of active tasks (and threads) is capped</li>
  *     <li>{@link #immediate}: to immediately run submitted {@link Runnable} instead of scheduling them (somewhat of a no-op or "null object" {@link Scheduler})</li>
+ *     <li>{@link #trampoline}: to run submitted {@link Runnable} on the current thread, queuing re-entrant submissions instead of growing the stack</li>
  *     <li>{@link #fromExecutorService(ExecutorService)} to create new instances around {@link java.util.concurrent.Executors} </li>
  * </ul>
  * <p>
@@ -243,6 +245,25 @@ public abstract class Schedulers {
 		return ImmediateScheduler.instance();
 	}
 
+	/**
+	 * Executes tasks on the thread that submitted them, like {@link #immediate()}, but
+	 * trampolines re-entrant submissions: a task scheduled while another task is already
+	 * running on the same thread is queued on a per-thread queue, which the outermost task
+	 * drains iteratively once it returns.
+	 * <p>
+	 * As a consequence, recursive scheduling (eg. a {@link reactor.core.publisher.Flux#publishOn(Scheduler) publishOn}
+	 * or {@link reactor.core.publisher.Flux#subscribeOn(Scheduler) subscribeOn} chain that
+	 * reschedules from within its own tasks) runs in FIFO order without any thread hop
+	 * and without the risk of a {@link StackOverflowError}. Like {@link #immediate()},
+	 * this {@link Scheduler} is not time-capable.
+	 *
+	 * @return a reusable {@link Scheduler} that executes tasks on the current thread,
+	 * queuing re-entrant tasks instead of running them recursively
+	 */
+	public static Scheduler trampoline() {
+		return TrampolineScheduler.instance();
+	}
+
 	/**
 	 * {@link Scheduler} that dynamically creates ExecutorService-based Workers and caches
 	 * the thread pools, reusing them once the Workers have been shut down.
@@ -538,6 +559,166 @@ public abstract class Schedulers {
 		return factory.newParallel(parallelism, threadFactory);
 	}
 
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of threads that cooperatively run
+	 * {@link reactor.core.scheduler.Scheduler.Worker Workers} and is suited for parallel work
+	 * with an uneven distribution of load across workers. Unlike {@link #newParallel(String)},
+	 * workers are not pinned to a single thread: an idle thread steals pending workers from
+	 * busy ones. Each worker still runs its tasks in FIFO order and never concurrently.
+	 * This type of {@link Scheduler} detects and rejects usage of blocking Reactor APIs.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 * and is suited for parallel work
+	 */
+	public static Scheduler newWorkStealing(String name) {
+		return newWorkStealing(name, DEFAULT_POOL_SIZE);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of threads that cooperatively run
+	 * {@link reactor.core.scheduler.Scheduler.Worker Workers} and is suited for parallel work
+	 * with an uneven distribution of load across workers. Unlike {@link #newParallel(String, int)},
+	 * workers are not pinned to a single thread: an idle thread steals pending workers from
+	 * busy ones. Each worker still runs its tasks in FIFO order and never concurrently.
+	 * This type of {@link Scheduler} detects and rejects usage of blocking Reactor APIs.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 * and is suited for parallel work
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism) {
+		return newWorkStealing(name, parallelism, false);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of threads that cooperatively run
+	 * {@link reactor.core.scheduler.Scheduler.Worker Workers} and is suited for parallel work
+	 * with an uneven distribution of load across workers. Unlike {@link #newParallel(String, int, boolean)},
+	 * workers are not pinned to a single thread: an idle thread steals pending workers from
+	 * busy ones. Each worker still runs its tasks in FIFO order and never concurrently.
+	 * This type of {@link Scheduler} detects and rejects usage of blocking Reactor APIs.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of pooled threads.
+	 * @param daemon false if the {@link Scheduler} requires an explicit {@link
+	 * Scheduler#dispose()} to exit the VM.
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 * and is suited for parallel work
+	 */
+	public static Scheduler newWorkStealing(String name, int parallelism, boolean daemon) {
+		return newWorkStealing(parallelism,
+				new ReactorThreadFactory(name, WorkStealingScheduler.COUNTER, daemon,
+						true, Schedulers::defaultUncaughtException));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of threads that cooperatively run
+	 * {@link reactor.core.scheduler.Scheduler.Worker Workers} and is suited for parallel work
+	 * with an uneven distribution of load across workers. Workers are not pinned to a single
+	 * thread: an idle thread steals pending workers from busy ones. Each worker still runs
+	 * its tasks in FIFO order and never concurrently.
+	 * <p>
+	 * Note that one additional thread is created from the {@link ThreadFactory} to keep
+	 * track of delayed and periodic tasks.
+	 *
+	 * @param parallelism Number of pooled threads.
+	 * @param threadFactory a {@link ThreadFactory} to use for the fixed initialized
+	 * number of {@link Thread}
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing threads
+	 * and is suited for parallel work
+	 */
+	public static Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+		return factory.newWorkStealing(parallelism, threadFactory);
+	}
+
+	/**
+	 * {@link Scheduler} that runs each {@link reactor.core.scheduler.Scheduler.Worker}
+	 * and each directly scheduled task on a virtual thread, and is thus suited for
+	 * blocking work without capping the number of backing threads. Tasks submitted to a
+	 * given worker are still executed in FIFO order and never concurrently.
+	 * <p>
+	 * Virtual threads are only available on Java 21+: on older JVMs this falls back to
+	 * a {@link #newBoundedElastic(int, int, String, int, boolean) bounded elastic}
+	 * {@link Scheduler} with the default caps and daemon threads.
+	 *
+	 * @param name Thread prefix
+	 *
+	 * @return a new {@link Scheduler} that runs tasks on virtual threads, or a bounded
+	 * elastic {@link Scheduler} if these aren't supported
+	 */
+	public static Scheduler newVirtualThreadElastic(String name) {
+		return factory.newVirtualThreadElastic(name);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of event loop threads, each draining its
+	 * own MPSC queue of tasks in a tight loop, and is suited for latency-sensitive parallel
+	 * work. {@link reactor.core.scheduler.Scheduler.Worker Workers} are pinned to an event
+	 * loop. Idle event loops spin for a short while, then yield, then block until signalled.
+	 * This type of {@link Scheduler} detects and rejects usage of blocking Reactor APIs.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of event loop threads.
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of event loop threads
+	 * @see #newEventLoop(String, int, Supplier)
+	 */
+	public static Scheduler newEventLoop(String name, int parallelism) {
+		return newEventLoop(name, parallelism,
+				() -> WaitStrategy.phasedOffLiteLock(100, 100, TimeUnit.MICROSECONDS));
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of event loop threads, each draining its
+	 * own MPSC queue of tasks in a tight loop, and is suited for latency-sensitive parallel
+	 * work. {@link reactor.core.scheduler.Scheduler.Worker Workers} are pinned to an event
+	 * loop. Idle event loops wait for new tasks according to their own {@link WaitStrategy},
+	 * eg. {@link WaitStrategy#busySpin()} for the lowest wake-up latency on dedicated cores,
+	 * or {@link WaitStrategy#parking()} as a compromise with CPU usage.
+	 * This type of {@link Scheduler} detects and rejects usage of blocking Reactor APIs.
+	 *
+	 * @param name Thread prefix
+	 * @param parallelism Number of event loop threads.
+	 * @param waitStrategySupplier the {@link Supplier} of the {@link WaitStrategy} used by
+	 * an idle event loop, called once per event loop
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of event loop threads
+	 */
+	public static Scheduler newEventLoop(String name, int parallelism,
+			Supplier<? extends WaitStrategy> waitStrategySupplier) {
+		return newEventLoop(parallelism,
+				new ReactorThreadFactory(name, EventLoopScheduler.COUNTER, false,
+						true, Schedulers::defaultUncaughtException),
+				waitStrategySupplier);
+	}
+
+	/**
+	 * {@link Scheduler} that hosts a fixed pool of event loop threads, each draining its
+	 * own MPSC queue of tasks in a tight loop, and is suited for latency-sensitive parallel
+	 * work. Idle event loops wait for new tasks according to their own {@link WaitStrategy}.
+	 * <p>
+	 * Note that one additional thread is created from the {@link ThreadFactory} to keep
+	 * track of delayed and periodic tasks.
+	 *
+	 * @param parallelism Number of event loop threads.
+	 * @param threadFactory a {@link ThreadFactory} to use for the fixed initialized
+	 * number of {@link Thread}
+	 * @param waitStrategySupplier the {@link Supplier} of the {@link WaitStrategy} used by
+	 * an idle event loop, called once per event loop
+	 *
+	 * @return a new {@link Scheduler} that hosts a fixed pool of event loop threads
+	 */
+	public static Scheduler newEventLoop(int parallelism, ThreadFactory threadFactory,
+			Supplier<? extends WaitStrategy> waitStrategySupplier) {
+		return factory.newEventLoop(parallelism, threadFactory, waitStrategySupplier);
+	}
+
 	/**
 	 * {@link Scheduler} that hosts a single-threaded ExecutorService-based worker and is
 	 * suited for parallel work. This type of {@link Scheduler} detects and rejects usage
@@ -954,6 +1135,61 @@ public abstract class Schedulers {
 			return new ParallelScheduler(parallelism, threadFactory);
 		}
 
+		/**
+		 * {@link Scheduler} that hosts a fixed pool of threads that cooperatively run
+		 * workers, idle threads stealing pending workers from busy ones, and is suited
+		 * for parallel work.
+		 *
+		 * @param parallelism Number of pooled threads.
+		 * @param threadFactory a {@link ThreadFactory} to use for the fixed initialized
+		 * number of {@link Thread}
+		 *
+		 * @return a new {@link Scheduler} that hosts a fixed pool of work-stealing
+		 * threads and is suited for parallel work
+		 */
+		default Scheduler newWorkStealing(int parallelism, ThreadFactory threadFactory) {
+			return new WorkStealingScheduler(parallelism, threadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} that runs each worker and each directly scheduled task on a
+		 * virtual thread, falling back to a bounded elastic {@link Scheduler} if the JVM
+		 * doesn't support virtual threads.
+		 *
+		 * @param name Thread prefix
+		 *
+		 * @return a new {@link Scheduler} that runs tasks on virtual threads, or a
+		 * bounded elastic {@link Scheduler} if these aren't supported
+		 */
+		default Scheduler newVirtualThreadElastic(String name) {
+			ThreadFactory virtualThreadFactory = VirtualThreadElasticScheduler.virtualThreadFactory(name);
+			if (virtualThreadFactory == null) {
+				return newBoundedElastic(DEFAULT_BOUNDED_ELASTIC_SIZE, DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+						new ReactorThreadFactory(name, ElasticScheduler.COUNTER, true,
+								false, Schedulers::defaultUncaughtException),
+						BoundedElasticScheduler.DEFAULT_TTL_SECONDS);
+			}
+			return new VirtualThreadElasticScheduler(name, virtualThreadFactory);
+		}
+
+		/**
+		 * {@link Scheduler} that hosts a fixed pool of event loop threads, each
+		 * draining its own MPSC queue of tasks and idling according to its own
+		 * {@link WaitStrategy}, and is suited for latency-sensitive parallel work.
+		 *
+		 * @param parallelism Number of event loop threads.
+		 * @param threadFactory a {@link ThreadFactory} to use for the fixed initialized
+		 * number of {@link Thread}
+		 * @param waitStrategySupplier the {@link Supplier} of the {@link WaitStrategy}
+		 * used by an idle event loop, called once per event loop
+		 *
+		 * @return a new {@link Scheduler} that hosts a fixed pool of event loop threads
+		 */
+		default Scheduler newEventLoop(int parallelism, ThreadFactory threadFactory,
+				Supplier<? extends WaitStrategy> waitStrategySupplier) {
+			return new EventLoopScheduler(parallelism, threadFactory, waitStrategySupplier);
+		}
+
 		/**
 		 * {@link Scheduler} that hosts a single worker and is suited for non-blocking
 		 * work.
@@ -973,7 +1209,11 @@ public abstract class Schedulers {
 	static final String BOUNDED_ELASTIC       = "boundedElastic"; // Blocking stuff with scale to zero
 	static final String PARALLEL              = "parallel"; //scale up common tasks
 	static final String SINGLE                = "single"; //non blocking tasks
+	static final String WORK_STEALING         = "workStealing"; //uneven parallel tasks
+	static final String VIRTUAL_THREAD_ELASTIC = "virtualThreadElastic"; //blocking tasks on virtual threads
+	static final String EVENT_LOOP            = "eventLoop"; //latency-sensitive parallel tasks
 	static final String IMMEDIATE             = "immediate";
+	static final String TRAMPOLINE            = "trampoline";
 	static final String FROM_EXECUTOR         = "fromExecutor";
 	static final String FROM_EXECUTOR_SERVICE = "fromExecutorService";
 
@@ -1090,6 +1330,11 @@ public abstract class Schedulers {
 			return cached.createWorker();
 		}
 
+		@Override
+		public Worker createWorker(int affinity) {
+			return cached.createWorker(affinity);
+		}
+
 		@Override
 		public long now(TimeUnit unit) {
 			return cached.now(unit);
@@ -1141,12 +1386,24 @@ public abstract class Schedulers {
 			@Nullable Disposable parent,
 			long delay,
 			TimeUnit unit) {
+		return directSchedule(exec, null, task, parent, delay, unit);
+	}
+
+	static Disposable directSchedule(ScheduledExecutorService exec,
+			@Nullable TimerWheel timer,
+			Runnable task,
+			@Nullable Disposable parent,
+			long delay,
+			TimeUnit unit) {
 		task = onSchedule(task);
 		SchedulerTask sr = new SchedulerTask(task, parent);
 		Future<?> f;
 		if (delay <= 0L) {
 			f = exec.submit((Callable<?>) sr);
 		}
+		else if (timer != null) {
+			f = timer.schedule(sr, delay, unit);
+		}
 		else {
 			f = exec.schedule((Callable<?>) sr, delay, unit);
 		}
@@ -1190,6 +1447,15 @@ public abstract class Schedulers {
 			Runnable task,
 			long delay,
 			TimeUnit unit) {
+		return workerSchedule(exec, null, tasks, task, delay, unit);
+	}
+
+	static Disposable workerSchedule(ScheduledExecutorService exec,
+			@Nullable TimerWheel timer,
+			Disposable.Composite tasks,
+			Runnable task,
+			long delay,
+			TimeUnit unit) {
 		task = onSchedule(task);
 
 		WorkerTask sr = new WorkerTask(task, tasks);
@@ -1202,6 +1468,9 @@ public abstract class Schedulers {
 			if (delay <= 0L) {
 				f = exec.submit((Callable<?>) sr);
 			}
+			else if (timer != null) {
+				f = timer.schedule(sr, delay, unit);
+			}
 			else {
 				f = exec.schedule((Callable<?>) sr, delay, unit);
 			}
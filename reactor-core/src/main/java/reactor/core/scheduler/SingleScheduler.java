@@ -31,7 +31,7 @@ import reactor.core.Scannable;
 /**
  * Scheduler that works with a single-threaded ScheduledExecutorService and is suited for
  * same-thread work (like an event dispatch thread). This scheduler is time-capable (can
- * schedule with delay / periodically).
+ * schedule with delay / periodically): delayed tasks are tracked by a {@link TimerWheel}.
  */
 final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorService>,
                                        Scannable {
@@ -40,38 +40,40 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 
 	final ThreadFactory factory;
 
-	volatile ScheduledExecutorService executor;
-	static final AtomicReferenceFieldUpdater<SingleScheduler, ScheduledExecutorService> EXECUTORS =
+	final TaskMetricsRecorder metrics;
+
+	volatile TimerWheel executor;
+	static final AtomicReferenceFieldUpdater<SingleScheduler, TimerWheel> EXECUTORS =
 			AtomicReferenceFieldUpdater.newUpdater(SingleScheduler.class,
-					ScheduledExecutorService.class,
+					TimerWheel.class,
 					"executor");
 
-	static final ScheduledExecutorService TERMINATED;
+	static final TimerWheel TERMINATED;
 
 	static {
-		TERMINATED = Executors.newSingleThreadScheduledExecutor();
-		TERMINATED.shutdownNow();
+		ScheduledExecutorService terminated = Executors.newSingleThreadScheduledExecutor();
+		terminated.shutdownNow();
+		TERMINATED = new TimerWheel(terminated);
 	}
 
 	SingleScheduler(ThreadFactory factory) {
 		this.factory = factory;
+		this.metrics = new TaskMetricsRecorder();
 		init();
 	}
 
 	/**
 	 * Instantiates the default {@link ScheduledExecutorService} for the SingleScheduler
-	 * ({@code Executors.newScheduledThreadPoolExecutor} with core and max pool size of 1).
+	 * (a {@link ScheduledThreadPoolExecutor} with core and max pool size of 1, recording
+	 * the scheduler's {@link TaskMetrics}).
 	 */
 	@Override
 	public ScheduledExecutorService get() {
-		ScheduledThreadPoolExecutor e = (ScheduledThreadPoolExecutor) Executors.newScheduledThreadPool(1, this.factory);
-		e.setRemoveOnCancelPolicy(true);
-		e.setMaximumPoolSize(1);
-		return e;
+		return new MeteredScheduledExecutorService(this.factory, metrics);
 	}
 
 	private void init() {
-		EXECUTORS.lazySet(this, Schedulers.decorateExecutorService(this, this.get()));
+		EXECUTORS.lazySet(this, new TimerWheel(Schedulers.decorateExecutorService(this, this.get()), metrics));
 	}
 
 	@Override
@@ -82,18 +84,18 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 	@Override
 	public void start() {
 		//TODO SingleTimedScheduler didn't implement start, check if any particular reason?
-		ScheduledExecutorService b = null;
+		TimerWheel b = null;
 		for (; ; ) {
-			ScheduledExecutorService a = executor;
+			TimerWheel a = executor;
 			if (a != TERMINATED) {
 				if (b != null) {
-					b.shutdownNow();
+					b.exec.shutdownNow();
 				}
 				return;
 			}
 
 			if (b == null) {
-				b = Schedulers.decorateExecutorService(this, this.get());
+				b = new TimerWheel(Schedulers.decorateExecutorService(this, this.get()), metrics);
 			}
 
 			if (EXECUTORS.compareAndSet(this, a, b)) {
@@ -104,23 +106,24 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 
 	@Override
 	public void dispose() {
-		ScheduledExecutorService a = executor;
+		TimerWheel a = executor;
 		if (a != TERMINATED) {
 			a = EXECUTORS.getAndSet(this, TERMINATED);
 			if (a != TERMINATED) {
-				a.shutdownNow();
+				a.exec.shutdownNow();
 			}
 		}
 	}
 
 	@Override
 	public Disposable schedule(Runnable task) {
-		return Schedulers.directSchedule(executor, task, null, 0L, TimeUnit.MILLISECONDS);
+		return Schedulers.directSchedule(executor.exec, task, null, 0L, TimeUnit.MILLISECONDS);
 	}
 
 	@Override
 	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
-		return Schedulers.directSchedule(executor, task, null, delay, unit);
+		TimerWheel timer = executor;
+		return Schedulers.directSchedule(timer.exec, timer, task, null, delay, unit);
 	}
 
 	@Override
@@ -128,7 +131,7 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 			long initialDelay,
 			long period,
 			TimeUnit unit) {
-		return Schedulers.directSchedulePeriodically(executor,
+		return Schedulers.directSchedulePeriodically(executor.exec,
 				task,
 				initialDelay,
 				period,
@@ -150,8 +153,9 @@ final class SingleScheduler implements Scheduler, Supplier<ScheduledExecutorServ
 		if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
 		if (key == Attr.NAME) return this.toString();
 		if (key == Attr.CAPACITY || key == Attr.BUFFERED) return 1; //BUFFERED: number of workers doesn't vary
+		if (key == Attr.TASK_METRICS) return metrics.snapshot();
 
-		return Schedulers.scanExecutor(executor, key);
+		return Schedulers.scanExecutor(executor.exec, key);
 	}
 
 	@Override
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import reactor.core.Scannable;
+
+/**
+ * A point-in-time snapshot of the tasks run by a {@link Scheduler}, as exposed by
+ * {@link Scannable.Attr#TASK_METRICS}. The {@link Schedulers#parallel() parallel},
+ * {@link Schedulers#single() single} and {@link Schedulers#boundedElastic() boundedElastic}
+ * flavors record these metrics for all of their tasks, whether submitted directly or
+ * through a {@link reactor.core.scheduler.Scheduler.Worker}.
+ * <p>
+ * Durations are recorded in {@link Histogram histograms} with power-of-two buckets, so
+ * percentiles are approximated by the upper bound of the bucket they fall in. Delayed
+ * tasks that a scheduler tracks in a hashed timer wheel are recorded like any other task,
+ * while the ticks advancing the wheel are not recorded.
+ */
+public final class TaskMetrics {
+
+	final int       queued;
+	final long      completed;
+	final long      rejected;
+	final Histogram latency;
+	final Histogram executionTime;
+
+	TaskMetrics(int queued, long completed, long rejected, Histogram latency, Histogram executionTime) {
+		this.queued = queued;
+		this.completed = completed;
+		this.rejected = rejected;
+		this.latency = latency;
+		this.executionTime = executionTime;
+	}
+
+	/**
+	 * @return the number of tasks waiting in the queues of the backing executors, including
+	 * delayed tasks that are not due yet, whether they are queued in an executor or tracked
+	 * in a timer wheel
+	 */
+	public int queued() {
+		return queued;
+	}
+
+	/**
+	 * @return the number of task runs that completed, periodic tasks counting once per run
+	 */
+	public long completed() {
+		return completed;
+	}
+
+	/**
+	 * @return the number of tasks that were rejected by the backing executors, either because
+	 * they were shut down or because their queue was full
+	 */
+	public long rejected() {
+		return rejected;
+	}
+
+	/**
+	 * @return the {@link Histogram} of the time between the moment a task was due (the moment
+	 * it was scheduled if it wasn't delayed) and the moment it started running
+	 */
+	public Histogram latency() {
+		return latency;
+	}
+
+	/**
+	 * @return the {@link Histogram} of the time tasks spent running
+	 */
+	public Histogram executionTime() {
+		return executionTime;
+	}
+
+	@Override
+	public String toString() {
+		return "TaskMetrics{" + "queued=" + queued + ", completed=" + completed + ", rejected=" + rejected +
+				", latency=" + latency + ", executionTime=" + executionTime + '}';
+	}
+
+	/**
+	 * A snapshot of durations, in nanoseconds, counted in buckets of increasing powers of two:
+	 * bucket {@code 0} counts durations of {@code 0ns}, and bucket {@code i} counts durations
+	 * between {@code 2^(i-1)} and {@code 2^i - 1} nanoseconds.
+	 */
+	public static final class Histogram {
+
+		/**
+		 * The number of buckets of a {@link Histogram}.
+		 */
+		public static final int BUCKETS = 64;
+
+		final long[] counts;
+		final long   count;
+		final long   totalNanos;
+		final long   maxNanos;
+
+		Histogram(long[] counts, long totalNanos, long maxNanos) {
+			this.counts = counts;
+			long c = 0L;
+			for (long bucket : counts) {
+				c += bucket;
+			}
+			this.count = c;
+			this.totalNanos = totalNanos;
+			this.maxNanos = maxNanos;
+		}
+
+		/**
+		 * Return the bucket a given duration falls into.
+		 *
+		 * @param nanos the duration in nanoseconds
+		 * @return the index of the bucket
+		 */
+		public static int bucketOf(long nanos) {
+			return nanos <= 0L ? 0 : 64 - Long.numberOfLeadingZeros(nanos);
+		}
+
+		/**
+		 * Return the largest duration counted by the given bucket.
+		 *
+		 * @param bucket the index of the bucket
+		 * @return the upper bound of the bucket, in nanoseconds
+		 */
+		public static long bucketUpperBoundNanos(int bucket) {
+			return bucket >= BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1L;
+		}
+
+		/**
+		 * @param bucket the index of the bucket
+		 * @return the number of durations counted by the given bucket
+		 */
+		public long bucketCount(int bucket) {
+			return counts[bucket];
+		}
+
+		/**
+		 * @return the number of recorded durations
+		 */
+		public long count() {
+			return count;
+		}
+
+		/**
+		 * @return the sum of the recorded durations, in nanoseconds
+		 */
+		public long totalNanos() {
+			return totalNanos;
+		}
+
+		/**
+		 * @return the largest recorded duration, in nanoseconds
+		 */
+		public long maxNanos() {
+			return maxNanos;
+		}
+
+		/**
+		 * @return the mean of the recorded durations, in nanoseconds
+		 */
+		public double meanNanos() {
+			return count == 0L ? 0d : (double) totalNanos / count;
+		}
+
+		/**
+		 * Approximate the duration under which the given ratio of the recorded durations
+		 * fall, as the upper bound of the bucket containing it (capped by {@link #maxNanos()}).
+		 *
+		 * @param percentile the ratio, between 0 and 1
+		 * @return the approximated percentile, in nanoseconds
+		 */
+		public long percentileNanos(double percentile) {
+			if (percentile < 0d || percentile > 1d) {
+				throw new IllegalArgumentException("percentile must be between 0 and 1, was " + percentile);
+			}
+			if (count == 0L) {
+				return 0L;
+			}
+			long rank = (long) Math.ceil(percentile * count);
+			long seen = 0L;
+			for (int i = 0; i < BUCKETS; i++) {
+				seen += counts[i];
+				if (seen >= rank && seen > 0L) {
+					return Math.min(bucketUpperBoundNanos(i), maxNanos);
+				}
+			}
+			return maxNanos;
+		}
+
+		@Override
+		public String toString() {
+			return "Histogram{" + "count=" + count + ", mean=" + (long) meanNanos() + "ns, p50=" +
+					percentileNanos(0.5d) + "ns, p99=" + percentileNanos(0.99d) + "ns, max=" + maxNanos + "ns}";
+		}
+	}
+}
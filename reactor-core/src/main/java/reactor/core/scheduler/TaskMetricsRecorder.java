@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records the {@link TaskMetrics} of a {@link Scheduler}, shared by all of its
+ * {@link MeteredScheduledExecutorService}. Recording only updates striped counters
+ * ({@link LongAdder}), so it doesn't allocate nor contend once the stripes are set up,
+ * while taking a {@link #snapshot()} sums them up.
+ */
+final class TaskMetricsRecorder {
+
+	final Set<ScheduledThreadPoolExecutor> executors;
+	final Set<TimerWheel>                  timers;
+	final LongAdder                        completed;
+	final LongAdder                        rejected;
+	final HistogramRecorder                latency;
+	final HistogramRecorder                executionTime;
+
+	TaskMetricsRecorder() {
+		this.executors = new CopyOnWriteArraySet<>();
+		this.timers = new CopyOnWriteArraySet<>();
+		this.completed = new LongAdder();
+		this.rejected = new LongAdder();
+		this.latency = new HistogramRecorder();
+		this.executionTime = new HistogramRecorder();
+	}
+
+	void register(ScheduledThreadPoolExecutor executor) {
+		executors.add(executor);
+	}
+
+	void unregister(ScheduledThreadPoolExecutor executor) {
+		executors.remove(executor);
+	}
+
+	void register(TimerWheel timer) {
+		timers.add(timer);
+	}
+
+	void recordRejected() {
+		rejected.increment();
+	}
+
+	void recordCompleted(long executionNanos) {
+		executionTime.record(executionNanos);
+		completed.increment();
+	}
+
+	TaskMetrics snapshot() {
+		int queued = 0;
+		for (ScheduledThreadPoolExecutor executor : executors) {
+			queued += executor.getQueue().size();
+		}
+		//the wheels of shut down executors won't ever run their tasks
+		timers.removeIf(timer -> timer.exec.isShutdown());
+		for (TimerWheel timer : timers) {
+			//the ticks queued in the executors are not tasks of their own
+			queued += timer.waitingTasks() - timer.scheduledTicks;
+		}
+		if (queued < 0) {
+			//racing with a tick being scheduled
+			queued = 0;
+		}
+		return new TaskMetrics(queued, completed.sum(), rejected.sum(),
+				latency.snapshot(), executionTime.snapshot());
+	}
+
+	static final class HistogramRecorder {
+
+		final LongAdder[]     counts;
+		final LongAdder       total;
+		final LongAccumulator max;
+
+		HistogramRecorder() {
+			this.counts = new LongAdder[TaskMetrics.Histogram.BUCKETS];
+			for (int i = 0; i < counts.length; i++) {
+				counts[i] = new LongAdder();
+			}
+			this.total = new LongAdder();
+			this.max = new LongAccumulator(Math::max, 0L);
+		}
+
+		void record(long nanos) {
+			if (nanos < 0L) {
+				nanos = 0L;
+			}
+			counts[TaskMetrics.Histogram.bucketOf(nanos)].increment();
+			total.add(nanos);
+			max.accumulate(nanos);
+		}
+
+		TaskMetrics.Histogram snapshot() {
+			long[] c = new long[counts.length];
+			for (int i = 0; i < c.length; i++) {
+				c[i] = counts[i].sum();
+			}
+			return new TaskMetrics.Histogram(c, total.sum(), max.get());
+		}
+	}
+}
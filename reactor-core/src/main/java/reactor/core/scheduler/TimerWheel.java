@@ -0,0 +1,541 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import reactor.core.Exceptions;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+/**
+ * A hashed timer wheel that keeps track of delayed tasks for a single-threaded
+ * {@link ScheduledExecutorService}, as an alternative to the executor's own delay
+ * queue. Scheduling and cancelling a delayed task are O(1) operations that don't take
+ * any lock, and cancelled tasks are unlinked from the wheel in batches shortly after
+ * their cancellation rather than lingering until their deadline. This pays off when
+ * most delayed tasks are cancelled long before they're due, as is typical of timeouts.
+ * <p>
+ * The wheel is advanced by tick tasks running on the executor itself, so that expired
+ * tasks run on the executor's thread exactly as if they had been scheduled directly.
+ * A tick is only scheduled for the next tick that has tasks to expire (or cancelled
+ * tasks to unlink), so an executor doesn't wake up while its wheel is idle. Delays
+ * shorter than one tick are still delegated to the executor for accuracy, as are
+ * periodic tasks.
+ */
+final class TimerWheel {
+
+	/**
+	 * The duration of a tick, ie. the resolution of the wheel: a task never runs before
+	 * its deadline, but might run up to one tick after it.
+	 */
+	static final long TICK_NANOS  = TimeUnit.MILLISECONDS.toNanos(1);
+	/**
+	 * The number of buckets in the wheel, must be a power of 2.
+	 */
+	static final int  WHEEL_SIZE  = 512;
+	/**
+	 * The maximum number of ticks after which cancelled tasks are unlinked.
+	 */
+	static final long PURGE_TICKS = 64;
+
+	final ScheduledExecutorService exec;
+	@Nullable
+	final TaskMetricsRecorder      metrics;
+	final Bucket[]                 wheel;
+	final int                      mask;
+	final long                     startTime;
+	final Queue<Timeout>           pending;
+	final Queue<Timeout>           cancelled;
+
+	/** the next tick to process, only accessed from the tick tasks */
+	long tick;
+	/** the number of tasks linked in the buckets, only accessed from the tick tasks */
+	int  size;
+
+	/** the earliest scheduled tick, null if none */
+	volatile Tick next;
+	static final AtomicReferenceFieldUpdater<TimerWheel, Tick> NEXT =
+			AtomicReferenceFieldUpdater.newUpdater(TimerWheel.class, Tick.class, "next");
+
+	/** the number of ticks queued in the executor */
+	volatile int scheduledTicks;
+	static final AtomicIntegerFieldUpdater<TimerWheel> SCHEDULED_TICKS =
+			AtomicIntegerFieldUpdater.newUpdater(TimerWheel.class, "scheduledTicks");
+
+	/** the number of tasks that are neither run nor cancelled yet */
+	volatile int waitingCount;
+	static final AtomicIntegerFieldUpdater<TimerWheel> WAITING_COUNT =
+			AtomicIntegerFieldUpdater.newUpdater(TimerWheel.class, "waitingCount");
+
+	TimerWheel(ScheduledExecutorService exec) {
+		this(exec, null);
+	}
+
+	/**
+	 * @param exec the executor running the ticks and the expired tasks
+	 * @param metrics the optional {@link TaskMetricsRecorder} to record each expired task
+	 * into, and to report the tasks waiting in this wheel to
+	 */
+	TimerWheel(ScheduledExecutorService exec, @Nullable TaskMetricsRecorder metrics) {
+		this.exec = exec;
+		this.metrics = metrics;
+		this.wheel = new Bucket[WHEEL_SIZE];
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			wheel[i] = new Bucket();
+		}
+		this.mask = WHEEL_SIZE - 1;
+		this.startTime = System.nanoTime();
+		this.pending = Queues.<Timeout>unboundedMultiproducer().get();
+		this.cancelled = Queues.<Timeout>unboundedMultiproducer().get();
+		if (metrics != null) {
+			metrics.register(this);
+		}
+	}
+
+	/**
+	 * @return the number of tasks waiting in this wheel, ie. neither run nor cancelled yet
+	 */
+	int waitingTasks() {
+		return waitingCount;
+	}
+
+	/**
+	 * Schedule the given task to run on the executor after the given delay.
+	 *
+	 * @param task the task to run
+	 * @param delay the delay
+	 * @param unit the unit of the delay
+	 * @return a {@link Future} that can be used to cancel the task or wait for it
+	 * @throws RejectedExecutionException if the executor is shut down
+	 */
+	Future<?> schedule(Callable<?> task, long delay, TimeUnit unit) {
+		long delayNanos = unit.toNanos(delay);
+		if (delayNanos < TICK_NANOS) {
+			return exec.schedule(task, delay, unit);
+		}
+		if (exec.isShutdown()) {
+			throw Exceptions.failWithRejected();
+		}
+
+		long deadline = System.nanoTime() - startTime + delayNanos;
+		if (deadline < 0L) {
+			//overflow
+			deadline = Long.MAX_VALUE;
+		}
+		Timeout t = new Timeout(this, task, deadline);
+		WAITING_COUNT.incrementAndGet(this);
+		pending.offer(t);
+
+		try {
+			tickBy(t.deadlineTick);
+		}
+		catch (RejectedExecutionException ree) {
+			t.cancel(false);
+			throw ree;
+		}
+		return t;
+	}
+
+	/**
+	 * Make sure that a tick is scheduled no later than the given tick.
+	 *
+	 * @param deadlineTick the latest tick at which the wheel must be advanced
+	 * @throws RejectedExecutionException if the executor is shut down
+	 */
+	void tickBy(long deadlineTick) {
+		for (;;) {
+			Tick n = next;
+			if (n != null && n.tick <= deadlineTick) {
+				return;
+			}
+			Tick t = new Tick(this, deadlineTick);
+			if (NEXT.compareAndSet(this, n, t)) {
+				long delay = deadlineTick > Long.MAX_VALUE / TICK_NANOS ? Long.MAX_VALUE :
+						deadlineTick * TICK_NANOS - (System.nanoTime() - startTime);
+				SCHEDULED_TICKS.incrementAndGet(this);
+				try {
+					exec.schedule(t, Math.max(delay, 0L), TimeUnit.NANOSECONDS);
+				}
+				catch (RejectedExecutionException ree) {
+					SCHEDULED_TICKS.decrementAndGet(this);
+					NEXT.compareAndSet(this, t, null);
+					throw ree;
+				}
+				return;
+			}
+		}
+	}
+
+	long currentTick() {
+		return (System.nanoTime() - startTime) / TICK_NANOS;
+	}
+
+	void advance() {
+		try {
+			long nowTick = currentTick();
+
+			if (size == 0 && tick < nowTick) {
+				//the wheel was idle, no need to go through each bucket to catch up
+				tick = nowTick;
+			}
+
+			processCancelled();
+			transferPending();
+
+			while (tick <= nowTick) {
+				expire(wheel[(int) (tick & mask)], tick);
+				tick++;
+			}
+		}
+		catch (Throwable ex) {
+			Schedulers.handleError(ex);
+		}
+
+		if (size == 0) {
+			return;
+		}
+		try {
+			tickBy(nextNonEmptyTick());
+		}
+		catch (RejectedExecutionException ree) {
+			//the executor is shut down, the pending tasks won't run
+		}
+	}
+
+	/**
+	 * @return the next tick whose bucket holds tasks, at most one revolution away
+	 */
+	long nextNonEmptyTick() {
+		for (int i = 0; i < WHEEL_SIZE; i++) {
+			if (wheel[(int) ((tick + i) & mask)].head != null) {
+				return tick + i;
+			}
+		}
+		return tick + WHEEL_SIZE;
+	}
+
+	void processCancelled() {
+		Timeout t;
+		while ((t = cancelled.poll()) != null) {
+			Bucket b = t.bucket;
+			if (b != null) {
+				b.remove(t);
+				size--;
+			}
+		}
+	}
+
+	void transferPending() {
+		Timeout t;
+		while ((t = pending.poll()) != null) {
+			if (t.state != Timeout.WAITING) {
+				continue;
+			}
+			long ticks = Math.max(t.deadlineTick, tick);
+			wheel[(int) (ticks & mask)].add(t);
+			size++;
+		}
+	}
+
+	void expire(Bucket bucket, long currentTick) {
+		Timeout t = bucket.head;
+		while (t != null) {
+			Timeout next = t.next;
+			if (t.state != Timeout.WAITING) {
+				bucket.remove(t);
+				size--;
+			}
+			else if (t.deadlineTick <= currentTick) {
+				bucket.remove(t);
+				size--;
+				t.fire();
+			}
+			t = next;
+		}
+	}
+
+	/**
+	 * A scheduled advance of the wheel, that only runs if it is still the earliest
+	 * scheduled one: a tick superseded by an earlier one is a no-op, the earlier one
+	 * scheduling the following ticks. A {@link MeteredScheduledExecutorService} doesn't
+	 * record ticks as tasks, the expired tasks being recorded individually instead.
+	 */
+	static final class Tick implements Runnable {
+
+		final TimerWheel parent;
+		final long       tick;
+
+		Tick(TimerWheel parent, long tick) {
+			this.parent = parent;
+			this.tick = tick;
+		}
+
+		@Override
+		public void run() {
+			SCHEDULED_TICKS.decrementAndGet(parent);
+			if (NEXT.compareAndSet(parent, this, null)) {
+				parent.advance();
+			}
+		}
+	}
+
+	/**
+	 * A doubly-linked list of {@link Timeout}, only accessed from the tick tasks.
+	 */
+	static final class Bucket {
+
+		@Nullable
+		Timeout head;
+		@Nullable
+		Timeout tail;
+
+		void add(Timeout t) {
+			t.bucket = this;
+			if (head == null) {
+				head = tail = t;
+			}
+			else {
+				tail.next = t;
+				t.prev = tail;
+				tail = t;
+			}
+		}
+
+		void remove(Timeout t) {
+			Timeout next = t.next;
+			Timeout prev = t.prev;
+			if (prev != null) {
+				prev.next = next;
+			}
+			else {
+				head = next;
+			}
+			if (next != null) {
+				next.prev = prev;
+			}
+			else {
+				tail = prev;
+			}
+			t.prev = null;
+			t.next = null;
+			t.bucket = null;
+		}
+	}
+
+	/**
+	 * A task tracked by the wheel, exposed as a {@link Future} to cancel it or wait for it.
+	 */
+	static final class Timeout implements Future<Object> {
+
+		static final int WAITING      = 0;
+		static final int RUNNING      = 1;
+		static final int DONE         = 2;
+		static final int CANCELLED    = 3;
+		static final int INTERRUPTING = 4;
+
+		final TimerWheel  parent;
+		final Callable<?> task;
+		final long        deadline;
+		final long        deadlineTick;
+
+		/* the following fields are only accessed from the tick tasks */
+		@Nullable
+		Timeout           next;
+		@Nullable
+		Timeout           prev;
+		@Nullable
+		Bucket            bucket;
+
+		volatile Thread runner;
+
+		/* the outcome of the task, published by the transition to DONE */
+		@Nullable
+		Object    result;
+		@Nullable
+		Throwable failure;
+
+		/** whether a thread is waiting in get, in which case completion notifies it */
+		volatile boolean awaited;
+
+		volatile int state;
+		static final AtomicIntegerFieldUpdater<Timeout> STATE =
+				AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+		Timeout(TimerWheel parent, Callable<?> task, long deadline) {
+			this.parent = parent;
+			this.task = task;
+			this.deadline = deadline;
+			long deadlineTick = deadline / TICK_NANOS;
+			if (deadline % TICK_NANOS != 0L) {
+				deadlineTick++;
+			}
+			this.deadlineTick = deadlineTick;
+		}
+
+		void fire() {
+			runner = Thread.currentThread();
+			if (!STATE.compareAndSet(this, WAITING, RUNNING)) {
+				runner = null;
+				return;
+			}
+			WAITING_COUNT.decrementAndGet(parent);
+			TaskMetricsRecorder metrics = parent.metrics;
+			long start = 0L;
+			if (metrics != null) {
+				start = System.nanoTime();
+				metrics.latency.record(start - parent.startTime - deadline);
+			}
+			try {
+				result = task.call();
+			}
+			catch (Throwable ex) {
+				failure = ex;
+				Schedulers.handleError(ex);
+			}
+			finally {
+				runner = null;
+				if (!STATE.compareAndSet(this, RUNNING, DONE)) {
+					//a cancellation is interrupting this thread, wait for it and clear the
+					//interrupt so that it doesn't leak into the next tasks
+					while (state == INTERRUPTING) {
+						Thread.yield();
+					}
+					Thread.interrupted();
+				}
+				signalDone();
+				if (metrics != null) {
+					metrics.recordCompleted(System.nanoTime() - start);
+				}
+			}
+		}
+
+		void signalDone() {
+			if (awaited) {
+				synchronized (this) {
+					notifyAll();
+				}
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			for (;;) {
+				int s = state;
+				if (s == WAITING) {
+					if (STATE.compareAndSet(this, WAITING, CANCELLED)) {
+						WAITING_COUNT.decrementAndGet(parent);
+						parent.cancelled.offer(this);
+						signalDone();
+						try {
+							parent.tickBy(parent.currentTick() + PURGE_TICKS);
+						}
+						catch (RejectedExecutionException ree) {
+							//the executor is shut down, nothing to unlink the task from
+						}
+						return true;
+					}
+				}
+				else if (s == RUNNING && mayInterruptIfRunning) {
+					if (STATE.compareAndSet(this, RUNNING, INTERRUPTING)) {
+						try {
+							Thread t = runner;
+							if (t != null) {
+								t.interrupt();
+							}
+						}
+						finally {
+							state = CANCELLED;
+						}
+						signalDone();
+						return true;
+					}
+				}
+				else {
+					return false;
+				}
+			}
+		}
+
+		@Override
+		public boolean isCancelled() {
+			int s = state;
+			return s == CANCELLED || s == INTERRUPTING;
+		}
+
+		@Override
+		public boolean isDone() {
+			return state >= DONE;
+		}
+
+		@Override
+		@Nullable
+		public Object get() throws InterruptedException, ExecutionException {
+			if (!isDone()) {
+				awaited = true;
+				synchronized (this) {
+					while (!isDone()) {
+						wait();
+					}
+				}
+			}
+			return report();
+		}
+
+		@Override
+		@Nullable
+		public Object get(long timeout, TimeUnit unit)
+				throws InterruptedException, ExecutionException, TimeoutException {
+			if (!isDone()) {
+				awaited = true;
+				long deadline = System.nanoTime() + unit.toNanos(timeout);
+				synchronized (this) {
+					while (!isDone()) {
+						long remaining = deadline - System.nanoTime();
+						if (remaining <= 0L) {
+							throw new TimeoutException();
+						}
+						TimeUnit.NANOSECONDS.timedWait(this, remaining);
+					}
+				}
+			}
+			return report();
+		}
+
+		@Nullable
+		Object report() throws ExecutionException {
+			if (isCancelled()) {
+				throw new CancellationException();
+			}
+			Throwable f = failure;
+			if (f != null) {
+				throw new ExecutionException(f);
+			}
+			return result;
+		}
+	}
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+
+/**
+ * Executes tasks on the caller's thread, like the {@link ImmediateScheduler}, except that
+ * tasks submitted while another task is already running on the same thread are queued on a
+ * per-thread queue instead of being run inline. The outermost task then drains that queue
+ * iteratively once it returns, so recursive scheduling from within a task (eg. a
+ * {@link reactor.core.publisher.Flux#publishOn(Scheduler) publishOn} drain loop that
+ * reschedules itself) runs in FIFO order in constant stack depth.
+ * <p>
+ * Exceptions thrown by the outermost task propagate to the caller, after the queue has been
+ * drained. Exceptions thrown by trampolined tasks, whose submitter has already returned,
+ * are passed to {@link Schedulers#onHandleError(java.util.function.BiConsumer)}.
+ * <p>
+ * Use the TrampolineScheduler.instance() to get a shared, stateless instance of this scheduler.
+ * This scheduler is NOT time-capable (can't schedule with delay / periodically).
+ */
+final class TrampolineScheduler implements Scheduler, Scannable {
+
+	private static final TrampolineScheduler INSTANCE = new TrampolineScheduler();
+
+	static final ThreadLocal<TrampolineQueue> QUEUE = ThreadLocal.withInitial(TrampolineQueue::new);
+
+	public static Scheduler instance() {
+		return INSTANCE;
+	}
+
+	private TrampolineScheduler() {
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return trampoline(task, null);
+	}
+
+	@Override
+	public void dispose() {
+		//NO-OP
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+		if (key == Attr.NAME) return Schedulers.TRAMPOLINE;
+
+		return null;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new TrampolineWorker();
+	}
+
+	static Disposable trampoline(Runnable task, @Nullable TrampolineWorker worker) {
+		Objects.requireNonNull(task, "task");
+		TrampolineQueue q = QUEUE.get();
+		if (q.draining) {
+			TrampolinedTask t = new TrampolinedTask(task, worker);
+			q.offer(t);
+			return t;
+		}
+
+		q.draining = true;
+		try {
+			task.run();
+		}
+		finally {
+			q.drain();
+		}
+		return ImmediateScheduler.FINISHED;
+	}
+
+	/**
+	 * The queue of trampolined tasks of a given thread, only ever accessed from that thread.
+	 */
+	static final class TrampolineQueue extends ArrayDeque<TrampolinedTask> {
+
+		private static final long serialVersionUID = -7467396432012385564L;
+
+		boolean draining;
+
+		void drain() {
+			try {
+				TrampolinedTask t;
+				while ((t = poll()) != null) {
+					t.run();
+				}
+			}
+			finally {
+				draining = false;
+			}
+		}
+	}
+
+	static final class TrampolinedTask implements Runnable, Disposable {
+
+		final Runnable task;
+
+		@Nullable
+		final TrampolineWorker worker;
+
+		volatile boolean disposed;
+
+		TrampolinedTask(Runnable task, @Nullable TrampolineWorker worker) {
+			this.task = task;
+			this.worker = worker;
+		}
+
+		@Override
+		public void run() {
+			if (disposed || (worker != null && worker.shutdown)) {
+				return;
+			}
+			disposed = true;
+			try {
+				task.run();
+			}
+			catch (Throwable ex) {
+				Schedulers.handleError(ex);
+			}
+		}
+
+		@Override
+		public void dispose() {
+			disposed = true;
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return disposed;
+		}
+	}
+
+	static final class TrampolineWorker implements Scheduler.Worker, Scannable {
+
+		volatile boolean shutdown;
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			if (shutdown) {
+				throw Exceptions.failWithRejected();
+			}
+			return trampoline(task, this);
+		}
+
+		@Override
+		public void dispose() {
+			shutdown = true;
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return shutdown;
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED || key == Attr.CANCELLED) return shutdown;
+			if (key == Attr.NAME) return Schedulers.TRAMPOLINE + ".worker";
+
+			return null;
+		}
+	}
+}
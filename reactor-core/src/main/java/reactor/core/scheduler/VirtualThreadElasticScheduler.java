@@ -0,0 +1,398 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.stream.Stream;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Scheduler that runs tasks on Java 21+ virtual threads, making it suited for blocking
+ * work without a cap on the number of backing threads. Each
+ * {@link reactor.core.scheduler.Scheduler.Worker} queues its tasks and drains them
+ * in FIFO order on a fresh virtual thread whenever it goes from idle to busy, so tasks of
+ * a given worker never run concurrently. Direct tasks each get their own virtual thread.
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically): delayed tasks
+ * are tracked by a single timer thread and handed off to a virtual thread once due.
+ * <p>
+ * The virtual thread API is looked up reflectively, so that this class can be loaded
+ * on any JDK (see {@link #virtualThreadFactory(String)}).
+ */
+final class VirtualThreadElasticScheduler implements Scheduler, Scannable {
+
+	/**
+	 * Whether or not the current JVM can create virtual threads.
+	 */
+	static final boolean SUPPORTED = virtualThreadFactory(Schedulers.VIRTUAL_THREAD_ELASTIC) != null;
+
+	static final Services SHUTDOWN;
+
+	static {
+		SHUTDOWN = new Services(null, new ConcurrentCompositeDisposable());
+		SHUTDOWN.tasks.dispose();
+	}
+
+	/**
+	 * Create a {@link ThreadFactory} producing virtual threads named after the given
+	 * prefix, if the current JVM supports it. This is equivalent to
+	 * {@code Thread.ofVirtual().name(name + "-", 1).factory()}, but the lookup is done
+	 * reflectively since that API cannot be linked against when compiling for Java 8.
+	 *
+	 * @param name the prefix for the virtual threads' names
+	 * @return a virtual thread {@link ThreadFactory}, or null if not supported
+	 */
+	@Nullable
+	static ThreadFactory virtualThreadFactory(String name) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual")
+			                             .invoke(null);
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			builder = builderClass.getMethod("name", String.class, long.class)
+			                      .invoke(builder, name + "-", 1L);
+			return (ThreadFactory) builderClass.getMethod("factory")
+			                                   .invoke(builder);
+		}
+		// explicitly catch LinkageError to support static code analysis
+		// tools detect the attempt at finding out jdk environment
+		catch (LinkageError e) {
+			return null;
+		}
+		catch (Throwable e) {
+			//NoSuchMethodException on Java 8-18, UnsupportedOperationException if preview features are disabled
+			return null;
+		}
+	}
+
+	final String        name;
+	final ThreadFactory factory;
+
+	volatile Services services;
+	static final AtomicReferenceFieldUpdater<VirtualThreadElasticScheduler, Services> SERVICES =
+			AtomicReferenceFieldUpdater.newUpdater(VirtualThreadElasticScheduler.class, Services.class, "services");
+
+	/**
+	 * @param name the name of the scheduler and prefix for its threads' names
+	 * @param factory the {@link ThreadFactory} to create a thread per worker activation
+	 * and direct task, normally producing virtual threads
+	 */
+	VirtualThreadElasticScheduler(String name, ThreadFactory factory) {
+		this.name = name;
+		this.factory = factory;
+		SERVICES.lazySet(this, newServices());
+	}
+
+	Services newServices() {
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, factory);
+		timer.setMaximumPoolSize(1);
+		timer.setRemoveOnCancelPolicy(true);
+		return new Services(Schedulers.decorateExecutorService(this, timer), new ConcurrentCompositeDisposable());
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return services == SHUTDOWN;
+	}
+
+	@Override
+	public void start() {
+		Services b = null;
+		for (;;) {
+			Services a = services;
+			if (a != SHUTDOWN) {
+				if (b != null) {
+					b.dispose();
+				}
+				return;
+			}
+
+			if (b == null) {
+				b = newServices();
+			}
+
+			if (SERVICES.compareAndSet(this, a, b)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		Services a = services;
+		if (a != SHUTDOWN) {
+			a = SERVICES.getAndSet(this, SHUTDOWN);
+			if (a != SHUTDOWN) {
+				a.dispose();
+			}
+		}
+	}
+
+	void startThread(Runnable r) {
+		Thread t = factory.newThread(r);
+		if (t == null) {
+			throw Exceptions.failWithRejected();
+		}
+		t.start();
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return schedule(task, 0L, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		Services s = services;
+		HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::startThread, s.tasks, HandOffTask.ONCE);
+		if (!s.tasks.add(t)) {
+			throw Exceptions.failWithRejected();
+		}
+		try {
+			t.start(s.timer, delay, 0L, unit);
+		}
+		catch (RejectedExecutionException ex) {
+			t.dispose();
+			//RejectedExecutionException are propagated up
+			throw ex;
+		}
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		Services s = services;
+		HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::startThread, s.tasks,
+				period <= 0L ? HandOffTask.INSTANT_PERIODIC : HandOffTask.PERIODIC);
+		if (!s.tasks.add(t)) {
+			throw Exceptions.failWithRejected();
+		}
+		try {
+			t.start(s.timer, initialDelay, period, unit);
+		}
+		catch (RejectedExecutionException ex) {
+			t.dispose();
+			//RejectedExecutionException are propagated up
+			throw ex;
+		}
+		catch (IllegalArgumentException | NullPointerException ex) {
+			t.dispose();
+			//IllegalArgumentException are wrapped into RejectedExecutionException and propagated up
+			throw new RejectedExecutionException(ex);
+		}
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		Services s = services;
+		VirtualThreadWorker w = new VirtualThreadWorker(this, s);
+		if (!s.tasks.add(w)) {
+			//the scheduler is disposed, the worker will reject all tasks
+			w.tasks.dispose();
+		}
+		return w;
+	}
+
+	@Override
+	public String toString() {
+		return Schedulers.VIRTUAL_THREAD_ELASTIC + "(\"" + name + "\")";
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+		if (key == Attr.BUFFERED) return services.tasks.size();
+		if (key == Attr.CAPACITY) return Integer.MAX_VALUE;
+		if (key == Attr.NAME) return this.toString();
+
+		return null;
+	}
+
+	@Override
+	public Stream<? extends Scannable> inners() {
+		return Scannable.from(services.tasks).inners();
+	}
+
+	/**
+	 * The timer and the tracked workers and direct tasks, which are replaced together
+	 * when the scheduler is restarted.
+	 */
+	static final class Services implements Disposable {
+
+		@Nullable
+		final ScheduledExecutorService timer;
+		final Composite                tasks;
+
+		Services(@Nullable ScheduledExecutorService timer, Composite tasks) {
+			this.timer = timer;
+			this.tasks = tasks;
+		}
+
+		@Override
+		public void dispose() {
+			if (timer != null) {
+				timer.shutdownNow();
+			}
+			tasks.dispose();
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return tasks.isDisposed();
+		}
+	}
+
+	/**
+	 * A {@link reactor.core.scheduler.Scheduler.Worker} that queues its tasks and
+	 * drains them on a new thread each time it goes from idle to busy.
+	 */
+	static final class VirtualThreadWorker implements Worker, Runnable, Scannable {
+
+		final VirtualThreadElasticScheduler parent;
+		final Services                      services;
+		final Queue<HandOffTask>            queue;
+		final Composite                     tasks;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<VirtualThreadWorker> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(VirtualThreadWorker.class, "wip");
+
+		VirtualThreadWorker(VirtualThreadElasticScheduler parent, Services services) {
+			this.parent = parent;
+			this.services = services;
+			this.queue = Queues.<HandOffTask>unboundedMultiproducer().get();
+			this.tasks = new ConcurrentCompositeDisposable();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			return schedule(task, 0L, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::enqueue, tasks, HandOffTask.ONCE);
+			if (!tasks.add(t)) {
+				throw Exceptions.failWithRejected();
+			}
+			try {
+				t.start(timer(), delay, 0L, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				//RejectedExecutionException are propagated up
+				throw ex;
+			}
+			return t;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::enqueue, tasks,
+					period <= 0L ? HandOffTask.INSTANT_PERIODIC : HandOffTask.PERIODIC);
+			if (!tasks.add(t)) {
+				throw Exceptions.failWithRejected();
+			}
+			try {
+				t.start(timer(), initialDelay, period, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				//RejectedExecutionException are propagated up
+				throw ex;
+			}
+			catch (IllegalArgumentException | NullPointerException ex) {
+				t.dispose();
+				//IllegalArgumentException are wrapped into RejectedExecutionException and propagated up
+				throw new RejectedExecutionException(ex);
+			}
+			return t;
+		}
+
+		ScheduledExecutorService timer() {
+			ScheduledExecutorService timer = services.timer;
+			if (timer == null || services.isDisposed()) {
+				throw Exceptions.failWithRejected();
+			}
+			return timer;
+		}
+
+		void enqueue(HandOffTask t) {
+			queue.offer(t);
+			if (WIP.getAndIncrement(this) == 0) {
+				parent.startThread(this);
+			}
+		}
+
+		@Override
+		public void run() {
+			final Queue<HandOffTask> q = queue;
+			int missed = 1;
+			for (;;) {
+				HandOffTask t;
+				while ((t = q.poll()) != null) {
+					t.run();
+				}
+				missed = WIP.addAndGet(this, -missed);
+				if (missed == 0) {
+					return;
+				}
+			}
+		}
+
+		@Override
+		public void dispose() {
+			if (!tasks.isDisposed()) {
+				tasks.dispose();
+				services.tasks.remove(this);
+			}
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return tasks.isDisposed();
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+			if (key == Attr.BUFFERED) return tasks.size();
+			if (key == Attr.PARENT) return parent;
+			if (key == Attr.NAME) return parent + ".worker";
+
+			return null;
+		}
+	}
+}
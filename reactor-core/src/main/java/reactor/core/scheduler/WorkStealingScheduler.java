@@ -0,0 +1,505 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.util.annotation.Nullable;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Scheduler that hosts a fixed pool of threads ("lanes") that cooperatively drain
+ * {@link reactor.core.scheduler.Scheduler.Worker Workers}. Unlike the {@link ParallelScheduler},
+ * a Worker is not pinned to a single thread: each Worker is assigned a home lane, but a
+ * lane that runs out of work steals pending Workers from its siblings. Each Worker still
+ * executes its tasks in FIFO order and never concurrently, since it is only ever queued
+ * on one lane at a time.
+ * <p>
+ * This scheduler is time-capable (can schedule with delay / periodically): delayed tasks
+ * are tracked by a single timer thread and handed over to the lanes once due.
+ */
+final class WorkStealingScheduler implements Scheduler, Scannable {
+
+	static final AtomicLong COUNTER = new AtomicLong();
+
+	/**
+	 * The maximum number of tasks a Worker drains in one go before it yields its lane
+	 * to the other Workers queued there.
+	 */
+	static final int DRAIN_BATCH = 64;
+
+	static final Lanes SHUTDOWN = new Lanes(new Lane[0], null);
+
+	final int n;
+
+	final ThreadFactory factory;
+
+	volatile Lanes lanes;
+	static final AtomicReferenceFieldUpdater<WorkStealingScheduler, Lanes> LANES =
+			AtomicReferenceFieldUpdater.newUpdater(WorkStealingScheduler.class, Lanes.class, "lanes");
+
+	int roundRobin;
+
+	WorkStealingScheduler(int n, ThreadFactory factory) {
+		if (n <= 0) {
+			throw new IllegalArgumentException("n > 0 required but it was " + n);
+		}
+		this.n = n;
+		this.factory = factory;
+		LANES.lazySet(this, newLanes());
+	}
+
+	Lanes newLanes() {
+		Lane[] a = new Lane[n];
+		for (int i = 0; i < n; i++) {
+			a[i] = new Lane(this, a, i);
+		}
+		ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, factory);
+		timer.setMaximumPoolSize(1);
+		timer.setRemoveOnCancelPolicy(true);
+		Lanes l = new Lanes(a, Schedulers.decorateExecutorService(this, timer));
+		for (Lane lane : a) {
+			lane.start(factory);
+		}
+		return l;
+	}
+
+	@Override
+	public boolean isDisposed() {
+		return lanes == SHUTDOWN;
+	}
+
+	@Override
+	public void start() {
+		Lanes b = null;
+		for (;;) {
+			Lanes a = lanes;
+			if (a != SHUTDOWN) {
+				if (b != null) {
+					b.shutdown();
+				}
+				return;
+			}
+
+			if (b == null) {
+				b = newLanes();
+			}
+
+			if (LANES.compareAndSet(this, a, b)) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void dispose() {
+		Lanes a = lanes;
+		if (a != SHUTDOWN) {
+			a = LANES.getAndSet(this, SHUTDOWN);
+			if (a != SHUTDOWN) {
+				a.shutdown();
+			}
+		}
+	}
+
+	int pick() {
+		// ignoring the race condition here, its already random who gets which lane
+		int idx = roundRobin;
+		if (idx >= n) {
+			idx = 0;
+			roundRobin = 1;
+		}
+		else {
+			roundRobin = idx + 1;
+		}
+		return idx;
+	}
+
+	/**
+	 * Enqueue a ready {@link Runnable} on the lane of the given index, waking up an idle
+	 * lane to steal it if the target lane is busy.
+	 *
+	 * @param r the {@link Runnable} to submit
+	 * @param index the index of the preferred lane
+	 * @throws RejectedExecutionException if this scheduler has been disposed
+	 */
+	void submit(Runnable r, int index) {
+		Lane[] a = lanes.lanes;
+		if (a.length == 0) {
+			throw Exceptions.failWithRejected();
+		}
+		Lane lane = a[index];
+		lane.queue.offer(r);
+		if (lane.parked) {
+			LockSupport.unpark(lane.thread);
+			return;
+		}
+		for (int i = 1; i < a.length; i++) {
+			Lane other = a[(index + i) % a.length];
+			if (other.parked) {
+				LockSupport.unpark(other.thread);
+				return;
+			}
+		}
+	}
+
+	@Nullable
+	Runnable steal(Lane[] a, int index) {
+		for (int i = 1; i < a.length; i++) {
+			Runnable r = a[(index + i) % a.length].queue.poll();
+			if (r != null) {
+				return r;
+			}
+		}
+		return null;
+	}
+
+	ScheduledExecutorService timer() {
+		Lanes l = lanes;
+		if (l == SHUTDOWN) {
+			throw Exceptions.failWithRejected();
+		}
+		return l.timer;
+	}
+
+	@Override
+	public Disposable schedule(Runnable task) {
+		return schedule(task, 0L, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+		int index = pick();
+		HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), r -> submit(r, index), null, HandOffTask.ONCE);
+		t.start(timer(), delay, 0L, unit);
+		return t;
+	}
+
+	@Override
+	public Disposable schedulePeriodically(Runnable task,
+			long initialDelay,
+			long period,
+			TimeUnit unit) {
+		int index = pick();
+		HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), r -> submit(r, index), null,
+				period <= 0L ? HandOffTask.INSTANT_PERIODIC : HandOffTask.PERIODIC);
+		try {
+			t.start(timer(), initialDelay, period, unit);
+		}
+		catch (IllegalArgumentException | NullPointerException ex) {
+			//IllegalArgumentException are wrapped into RejectedExecutionException and propagated up
+			throw new RejectedExecutionException(ex);
+		}
+		return t;
+	}
+
+	@Override
+	public Worker createWorker() {
+		return new StealingWorker(this, pick());
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder ts = new StringBuilder(Schedulers.WORK_STEALING)
+				.append('(').append(n);
+		if (factory instanceof ReactorThreadFactory) {
+			ts.append(",\"").append(((ReactorThreadFactory) factory).get()).append('\"');
+		}
+		ts.append(')');
+		return ts.toString();
+	}
+
+	@Override
+	public Object scanUnsafe(Attr key) {
+		if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+		if (key == Attr.CAPACITY || key == Attr.BUFFERED) return n; //BUFFERED: number of lanes doesn't vary
+		if (key == Attr.NAME) return this.toString();
+
+		return null;
+	}
+
+	@Override
+	public Stream<? extends Scannable> inners() {
+		return Stream.of(lanes.lanes);
+	}
+
+	/**
+	 * The set of {@link Lane} and the timer that feeds them, which are replaced together
+	 * when the scheduler is restarted.
+	 */
+	static final class Lanes {
+
+		final Lane[] lanes;
+
+		final ScheduledExecutorService timer;
+
+		Lanes(Lane[] lanes, @Nullable ScheduledExecutorService timer) {
+			this.lanes = lanes;
+			this.timer = timer;
+		}
+
+		void shutdown() {
+			if (timer != null) {
+				timer.shutdownNow();
+			}
+			for (Lane lane : lanes) {
+				lane.shutdown();
+			}
+		}
+	}
+
+	/**
+	 * A thread draining its own queue of ready {@link Runnable} (mostly {@link StealingWorker}),
+	 * and stealing from the other lanes' queues once its own is empty.
+	 */
+	static final class Lane implements Runnable, Scannable {
+
+		final WorkStealingScheduler parent;
+		final Lane[]                siblings;
+		final int                   index;
+		final Queue<Runnable>       queue;
+
+		Thread thread;
+
+		volatile boolean parked;
+		volatile boolean terminated;
+
+		Lane(WorkStealingScheduler parent, Lane[] siblings, int index) {
+			this.parent = parent;
+			this.siblings = siblings;
+			this.index = index;
+			this.queue = new ConcurrentLinkedQueue<>();
+		}
+
+		void start(ThreadFactory factory) {
+			thread = factory.newThread(this);
+			thread.start();
+		}
+
+		void shutdown() {
+			terminated = true;
+			LockSupport.unpark(thread);
+		}
+
+		@Override
+		public void run() {
+			for (;;) {
+				if (terminated) {
+					queue.clear();
+					return;
+				}
+				Runnable r = queue.poll();
+				if (r == null) {
+					r = parent.steal(siblings, index);
+				}
+				if (r != null) {
+					try {
+						r.run();
+					}
+					catch (Throwable ex) {
+						Schedulers.handleError(ex);
+					}
+					continue;
+				}
+
+				idle();
+			}
+		}
+
+		/**
+		 * Park until a task is submitted to this lane or to a busy sibling that this lane
+		 * could steal from.
+		 */
+		void idle() {
+			parked = true;
+			//check again after publishing the parked state, so that a concurrent submit
+			//to this lane or to a sibling, that didn't see this lane parked, can't be missed
+			if (terminated || hasPendingTasks()) {
+				parked = false;
+				return;
+			}
+			LockSupport.park(this);
+			parked = false;
+		}
+
+		boolean hasPendingTasks() {
+			if (!queue.isEmpty()) {
+				return true;
+			}
+			for (Lane sibling : siblings) {
+				if (sibling != null && !sibling.queue.isEmpty()) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED || key == Attr.CANCELLED) return terminated;
+			if (key == Attr.BUFFERED) return queue.size();
+			if (key == Attr.PARENT) return parent;
+			if (key == Attr.NAME) return parent + ".lane" + index;
+
+			return null;
+		}
+	}
+
+	/**
+	 * A {@link reactor.core.scheduler.Scheduler.Worker} that queues its tasks and only
+	 * occupies a {@link Lane} while it has pending tasks, so that it can be stolen by any
+	 * idle lane.
+	 */
+	static final class StealingWorker implements Worker, Runnable, Scannable {
+
+		final WorkStealingScheduler parent;
+		final int                   home;
+		final Queue<HandOffTask>    queue;
+		final Composite             tasks;
+
+		volatile int wip;
+		static final AtomicIntegerFieldUpdater<StealingWorker> WIP =
+				AtomicIntegerFieldUpdater.newUpdater(StealingWorker.class, "wip");
+
+		StealingWorker(WorkStealingScheduler parent, int home) {
+			this.parent = parent;
+			this.home = home;
+			this.queue = Queues.<HandOffTask>unboundedMultiproducer().get();
+			this.tasks = new ConcurrentCompositeDisposable();
+		}
+
+		@Override
+		public Disposable schedule(Runnable task) {
+			return schedule(task, 0L, TimeUnit.MILLISECONDS);
+		}
+
+		@Override
+		public Disposable schedule(Runnable task, long delay, TimeUnit unit) {
+			HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::enqueue, tasks, HandOffTask.ONCE);
+			if (!tasks.add(t)) {
+				throw Exceptions.failWithRejected();
+			}
+			try {
+				t.start(parent.timer(), delay, 0L, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				//RejectedExecutionException are propagated up
+				throw ex;
+			}
+			return t;
+		}
+
+		@Override
+		public Disposable schedulePeriodically(Runnable task,
+				long initialDelay,
+				long period,
+				TimeUnit unit) {
+			HandOffTask t = new HandOffTask(Schedulers.onSchedule(task), this::enqueue, tasks,
+					period <= 0L ? HandOffTask.INSTANT_PERIODIC : HandOffTask.PERIODIC);
+			if (!tasks.add(t)) {
+				throw Exceptions.failWithRejected();
+			}
+			try {
+				t.start(parent.timer(), initialDelay, period, unit);
+			}
+			catch (RejectedExecutionException ex) {
+				t.dispose();
+				//RejectedExecutionException are propagated up
+				throw ex;
+			}
+			catch (IllegalArgumentException | NullPointerException ex) {
+				t.dispose();
+				//IllegalArgumentException are wrapped into RejectedExecutionException and propagated up
+				throw new RejectedExecutionException(ex);
+			}
+			return t;
+		}
+
+		void enqueue(HandOffTask t) {
+			queue.offer(t);
+			if (WIP.getAndIncrement(this) == 0) {
+				parent.submit(this, home);
+			}
+		}
+
+		@Override
+		public void run() {
+			final Queue<HandOffTask> q = queue;
+			int e = 0;
+			int missed = wip;
+			for (;;) {
+				while (e != missed) {
+					HandOffTask t = q.poll();
+					if (t == null) {
+						break;
+					}
+					t.run();
+					e++;
+					if (e == DRAIN_BATCH) {
+						break;
+					}
+				}
+
+				missed = WIP.addAndGet(this, -e);
+				if (missed == 0) {
+					return;
+				}
+				if (e == DRAIN_BATCH) {
+					//yield the lane to the other workers, this one goes back to the end of the queue
+					parent.submit(this, home);
+					return;
+				}
+				e = 0;
+			}
+		}
+
+		@Override
+		public void dispose() {
+			tasks.dispose();
+		}
+
+		@Override
+		public boolean isDisposed() {
+			return tasks.isDisposed();
+		}
+
+		@Override
+		public Object scanUnsafe(Attr key) {
+			if (key == Attr.TERMINATED || key == Attr.CANCELLED) return isDisposed();
+			if (key == Attr.BUFFERED) return tasks.size();
+			if (key == Attr.PARENT) return parent;
+			if (key == Attr.NAME) return parent + ".worker";
+
+			return null;
+		}
+	}
+}
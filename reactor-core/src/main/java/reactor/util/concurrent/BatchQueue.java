@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A {@link java.util.Queue} that can be drained and filled in batches, similar to JCTools'
+ * {@code MessagePassingQueue}. Batch operations read the other side of the queue once per
+ * batch rather than once per element, and avoid the per-element call overhead of
+ * {@link java.util.Queue#poll()} and {@link java.util.Queue#offer(Object)}.
+ * <p>
+ * Implementations keep the concurrency contract of the queue: {@link #drain(Consumer, int)}
+ * must only be called from the consumer side and {@link #fill(Supplier, int)} from the
+ * producer side. The {@link Consumer} passed to {@link #drain(Consumer, int)} must not
+ * access the queue itself.
+ *
+ * @param <T> the value type
+ * @see Queues
+ */
+public interface BatchQueue<T> {
+
+	/**
+	 * Remove up to {@code limit} elements from the queue and pass them to the given
+	 * {@link Consumer}, in order. Fewer elements are drained if the queue doesn't hold
+	 * that many, as seen at the start of the batch.
+	 *
+	 * @param c the {@link Consumer} of the drained elements
+	 * @param limit the maximum number of elements to drain
+	 * @return the number of drained elements
+	 */
+	int drain(Consumer<? super T> c, int limit);
+
+	/**
+	 * Add up to {@code limit} elements obtained from the given {@link Supplier} to the
+	 * queue, stopping early if a bounded queue becomes full. The {@link Supplier} is only
+	 * called for elements that the queue has room for, and must not return {@code null}.
+	 *
+	 * @param s the {@link Supplier} of the elements to add
+	 * @param limit the maximum number of elements to add
+	 * @return the number of added elements
+	 */
+	int fill(Supplier<? extends T> s, int limit);
+}
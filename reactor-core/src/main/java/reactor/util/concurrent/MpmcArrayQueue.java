@@ -0,0 +1,283 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import reactor.util.annotation.Nullable;
+
+
+/**
+ * A bounded, array backed, multi-producer multi-consumer queue.
+ *
+ * This implementation is based on Dmitry Vyukov's bounded MPMC algorithm, as used by JCTools'
+ * <a href='https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic/MpmcAtomicArrayQueue.java'>MpmcAtomicArrayQueue</a>:
+ * each slot has a sequence number telling producers and consumers which lap of the
+ * ring it is ready for, so that both sides only have to CAS their own index. Like
+ * {@link SpscArrayQueue}, the {@link AtomicReferenceArray} is inlined and the indexes are
+ * padded against false sharing.
+ *
+ * @param <T> the value type
+ */
+final class MpmcArrayQueue<T> extends MpmcArrayQueueP3<T> implements Queue<T> {
+	/** */
+	private static final long serialVersionUID = 8135466127938361417L;
+
+	MpmcArrayQueue(int capacity) {
+		//a single slot can't tell a full lap from an empty one with sequence numbers
+		super(Math.max(2, Queues.ceilingNextPowerOfTwo(capacity)));
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e, "e");
+		final AtomicLongArray seqs = sequences;
+		final int m = mask;
+		for (;;) {
+			long pi = producerIndex;
+			int offset = (int) pi & m;
+			long seq = seqs.get(offset);
+			if (seq < pi) {
+				// the slot still holds the value of the previous lap
+				if (pi - m - 1 >= consumerIndex) {
+					return false;
+				}
+				// a consumer claimed it but hasn't released it yet
+			}
+			else if (seq == pi && PRODUCER_INDEX.compareAndSet(this, pi, pi + 1)) {
+				lazySet(offset, e);
+				seqs.lazySet(offset, pi + 1);
+				return true;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public T poll() {
+		final AtomicLongArray seqs = sequences;
+		final int m = mask;
+		for (;;) {
+			long ci = consumerIndex;
+			int offset = (int) ci & m;
+			long seq = seqs.get(offset);
+			long expected = ci + 1;
+			if (seq < expected) {
+				if (ci >= producerIndex) {
+					return null;
+				}
+				// a producer claimed the slot but hasn't stored its value yet
+			}
+			else if (seq == expected && CONSUMER_INDEX.compareAndSet(this, ci, ci + 1)) {
+				T v = get(offset);
+				lazySet(offset, null);
+				seqs.lazySet(offset, ci + m + 1);
+				return v;
+			}
+		}
+	}
+
+	@Override
+	@Nullable
+	public T peek() {
+		final AtomicLongArray seqs = sequences;
+		for (;;) {
+			long ci = consumerIndex;
+			int offset = (int) ci & mask;
+			long seq = seqs.get(offset);
+			if (seq == ci + 1) {
+				T v = get(offset);
+				if (v != null && ci == consumerIndex) {
+					return v;
+				}
+			}
+			else if (ci >= producerIndex) {
+				return null;
+			}
+		}
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty());
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (;;) {
+			long pi = producerIndex;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int) (pi - ci);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object[] toArray() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public <R> R[] toArray(R[] a) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean add(T e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T element() {
+		throw new UnsupportedOperationException();
+	}
+}
+
+class MpmcArrayQueueCold<T> extends AtomicReferenceArray<T> {
+	/** */
+	private static final long serialVersionUID = -1932485361498113226L;
+
+	final int mask;
+
+	final AtomicLongArray sequences;
+
+	MpmcArrayQueueCold(int length) {
+		super(length);
+		mask = length - 1;
+		sequences = new AtomicLongArray(length);
+		for (int i = 0; i < length; i++) {
+			sequences.lazySet(i, i);
+		}
+	}
+}
+class MpmcArrayQueueP1<T> extends MpmcArrayQueueCold<T> {
+	/** */
+	private static final long serialVersionUID = 4418306425164813573L;
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+	long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpmcArrayQueueP1(int length) {
+		super(length);
+	}
+}
+
+class MpmcArrayQueueProducer<T> extends MpmcArrayQueueP1<T> {
+	/** */
+	private static final long serialVersionUID = -6237810315617341925L;
+
+	MpmcArrayQueueProducer(int length) {
+		super(length);
+	}
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpmcArrayQueueProducer> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpmcArrayQueueProducer.class, "producerIndex");
+}
+
+class MpmcArrayQueueP2<T> extends MpmcArrayQueueProducer<T> {
+	/** */
+	private static final long serialVersionUID = 2980465734121548218L;
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+	long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpmcArrayQueueP2(int length) {
+		super(length);
+	}
+}
+
+class MpmcArrayQueueConsumer<T> extends MpmcArrayQueueP2<T> {
+	/** */
+	private static final long serialVersionUID = 7721534961026617473L;
+
+	MpmcArrayQueueConsumer(int length) {
+		super(length);
+	}
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpmcArrayQueueConsumer> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpmcArrayQueueConsumer.class, "consumerIndex");
+}
+
+class MpmcArrayQueueP3<T> extends MpmcArrayQueueConsumer<T> {
+	/** */
+	private static final long serialVersionUID = -3587618742617263514L;
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+	long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpmcArrayQueueP3(int length) {
+		super(length);
+	}
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import reactor.util.annotation.Nullable;
+
+
+/**
+ * A bounded, array backed, multi-producer single-consumer queue.
+ *
+ * This implementation is based on JCTools' MPSC algorithm:
+ * <a href='https://github.com/JCTools/JCTools/blob/master/jctools-core/src/main/java/org/jctools/queues/atomic/MpscAtomicArrayQueue.java'>MpscAtomicArrayQueue</a>.
+ * Producers claim a slot by CAS-ing the producer index, checking the capacity against a
+ * cached producer limit so that they only read the consumer index once per lap. Like
+ * {@link SpscArrayQueue}, the {@link AtomicReferenceArray} is inlined and the indexes are
+ * padded against false sharing.
+ *
+ * @param <T> the value type
+ */
+final class MpscArrayQueue<T> extends MpscArrayQueueP3<T> implements Queue<T> {
+	/** */
+	private static final long serialVersionUID = -3491592465096394286L;
+
+	MpscArrayQueue(int capacity) {
+		super(Queues.ceilingNextPowerOfTwo(capacity));
+	}
+
+	@Override
+	public boolean offer(T e) {
+		Objects.requireNonNull(e, "e");
+		final int m = mask;
+		long limit = producerLimit;
+		long pi;
+		do {
+			pi = producerIndex;
+			if (pi >= limit) {
+				limit = consumerIndex + m + 1;
+				if (pi >= limit) {
+					return false;
+				}
+				PRODUCER_LIMIT.lazySet(this, limit);
+			}
+		}
+		while (!PRODUCER_INDEX.compareAndSet(this, pi, pi + 1));
+
+		lazySet((int) pi & m, e);
+		return true;
+	}
+
+	@Override
+	@Nullable
+	public T poll() {
+		long ci = consumerIndex;
+		int offset = (int) ci & mask;
+
+		T v = get(offset);
+		if (v == null) {
+			if (ci == producerIndex) {
+				return null;
+			}
+			// a producer claimed the slot but hasn't stored its value yet
+			while ((v = get(offset)) == null) { }
+		}
+		lazySet(offset, null);
+		CONSUMER_INDEX.lazySet(this, ci + 1);
+		return v;
+	}
+
+	@Override
+	@Nullable
+	public T peek() {
+		long ci = consumerIndex;
+		int offset = (int) ci & mask;
+
+		T v = get(offset);
+		if (v == null && ci != producerIndex) {
+			while ((v = get(offset)) == null) { }
+		}
+		return v;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return producerIndex == consumerIndex;
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty());
+	}
+
+	@Override
+	public int size() {
+		long ci = consumerIndex;
+		for (;;) {
+			long pi = producerIndex;
+			long ci2 = consumerIndex;
+			if (ci == ci2) {
+				return (int) (pi - ci);
+			}
+			ci = ci2;
+		}
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Object[] toArray() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public <R> R[] toArray(R[] a) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean containsAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends T> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public boolean add(T e) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public T element() {
+		throw new UnsupportedOperationException();
+	}
+}
+
+class MpscArrayQueueCold<T> extends AtomicReferenceArray<T> {
+	/** */
+	private static final long serialVersionUID = 2396716409536390286L;
+
+	final int mask;
+
+	MpscArrayQueueCold(int length) {
+		super(length);
+		mask = length - 1;
+	}
+}
+class MpscArrayQueueP1<T> extends MpscArrayQueueCold<T> {
+	/** */
+	private static final long serialVersionUID = -7418219012766183428L;
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+	long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpscArrayQueueP1(int length) {
+		super(length);
+	}
+}
+
+class MpscArrayQueueProducer<T> extends MpscArrayQueueP1<T> {
+	/** */
+	private static final long serialVersionUID = 5361281591806011522L;
+
+	MpscArrayQueueProducer(int length) {
+		super(length);
+		this.producerLimit = length;
+	}
+
+	volatile long producerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueueProducer> PRODUCER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueueProducer.class, "producerIndex");
+
+	volatile long producerLimit;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueueProducer> PRODUCER_LIMIT =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueueProducer.class, "producerLimit");
+}
+
+class MpscArrayQueueP2<T> extends MpscArrayQueueProducer<T> {
+	/** */
+	private static final long serialVersionUID = 6124913462386718702L;
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+	long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpscArrayQueueP2(int length) {
+		super(length);
+	}
+}
+
+class MpscArrayQueueConsumer<T> extends MpscArrayQueueP2<T> {
+	/** */
+	private static final long serialVersionUID = -1553707924583409138L;
+
+	MpscArrayQueueConsumer(int length) {
+		super(length);
+	}
+
+	volatile long consumerIndex;
+	@SuppressWarnings("rawtypes")
+	static final AtomicLongFieldUpdater<MpscArrayQueueConsumer> CONSUMER_INDEX =
+			AtomicLongFieldUpdater.newUpdater(MpscArrayQueueConsumer.class, "consumerIndex");
+}
+
+class MpscArrayQueueP3<T> extends MpscArrayQueueConsumer<T> {
+	/** */
+	private static final long serialVersionUID = 3298471839105382617L;
+
+	long p00, p01, p02, p03, p04, p05, p06, p07;
+	long p08, p09, p0A, p0B, p0C, p0D, p0E;
+
+	MpscArrayQueueP3(int length) {
+		super(length);
+	}
+}
@@ -25,6 +25,8 @@ import java.util.Iterator;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import reactor.util.annotation.Nullable;
 
@@ -32,7 +34,7 @@ import reactor.util.annotation.Nullable;
  * A multi-producer single consumer unbounded queue.
  * @param <E> the contained value type
  */
-final class MpscLinkedQueue<E> extends AbstractQueue<E> implements BiPredicate<E, E> {
+final class MpscLinkedQueue<E> extends AbstractQueue<E> implements BiPredicate<E, E>, BatchQueue<E> {
 	private volatile LinkedQueueNode<E> producerNode;
 
 	private final static AtomicReferenceFieldUpdater<MpscLinkedQueue, LinkedQueueNode> PRODUCER_NODE_UPDATER
@@ -170,6 +172,60 @@ final class MpscLinkedQueue<E> extends AbstractQueue<E> implements BiPredicate<E
 		return null;
 	}
 
+	/**
+	 * {@inheritDoc} <br>
+	 * <p>
+	 * IMPLEMENTATION NOTES:<br>
+	 * Drain is allowed from a SINGLE thread.<br>
+	 * Drain follows the links from the consumerNode like {@link #poll()}, but stops at the
+	 * first missing link instead of spinning until an in-progress offer links its node.
+	 */
+	@Override
+	public int drain(Consumer<? super E> c, int limit) {
+		LinkedQueueNode<E> currConsumerNode = consumerNode;
+		int i = 0;
+		for (; i < limit; i++) {
+			LinkedQueueNode<E> nextNode = currConsumerNode.lvNext();
+			if (nextNode == null) {
+				break;
+			}
+			final E nextValue = nextNode.getAndNullValue();
+			currConsumerNode.soNext(currConsumerNode);
+			CONSUMER_NODE_UPDATER.lazySet(this, nextNode);
+			currConsumerNode = nextNode;
+			c.accept(nextValue);
+		}
+		return i;
+	}
+
+	/**
+	 * {@inheritDoc} <br>
+	 * <p>
+	 * IMPLEMENTATION NOTES:<br>
+	 * Fill is allowed from multiple threads.<br>
+	 * Fill links the new nodes together first, then swaps the last one with the current
+	 * producer node in a single atomic operation, like {@link #test} does for two elements.
+	 */
+	@Override
+	public int fill(Supplier<? extends E> s, int limit) {
+		if (limit <= 0) {
+			return 0;
+		}
+		final LinkedQueueNode<E> firstNode = new LinkedQueueNode<>(Objects.requireNonNull(s.get(), "s.get()"));
+		LinkedQueueNode<E> lastNode = firstNode;
+		for (int i = 1; i < limit; i++) {
+			LinkedQueueNode<E> node = new LinkedQueueNode<>(Objects.requireNonNull(s.get(), "s.get()"));
+			lastNode.soNext(node);
+			lastNode = node;
+		}
+
+		final LinkedQueueNode<E> prevProducerNode = PRODUCER_NODE_UPDATER.getAndSet(this, lastNode);
+		// Should a producer thread get interrupted here the chain WILL be broken until that thread is resumed
+		// and completes the store in prev.next.
+		prevProducerNode.soNext(firstNode); // StoreStore
+		return limit;
+	}
+
 	@Nullable
 	@Override
 	public E peek() {
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+import reactor.util.annotation.Nullable;
+
+/**
+ * An unbounded, multi-producer single-consumer queue made of linked array chunks, so that
+ * it only allocates once every {@code chunkSize} elements instead of a node per element
+ * like {@link MpscLinkedQueue}.
+ * <p>
+ * Producers claim a slot in the current producer chunk with a {@code getAndIncrement} on
+ * its index. The producer that claims the first slot past the end of a chunk appends a new
+ * chunk (other producers racing with it help by CAS-ing the same link), then all of them
+ * move on to it. The single consumer walks the chunks in order, dropping each one once
+ * consumed.
+ *
+ * @param <E> the contained value type
+ */
+final class MpscUnboundedArrayQueue<E> extends AbstractQueue<E> {
+
+	final int chunkSize;
+
+	volatile Chunk<E> producerChunk;
+	@SuppressWarnings("rawtypes")
+	static final AtomicReferenceFieldUpdater<MpscUnboundedArrayQueue, Chunk> PRODUCER_CHUNK =
+			AtomicReferenceFieldUpdater.newUpdater(MpscUnboundedArrayQueue.class, Chunk.class, "producerChunk");
+
+	// only accessed by the consumer
+	Chunk<E> consumerChunk;
+	int      consumerIndex;
+
+	MpscUnboundedArrayQueue(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+		}
+		this.chunkSize = chunkSize;
+		Chunk<E> c = new Chunk<>(chunkSize);
+		this.consumerChunk = c;
+		PRODUCER_CHUNK.lazySet(this, c);
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean offer(E e) {
+		Objects.requireNonNull(e, "The offered value 'e' must be non-null");
+		final int n = chunkSize;
+		for (;;) {
+			Chunk<E> c = producerChunk;
+			int i = Chunk.INDEX.getAndIncrement(c);
+			if (i < n) {
+				c.lazySet(i, e);
+				return true;
+			}
+			Chunk<E> next = c.next;
+			if (next == null) {
+				Chunk<E> fresh = new Chunk<>(n);
+				next = Chunk.NEXT.compareAndSet(c, null, fresh) ? fresh : c.next;
+			}
+			PRODUCER_CHUNK.compareAndSet(this, c, next);
+		}
+	}
+
+	@Nullable
+	@Override
+	public E poll() {
+		Chunk<E> c = consumerChunk;
+		int i = consumerIndex;
+		if (i == chunkSize) {
+			Chunk<E> next = c.next;
+			if (next == null) {
+				return null;
+			}
+			consumerChunk = next;
+			c = next;
+			i = 0;
+		}
+		E v = c.get(i);
+		if (v == null) {
+			if (c.index <= i) {
+				return null;
+			}
+			// a producer claimed the slot but hasn't stored its value yet
+			while ((v = c.get(i)) == null) { }
+		}
+		c.lazySet(i, null);
+		consumerIndex = i + 1;
+		return v;
+	}
+
+	@Nullable
+	@Override
+	public E peek() {
+		Chunk<E> c = consumerChunk;
+		int i = consumerIndex;
+		if (i == chunkSize) {
+			c = c.next;
+			if (c == null) {
+				return null;
+			}
+			i = 0;
+		}
+		E v = c.get(i);
+		if (v == null && c.index > i) {
+			while ((v = c.get(i)) == null) { }
+		}
+		return v;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		Chunk<E> c = consumerChunk;
+		int i = consumerIndex;
+		if (i == chunkSize) {
+			c = c.next;
+			if (c == null) {
+				return true;
+			}
+			i = 0;
+		}
+		return c.index <= i;
+	}
+
+	@Override
+	public void clear() {
+		while (poll() != null && !isEmpty()) { } // NOPMD
+	}
+
+	@Override
+	public int size() {
+		Chunk<E> c = consumerChunk;
+		long size = -consumerIndex;
+		while (c != null && size < Integer.MAX_VALUE) {
+			size += Math.min(c.index, chunkSize);
+			c = c.next;
+		}
+		return (int) Math.min(Math.max(size, 0L), Integer.MAX_VALUE);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		throw new UnsupportedOperationException();
+	}
+
+	static final class Chunk<E> extends AtomicReferenceArray<E> {
+
+		/** */
+		private static final long serialVersionUID = -1536371394932758553L;
+
+		volatile int index;
+		@SuppressWarnings("rawtypes")
+		static final AtomicIntegerFieldUpdater<Chunk> INDEX =
+				AtomicIntegerFieldUpdater.newUpdater(Chunk.class, "index");
+
+		volatile Chunk<E> next;
+		@SuppressWarnings("rawtypes")
+		static final AtomicReferenceFieldUpdater<Chunk, Chunk> NEXT =
+				AtomicReferenceFieldUpdater.newUpdater(Chunk.class, Chunk.class, "next");
+
+		Chunk(int length) {
+			super(length);
+		}
+	}
+}
@@ -32,7 +32,9 @@ import reactor.util.annotation.Nullable;
 
 /**
  * Queue utilities and suppliers for 1-producer/1-consumer ready queues adapted for
- * various given capacities.
+ * various given capacities, as well as multi-producer variants (see
+ * {@link #unboundedMultiproducer()}, {@link #mpscArray(int)}, {@link #mpscUnboundedArray(int)}
+ * and {@link #mpmc(int)}).
  */
 public final class Queues {
 
@@ -61,9 +63,15 @@ public final class Queues {
 		else if (q instanceof SpscArrayQueue) {
 			return ((SpscArrayQueue) q).length();
 		}
-		else if(q instanceof MpscLinkedQueue) {
+		else if(q instanceof MpscLinkedQueue || q instanceof MpscUnboundedArrayQueue) {
 			return Integer.MAX_VALUE;
 		}
+		else if (q instanceof MpscArrayQueue) {
+			return ((MpscArrayQueue) q).length();
+		}
+		else if (q instanceof MpmcArrayQueue) {
+			return ((MpmcArrayQueue) q).length();
+		}
 		else if (q instanceof BlockingQueue) {
 			return ((BlockingQueue) q).remainingCapacity();
 		}
@@ -224,6 +232,56 @@ public final class Queues {
 		return MpscLinkedQueue::new;
 	}
 
+	/**
+	 * Returns a bounded, array-backed queue suitable for multi-producer/single-consumer
+	 * (MPSC) scenarios. The capacity is rounded up to the next power of two.
+	 * <p>
+	 * Unlike {@link #unboundedMultiproducer()}, offering doesn't allocate.
+	 *
+	 * @param capacity the minimum capacity of the queue
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return a bounded MPSC {@link Queue} {@link Supplier}
+	 */
+	public static <T> Supplier<Queue<T>> mpscArray(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+		}
+		return () -> new MpscArrayQueue<>(capacity);
+	}
+
+	/**
+	 * Returns an unbounded queue suitable for multi-producer/single-consumer (MPSC)
+	 * scenarios, made of linked array chunks of the given size. Unlike
+	 * {@link #unboundedMultiproducer()}, which allocates a node per element, offering only
+	 * allocates once every {@code chunkSize} elements.
+	 *
+	 * @param chunkSize the number of elements per chunk
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return an unbounded MPSC {@link Queue} {@link Supplier}
+	 */
+	public static <T> Supplier<Queue<T>> mpscUnboundedArray(int chunkSize) {
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("chunkSize > 0 required but it was " + chunkSize);
+		}
+		return () -> new MpscUnboundedArrayQueue<>(chunkSize);
+	}
+
+	/**
+	 * Returns a bounded, array-backed queue suitable for multi-producer/multi-consumer
+	 * (MPMC) scenarios. The capacity is rounded up to the next power of two (and at
+	 * least 2).
+	 *
+	 * @param capacity the minimum capacity of the queue
+	 * @param <T> the reified {@link Queue} generic type
+	 * @return a bounded MPMC {@link Queue} {@link Supplier}
+	 */
+	public static <T> Supplier<Queue<T>> mpmc(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity > 0 required but it was " + capacity);
+		}
+		return () -> new MpmcArrayQueue<>(capacity);
+	}
+
 	private Queues() {
 		//prevent construction
 	}
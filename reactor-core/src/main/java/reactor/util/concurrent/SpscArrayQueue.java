@@ -21,6 +21,8 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import reactor.util.annotation.Nullable;
 
@@ -37,7 +39,7 @@ import reactor.util.annotation.Nullable;
  * 
  * @param <T> the value type
  */
-final class SpscArrayQueue<T> extends SpscArrayQueueP3<T> implements Queue<T> {
+final class SpscArrayQueue<T> extends SpscArrayQueueP3<T> implements Queue<T>, BatchQueue<T> {
 	/** */
 	private static final long serialVersionUID = 494623116936946976L;
 
@@ -72,6 +74,37 @@ final class SpscArrayQueue<T> extends SpscArrayQueueP3<T> implements Queue<T> {
 		return v;
 	}
 	
+	@Override
+	public int drain(Consumer<? super T> c, int limit) {
+		long ci = consumerIndex;
+		int n = (int) Math.min(limit, producerIndex - ci);
+		final int m = mask;
+		for (int i = 0; i < n; i++) {
+			int offset = (int)ci & m;
+			T v = get(offset);
+			lazySet(offset, null);
+			CONSUMER_INDEX.lazySet(this, ++ci);
+			c.accept(v);
+		}
+		return Math.max(n, 0);
+	}
+
+	@Override
+	public int fill(Supplier<? extends T> s, int limit) {
+		long pi = producerIndex;
+		final int m = mask;
+		int i = 0;
+		for (; i < limit; i++) {
+			int offset = (int)pi & m;
+			if (get(offset) != null) {
+				break;
+			}
+			lazySet(offset, Objects.requireNonNull(s.get(), "s.get()"));
+			PRODUCER_INDEX.lazySet(this, ++pi);
+		}
+		return i;
+	}
+
 	@Override
 	@Nullable
 	public T peek() {
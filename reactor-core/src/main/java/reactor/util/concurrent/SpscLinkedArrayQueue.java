@@ -22,6 +22,8 @@ import java.util.Objects;
 import java.util.concurrent.atomic.AtomicLongFieldUpdater;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import reactor.util.annotation.Nullable;
 
@@ -41,7 +43,7 @@ import reactor.util.annotation.Nullable;
  * @param <T> the value type
  */
 final class SpscLinkedArrayQueue<T> extends AbstractQueue<T>
-		implements BiPredicate<T, T> {
+		implements BiPredicate<T, T>, BatchQueue<T> {
 
 	final int mask;
 
@@ -166,6 +168,42 @@ final class SpscLinkedArrayQueue<T> extends AbstractQueue<T>
 		return (T) o;
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public int drain(Consumer<? super T> c, int limit) {
+		long ci = consumerIndex;
+		int n = (int) Math.min(limit, producerIndex - ci);
+		AtomicReferenceArray<Object> a = consumerArray;
+		final int m = mask;
+
+		for (int i = 0; i < n; i++) {
+			int offset = (int) ci & m;
+
+			Object o = a.get(offset);
+
+			if (o == NEXT) {
+				AtomicReferenceArray<Object> b = (AtomicReferenceArray<Object>) a.get(m + 1);
+				a.lazySet(m + 1, null);
+				o = b.get(offset);
+				a = b;
+				consumerArray = b;
+			}
+			a.lazySet(offset, null);
+			CONSUMER_INDEX.lazySet(this, ++ci);
+
+			c.accept((T) o);
+		}
+		return Math.max(n, 0);
+	}
+
+	@Override
+	public int fill(Supplier<? extends T> s, int limit) {
+		for (int i = 0; i < limit; i++) {
+			offer(Objects.requireNonNull(s.get(), "s.get()"));
+		}
+		return Math.max(limit, 0);
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	@Nullable
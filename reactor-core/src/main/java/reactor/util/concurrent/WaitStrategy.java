@@ -25,9 +25,9 @@ import java.util.function.LongSupplier;
 
 /**
  * Strategy employed to wait for specific {@link LongSupplier} values with various spinning strategies.
- * @deprecated Has been moved to io.projectreactor.addons:reactor-extra:3.3.0+ and will be removed in 3.4.0
+ * Used by the event loops of {@link reactor.core.scheduler.Schedulers#newEventLoop(String, int, java.util.function.Supplier)}
+ * to idle while waiting for new tasks.
  */
-@Deprecated
 public abstract class WaitStrategy {
 
     /**
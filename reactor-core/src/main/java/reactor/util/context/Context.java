@@ -35,8 +35,11 @@ import reactor.util.annotation.Nullable;
  * Note that contexts are optimized for low cardinality key/value storage, and a user
  * might want to associate a dedicated mutable structure to a single key to represent his
  * own context instead of using multiple {@link #put}, which could be more costly.
- * Past five user key/value pair, the {@link Context} will use a copy-on-write
- * implementation backed by a new {@link java.util.Map} on each {@link #put}.
+ * Past five user key/value pair, the {@link Context} will use a persistent hash trie
+ * that only copies the path to the modified entry on each {@link #put}.
+ * <p>
+ * Values that are read for each element of a sequence are best stored under a
+ * {@link ContextKey}, which is resolved by identity.
  *
  * @author Stephane Maldini
  */
@@ -257,6 +260,54 @@ public interface Context {
 		return Optional.empty();
 	}
 
+	/**
+	 * Resolve a value given a {@link ContextKey} that exists within the {@link Context},
+	 * or throw a {@link NoSuchElementException} if the key is not present. The key is
+	 * compared by identity.
+	 *
+	 * @param key a typed lookup key to resolve the value within the context
+	 * @param <T> the type of the values associated to the key
+	 *
+	 * @return the value resolved for this key (throws if key not found)
+	 * @throws NoSuchElementException when the given key is not present
+	 * @see #getOrDefault(ContextKey, Object)
+	 */
+	default <T> T get(ContextKey<T> key) {
+		T v = getOrDefault(key, null);
+		if (v == null) {
+			throw new NoSuchElementException("Context does not contain key: " + key);
+		}
+		return v;
+	}
+
+	/**
+	 * Resolve a value given a {@link ContextKey} within the {@link Context}. If unresolved
+	 * return the passed default value. The key is compared by identity.
+	 *
+	 * @param key a typed lookup key to resolve the value within the context
+	 * @param defaultValue a fallback value if key doesn't resolve
+	 * @param <T> the type of the values associated to the key
+	 *
+	 * @return the value resolved for this key, or the given default if not present
+	 */
+	@Nullable
+	default <T> T getOrDefault(ContextKey<T> key, @Nullable T defaultValue) {
+		return getOrDefault((Object) key, defaultValue);
+	}
+
+	/**
+	 * Resolve a value given a {@link ContextKey} within the {@link Context}. The key is
+	 * compared by identity.
+	 *
+	 * @param key a typed lookup key to resolve the value within the context
+	 * @param <T> the type of the values associated to the key
+	 *
+	 * @return an {@link Optional} of the value for that key.
+	 */
+	default <T> Optional<T> getOrEmpty(ContextKey<T> key) {
+		return Optional.ofNullable(getOrDefault(key, null));
+	}
+
 	/**
 	 * Return true if a particular key resolves to a value within the {@link Context}.
 	 *
@@ -288,6 +339,22 @@ public interface Context {
 	 */
 	Context put(Object key, Object value);
 
+	/**
+	 * Create a new {@link Context} that contains all current key/value pairs plus the
+	 * given typed key/value pair. If that key existed in the current Context, its
+	 * associated value is replaced in the resulting {@link Context}.
+	 *
+	 * @param key the typed key to add/update in the new {@link Context}
+	 * @param value the value to associate to the key in the new {@link Context}
+	 * @param <T> the type of the values associated to the key
+	 *
+	 * @return a new {@link Context} including the provided key/value
+	 * @throws NullPointerException if either the key or value are null
+	 */
+	default <T> Context put(ContextKey<T> key, T value) {
+		return put((Object) key, value);
+	}
+
 	/**
 	 * Create a new {@link Context} that contains all current key/value pairs plus the
 	 * given key/value pair <strong>only if the value is not {@literal null}</strong>. If that key existed in the
@@ -348,7 +415,7 @@ public interface Context {
 			return coreContext.putAllInto(this);
 		}
 
-		ContextN newContext = new ContextN(this.size() + other.size());
+		ContextN newContext = new ContextN();
 		this.stream().sequential().forEach(newContext);
 		other.stream().sequential().forEach(newContext);
 		if (newContext.size() <= 5) {
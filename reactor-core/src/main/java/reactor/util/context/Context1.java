@@ -21,6 +21,8 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+import reactor.util.annotation.Nullable;
+
 final class Context1 implements CoreContext {
 
 	final Object key;
@@ -81,6 +83,17 @@ final class Context1 implements CoreContext {
 		other.accept(key, value);
 	}
 
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T getOrDefault(ContextKey<T> key, @Nullable T defaultValue) {
+		//typed keys are compared by identity
+		if (this.key == key) {
+			return (T) this.value;
+		}
+		return defaultValue;
+	}
+
 	@Override
 	public int size() {
 		return 1;
@@ -21,6 +21,8 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+import reactor.util.annotation.Nullable;
+
 final class Context2 implements CoreContext {
 
 	final Object key1;
@@ -86,6 +88,20 @@ final class Context2 implements CoreContext {
 		throw new NoSuchElementException("Context does not contain key: "+key);
 	}
 
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T getOrDefault(ContextKey<T> key, @Nullable T defaultValue) {
+		//typed keys are compared by identity
+		if (this.key1 == key) {
+			return (T) this.value1;
+		}
+		if (this.key2 == key) {
+			return (T) this.value2;
+		}
+		return defaultValue;
+	}
+
 	@Override
 	public int size() {
 		return 2;
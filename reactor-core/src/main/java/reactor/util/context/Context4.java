@@ -21,6 +21,8 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+import reactor.util.annotation.Nullable;
+
 final class Context4 implements CoreContext {
 
 	/**
@@ -146,6 +148,26 @@ final class Context4 implements CoreContext {
 		throw new NoSuchElementException("Context does not contain key: "+key);
 	}
 
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T getOrDefault(ContextKey<T> key, @Nullable T defaultValue) {
+		//typed keys are compared by identity
+		if (this.key1 == key) {
+			return (T) this.value1;
+		}
+		if (this.key2 == key) {
+			return (T) this.value2;
+		}
+		if (this.key3 == key) {
+			return (T) this.value3;
+		}
+		if (this.key4 == key) {
+			return (T) this.value4;
+		}
+		return defaultValue;
+	}
+
 	@Override
 	public int size() {
 		return 4;
@@ -21,6 +21,8 @@ import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.stream.Stream;
 
+import reactor.util.annotation.Nullable;
+
 final class Context5 implements CoreContext {
 
 	final Object key1;
@@ -135,6 +137,29 @@ final class Context5 implements CoreContext {
 		throw new NoSuchElementException("Context does not contain key: "+key);
 	}
 
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T getOrDefault(ContextKey<T> key, @Nullable T defaultValue) {
+		//typed keys are compared by identity
+		if (this.key1 == key) {
+			return (T) this.value1;
+		}
+		if (this.key2 == key) {
+			return (T) this.value2;
+		}
+		if (this.key3 == key) {
+			return (T) this.value3;
+		}
+		if (this.key4 == key) {
+			return (T) this.value4;
+		}
+		if (this.key5 == key) {
+			return (T) this.value5;
+		}
+		return defaultValue;
+	}
+
 	@Override
 	public int size() {
 		return 5;
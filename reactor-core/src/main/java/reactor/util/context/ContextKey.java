@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.util.context;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A typed key for a {@link Context}, compared by identity. Reading a {@link ContextKey}
+ * through {@link Context#get(ContextKey)}, {@link Context#getOrDefault(ContextKey, Object)}
+ * or {@link Context#getOrEmpty(ContextKey)} never calls {@link Object#equals(Object)} on
+ * the keys of the context, which makes it the key of choice for values that are read
+ * for each element of a sequence. Keys are meant to be created once, typically as
+ * {@code static final} constants:
+ * <pre>
+ * static final ContextKey&lt;String&gt; TENANT = ContextKey.of("tenant");
+ *
+ * Mono.subscriberContext().map(ctx -&gt; ctx.getOrDefault(TENANT, "default"));
+ * </pre>
+ * Two keys created with the same name are distinct keys.
+ *
+ * @param <T> the type of the values associated to this key
+ */
+public final class ContextKey<T> {
+
+	static final AtomicInteger IDS = new AtomicInteger();
+
+	/**
+	 * Create a new {@link ContextKey}, distinct from all the other keys.
+	 *
+	 * @param name the name of the key, used by {@link #toString()}
+	 * @param <T> the type of the values associated to this key
+	 * @return a new {@link ContextKey}
+	 */
+	public static <T> ContextKey<T> of(String name) {
+		return new ContextKey<>(Objects.requireNonNull(name, "name"));
+	}
+
+	final String name;
+	final int    hash;
+
+	ContextKey(String name) {
+		this.name = name;
+		//each key gets its own id at creation, spread so that keys fill distinct slots
+		//of a ContextN trie
+		this.hash = IDS.getAndIncrement() * 0x9E3779B9;
+	}
+
+	/**
+	 * @return the name of this key
+	 */
+	public String name() {
+		return name;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return this == o;
+	}
+
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
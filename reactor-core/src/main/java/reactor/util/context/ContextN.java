@@ -16,25 +16,59 @@
 package reactor.util.context;
 
 import java.util.AbstractMap;
-import java.util.LinkedHashMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import reactor.util.annotation.Nullable;
 
+/**
+ * A {@link Context} of more than 5 entries, backed by a persistent hash array mapped trie:
+ * {@link #put(Object, Object)} and {@link #delete(Object)} only copy the path to the
+ * modified entry and share the rest of the trie with the original {@link Context}.
+ * Entries remember the order in which their key was first inserted, which is the
+ * iteration order as with a {@link java.util.LinkedHashMap}.
+ * <p>
+ * {@link #accept(Object, Object)} puts an entry into <strong>this</strong> instance, and
+ * MUST only be used while populating an instance that hasn't been published yet.
+ */
 @SuppressWarnings("unchecked")
-final class ContextN extends LinkedHashMap<Object, Object>
+final class ContextN extends AbstractMap<Object, Object>
 		implements CoreContext, BiConsumer<Object, Object>, Consumer<Entry<Object, Object>> {
 
+	static final int BITS = 5;
+	static final int MASK = (1 << BITS) - 1;
+
+	static final Node EMPTY = new Node(0, new Object[0]);
+
+	static final Comparator<Leaf> INSERTION_ORDER = (a, b) -> Long.compare(a.order, b.order);
+
+	Node root;
+	int  size;
+	long nextOrder;
+
+	/**
+	 * The entries sorted in insertion order, computed on first use once the instance is
+	 * published and reset by the inner puts that populate it.
+	 */
+	@Nullable
+	volatile Leaf[] sortedEntries;
+
 	ContextN(Object key1, Object value1, Object key2, Object value2,
 			Object key3, Object value3, Object key4, Object value4,
 			Object key5, Object value5, Object key6, Object value6) {
-		super(6, 1f);
+		this();
 		//accept below stands in for "inner put"
 		accept(key1, value1);
 		accept(key2, value2);
@@ -50,29 +84,54 @@ final class ContextN extends LinkedHashMap<Object, Object>
 	 * @param originalToCopy a {@link Map} to populate entries from. MUST NOT contain null keys/values
 	 */
 	ContextN(Map<Object, Object> originalToCopy) {
-		super(Objects.requireNonNull(originalToCopy, "originalToCopy"));
+		Objects.requireNonNull(originalToCopy, "originalToCopy");
+		if (originalToCopy instanceof ContextN) {
+			ContextN other = (ContextN) originalToCopy;
+			this.root = other.root;
+			this.size = other.size;
+			this.nextOrder = other.nextOrder;
+		}
+		else {
+			this.root = EMPTY;
+			for (Entry<Object, Object> entry : originalToCopy.entrySet()) {
+				insert(entry.getKey(), entry.getValue());
+			}
+		}
 	}
 
-	ContextN(int initialCapacity) {
-		super(initialCapacity, 1.0f);
+	ContextN() {
+		this.root = EMPTY;
 	}
 
-	//this performs an inner put to the actual map, and also allows passing `this` directly to
+	//this performs an inner put to this instance, and also allows passing `this` directly to
 	//Map#forEach
 	@Override
 	public void accept(Object key, Object value) {
-		super.put(Objects.requireNonNull(key, "key"),
+		insert(Objects.requireNonNull(key, "key"),
 				Objects.requireNonNull(value, "value"));
 	}
 
-	//this performs an inner put of the entry to the actual map
+	//this performs an inner put of the entry to this instance
 	@Override
 	public void accept(Entry<Object, Object> entry) {
 		accept(entry.getKey(), entry.getValue());
 	}
 
+	void insert(Object key, Object value) {
+		sortedEntries = null;
+		int hash = hash(key);
+		Leaf existing = find(root, key, hash);
+		if (existing == null) {
+			root = (Node) put(root, new Leaf(key, value, hash, nextOrder++), 0);
+			size++;
+		}
+		else {
+			root = (Node) put(root, new Leaf(key, value, hash, existing.order), 0);
+		}
+	}
+
 	/**
-	 * Note that this method overrides {@link LinkedHashMap#put(Object, Object)}.
+	 * Note that this method overrides {@link AbstractMap#put(Object, Object)}.
 	 * Consider using {@link #accept(Object, Object)} instead for putting items into the map.
 	 *
 	 * @param key the key to add/update in the new {@link Context}
@@ -88,44 +147,51 @@ final class ContextN extends LinkedHashMap<Object, Object>
 	@Override
 	public Context delete(Object key) {
 		Objects.requireNonNull(key, "key");
-		if (!hasKey(key)) {
+		int hash = hash(key);
+		if (find(root, key, hash) == null) {
 			return this;
 		}
 
-		int s = size() - 1;
+		int s = size - 1;
 		if (s == 5) {
-			@SuppressWarnings("unchecked")
-			Entry<Object, Object>[] arr = new Entry[s];
+			Leaf[] arr = new Leaf[s];
 			int idx = 0;
-			for (Entry<Object, Object> entry : entrySet()) {
-				if (!entry.getKey().equals(key)) {
+			for (Leaf entry : entries()) {
+				if (!entry.key.equals(key)) {
 					arr[idx] = entry;
 					idx++;
 				}
 			}
 			return new Context5(
-					arr[0].getKey(), arr[0].getValue(),
-					arr[1].getKey(), arr[1].getValue(),
-					arr[2].getKey(), arr[2].getValue(),
-					arr[3].getKey(), arr[3].getValue(),
-					arr[4].getKey(), arr[4].getValue());
+					arr[0].key, arr[0].value,
+					arr[1].key, arr[1].value,
+					arr[2].key, arr[2].value,
+					arr[3].key, arr[3].value,
+					arr[4].key, arr[4].value);
 		}
 
 		ContextN newInstance = new ContextN(this);
-		newInstance.remove(key);
+		Object newRoot = remove(root, key, hash, 0);
+		newInstance.root = newRoot == null ? EMPTY : (Node) newRoot;
+		newInstance.size = s;
 		return newInstance;
 	}
 
 	@Override
 	public boolean hasKey(Object key) {
-		return super.containsKey(key);
+		return find(root, key, hash(key)) != null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return hasKey(key);
 	}
 
 	@Override
 	public Object get(Object key) {
-		Object o = super.get(key);
-		if (o != null) {
-			return o;
+		Leaf leaf = find(root, key, hash(key));
+		if (leaf != null) {
+			return leaf.value;
 		}
 		throw new NoSuchElementException("Context does not contain key: "+key);
 	}
@@ -133,24 +199,73 @@ final class ContextN extends LinkedHashMap<Object, Object>
 	@Override
 	@Nullable
 	public Object getOrDefault(Object key, @Nullable Object defaultValue) {
-		Object o = super.get(key);
-		if (o != null) {
-			return o;
+		Leaf leaf = find(root, key, hash(key));
+		if (leaf != null) {
+			return leaf.value;
+		}
+		return defaultValue;
+	}
+
+	@Override
+	@Nullable
+	@SuppressWarnings("unchecked")
+	public <T> T getOrDefault(ContextKey<T> key, @Nullable T defaultValue) {
+		Leaf leaf = find(root, key, hash(key));
+		if (leaf != null) {
+			return (T) leaf.value;
 		}
 		return defaultValue;
 	}
 
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	@Override
+	public Set<Entry<Object, Object>> entrySet() {
+		Leaf[] entries = entries();
+		return new AbstractSet<Entry<Object, Object>>() {
+			@Override
+			public Iterator<Entry<Object, Object>> iterator() {
+				return Arrays.<Entry<Object, Object>>asList(entries).iterator();
+			}
+
+			@Override
+			public Spliterator<Entry<Object, Object>> spliterator() {
+				return Spliterators.spliterator(entries, Spliterator.DISTINCT | Spliterator.ORDERED);
+			}
+
+			@Override
+			public int size() {
+				return entries.length;
+			}
+		};
+	}
+
+	@Override
+	public void forEach(BiConsumer<? super Object, ? super Object> action) {
+		for (Leaf entry : entries()) {
+			action.accept(entry.key, entry.value);
+		}
+	}
+
 	@Override
 	public Stream<Entry<Object, Object>> stream() {
-		return entrySet().stream().map(AbstractMap.SimpleImmutableEntry::new);
+		//the entries are immutable, no need to copy them
+		return entrySet().stream();
 	}
 
 	@Override
 	public Context putAllInto(Context base) {
 		if (base instanceof ContextN) {
-			ContextN newContext = new ContextN(base.size() + this.size());
-			newContext.putAll((Map<Object, Object>) base);
-			newContext.putAll((Map<Object, Object>) this);
+			ContextN newContext = new ContextN((ContextN) base);
+			unsafePutAllInto(newContext);
 			return newContext;
 		}
 
@@ -161,7 +276,16 @@ final class ContextN extends LinkedHashMap<Object, Object>
 
 	@Override
 	public void unsafePutAllInto(ContextN other) {
-		other.putAll((Map<Object, Object>) this);
+		if (other.size == 0) {
+			other.root = root;
+			other.size = size;
+			other.nextOrder = nextOrder;
+			other.sortedEntries = sortedEntries;
+			return;
+		}
+		for (Leaf entry : entries()) {
+			other.insert(entry.key, entry.value);
+		}
 	}
 
 	@Override
@@ -169,7 +293,7 @@ final class ContextN extends LinkedHashMap<Object, Object>
 		if (other.isEmpty()) return this;
 
 		// slightly less wasteful implementation for non-core context:
-		// only collect the other since we already have a map for this.
+		// only collect the other since we share the trie of this.
 		ContextN newContext = new ContextN(this);
 		if (other instanceof CoreContext) {
 			CoreContext coreContext = (CoreContext) other;
@@ -187,4 +311,293 @@ final class ContextN extends LinkedHashMap<Object, Object>
 	public String toString() {
 		return "ContextN" + super.toString();
 	}
+
+	/**
+	 * @return the entries of this context, in insertion order, which MUST NOT be modified
+	 */
+	Leaf[] entries() {
+		Leaf[] entries = sortedEntries;
+		if (entries == null) {
+			entries = new Leaf[size];
+			collect(root, entries, 0);
+			Arrays.sort(entries, INSERTION_ORDER);
+			sortedEntries = entries;
+		}
+		return entries;
+	}
+
+	static int hash(Object key) {
+		int h = key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	static int index(int bitmap, int bit) {
+		return Integer.bitCount(bitmap & (bit - 1));
+	}
+
+	@Nullable
+	static Leaf find(Node root, Object key, int hash) {
+		Object node = root;
+		int shift = 0;
+		while (node instanceof Node) {
+			Node n = (Node) node;
+			int bit = 1 << ((hash >>> shift) & MASK);
+			if ((n.bitmap & bit) == 0) {
+				return null;
+			}
+			node = n.array[index(n.bitmap, bit)];
+			shift += BITS;
+		}
+		if (node instanceof Leaf) {
+			Leaf leaf = (Leaf) node;
+			return leaf.key == key || (leaf.hash == hash && leaf.key.equals(key)) ? leaf : null;
+		}
+		return ((Collision) node).find(key, hash);
+	}
+
+	/**
+	 * @return a copy of the node with the given leaf, replacing the leaf of the same key if any
+	 */
+	static Object put(Node n, Leaf leaf, int shift) {
+		int bit = 1 << ((leaf.hash >>> shift) & MASK);
+		int idx = index(n.bitmap, bit);
+		if ((n.bitmap & bit) == 0) {
+			Object[] array = new Object[n.array.length + 1];
+			System.arraycopy(n.array, 0, array, 0, idx);
+			array[idx] = leaf;
+			System.arraycopy(n.array, idx, array, idx + 1, n.array.length - idx);
+			return new Node(n.bitmap | bit, array);
+		}
+
+		Object child = n.array[idx];
+		Object newChild;
+		if (child instanceof Node) {
+			newChild = put((Node) child, leaf, shift + BITS);
+		}
+		else if (child instanceof Leaf) {
+			Leaf existing = (Leaf) child;
+			if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+				newChild = leaf;
+			}
+			else {
+				newChild = merge(existing, existing.hash, leaf, shift + BITS);
+			}
+		}
+		else {
+			Collision collision = (Collision) child;
+			if (collision.hash == leaf.hash) {
+				newChild = collision.put(leaf);
+			}
+			else {
+				newChild = merge(collision, collision.hash, leaf, shift + BITS);
+			}
+		}
+
+		Object[] array = n.array.clone();
+		array[idx] = newChild;
+		return new Node(n.bitmap, array);
+	}
+
+	/**
+	 * @return a node holding both the existing leaf or collision and the new leaf, or a
+	 * collision if both share the same hash
+	 */
+	static Object merge(Object existing, int existingHash, Leaf leaf, int shift) {
+		if (existingHash == leaf.hash) {
+			return new Collision(leaf.hash, new Leaf[]{(Leaf) existing, leaf});
+		}
+		int existingBit = (existingHash >>> shift) & MASK;
+		int leafBit = (leaf.hash >>> shift) & MASK;
+		if (existingBit == leafBit) {
+			return new Node(1 << existingBit,
+					new Object[]{merge(existing, existingHash, leaf, shift + BITS)});
+		}
+		return new Node((1 << existingBit) | (1 << leafBit),
+				existingBit < leafBit ? new Object[]{existing, leaf} : new Object[]{leaf, existing});
+	}
+
+	/**
+	 * @return a copy of the node without the given key, a single leaf or collision to be
+	 * inlined in the parent node, or null if the node becomes empty
+	 */
+	@Nullable
+	static Object remove(Node n, Object key, int hash, int shift) {
+		int bit = 1 << ((hash >>> shift) & MASK);
+		if ((n.bitmap & bit) == 0) {
+			return n;
+		}
+		int idx = index(n.bitmap, bit);
+		Object child = n.array[idx];
+		Object newChild;
+		if (child instanceof Node) {
+			newChild = remove((Node) child, key, hash, shift + BITS);
+		}
+		else if (child instanceof Leaf) {
+			Leaf leaf = (Leaf) child;
+			newChild = leaf.hash == hash && leaf.key.equals(key) ? null : leaf;
+		}
+		else {
+			newChild = ((Collision) child).remove(key);
+		}
+
+		if (newChild == child) {
+			return n;
+		}
+		if (newChild == null) {
+			if (n.array.length == 1) {
+				return null;
+			}
+			if (shift != 0 && n.array.length == 2 && !(n.array[idx ^ 1] instanceof Node)) {
+				return n.array[idx ^ 1];
+			}
+			Object[] array = new Object[n.array.length - 1];
+			System.arraycopy(n.array, 0, array, 0, idx);
+			System.arraycopy(n.array, idx + 1, array, idx, array.length - idx);
+			return new Node(n.bitmap ^ bit, array);
+		}
+		if (shift != 0 && n.array.length == 1 && !(newChild instanceof Node)) {
+			return newChild;
+		}
+		Object[] array = n.array.clone();
+		array[idx] = newChild;
+		return new Node(n.bitmap, array);
+	}
+
+	static int collect(Object node, Leaf[] entries, int offset) {
+		if (node instanceof Leaf) {
+			entries[offset] = (Leaf) node;
+			return offset + 1;
+		}
+		if (node instanceof Collision) {
+			Leaf[] leaves = ((Collision) node).leaves;
+			System.arraycopy(leaves, 0, entries, offset, leaves.length);
+			return offset + leaves.length;
+		}
+		for (Object child : ((Node) node).array) {
+			offset = collect(child, entries, offset);
+		}
+		return offset;
+	}
+
+	/**
+	 * An inner node of the trie: the bitmap tells which of the 32 slots of this level
+	 * are used, and the array compactly holds a {@link Leaf}, a {@link Collision} or a
+	 * {@link Node} of the next level for each of them.
+	 */
+	static final class Node {
+
+		final int      bitmap;
+		final Object[] array;
+
+		Node(int bitmap, Object[] array) {
+			this.bitmap = bitmap;
+			this.array = array;
+		}
+	}
+
+	/**
+	 * Leaves of keys that have the exact same hash.
+	 */
+	static final class Collision {
+
+		final int    hash;
+		final Leaf[] leaves;
+
+		Collision(int hash, Leaf[] leaves) {
+			this.hash = hash;
+			this.leaves = leaves;
+		}
+
+		@Nullable
+		Leaf find(Object key, int hash) {
+			if (hash == this.hash) {
+				for (Leaf leaf : leaves) {
+					if (leaf.key.equals(key)) {
+						return leaf;
+					}
+				}
+			}
+			return null;
+		}
+
+		Collision put(Leaf leaf) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key.equals(leaf.key)) {
+					Leaf[] copy = leaves.clone();
+					copy[i] = leaf;
+					return new Collision(hash, copy);
+				}
+			}
+			Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+			copy[leaves.length] = leaf;
+			return new Collision(hash, copy);
+		}
+
+		Object remove(Object key) {
+			for (int i = 0; i < leaves.length; i++) {
+				if (leaves[i].key.equals(key)) {
+					if (leaves.length == 2) {
+						return leaves[i ^ 1];
+					}
+					Leaf[] copy = new Leaf[leaves.length - 1];
+					System.arraycopy(leaves, 0, copy, 0, i);
+					System.arraycopy(leaves, i + 1, copy, i, copy.length - i);
+					return new Collision(hash, copy);
+				}
+			}
+			return this;
+		}
+	}
+
+	/**
+	 * An immutable entry of the trie, which also records the insertion order of its key.
+	 */
+	static final class Leaf implements Entry<Object, Object> {
+
+		final Object key;
+		final Object value;
+		final int    hash;
+		final long   order;
+
+		Leaf(Object key, Object value, int hash, long order) {
+			this.key = key;
+			this.value = value;
+			this.hash = hash;
+			this.order = order;
+		}
+
+		@Override
+		public Object getKey() {
+			return key;
+		}
+
+		@Override
+		public Object getValue() {
+			return value;
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			throw new UnsupportedOperationException("Context entries are immutable");
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry<?, ?> e = (Entry<?, ?>) o;
+			return key.equals(e.getKey()) && value.equals(e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode() ^ value.hashCode();
+		}
+
+		@Override
+		public String toString() {
+			return key + "=" + value;
+		}
+	}
 }
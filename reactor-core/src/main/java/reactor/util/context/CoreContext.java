@@ -38,7 +38,7 @@ interface CoreContext extends Context {
 			return coreContext.putAllInto(this);
 		}
 
-		ContextN newContext = new ContextN(this.size() + other.size());
+		ContextN newContext = new ContextN();
 		this.unsafePutAllInto(newContext);
 		other.stream().sequential().forEach(newContext);
 		if (newContext.size() <= 5) {
@@ -24,6 +24,10 @@ public class StackWalker {
 
 		String getMethodName();
 
+		int getByteCodeIndex();
+
+		int getLineNumber();
+
 		boolean isNativeMethod();
 	}
 
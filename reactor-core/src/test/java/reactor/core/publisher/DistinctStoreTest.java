@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+public class DistinctStoreTest {
+
+	@Test
+	public void hashSetStore() {
+		DistinctStore.KeySet<String> keys = DistinctStore.<String>hashSet().newKeySet();
+
+		assertThat(keys).isInstanceOf(OpenHashSet.class);
+		assertThat(keys.add("a")).isTrue();
+		assertThat(keys.add("a")).isFalse();
+
+		keys.clear();
+
+		assertThat(keys.add("a")).isTrue();
+	}
+
+	@Test
+	public void longKeysMatchesHashSet() {
+		DistinctStore.LongKeySet keys = (DistinctStore.LongKeySet) DistinctStore.longKeys().newKeySet();
+		Set<Long> expected = new HashSet<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100_000; i++) {
+			long key = random.nextInt(20_000) - 10_000;
+			assertThat(keys.add(key)).isEqualTo(expected.add(key));
+		}
+
+		assertThat(keys.size()).isEqualTo(expected.size());
+		assertThat(keys.contains(0L)).isEqualTo(expected.contains(0L));
+		assertThat(keys.contains(Long.MAX_VALUE)).isFalse();
+	}
+
+	@Test
+	public void longKeysClear() {
+		DistinctStore.LongKeySet keys = (DistinctStore.LongKeySet) DistinctStore.longKeys().newKeySet();
+		for (long i = 0; i < 1000; i++) {
+			keys.add(i);
+		}
+
+		keys.clear();
+
+		assertThat(keys.size()).isZero();
+		assertThat(keys.keys).hasSize(DistinctStore.LongKeySet.INITIAL_CAPACITY);
+		assertThat(keys.add(0L)).isTrue();
+		assertThat(keys.add(1L)).isTrue();
+	}
+
+	@Test
+	public void bloomHasNoFalseNegative() {
+		DistinctStore.KeySet<Integer> keys = DistinctStore.<Integer>bloom(10_000, 0.01).newKeySet();
+
+		for (int i = 0; i < 10_000; i++) {
+			keys.add(i);
+		}
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(keys.add(i)).as("seen %d", i).isFalse();
+		}
+	}
+
+	@Test
+	public void bloomFalsePositiveRate() {
+		DistinctStore.Bloom<Integer> store = (DistinctStore.Bloom<Integer>) DistinctStore.<Integer>bloom(10_000, 0.01);
+		DistinctStore.BloomKeySet<Integer> keys = (DistinctStore.BloomKeySet<Integer>) store.newKeySet();
+		for (int i = 0; i < 10_000; i++) {
+			keys.add(i);
+		}
+
+		int falsePositives = 0;
+		for (int i = 10_000; i < 20_000; i++) {
+			long[] before = keys.bits.clone();
+			if (!keys.add(i * 31 + 7)) {
+				falsePositives++;
+			}
+			System.arraycopy(before, 0, keys.bits, 0, before.length);
+		}
+
+		assertThat(falsePositives).isLessThan(200);
+		assertThat(store.numHashes).isEqualTo(7);
+	}
+
+	@Test
+	public void bloomHashesLongKeysOnTheirFullBits() {
+		DistinctStore.KeySet<Long> keys = DistinctStore.<Long>bloom(10_000, 0.01).newKeySet();
+
+		int falsePositives = 0;
+		for (long i = 0; i < 1_000; i++) {
+			//same Long#hashCode() for i and (i << 32) | i
+			keys.add(i);
+			if (!keys.add((i << 32) | i)) {
+				falsePositives++;
+			}
+		}
+
+		assertThat(falsePositives).isLessThan(100);
+	}
+
+	@Test
+	public void bloomWithHasher() {
+		DistinctStore.KeySet<String> keys = DistinctStore.<String>bloom(10_000, 0.01, s -> s.length() == 2 ? 0L : 1L).newKeySet();
+
+		assertThat(keys.add("aa")).isTrue();
+		assertThat(keys.add("bb")).as("same 64-bit hash").isFalse();
+		assertThat(keys.add("c")).isTrue();
+	}
+
+	@Test
+	public void bloomValidation() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> DistinctStore.bloom(0, 0.01))
+				.withMessage("expectedInsertions > 0 required but it was 0");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> DistinctStore.bloom(10, 1d))
+				.withMessage("falsePositiveProbability must be between 0 and 1 (exclusive) but it was 1.0");
+		assertThatNullPointerException()
+				.isThrownBy(() -> DistinctStore.bloom(10, 0.01, null))
+				.withMessage("hasher");
+	}
+
+	@Test
+	public void windowForgetsExpiredKeys() {
+		VirtualTimeScheduler clock = VirtualTimeScheduler.create();
+		DistinctStore.KeySet<Integer> keys = DistinctStore.<Integer>window(Duration.ofSeconds(10), 100, clock).newKeySet();
+
+		assertThat(keys.add(1)).isTrue();
+		clock.advanceTimeBy(Duration.ofSeconds(5));
+		assertThat(keys.add(2)).isTrue();
+		assertThat(keys.add(1)).as("1 still tracked").isFalse();
+
+		clock.advanceTimeBy(Duration.ofSeconds(5));
+		assertThat(keys.add(2)).as("2 still tracked").isFalse();
+		assertThat(keys.add(1)).as("1 expired").isTrue();
+
+		clock.advanceTimeBy(Duration.ofSeconds(5));
+		assertThat(keys.add(2)).as("2 expired, duplicates don't extend the ttl").isTrue();
+	}
+
+	@Test
+	public void windowEvictsOldestKeys() {
+		DistinctStore.WindowKeySet<Integer> keys = (DistinctStore.WindowKeySet<Integer>)
+				DistinctStore.<Integer>window(Duration.ofHours(1), 3, Schedulers.immediate()).newKeySet();
+
+		assertThat(keys.add(1)).isTrue();
+		assertThat(keys.add(2)).isTrue();
+		assertThat(keys.add(3)).isTrue();
+		assertThat(keys.add(4)).as("4 evicts 1").isTrue();
+		assertThat(keys.size()).isEqualTo(3);
+
+		assertThat(keys.add(2)).isFalse();
+		assertThat(keys.add(1)).as("1 was evicted").isTrue();
+		assertThat(keys.add(2)).as("2 was evicted by 1").isTrue();
+		assertThat(keys.add(4)).isFalse();
+	}
+
+	@Test
+	public void windowGrowsAndClears() {
+		DistinctStore.WindowKeySet<Integer> keys = (DistinctStore.WindowKeySet<Integer>)
+				DistinctStore.<Integer>window(Duration.ofHours(1), 1000, Schedulers.immediate()).newKeySet();
+
+		for (int i = 0; i < 2000; i++) {
+			assertThat(keys.add(i)).isTrue();
+		}
+		assertThat(keys.size()).isEqualTo(1000);
+		assertThat(keys.ring).hasSize(1000);
+		assertThat(keys.add(1999)).isFalse();
+		assertThat(keys.add(1000)).isFalse();
+		assertThat(keys.add(999)).as("999 was evicted").isTrue();
+
+		keys.clear();
+
+		assertThat(keys.size()).isZero();
+		assertThat(keys.ring).hasSize(DistinctStore.WindowKeySet.INITIAL_CAPACITY);
+		assertThat(keys.add(1500)).isTrue();
+	}
+
+	@Test
+	public void windowValidation() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> DistinctStore.window(Duration.ZERO, 10, Schedulers.immediate()))
+				.withMessage("ttl must be strictly positive but it was PT0S");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> DistinctStore.window(Duration.ofSeconds(1), 0, Schedulers.immediate()))
+				.withMessage("maxKeys > 0 required but it was 0");
+	}
+
+	@Test
+	public void storeToString() {
+		assertThat(DistinctStore.hashSet()).hasToString("DistinctStore.hashSet()");
+		assertThat(DistinctStore.longKeys()).hasToString("DistinctStore.longKeys()");
+		assertThat(DistinctStore.bloom(100, 0.5)).hasToString("DistinctStore.bloom(100, 0.5)");
+		assertThat(DistinctStore.window(Duration.ofMinutes(1), 10, Schedulers.immediate()))
+				.hasToString("DistinctStore.window(PT1M, 10)");
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import org.junit.Test;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FluxBufferArrayTest {
+
+	@Test
+	public void exactSizedArrays() {
+		StepVerifier.create(Flux.range(0, 10).bufferArray(4, Integer[]::new))
+		            .assertNext(b -> assertThat(b).containsExactly(0, 1, 2, 3))
+		            .assertNext(b -> assertThat(b).containsExactly(4, 5, 6, 7))
+		            .assertNext(b -> assertThat(b).hasSize(2).containsExactly(8, 9))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void keepsComponentTypeWhenTrimming() {
+		StepVerifier.create(Flux.just("a", "b", "c").bufferArray(2, String[]::new))
+		            .assertNext(b -> assertThat(b).isInstanceOf(String[].class).containsExactly("a", "b"))
+		            .assertNext(b -> assertThat(b).isInstanceOf(String[].class).containsExactly("c"))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void emptySourceEmitsNoArray() {
+		StepVerifier.create(Flux.<Integer>empty().bufferArray(4, Integer[]::new))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void backpressured() {
+		StepVerifier.create(Flux.range(0, 10).bufferArray(4, Integer[]::new), 1)
+		            .assertNext(b -> assertThat(b).containsExactly(0, 1, 2, 3))
+		            .thenRequest(2)
+		            .expectNextCount(2)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void arrayFactoryWithWrongLength() {
+		StepVerifier.create(Flux.range(0, 10).bufferArray(4, n -> new Integer[n - 1]))
+		            .expectErrorMessage("The arrayFactory returned an array of length 3 instead of 4")
+		            .verifyThenAssertThat()
+		            .hasDiscarded(0);
+	}
+
+	@Test
+	public void discardOnError() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .concatWith(Flux.error(new IllegalStateException("boom")))
+		                        .bufferArray(4, Integer[]::new))
+		            .expectNextCount(2)
+		            .expectErrorMessage("boom")
+		            .verifyThenAssertThat()
+		            .hasDiscardedExactly(8, 9);
+	}
+
+	@Test
+	public void discardOnCancel() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .concatWith(Flux.never())
+		                        .bufferArray(4, Integer[]::new))
+		            .expectNextCount(2)
+		            .thenCancel()
+		            .verifyThenAssertThat()
+		            .hasDiscardedExactly(8, 9);
+	}
+
+	@Test
+	public void scanSubscriber() {
+		CoreSubscriber<Integer[]> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+		FluxBufferArray.BufferArraySubscriber<Integer> test =
+				new FluxBufferArray.BufferArraySubscriber<>(actual, 4, Integer[]::new);
+		test.onSubscribe(Operators.emptySubscription());
+		test.onNext(1);
+
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isEqualTo(1);
+		assertThat(test.scan(Scannable.Attr.CAPACITY)).isEqualTo(4);
+		assertThat(test.scan(Scannable.Attr.TERMINATED)).isFalse();
+
+		test.onComplete();
+		assertThat(test.scan(Scannable.Attr.TERMINATED)).isTrue();
+	}
+}
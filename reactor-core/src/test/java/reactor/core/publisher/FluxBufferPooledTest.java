@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class FluxBufferPooledTest {
+
+	@Test
+	public void buffers() {
+		StepVerifier.create(Flux.range(0, 10).bufferPooled(4))
+		            .assertNext(b -> assertThat(b).containsExactly(0, 1, 2, 3))
+		            .assertNext(b -> assertThat(b).containsExactly(4, 5, 6, 7))
+		            .assertNext(b -> assertThat(b).containsExactly(8, 9))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void releasedBuffersAreReused() {
+		Set<PooledBuffer<Integer>> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+		List<List<Integer>> contents = new ArrayList<>();
+
+		Flux.range(0, 100)
+		    .bufferPooled(10, 2)
+		    .doOnNext(b -> {
+			    buffers.add(b);
+			    contents.add(new ArrayList<>(b));
+			    b.release();
+		    })
+		    .blockLast();
+
+		assertThat(buffers).hasSize(1);
+		assertThat(contents).hasSize(10);
+		for (int i = 0; i < 10; i++) {
+			assertThat(contents.get(i)).hasSize(10)
+			                           .startsWith(i * 10)
+			                           .endsWith(i * 10 + 9);
+		}
+	}
+
+	@Test
+	public void unreleasedBuffersAreNotReused() {
+		Set<PooledBuffer<Integer>> buffers = Collections.newSetFromMap(new IdentityHashMap<>());
+
+		Flux.range(0, 100)
+		    .bufferPooled(10, 2)
+		    .doOnNext(buffers::add)
+		    .blockLast();
+
+		assertThat(buffers).hasSize(10);
+	}
+
+	@Test
+	public void releasedAcrossThreads() {
+		long sum = Flux.range(0, 100_000)
+		               .bufferPooled(100)
+		               .publishOn(Schedulers.parallel())
+		               .map(b -> {
+			               long s = 0;
+			               for (int v : b) {
+				               s += v;
+			               }
+			               b.release();
+			               return s;
+		               })
+		               .reduce(0L, Long::sum)
+		               .block();
+
+		assertThat(sum).isEqualTo(100_000L * 99_999L / 2);
+	}
+
+	@Test
+	public void releaseClearsAndIsIdempotent() {
+		PooledBuffer<Integer> buffer = Flux.range(0, 3)
+		                                   .bufferPooled(4)
+		                                   .blockLast();
+
+		assertThat(buffer).containsExactly(0, 1, 2);
+
+		buffer.release();
+		buffer.release();
+
+		assertThat(buffer).isEmpty();
+		assertThat(buffer.pool).hasSize(1);
+		assertThatExceptionOfType(IndexOutOfBoundsException.class).isThrownBy(() -> buffer.get(0));
+	}
+
+	@Test
+	public void discardOnError() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .concatWith(Flux.error(new IllegalStateException("boom")))
+		                        .bufferPooled(4))
+		            .expectNextCount(2)
+		            .expectErrorMessage("boom")
+		            .verifyThenAssertThat()
+		            .hasDiscardedExactly(8, 9);
+	}
+
+	@Test
+	public void invalidArguments() {
+		assertThatIllegalArgumentException().isThrownBy(() -> Flux.never().bufferPooled(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> Flux.never().bufferPooled(4, 0));
+	}
+
+	@Test
+	public void scanSubscriber() {
+		CoreSubscriber<PooledBuffer<Integer>> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+		FluxBufferPooled.BufferPooledSubscriber<Integer> test =
+				new FluxBufferPooled.BufferPooledSubscriber<>(actual, 4, new ArrayDeque<>());
+		test.onSubscribe(Operators.emptySubscription());
+		test.onNext(1);
+
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isEqualTo(1);
+		assertThat(test.scan(Scannable.Attr.CAPACITY)).isEqualTo(4);
+		assertThat(test.scan(Scannable.Attr.TERMINATED)).isFalse();
+
+		test.onComplete();
+		assertThat(test.scan(Scannable.Attr.TERMINATED)).isTrue();
+	}
+}
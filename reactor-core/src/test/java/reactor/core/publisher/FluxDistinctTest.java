@@ -16,7 +16,9 @@
 
 package reactor.core.publisher;
 
+import java.time.Duration;
 import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -38,6 +40,7 @@ import reactor.core.Fuseable;
 import reactor.core.Scannable;
 import reactor.core.publisher.FluxDistinct.DistinctConditionalSubscriber;
 import reactor.core.publisher.FluxDistinct.DistinctSubscriber;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.MemoryUtils;
 import reactor.test.MemoryUtils.RetainedDetector;
 import reactor.test.MockUtils;
@@ -832,6 +835,70 @@ public class FluxDistinctTest extends FluxOperatorTest<String, String> {
 				.untilAsserted(retainedDetector::assertAllFinalized);
 	}
 
+	@Test
+	public void distinctDefaultStoreIsOpenHashSet() {
+		Flux<Integer> distinct = Flux.just(1, 2).hide().distinct();
+		FluxDistinct<Integer, Integer, ?> test = (FluxDistinct<Integer, Integer, ?>) distinct;
+
+		assertThat(test.collectionSupplier.get()).isInstanceOf(OpenHashSet.class);
+	}
+
+	@Test
+	public void distinctWithLongKeysStore() {
+		Flux.just(1L, 2L, 0L, 1L, Long.MIN_VALUE, 0L, 2L, Long.MIN_VALUE)
+		    .distinct(v -> v, DistinctStore.longKeys())
+		    .as(StepVerifier::create)
+		    .expectNext(1L, 2L, 0L, Long.MIN_VALUE)
+		    .verifyComplete();
+	}
+
+	@Test
+	public void distinctWithBloomStore() {
+		Flux.range(0, 2000)
+		    .map(i -> i % 1000)
+		    .distinct(v -> v, DistinctStore.bloom(1000, 0.0001))
+		    .count()
+		    .as(StepVerifier::create)
+		    .assertNext(count -> assertThat(count).isBetween(990L, 1000L))
+		    .verifyComplete();
+	}
+
+	@Test
+	public void distinctWithStoreDiscardsDuplicates() {
+		List<Object> discarded = new ArrayList<>();
+
+		Flux.just("a", "b", "a", "c", "b")
+		    .distinct(Function.identity(), DistinctStore.<String>hashSet())
+		    .doOnDiscard(Object.class, discarded::add)
+		    .as(StepVerifier::create)
+		    .expectNext("a", "b", "c")
+		    .verifyComplete();
+
+		assertThat(discarded).containsExactly("a", "b");
+	}
+
+
+	@Test
+	public void distinctWithTtlAndMaxKeys() {
+		StepVerifier.withVirtualTime(() -> Flux.just(1, 2, 1, 3)
+		                                       .concatWith(Flux.just(1, 3).delaySubscription(Duration.ofSeconds(2)))
+		                                       .distinct(v -> v, Duration.ofSeconds(1), 2))
+		            .expectSubscription()
+		            .expectNext(1, 2, 3)
+		            .thenAwait(Duration.ofSeconds(2))
+		            .expectNext(1, 3)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void distinctWithMaxKeysForgetsOldestKeys() {
+		Flux.just(1, 2, 3, 1, 3)
+		    .distinct(v -> v, Duration.ofHours(1), 2, Schedulers.immediate())
+		    .as(StepVerifier::create)
+		    .expectNext(1, 2, 3, 1)
+		    .verifyComplete();
+	}
+
 	static class DistinctDefault {
 
 		private final int i;
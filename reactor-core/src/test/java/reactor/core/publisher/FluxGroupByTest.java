@@ -17,9 +17,12 @@
 package reactor.core.publisher;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
@@ -33,10 +36,12 @@ import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.test.publisher.FluxOperatorTest;
+import reactor.test.scheduler.VirtualTimeScheduler;
 import reactor.test.subscriber.AssertSubscriber;
 import reactor.util.concurrent.Queues;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
 
 public class FluxGroupByTest extends
                              FluxOperatorTest<String, GroupedFlux<Integer, String>> {
@@ -905,4 +910,132 @@ public class FluxGroupByTest extends
 				.then()
 				.block();
 	}
+
+	@Test
+	public void maxGroupsEvictsLeastRecentlyActiveGroup() {
+		List<String> groups = Flux.just("a1", "b2", "a3", "c4", "b5")
+		                          .groupBy(v -> v.charAt(0), v -> v.substring(1), GroupByOptions.maxGroups(2))
+		                          .flatMap(g -> g.collectList().map(l -> g.key() + "" + l))
+		                          .collectList()
+		                          .block();
+
+		assertThat(groups).containsExactlyInAnyOrder("a[1, 3]", "b[2]", "c[4]", "b[5]");
+	}
+
+	@Test
+	public void idleGroupsAreCompletedAndReopened() {
+		VirtualTimeScheduler timer = VirtualTimeScheduler.create();
+		DirectProcessor<String> source = DirectProcessor.create();
+		List<String> groups = new CopyOnWriteArrayList<>();
+
+		source.groupBy(v -> v.charAt(0), v -> v.substring(1),
+				GroupByOptions.idleTimeout(Duration.ofMillis(100)).timer(timer))
+		      .flatMap(g -> g.collectList().map(l -> g.key() + "" + l))
+		      .subscribe(groups::add);
+
+		source.onNext("a1");
+		timer.advanceTimeBy(Duration.ofMillis(50));
+		source.onNext("b1");
+		timer.advanceTimeBy(Duration.ofMillis(49));
+		source.onNext("a2");
+		assertThat(groups).isEmpty();
+
+		timer.advanceTimeBy(Duration.ofMillis(51));
+		assertThat(groups).containsExactly("b[1]");
+
+		timer.advanceTimeBy(Duration.ofMillis(50));
+		assertThat(groups).containsExactly("b[1]", "a[1, 2]");
+
+		source.onNext("a3");
+		source.onComplete();
+		assertThat(groups).containsExactly("b[1]", "a[1, 2]", "a[3]");
+	}
+
+	@Test
+	public void queuesOfEvictedGroupsAreReused() {
+		List<GroupedFlux<Character, String>> groups = new ArrayList<>();
+
+		Flux.just("a1", "b2", "c3")
+		    .groupBy(v -> v.charAt(0), GroupByOptions.maxGroups(1))
+		    .doOnNext(groups::add)
+		    .flatMap(Flux::hide)
+		    .as(StepVerifier::create)
+		    .expectNext("a1", "b2", "c3")
+		    .verifyComplete();
+
+		assertThat(groups).hasSize(3);
+		FluxGroupBy.UnicastGroupedFlux<Character, String> first =
+				(FluxGroupBy.UnicastGroupedFlux<Character, String>) groups.get(0);
+		FluxGroupBy.UnicastGroupedFlux<Character, String> third =
+				(FluxGroupBy.UnicastGroupedFlux<Character, String>) groups.get(2);
+		//the second group is created before the first one is evicted and recycles its queue
+		assertThat(third.queue).isSameAs(first.queue);
+		assertThat(first.scan(Scannable.Attr.BUFFERED)).isEqualTo(0);
+	}
+
+	@Test
+	public void queuesOfCancelledFusedGroupsAreReused() {
+		List<GroupedFlux<Character, String>> groups = new ArrayList<>();
+
+		Flux.just("a1", "a2", "b3")
+		    .groupBy(v -> v.charAt(0), GroupByOptions.maxGroups(1))
+		    .doOnNext(groups::add)
+		    .flatMap(g -> g.publishOn(Schedulers.immediate()).take(1))
+		    .as(StepVerifier::create)
+		    .expectNext("a1", "a2", "b3")
+		    .verifyComplete();
+
+		assertThat(groups).hasSize(3);
+		FluxGroupBy.UnicastGroupedFlux<Character, String> first =
+				(FluxGroupBy.UnicastGroupedFlux<Character, String>) groups.get(0);
+		FluxGroupBy.UnicastGroupedFlux<Character, String> second =
+				(FluxGroupBy.UnicastGroupedFlux<Character, String>) groups.get(1);
+		//the fused publishOn clears the cancelled group, which recycles its queue
+		assertThat(first.recycled).isTrue();
+		assertThat(second.queue).isSameAs(first.queue);
+	}
+
+	@Test
+	public void evictedGroupsReplenishTheirValues() {
+		Flux.range(0, 10_000)
+		    .groupBy(i -> i % 100, GroupByOptions.maxGroups(4))
+		    .flatMap(g -> g.publishOn(Schedulers.parallel()), 8)
+		    .as(StepVerifier::create)
+		    .expectNextCount(10_000)
+		    .expectComplete()
+		    .verify(Duration.ofSeconds(10));
+	}
+
+	@Test
+	public void idleTimeoutRejectedByTimer() {
+		Scheduler timer = Schedulers.newSingle("groupByRejected");
+		timer.dispose();
+
+		Flux.range(0, 10)
+		    .groupBy(i -> i % 2, GroupByOptions.idleTimeout(Duration.ofSeconds(1)).timer(timer))
+		    .flatMap(g -> g)
+		    .as(StepVerifier::create)
+		    .verifyError(RejectedExecutionException.class);
+	}
+
+	@Test
+	public void defaultTimerIsResolvedOnSubscription() {
+		GroupBySpec options = GroupByOptions.idleTimeout(Duration.ofSeconds(1));
+		Schedulers.shutdownNow();
+
+		Flux.range(0, 10)
+		    .groupBy(i -> i % 2, options)
+		    .flatMap(g -> g)
+		    .as(StepVerifier::create)
+		    .expectNextCount(10)
+		    .verifyComplete();
+	}
+
+	@Test
+	public void groupByOptionsValidation() {
+		assertThat(GroupByOptions.idleTimeout(Duration.ofSeconds(1)).maxGroups(3))
+				.hasToString("GroupBySpec{idleTimeout=PT1S, maxGroups=3, timer=Schedulers.parallel()}");
+		assertThatIllegalArgumentException().isThrownBy(() -> GroupByOptions.maxGroups(0));
+		assertThatIllegalArgumentException().isThrownBy(() -> GroupByOptions.idleTimeout(Duration.ZERO));
+	}
 }
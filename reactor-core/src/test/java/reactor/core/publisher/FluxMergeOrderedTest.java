@@ -660,4 +660,61 @@ public class FluxMergeOrderedTest {
 				.verifyComplete();
 	}
 
-}
\ No newline at end of file
+	@Test
+	@SuppressWarnings("unchecked") //safe varargs
+	public void manySourcesWithTies() {
+		int n = 100;
+		Flux<Integer>[] sources = new Flux[n];
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			sources[i] = Flux.range(i % 10, 10);
+			for (int j = 0; j < 10; j++) {
+				expected.add(i % 10 + j);
+			}
+		}
+		Collections.sort(expected);
+
+		Flux.mergeOrdered(4, Comparator.<Integer>naturalOrder(), sources)
+		    .as(StepVerifier::create)
+		    .expectNextSequence(expected)
+		    .verifyComplete();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked") //safe varargs
+	public void manySourcesTiesEmittedInSourceOrder() {
+		int n = 50;
+		Flux<Integer>[] sources = new Flux[n];
+		for (int i = 0; i < n; i++) {
+			sources[n - 1 - i] = Flux.just(-i, 1000 + i);
+		}
+
+		//all the sources have equal keys for the second element: lowest source index first
+		Flux.mergeOrdered(Comparator.comparing((Integer v) -> v < 1000 ? v : 1000), sources)
+		    .skip(n)
+		    .take(3)
+		    .as(StepVerifier::create)
+		    .expectNext(1000 + n - 1, 1000 + n - 2, 1000 + n - 3)
+		    .verifyComplete();
+	}
+
+	@Test
+	@SuppressWarnings("unchecked") //safe varargs
+	public void manySourcesBackpressured() {
+		int n = 20;
+		Flux<Integer>[] sources = new Flux[n];
+		for (int i = 0; i < n; i++) {
+			sources[i] = Flux.range(0, 5).map(v -> v * 20).map(v -> v + 1);
+		}
+
+		StepVerifier.create(Flux.mergeOrdered(2, Comparator.<Integer>naturalOrder(), sources), 0)
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(10))
+		            .thenRequest(n + 1)
+		            .expectNextCount(n)
+		            .expectNext(21)
+		            .thenCancel()
+		            .verify();
+	}
+
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -1314,6 +1315,102 @@ public class FluxPublishOnTest extends FluxOperatorTest<String, String> {
         assertThat(test.scan(Scannable.Attr.CANCELLED)).isTrue();
     }
 
+	@Test
+	public void adaptivePrefetchGrowsWithUnboundedDemand() {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+
+		StepVerifier.create(Flux.range(1, 100_000)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .publishOn(Schedulers.single(), PrefetchPolicy.adaptive(4, 256))
+		                        .count())
+		            .expectNext(100_000L)
+		            .verifyComplete();
+
+		assertThat(requests.get(0)).as("initial request").isEqualTo(4L);
+		assertThat(requests).as("window grew to max").contains(192L)
+		                    .allMatch(r -> r <= 256L);
+	}
+
+	@Test
+	public void adaptivePrefetchStaysSmallWithSlowConsumer() throws InterruptedException {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+		AtomicInteger received = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		Flux.range(1, 1000)
+		    .hide()
+		    .doOnRequest(requests::add)
+		    .publishOn(Schedulers.single(), PrefetchPolicy.adaptive(4, 256))
+		    .subscribe(new BaseSubscriber<Integer>() {
+			    @Override
+			    protected void hookOnSubscribe(Subscription subscription) {
+				    request(1);
+			    }
+
+			    @Override
+			    protected void hookOnNext(Integer value) {
+				    received.incrementAndGet();
+				    request(1);
+			    }
+
+			    @Override
+			    protected void hookOnComplete() {
+				    latch.countDown();
+			    }
+		    });
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).as("completed").isTrue();
+		assertThat(received).hasValue(1000);
+		assertThat(requests).as("window didn't grow to max").allMatch(r -> r < 192L);
+	}
+
+	@Test
+	public void adaptivePrefetchConditional() {
+		StepVerifier.create(Flux.range(1, 10_000)
+		                        .hide()
+		                        .publishOn(Schedulers.single(), PrefetchPolicy.adaptive(4, 64))
+		                        .filter(i -> i % 2 == 0))
+		            .expectNextCount(5000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void adaptivePrefetchFusedOutput() {
+		StepVerifier.create(Flux.range(1, 10_000)
+		                        .hide()
+		                        .publishOn(Schedulers.single(), PrefetchPolicy.adaptive(4, 64)))
+		            .expectFusion(Fuseable.ASYNC)
+		            .expectNextCount(10_000)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void fixedPrefetchPolicyIsPrefetch() {
+		List<Long> requests = new CopyOnWriteArrayList<>();
+
+		StepVerifier.create(Flux.range(1, 100)
+		                        .hide()
+		                        .doOnRequest(requests::add)
+		                        .publishOn(Schedulers.single(), PrefetchPolicy.fixed(16)))
+		            .expectNextCount(100)
+		            .verifyComplete();
+
+		assertThat(requests).startsWith(16L, 12L);
+	}
+
+	@Test
+	public void scanAdaptiveSubscriber() {
+		CoreSubscriber<Integer> actual = new LambdaSubscriber<>(null, e -> {}, null, null);
+		FluxPublishOn.PublishOnSubscriber<Integer> test = new FluxPublishOn.PublishOnSubscriber<>(actual,
+				Schedulers.single(), Schedulers.single().createWorker(), true, 4, 64, 4, Queues.unbounded(4));
+
+		assertThat(test.scan(Scannable.Attr.PREFETCH)).isEqualTo(4);
+
+		test.window = 32;
+		assertThat(test.scan(Scannable.Attr.PREFETCH)).isEqualTo(32);
+	}
+
     //see https://github.com/reactor/reactor-core/issues/767
     @Test
     public void publishOnAsyncDetection() {
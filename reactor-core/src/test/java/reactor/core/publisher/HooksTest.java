@@ -30,6 +30,7 @@ import java.util.function.Function;
 import java.util.logging.Level;
 
 import org.assertj.core.api.Assertions;
+import org.assertj.core.api.Assumptions;
 import org.junit.Assert;
 import org.junit.Test;
 import org.reactivestreams.Publisher;
@@ -766,6 +767,87 @@ public class HooksTest {
 		t.connect();
 	}
 
+	@Test
+	public void onOperatorDebugSampleRateZeroSkipsTracing() {
+		Hooks.onOperatorDebug(DebugOptions.sampleRate(0d));
+
+		Flux<Integer> flux = Flux.just(1).map(d -> d);
+		Mono<Integer> mono = Mono.just(1).map(d -> d);
+
+		assertThat(flux).isInstanceOf(FluxMapFuseable.class);
+		assertThat(mono).isInstanceOf(MonoMapFuseable.class);
+	}
+
+	@Test
+	public void onOperatorDebugSampledTraceback() {
+		Hooks.onOperatorDebug(DebugOptions.sampleRate(1d));
+
+		StepVerifier.create(Flux.just(1)
+		                        .map(d -> {
+			                        throw new IllegalStateException("boom");
+		                        }))
+		            .expectErrorSatisfies(e -> assertThat(e.getSuppressed()[0])
+				            .hasMessageContaining("Flux.map ⇢ at reactor.core.publisher.HooksTest.onOperatorDebugSampledTraceback"))
+		            .verify();
+	}
+
+	@Test
+	public void onOperatorDebugSharesSnapshotPerCallSite() {
+		Assumptions.assumeThat(Traces.callSiteSupplierFactory.get())
+		           .as("call-sites are only keyed on Java 9+")
+		           .isInstanceOf(Traces.CallSite.class);
+		Hooks.onOperatorDebug(DebugOptions.sampleRate(1d));
+
+		List<FluxOnAssembly<Integer>> sameLine = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			sameLine.add((FluxOnAssembly<Integer>) Flux.just(i).map(d -> d));
+		}
+		FluxOnAssembly<Integer> otherLine = (FluxOnAssembly<Integer>) Flux.just(1).map(d -> d);
+
+		assertThat(sameLine.get(1).snapshotStack).isSameAs(sameLine.get(0).snapshotStack);
+		assertThat(sameLine.get(2).snapshotStack).isSameAs(sameLine.get(0).snapshotStack);
+		assertThat(otherLine.snapshotStack).isNotSameAs(sameLine.get(0).snapshotStack);
+		assertThat(otherLine.snapshotStack.operatorAssemblyInformation())
+				.startsWith("Flux.map ⇢ at reactor.core.publisher.HooksTest.onOperatorDebugSharesSnapshotPerCallSite");
+	}
+
+	@Test
+	public void onOperatorDebugCallSiteCacheDisabled() {
+		Hooks.onOperatorDebug(DebugOptions.sampleRate(1d).callSiteCacheSize(0));
+
+		List<FluxOnAssembly<Integer>> sameLine = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			sameLine.add((FluxOnAssembly<Integer>) Flux.just(i).map(d -> d));
+		}
+
+		assertThat(sameLine.get(1).snapshotStack).isNotSameAs(sameLine.get(0).snapshotStack);
+		assertThat(Hooks.CALL_SITE_SNAPSHOTS).isEmpty();
+	}
+
+	@Test
+	public void resetOnOperatorDebugClearsOptions() {
+		Hooks.onOperatorDebug(DebugOptions.sampleRate(0d));
+		Hooks.resetOnOperatorDebug();
+
+		assertThat(Hooks.DEBUG_OPTIONS).isNull();
+		assertThat(Hooks.CALL_SITE_SNAPSHOTS).isEmpty();
+		assertThat(Flux.just(1).map(d -> d)).isInstanceOf(FluxMapFuseable.class);
+	}
+
+	@Test
+	public void debugOptionsValidation() {
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> DebugOptions.sampleRate(1.5d))
+				.withMessage("sampleRate must be between 0 and 1, was: 1.5");
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> DebugOptions.sampleRate(Double.NaN));
+		assertThatExceptionOfType(IllegalArgumentException.class)
+				.isThrownBy(() -> DebugOptions.sampleRate(0.5d).callSiteCacheSize(-1));
+
+		assertThat(DebugOptions.sampleRate(0.01d).callSiteCacheSize(16))
+				.hasToString("DebugOptions{sampleRate=0.01, callSiteCacheSize=16}");
+	}
+
 	@Test
 	public void onNextDroppedFailReplaces() {
 		AtomicReference<Object> dropHook = new AtomicReference<>();
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.time.Duration;
+
+import org.junit.Test;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+import reactor.test.subscriber.AssertSubscriber;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class LongFluxTest {
+
+	@Test
+	public void range() {
+		StepVerifier.create(LongFlux.range(Long.MAX_VALUE - 2, 3))
+		            .expectNext(Long.MAX_VALUE - 2, Long.MAX_VALUE - 1, Long.MAX_VALUE)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void rangeEmpty() {
+		StepVerifier.create(LongFlux.range(10, 0))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void rangeOverflowRejected() {
+		assertThatIllegalArgumentException().isThrownBy(() -> LongFlux.range(Long.MAX_VALUE, 2));
+		assertThatIllegalArgumentException().isThrownBy(() -> LongFlux.range(0, -1));
+	}
+
+	@Test
+	public void rangeBackpressured() {
+		AssertSubscriber<Long> ts = AssertSubscriber.create(0);
+
+		LongFlux.range(1, 10).subscribe(ts);
+
+		ts.assertNoValues();
+
+		ts.request(3);
+		ts.assertValues(1L, 2L, 3L)
+		  .assertNotComplete();
+
+		ts.request(10);
+		ts.assertValueCount(10)
+		  .assertComplete();
+	}
+
+	@Test
+	public void mapAndFilterAreFused() {
+		LongFlux flux = LongFlux.range(0, 10)
+		                        .map(v -> v * 3)
+		                        .map(v -> v + 1)
+		                        .filter(v -> v % 2 == 0)
+		                        .filter(v -> v > 5);
+
+		assertThat(flux).isInstanceOf(LongFluxFilter.class);
+		assertThat(((LongFluxFilter) flux).source).isInstanceOf(LongFluxMap.class);
+		assertThat(((LongFluxMap) ((LongFluxFilter) flux).source).source).isInstanceOf(LongFluxRange.class);
+
+		StepVerifier.create(flux)
+		            .expectNext(10L, 16L, 22L, 28L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void filterDoesNotConsumeDemand() {
+		StepVerifier.create(LongFlux.range(0, 100).filter(v -> v % 10 == 0), 3)
+		            .expectNext(0L, 10L, 20L)
+		            .thenRequest(2)
+		            .expectNext(30L, 40L)
+		            .thenCancel()
+		            .verify();
+	}
+
+	@Test
+	public void mapError() {
+		StepVerifier.create(LongFlux.range(0, 10).map(v -> {
+			if (v == 2) {
+				throw new IllegalStateException("boom");
+			}
+			return v;
+		}))
+		            .expectNext(0L, 1L)
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void scan() {
+		StepVerifier.create(LongFlux.range(1, 5).scan(Long::sum))
+		            .expectNext(1L, 3L, 6L, 10L, 15L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sum() {
+		StepVerifier.create(LongFlux.range(1, 1_000_000).sum())
+		            .expectNext(500_000_500_000L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void sumEmpty() {
+		StepVerifier.create(LongFlux.range(1, 0).sum())
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void reduce() {
+		StepVerifier.create(LongFlux.range(1, 5).reduce(1L, (a, b) -> a * b))
+		            .expectNext(120L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void buffer() {
+		StepVerifier.create(LongFlux.range(0, 10).buffer(4))
+		            .assertNext(b -> assertThat(b).containsExactly(0L, 1L, 2L, 3L))
+		            .assertNext(b -> assertThat(b).containsExactly(4L, 5L, 6L, 7L))
+		            .assertNext(b -> assertThat(b).containsExactly(8L, 9L))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void bufferBackpressured() {
+		StepVerifier.create(LongFlux.range(0, 10).buffer(4), 1)
+		            .assertNext(b -> assertThat(b).containsExactly(0L, 1L, 2L, 3L))
+		            .expectNoEvent(Duration.ofMillis(50))
+		            .thenRequest(1)
+		            .assertNext(b -> assertThat(b).containsExactly(4L, 5L, 6L, 7L))
+		            .thenRequest(1)
+		            .assertNext(b -> assertThat(b).containsExactly(8L, 9L))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void publishOn() {
+		StepVerifier.create(LongFlux.range(0, 10_000)
+		                            .publishOn(Schedulers.parallel(), 8)
+		                            .boxed()
+		                            .limitRate(7)
+		                            .publishOn(Schedulers.single(), 5)
+		                            .buffer(10_000))
+		            .assertNext(l -> {
+			            assertThat(l).hasSize(10_000);
+			            for (int i = 0; i < l.size(); i++) {
+				            assertThat(l.get(i)).isEqualTo((long) i);
+			            }
+		            })
+		            .verifyComplete();
+	}
+
+	@Test
+	public void publishOnError() {
+		TestPublisher<Integer> source = TestPublisher.create();
+
+		//the error is signalled while the values are still buffered, none is requested yet
+		StepVerifier.create(source.flux()
+		                          .asLongFlux(Integer::longValue)
+		                          .publishOn(Schedulers.parallel()), 0)
+		            .then(() -> source.next(0, 1, 2)
+		                              .error(new IllegalStateException("boom")))
+		            .thenRequest(3)
+		            .expectNext(0L, 1L, 2L)
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void publishOnPrefetchMustBeBounded() {
+		assertThatIllegalArgumentException().isThrownBy(() -> LongFlux.range(0, 1)
+		                                                               .publishOn(Schedulers.parallel(), Integer.MAX_VALUE));
+	}
+
+	@Test
+	public void asLongFlux() {
+		StepVerifier.create(Flux.just("a", "bb", "ccc")
+		                        .asLongFlux(String::length)
+		                        .map(v -> v * v))
+		            .expectNext(1L, 4L, 9L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void fromBoxedUnwraps() {
+		LongFlux source = LongFlux.range(0, 3);
+
+		assertThat(LongFlux.from(source.boxed())).isSameAs(source);
+	}
+
+	@Test
+	public void boxedCancels() {
+		StepVerifier.create(LongFlux.range(0, Long.MAX_VALUE).boxed().take(3))
+		            .expectNext(0L, 1L, 2L)
+		            .verifyComplete();
+	}
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+public class MergeOrderedHeapTest {
+
+	@Test
+	public void pollsInOrder() {
+		Integer[] heads = {5, 3, 9, 1, 7};
+		MergeOrderedHeap<Integer> heap = new MergeOrderedHeap<>(heads, Comparator.naturalOrder());
+		for (int i = 0; i < heads.length; i++) {
+			heap.offer(i);
+		}
+
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			polled.add(heads[heap.poll()]);
+		}
+
+		assertThat(polled).containsExactly(1, 3, 5, 7, 9);
+	}
+
+	@Test
+	public void tiesAreBrokenByLowestIndex() {
+		Integer[] heads = {2, 1, 2, 1, 2};
+		MergeOrderedHeap<Integer> heap = new MergeOrderedHeap<>(heads, Comparator.naturalOrder());
+		for (int i = heads.length - 1; i >= 0; i--) {
+			heap.offer(i);
+		}
+
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			polled.add(heap.poll());
+		}
+
+		assertThat(polled).containsExactly(1, 3, 0, 2, 4);
+	}
+
+	@Test
+	public void topChangedRepositionsTheTop() {
+		Integer[] heads = {1, 4, 6};
+		MergeOrderedHeap<Integer> heap = new MergeOrderedHeap<>(heads, Comparator.naturalOrder());
+		heap.offer(0);
+		heap.offer(1);
+		heap.offer(2);
+
+		assertThat(heap.peek()).isEqualTo(0);
+
+		heads[0] = 5;
+		heap.topChanged();
+
+		assertThat(heap.peek()).isEqualTo(1);
+		assertThat(heap.size()).isEqualTo(3);
+		assertThat(heap.poll()).isEqualTo(1);
+		assertThat(heap.poll()).isEqualTo(0);
+		assertThat(heap.poll()).isEqualTo(2);
+		assertThat(heap.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void clear() {
+		Integer[] heads = {1, 2};
+		MergeOrderedHeap<Integer> heap = new MergeOrderedHeap<>(heads, Comparator.naturalOrder());
+		heap.offer(0);
+		heap.offer(1);
+
+		heap.clear();
+
+		assertThat(heap.isEmpty()).isTrue();
+		assertThat(heap.size()).isZero();
+	}
+
+	@Test
+	public void randomMergeMatchesSort() {
+		Random random = new Random(42);
+		int n = 100;
+		Integer[] heads = new Integer[n];
+		MergeOrderedHeap<Integer> heap = new MergeOrderedHeap<>(heads, Comparator.naturalOrder());
+		List<Integer> expected = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			heads[i] = random.nextInt(50);
+			expected.add(heads[i]);
+			heap.offer(i);
+		}
+		expected.sort(Comparator.naturalOrder());
+
+		List<Integer> polled = new ArrayList<>();
+		while (!heap.isEmpty()) {
+			polled.add(heads[heap.poll()]);
+		}
+
+		assertThat(polled).isEqualTo(expected);
+	}
+
+	@Test
+	public void comparatorExceptionIsPropagated() {
+		Integer[] heads = {1, 2};
+		MergeOrderedHeap<Integer> heap = new MergeOrderedHeap<>(heads, (a, b) -> {
+			throw new IllegalStateException("boom");
+		});
+		heap.offer(0);
+
+		assertThatIllegalStateException().isThrownBy(() -> heap.offer(1))
+		                                 .withMessage("boom");
+	}
+}
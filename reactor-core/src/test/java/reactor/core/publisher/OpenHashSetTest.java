@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatNullPointerException;
+
+public class OpenHashSetTest {
+
+	@Test
+	public void addContainsRemove() {
+		OpenHashSet<String> set = new OpenHashSet<>();
+
+		assertThat(set.add("a")).isTrue();
+		assertThat(set.add("b")).isTrue();
+		assertThat(set.add("a")).isFalse();
+		assertThat(set).hasSize(2)
+		               .contains("a", "b")
+		               .doesNotContain("c");
+
+		assertThat(set.remove("a")).isTrue();
+		assertThat(set.remove("a")).isFalse();
+		assertThat(set.remove(null)).isFalse();
+		assertThat(set).containsExactly("b");
+	}
+
+	@Test
+	public void nullIsRejected() {
+		OpenHashSet<String> set = new OpenHashSet<>();
+
+		assertThatNullPointerException().isThrownBy(() -> set.add(null));
+		assertThat(set.contains(null)).isFalse();
+	}
+
+	@Test
+	public void growsAndMatchesHashSet() {
+		OpenHashSet<Integer> set = new OpenHashSet<>();
+		Set<Integer> expected = new HashSet<>();
+		Random random = new Random(42);
+
+		for (int i = 0; i < 100_000; i++) {
+			int key = random.nextInt(5_000) - 2_500;
+			switch (random.nextInt(3)) {
+				case 0:
+					assertThat(set.add(key)).isEqualTo(expected.add(key));
+					break;
+				case 1:
+					assertThat(set.remove(key)).isEqualTo(expected.remove(key));
+					break;
+				default:
+					assertThat(set.contains(key)).isEqualTo(expected.contains(key));
+			}
+			assertThat(set.size()).isEqualTo(expected.size());
+		}
+
+		assertThat(set).isEqualTo(expected);
+	}
+
+	@Test
+	public void removeWithCollidingHashCodes() {
+		OpenHashSet<Colliding> set = new OpenHashSet<>();
+		List<Colliding> values = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Colliding value = new Colliding(i);
+			values.add(value);
+			set.add(value);
+		}
+
+		for (int i = 0; i < 100; i += 2) {
+			assertThat(set.remove(values.get(i))).isTrue();
+		}
+
+		for (int i = 0; i < 100; i++) {
+			assertThat(set.contains(values.get(i))).as("contains %d", i).isEqualTo(i % 2 == 1);
+		}
+		assertThat(set).hasSize(50);
+	}
+
+	@Test
+	public void clearShrinks() {
+		OpenHashSet<Integer> set = new OpenHashSet<>();
+		for (int i = 0; i < 1000; i++) {
+			set.add(i);
+		}
+
+		set.clear();
+
+		assertThat(set).isEmpty();
+		assertThat(set.keys).hasSize(OpenHashSet.INITIAL_CAPACITY);
+		assertThat(set.add(1)).isTrue();
+	}
+
+	static final class Colliding {
+
+		final int id;
+
+		Colliding(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public int hashCode() {
+			return id % 3;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Colliding && ((Colliding) obj).id == id;
+		}
+	}
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.publisher;
+
+import java.util.List;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.assertj.core.api.Assertions.tuple;
+import static reactor.core.publisher.OperatorProfilerMeters.*;
+
+public class OperatorProfilerTest {
+
+	private OperatorProfiler profiler;
+
+	@Before
+	public void enableProfiler() {
+		profiler = OperatorProfiler.enable(1d);
+	}
+
+	@After
+	public void disposeProfiler() {
+		profiler.dispose();
+		Hooks.resetOnEachOperator();
+	}
+
+	@Test
+	public void invalidSampleRate() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> OperatorProfiler.enable(1.5d))
+				.withMessage("sampleRate must be between 0 and 1, was: 1.5");
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> OperatorProfiler.enable(-0.1d));
+	}
+
+	@Test
+	public void countsSignalsOfEachOperator() {
+		Flux.range(1, 100)
+		    .map(i -> i * 2)
+		    .filter(i -> i % 4 == 0)
+		    .name("profiled")
+		    .take(10)
+		    .blockLast();
+
+		List<OperatorProfile> profiles = profiler.snapshot();
+
+		assertThat(profiles)
+				.extracting(OperatorProfile::sequence)
+				.containsOnly("profiled");
+		assertThat(profiles)
+				.extracting(OperatorProfile::index, OperatorProfile::operator)
+				.containsExactlyInAnyOrder(
+						tuple(1, "map"),
+						tuple(2, "filter"),
+						tuple(3, "take"),
+						tuple(4, "blockingLast"));
+
+		OperatorProfile filter = profile(profiles, "filter");
+		assertThat(filter.onNextCount()).isEqualTo(20);
+		assertThat(profile(profiles, "take").onNextCount()).isEqualTo(10);
+		assertThat(profile(profiles, "map").requested()).isEqualTo(Long.MAX_VALUE);
+		assertThat(filter.sampledOnNextCount()).isEqualTo(20);
+		assertThat(filter.estimatedOnNextNanos()).isPositive();
+		assertThat(filter.subscribers()).isZero();
+	}
+
+	@Test
+	public void measuresBufferedElementsOfActiveSubscribers() {
+		BaseSubscriber<Integer> subscriber = new BaseSubscriber<Integer>() {
+			@Override
+			protected void hookOnSubscribe(Subscription subscription) {
+				subscription.request(1);
+			}
+		};
+		Flux.range(1, 100)
+		    .publishOn(Schedulers.single(), 32)
+		    .subscribe(subscriber);
+
+		OperatorProfile publishOn = profile(profiler.snapshot(), "publishOn");
+		assertThat(publishOn.requested()).isEqualTo(32);
+		assertThat(publishOn.subscribers()).isEqualTo(1);
+		assertThat(publishOn.buffered()).isBetween(0L, 32L);
+
+		OperatorProfile last = profile(profiler.snapshot(), "subscriber");
+		assertThat(last.requested()).isEqualTo(1);
+
+		subscriber.dispose();
+
+		publishOn = profile(profiler.snapshot(), "publishOn");
+		assertThat(publishOn.subscribers()).isZero();
+		assertThat(publishOn.buffered()).isZero();
+	}
+
+	@Test
+	public void bottlenecksFirst() {
+		Flux.range(1, 100)
+		    .map(i -> {
+			    long start = System.nanoTime();
+			    while (System.nanoTime() - start < 100_000) {
+				    //busy spin to make this operator the bottleneck
+			    }
+			    return i;
+		    })
+		    .filter(i -> true)
+		    .blockLast();
+
+		assertThat(profiler.snapshot().get(0).operator()).isEqualTo("map");
+	}
+
+	@Test
+	public void disposeStopsProfilingNewSequences() {
+		profiler.dispose();
+		Flux.just(1).map(i -> i).blockLast();
+
+		assertThat(profiler.isDisposed()).isTrue();
+		assertThat(profiler.snapshot()).isEmpty();
+	}
+
+	@Test
+	public void disposeKeepsTheHookOfANewerProfiler() {
+		OperatorProfiler newer = OperatorProfiler.enable(1d);
+		profiler.dispose();
+
+		assertThat(Hooks.getOnEachOperatorHooks()).containsEntry(OperatorProfiler.HOOK_KEY, newer.hook);
+
+		profiler = newer;
+		Flux.just(1).map(i -> i).blockLast();
+		assertThat(profile(newer.snapshot(), "map").onNextCount()).isEqualTo(1);
+
+		newer.dispose();
+		assertThat(Hooks.getOnEachOperatorHooks()).doesNotContainKey(OperatorProfiler.HOOK_KEY);
+	}
+
+	@Test
+	public void noTimingWithZeroSampleRate() {
+		profiler.dispose();
+		profiler = OperatorProfiler.enable(0d);
+
+		Flux.range(1, 10).map(i -> i).blockLast();
+
+		OperatorProfile map = profile(profiler.snapshot(), "map");
+		assertThat(map.onNextCount()).isEqualTo(10);
+		assertThat(map.sampledOnNextCount()).isZero();
+		assertThat(map.meanOnNextNanos()).isZero();
+	}
+
+	@Test
+	public void bindToRegistersMeters() {
+		MeterRegistry registry = new SimpleMeterRegistry();
+		Flux.range(1, 10).map(i -> i).name("meters").filter(i -> true).blockLast();
+
+		profiler.bindTo(registry);
+		Flux.range(1, 5).map(i -> i).name("late").filter(i -> true).blockLast();
+
+		FunctionCounter onNext = registry.get(METER_ON_NEXT)
+		                                 .tag(FluxMetrics.TAG_SEQUENCE_NAME, "meters")
+		                                 .tag(TAG_OPERATOR, "map")
+		                                 .tag(TAG_INDEX, "1")
+		                                 .functionCounter();
+		assertThat(onNext.count()).isEqualTo(10);
+
+		FunctionTimer timer = registry.get(METER_ON_NEXT_TIME)
+		                              .tag(FluxMetrics.TAG_SEQUENCE_NAME, "late")
+		                              .tag(TAG_OPERATOR, "filter")
+		                              .functionTimer();
+		assertThat(timer.count()).isEqualTo(5);
+
+		Gauge buffered = registry.get(METER_BUFFERED)
+		                         .tag(FluxMetrics.TAG_SEQUENCE_NAME, "late")
+		                         .tag(TAG_OPERATOR, "filter")
+		                         .gauge();
+		assertThat(buffered.value()).isZero();
+
+		registry.close();
+	}
+
+	@Test
+	public void bindToRejectsNonMeterRegistry() {
+		assertThatIllegalArgumentException()
+				.isThrownBy(() -> profiler.bindTo("registry"))
+				.withMessage("registry must be a MeterRegistry, was: java.lang.String");
+	}
+
+	static OperatorProfile profile(List<OperatorProfile> profiles, String operator) {
+		return profiles.stream()
+		               .filter(p -> p.operator().equals(operator))
+		               .findFirst()
+		               .orElseThrow(() -> new AssertionError("no profile for " + operator + " in " + profiles));
+	}
+}
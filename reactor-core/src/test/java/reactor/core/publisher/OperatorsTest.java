@@ -713,7 +713,7 @@ public class OperatorsTest {
 		Function<Context, Context> second = Operators.discardLocalAdapter(Integer.class, i -> discardOrder.add("SECOND"));
 
 		Context ctx = first.apply(second.apply(Context.empty()));
-		Consumer<Object> test = ctx.getOrDefault(Hooks.KEY_ON_DISCARD, o -> {});
+		Consumer<Object> test = ctx.getOrDefault(Hooks.CONTEXT_KEY_ON_DISCARD, o -> {});
 
 		assertThat(test).isNotNull();
 
@@ -721,6 +721,20 @@ public class OperatorsTest {
 		assertThat(discardOrder).as("consumers were combined").containsExactly("FIRST", "SECOND");
 	}
 
+	@Test
+	public void discardHookUnderStringKey() {
+		List<Object> discarded = new ArrayList<>();
+		Context ctx = Context.of("reactor.onDiscard.local", (Consumer<Object>) discarded::add);
+
+		Operators.onDiscard(1, ctx);
+		Operators.discardLocalAdapter(Integer.class, discarded::add)
+		         .apply(ctx)
+		         .getOrDefault(Hooks.CONTEXT_KEY_ON_DISCARD, o -> {})
+		         .accept(2);
+
+		assertThat(discarded).as("hook put under the String key").containsExactly(1, 2, 2);
+	}
+
 	@Test
 	public void convertNonConditionalToConditionalSubscriberTest() {
 		Object elementToSend = new Object();
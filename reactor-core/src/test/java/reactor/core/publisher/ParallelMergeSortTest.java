@@ -16,7 +16,11 @@
 
 package reactor.core.publisher;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Random;
 
 import org.junit.Test;
 import org.reactivestreams.Subscription;
@@ -24,6 +28,7 @@ import reactor.core.CoreSubscriber;
 import reactor.core.Scannable;
 import reactor.core.publisher.ParallelMergeSort.MergeSortInner;
 import reactor.core.publisher.ParallelMergeSort.MergeSortMain;
+import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -80,4 +85,25 @@ public class ParallelMergeSortTest {
 		assertThat(test.scan(Scannable.Attr.CANCELLED)).isTrue();
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void sortsManyRails() {
+		List<Integer> source = new ArrayList<>();
+		Random random = new Random(42);
+		for (int i = 0; i < 1000; i++) {
+			source.add(random.nextInt(100));
+		}
+		List<Integer> expected = new ArrayList<>(source);
+		Collections.sort(expected);
+
+		Flux.fromIterable(source)
+		    .parallel(16)
+		    .sorted(Comparator.naturalOrder())
+		    .as(f -> StepVerifier.create(f, 0))
+		    .thenRequest(10)
+		    .expectNextSequence(expected.subList(0, 10))
+		    .thenRequest(Long.MAX_VALUE)
+		    .expectNextSequence(expected.subList(10, expected.size()))
+		    .verifyComplete();
+	}
+
+}
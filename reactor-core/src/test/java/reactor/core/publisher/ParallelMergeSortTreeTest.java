@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.publisher.ParallelMergeSortTree.MergeTreeInner;
+import reactor.core.publisher.ParallelMergeSortTree.MergeTreeMain;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ParallelMergeSortTreeTest {
+
+	@Test
+	public void scanOperator() {
+		ParallelFlux<List<Integer>> source = Flux.just(500, 300).buffer(1).parallel(10);
+		ParallelMergeSortTree<Integer> test = new ParallelMergeSortTree<>(source,
+				Integer::compareTo, Schedulers.immediate());
+
+		assertThat(test.scan(Scannable.Attr.PARENT)).isSameAs(source);
+		assertThat(test.scan(Scannable.Attr.PREFETCH)).isEqualTo(Integer.MAX_VALUE);
+		assertThat(test.scan(Scannable.Attr.RUN_ON)).isSameAs(Schedulers.immediate());
+	}
+
+	@Test
+	public void scanMainSubscriber() {
+		LambdaSubscriber<Integer> subscriber = new LambdaSubscriber<>(null, e -> { }, null,
+				s -> s.request(2));
+		MergeTreeMain<Integer> test = new MergeTreeMain<>(subscriber, 4,
+				Integer::compareTo, Schedulers.immediate());
+
+		subscriber.onSubscribe(test);
+
+		assertThat(test.scan(Scannable.Attr.ACTUAL)).isSameAs(subscriber);
+		assertThat(test.scan(Scannable.Attr.ERROR)).isNull();
+		assertThat(test.scan(Scannable.Attr.REQUESTED_FROM_DOWNSTREAM)).isEqualTo(2);
+		assertThat(test.scan(Scannable.Attr.RUN_ON)).isSameAs(Schedulers.immediate());
+
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isEqualTo(0);
+		test.remaining = 3;
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isEqualTo(1);
+
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isFalse();
+		test.cancel();
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isTrue();
+	}
+
+	@Test
+	public void scanInnerSubscriber() {
+		CoreSubscriber<Integer> mainActual = new LambdaSubscriber<>(null, e -> { }, null, null);
+		MergeTreeMain<Integer> main = new MergeTreeMain<>(mainActual, 2,
+				Integer::compareTo, Schedulers.immediate());
+		MergeTreeInner<Integer> test = new MergeTreeInner<>(main, 1);
+
+		Subscription subscription = Operators.emptySubscription();
+		test.onSubscribe(subscription);
+
+		assertThat(test.scan(Scannable.Attr.PARENT)).isSameAs(subscription);
+		assertThat(test.scan(Scannable.Attr.ACTUAL)).isSameAs(main);
+		assertThat(test.scan(Scannable.Attr.PREFETCH)).isEqualTo(Integer.MAX_VALUE);
+
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isFalse();
+		test.cancel();
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isTrue();
+	}
+
+	@Test
+	public void coRankPrefersFirstRunOnTies() {
+		Object[] runs = {1, 3, 3, 5, 3, 4};
+		Comparator<Integer> comparator = Comparator.naturalOrder();
+
+		//merged: 1, 3 (first run), 3 (first run), 3 (second run), 4, 5
+		assertThat(ParallelMergeSortTree.coRank(runs, 0, 4, 6, 0, comparator)).isEqualTo(0);
+		assertThat(ParallelMergeSortTree.coRank(runs, 0, 4, 6, 1, comparator)).isEqualTo(1);
+		assertThat(ParallelMergeSortTree.coRank(runs, 0, 4, 6, 3, comparator)).isEqualTo(3);
+		assertThat(ParallelMergeSortTree.coRank(runs, 0, 4, 6, 4, comparator)).isEqualTo(3);
+		assertThat(ParallelMergeSortTree.coRank(runs, 0, 4, 6, 5, comparator)).isEqualTo(3);
+		assertThat(ParallelMergeSortTree.coRank(runs, 0, 4, 6, 6, comparator)).isEqualTo(4);
+	}
+
+	@Test
+	public void sortsLikeSequentialMerge() {
+		Random random = new Random(42);
+		List<Integer> source = new ArrayList<>();
+		for (int i = 0; i < 20_000; i++) {
+			source.add(random.nextInt(100_000));
+		}
+		//compare on a coarser key so that the order of ties is checked too
+		Comparator<Integer> comparator = Comparator.comparing(v -> v / 100);
+
+		for (int rails = 1; rails <= 9; rails++) {
+			List<Integer> expected = Flux.fromIterable(source)
+			                             .parallel(rails)
+			                             .sorted(comparator)
+			                             .collectList()
+			                             .block();
+
+			List<Integer> actual = Flux.fromIterable(source)
+			                           .parallel(rails)
+			                           .sorted(comparator, source.size(), Schedulers.parallel())
+			                           .collectList()
+			                           .block();
+
+			assertThat(actual).as("rails %d", rails).isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void backpressured() {
+		List<Integer> source = new ArrayList<>();
+		for (int i = 0; i < 10_000; i++) {
+			source.add(10_000 - i);
+		}
+		List<Integer> expected = new ArrayList<>(source);
+		Collections.sort(expected);
+
+		Flux.fromIterable(source)
+		    .parallel(4)
+		    .runOn(Schedulers.parallel())
+		    .sorted(Comparator.naturalOrder(), source.size(), Schedulers.parallel())
+		    .as(f -> StepVerifier.create(f, 0))
+		    .thenRequest(10)
+		    .expectNextSequence(expected.subList(0, 10))
+		    .thenRequest(Long.MAX_VALUE)
+		    .expectNextSequence(expected.subList(10, expected.size()))
+		    .verifyComplete();
+	}
+
+	@Test
+	public void emptyAndSingleRail() {
+		Flux.<Integer>empty()
+		    .parallel(4)
+		    .sorted(Comparator.naturalOrder(), 16, Schedulers.parallel())
+		    .as(StepVerifier::create)
+		    .verifyComplete();
+
+		Flux.just(3, 1, 2)
+		    .parallel(1)
+		    .sorted(Comparator.naturalOrder(), 16, Schedulers.parallel())
+		    .as(StepVerifier::create)
+		    .expectNext(1, 2, 3)
+		    .verifyComplete();
+	}
+
+	@Test
+	public void sourceError() {
+		Flux.range(1, 10)
+		    .concatWith(Flux.error(new IllegalStateException("boom")))
+		    .parallel(2)
+		    .sorted(Comparator.naturalOrder(), 16, Schedulers.parallel())
+		    .as(StepVerifier::create)
+		    .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void comparatorError() {
+		Flux.range(1, 10_000)
+		    .parallel(4)
+		    .sorted((a, b) -> {
+			    if (a == 5000 || b == 5000) {
+				    throw new IllegalStateException("boom");
+			    }
+			    return Integer.compare(a, b);
+		    }, 10_000, Schedulers.parallel())
+		    .as(StepVerifier::create)
+		    .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void rejectedExecution() {
+		Scheduler scheduler = Schedulers.newParallel("mergeSortTreeRejected", 2);
+		scheduler.dispose();
+
+		Flux.range(1, 100)
+		    .parallel(4)
+		    .sorted(Comparator.naturalOrder(), 100, scheduler)
+		    .as(StepVerifier::create)
+		    .verifyError();
+	}
+}
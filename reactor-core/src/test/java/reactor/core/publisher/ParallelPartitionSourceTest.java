@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.Scannable;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.Queues;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class ParallelPartitionSourceTest {
+
+	@Test
+	public void parallelism() {
+		Flux<String> source = Flux.empty();
+		ParallelPartitionSource<String> test = new ParallelPartitionSource<>(source, s -> s, 100, 123, Queues.small());
+		assertThat(test.parallelism()).isEqualTo(100);
+	}
+
+	@Test
+	public void invalidArguments() {
+		Flux<String> source = Flux.empty();
+		assertThatIllegalArgumentException().isThrownBy(() -> new ParallelPartitionSource<>(source, s -> s, 0, 123, Queues.small()))
+		                                    .withMessage("parallelism > 0 required but it was 0");
+		assertThatIllegalArgumentException().isThrownBy(() -> new ParallelPartitionSource<>(source, s -> s, 2, 0, Queues.small()))
+		                                    .withMessage("prefetch > 0 required but it was 0");
+	}
+
+	@Test
+	public void railOfIsStableAndInRange() {
+		for (int i = -1000; i < 1000; i++) {
+			int rail = ParallelPartitionSource.railOf(i, 7);
+			assertThat(rail).isBetween(0, 6)
+			                .isEqualTo(ParallelPartitionSource.railOf(i, 7));
+		}
+		assertThat(ParallelPartitionSource.railOf(null, 7)).isZero();
+	}
+
+	@Test
+	public void sameKeyGoesToSameRailInOrder() {
+		Map<Integer, Set<Integer>> railsPerKey = new ConcurrentHashMap<>();
+
+		List<List<Integer>> rails = Flux.range(0, 10_000)
+		                                .parallel(4, i -> i % 37)
+		                                .runOn(Schedulers.parallel())
+		                                .groups()
+		                                .flatMap(rail -> rail.doOnNext(i -> railsPerKey.computeIfAbsent(i % 37, k -> ConcurrentHashMap.newKeySet())
+		                                                                               .add(rail.key()))
+		                                                     .collectList())
+		                                .collectList()
+		                                .block();
+
+		assertThat(rails).hasSize(4);
+		assertThat(railsPerKey).hasSize(37);
+		assertThat(railsPerKey.values()).allSatisfy(r -> assertThat(r).hasSize(1));
+		for (List<Integer> rail : rails) {
+			for (int key = 0; key < 37; key++) {
+				List<Integer> values = new ArrayList<>();
+				for (Integer v : rail) {
+					if (v % 37 == key) {
+						values.add(v);
+					}
+				}
+				assertThat(values).isSorted();
+			}
+		}
+	}
+
+	@Test
+	public void reducePerKey() {
+		StepVerifier.create(Flux.range(0, 1000)
+		                        .parallel(3, i -> i % 2)
+		                        .reduce(() -> 0, Integer::sum)
+		                        .sequential()
+		                        .collectSortedList())
+		            .expectNext(Arrays.asList(0, 249_500, 250_000))
+		            .verifyComplete();
+	}
+
+	@Test
+	public void keyExtractorError() {
+		StepVerifier.create(Flux.range(0, 10)
+		                        .parallel(2, i -> {
+			                        if (i == 5) {
+				                        throw new IllegalStateException("boom");
+			                        }
+			                        return i;
+		                        })
+		                        .sequential())
+		            .expectNextCount(5)
+		            .verifyErrorMessage("boom");
+	}
+
+	@Test
+	public void smallPrefetchAndCancel() {
+		StepVerifier.create(Flux.range(0, 10_000)
+		                        .parallel(4, 2, i -> i)
+		                        .sequential(1)
+		                        .take(100))
+		            .expectNextCount(100)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void scanOperator() {
+		Flux<String> source = Flux.just("").map(i -> i);
+		ParallelPartitionSource<String> test = new ParallelPartitionSource<>(source, s -> s, 100, 123,
+				Queues.small());
+
+		assertThat(test.scan(Scannable.Attr.PARENT)).isSameAs(source);
+		assertThat(test.scan(Scannable.Attr.PREFETCH)).isEqualTo(123);
+	}
+
+	@Test
+	public void scanMainSubscriber() {
+		@SuppressWarnings("unchecked")
+		CoreSubscriber<String>[] subs = new CoreSubscriber[2];
+		subs[0] = new LambdaSubscriber<>(null, e -> {}, null, null);
+		subs[1] = new LambdaSubscriber<>(null, e -> {}, null, null);
+		ParallelPartitionSource.PartitionSourceMain<String> test = new ParallelPartitionSource.PartitionSourceMain<>(
+				subs, s -> s, 123, Queues.one());
+
+		Subscription parent = Operators.emptySubscription();
+		test.onSubscribe(parent);
+
+		assertThat(test.scan(Scannable.Attr.PARENT)).isSameAs(parent);
+		assertThat(test.scan(Scannable.Attr.PREFETCH)).isEqualTo(123);
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isZero();
+
+		test.queues[0].offer("foo");
+		test.queues[1].offer("bar");
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isEqualTo(2);
+
+		assertThat(test.scan(Scannable.Attr.TERMINATED)).isFalse();
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isFalse();
+		assertThat(test.scan(Scannable.Attr.ERROR)).isNull();
+
+		test.onError(new IllegalStateException("boom"));
+		assertThat(test.scan(Scannable.Attr.TERMINATED)).isTrue();
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isFalse();
+		assertThat(test.scan(Scannable.Attr.ERROR)).hasMessage("boom");
+
+		test.cancel();
+		assertThat(test.scan(Scannable.Attr.CANCELLED)).isTrue();
+	}
+
+	@Test
+	public void scanInnerSubscriber() {
+		@SuppressWarnings("unchecked")
+		CoreSubscriber<String>[] subs = new CoreSubscriber[2];
+		subs[0] = new LambdaSubscriber<>(null, e -> {}, null, null);
+		subs[1] = new LambdaSubscriber<>(null, e -> {}, null, null);
+		ParallelPartitionSource.PartitionSourceMain<String> main = new ParallelPartitionSource.PartitionSourceMain<>(
+				subs, s -> s, 123, Queues.one());
+
+		ParallelPartitionSource.PartitionSourceMain.PartitionSourceInner<String> test =
+				new ParallelPartitionSource.PartitionSourceMain.PartitionSourceInner<>(main, 1, 2);
+
+		assertThat(test.scan(Scannable.Attr.PARENT)).isSameAs(main);
+		assertThat(test.scan(Scannable.Attr.ACTUAL)).isSameAs(subs[test.index]);
+		assertThat(test.scan(Scannable.Attr.BUFFERED)).isZero();
+	}
+}
@@ -16,8 +16,12 @@
 
 package reactor.core.publisher;
 
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
 import org.junit.Test;
 import reactor.core.Scannable;
+import reactor.core.scheduler.Scheduler;
 import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 import reactor.util.concurrent.Queues;
@@ -57,4 +61,42 @@ public class ParallelRunOnTest {
 			            .verifyComplete();
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void stickyRailsStayOnSameThreadAcrossSubscriptionsAndStages() {
+		//twice as many threads as rails: without affinity, rails would spread over all of them
+		Scheduler scheduler = Schedulers.newParallel("stickyRails", 8);
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		try {
+			for (int round = 0; round < 5; round++) {
+				Flux<Integer> result = Flux.range(0, 1000)
+				                           .parallel(4)
+				                           .runOn(scheduler, RailAffinity.STICKY)
+				                           .doOnNext(i -> threads.add(Thread.currentThread().getName()))
+				                           .runOn(scheduler, RailAffinity.STICKY)
+				                           .doOnNext(i -> threads.add(Thread.currentThread().getName()))
+				                           .sequential();
+
+				StepVerifier.create(result)
+				            .expectNextCount(1000)
+				            .verifyComplete();
+			}
+
+			assertThat(threads).as("one thread per rail").hasSize(4);
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void stickyRailsWithSchedulerIgnoringAffinity() {
+		StepVerifier.create(Flux.range(1, 1_000)
+		                        .parallel(4)
+		                        .runOn(Schedulers.boundedElastic(), RailAffinity.STICKY)
+		                        .filter(t -> true)
+		                        .sequential())
+		            .expectNextCount(1_000)
+		            .verifyComplete();
+	}
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.publisher;
+
+import org.junit.Test;
+
+import reactor.util.concurrent.Queues;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class PrefetchPolicyTest {
+
+	@Test
+	public void fixed() {
+		PrefetchPolicy policy = PrefetchPolicy.fixed(16);
+
+		assertThat(policy.isAdaptive()).isFalse();
+		assertThat(policy.minPrefetch()).isEqualTo(16);
+		assertThat(policy.maxPrefetch()).isEqualTo(16);
+		assertThat(policy).hasToString("PrefetchPolicy{fixed=16}");
+	}
+
+	@Test
+	public void fixedRejectsNonPositive() {
+		assertThatIllegalArgumentException().isThrownBy(() -> PrefetchPolicy.fixed(0))
+		                                    .withMessage("prefetch > 0 required but it was 0");
+	}
+
+	@Test
+	public void adaptiveDefaults() {
+		PrefetchPolicy policy = PrefetchPolicy.adaptive();
+
+		assertThat(policy.isAdaptive()).isTrue();
+		assertThat(policy.minPrefetch()).isEqualTo(Queues.XS_BUFFER_SIZE);
+		assertThat(policy.maxPrefetch()).isEqualTo(Queues.SMALL_BUFFER_SIZE * 4);
+	}
+
+	@Test
+	public void adaptiveWithSameBoundsIsFixed() {
+		assertThat(PrefetchPolicy.adaptive(8, 8).isAdaptive()).isFalse();
+	}
+
+	@Test
+	public void adaptiveRejectsInvalidBounds() {
+		assertThatIllegalArgumentException().isThrownBy(() -> PrefetchPolicy.adaptive(0, 8))
+		                                    .withMessage("minPrefetch > 0 required but it was 0");
+		assertThatIllegalArgumentException().isThrownBy(() -> PrefetchPolicy.adaptive(8, 4))
+		                                    .withMessage("maxPrefetch must be bounded and >= minPrefetch but it was 4");
+		assertThatIllegalArgumentException().isThrownBy(() -> PrefetchPolicy.adaptive(8, Integer.MAX_VALUE))
+		                                    .withMessageStartingWith("maxPrefetch must be bounded");
+	}
+}
@@ -20,7 +20,6 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneId;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -276,16 +275,12 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 
 		assertThat(new HashSet<>(Arrays.asList(state1, state2, state3, state4))).as("4 distinct").hasSize(4);
 		//cheat to make some look like more busy
-		s.boundedServices.busyQueue.remove(state1);
-		s.boundedServices.busyQueue.remove(state2);
-		s.boundedServices.busyQueue.remove(state3);
 		state1.markPicked();
 		state1.markPicked();
 		state1.markPicked();
 		state2.markPicked();
 		state2.markPicked();
 		state3.markPicked();
-		s.boundedServices.busyQueue.addAll(Arrays.asList(state1, state2, state3));
 
 		assertThat(s.boundedServices.pick()).as("picked least busy state4").isSameAs(state4);
 		//at this point state4 and state3 both are backing 1
@@ -512,7 +507,7 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 				1000, virtualClock));
 		Worker worker = scheduler.createWorker();
 
-		List<BoundedState> beforeEviction = new ArrayList<>(scheduler.boundedServices.busyQueue);
+		List<BoundedState> beforeEviction = scheduler.boundedServices.busyStates();
 
 		assertThat(scheduler.estimateSize())
 				.as("before eviction")
@@ -537,7 +532,7 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 				.isZero();
 
 		afterTest.autoDispose(scheduler.createWorker());
-		assertThat(scheduler.boundedServices.busyQueue)
+		assertThat(scheduler.boundedServices.busyStates())
 				.as("after regrowth")
 				.isNotEmpty()
 				.hasSize(1)
@@ -568,7 +563,7 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 		boundedElasticScheduler.schedulePeriodically(() -> {}, 1000, 100, TimeUnit.MILLISECONDS);
 
 		//any attempt at scheduling more task should result in rejection
-		ScheduledThreadPoolExecutor threadPoolExecutor = (ScheduledThreadPoolExecutor) boundedElasticScheduler.boundedServices.busyQueue.peek().executor;
+		ScheduledThreadPoolExecutor threadPoolExecutor = (ScheduledThreadPoolExecutor) boundedElasticScheduler.boundedServices.busyStates().get(0).executor;
 		assertThat(threadPoolExecutor.getQueue().size()).as("queue full").isEqualTo(9);
 		assertThatExceptionOfType(RejectedExecutionException.class).as("worker1 immediate").isThrownBy(() -> worker1.schedule(() -> {}));
 		assertThatExceptionOfType(RejectedExecutionException.class).as("worker1 delayed").isThrownBy(() -> worker1.schedule(() -> {}, 100, TimeUnit.MILLISECONDS));
@@ -598,7 +593,7 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 		BoundedElasticScheduler boundedElasticScheduler = afterTest.autoDispose(new BoundedElasticScheduler(3, 5, Thread::new, 10));
 		afterTest.autoDispose(boundedElasticScheduler.createWorker());
 		afterTest.autoDispose(boundedElasticScheduler.createWorker());
-		boundedElasticScheduler.boundedServices.busyQueue.add(new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
+		boundedElasticScheduler.boundedServices.states.set(2, new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
 
 		assertThat(boundedElasticScheduler.estimateRemainingTaskCapacity()).as("partially computable capacity").isEqualTo(-1);
 	}
@@ -607,9 +602,9 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 	public void estimateRemainingTaskCapacityWithUnobservableOnly() {
 		//3 workers, 1 not observable
 		BoundedElasticScheduler boundedElasticScheduler = afterTest.autoDispose(new BoundedElasticScheduler(3, 5, Thread::new, 10));
-		boundedElasticScheduler.boundedServices.busyQueue.add(new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
-		boundedElasticScheduler.boundedServices.busyQueue.add(new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
-		boundedElasticScheduler.boundedServices.busyQueue.add(new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
+		boundedElasticScheduler.boundedServices.states.set(0, new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
+		boundedElasticScheduler.boundedServices.states.set(1, new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
+		boundedElasticScheduler.boundedServices.states.set(2, new BoundedState(boundedElasticScheduler.boundedServices, Executors.newSingleThreadScheduledExecutor()));
 
 		assertThat(boundedElasticScheduler.estimateRemainingTaskCapacity()).as("non-computable capacity").isEqualTo(-1);
 	}
@@ -1081,7 +1076,7 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 		}
 
 		assertThat(scheduler.boundedServices.get()).as("state count").isOne();
-		assertThat(scheduler.boundedServices.busyQueue.size() + scheduler.boundedServices.idleQueue.size()).as("busyOrIdle").isOne();
+		assertThat(scheduler.boundedServices.busyStates().size() + scheduler.boundedServices.idleStates().size()).as("busyOrIdle").isOne();
 
 	}
 	@Test
@@ -1097,7 +1092,32 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 			);
 		}
 
-		assertThat(scheduler.boundedServices.busyQueue.size() + scheduler.boundedServices.idleQueue.size()).as("busyOrIdle").isOne();
+		assertThat(scheduler.boundedServices.busyStates().size() + scheduler.boundedServices.idleStates().size()).as("busyOrIdle").isOne();
+	}
+
+	@Test
+	public void pickRaceClaimsDistinctIdleStates() {
+		BoundedElasticScheduler scheduler = afterTest.autoDispose(new BoundedElasticScheduler(2, 1, r -> new Thread(r, "test"),
+				1000));
+		BoundedState first = scheduler.boundedServices.pick();
+		BoundedState second = scheduler.boundedServices.pick();
+		first.dispose();
+		second.dispose();
+
+		for (int i = 0; i < 10_000; i++) {
+			AtomicReference<BoundedState> picked1 = new AtomicReference<>();
+			AtomicReference<BoundedState> picked2 = new AtomicReference<>();
+			RaceTestUtils.race(
+					() -> picked1.set(scheduler.boundedServices.pick()),
+					() -> picked2.set(scheduler.boundedServices.pick())
+			);
+
+			assertThat(picked1.get()).as("round %d", i).isNotSameAs(picked2.get());
+			picked1.get().dispose();
+			picked2.get().dispose();
+		}
+
+		assertThat(scheduler.boundedServices.idleStates()).as("idle").hasSize(2);
 	}
 
 	//gh-1992 smoke test
@@ -1260,6 +1280,35 @@ public class BoundedElasticSchedulerTest extends AbstractSchedulerTest {
 				.isEqualTo("ExecutorServiceWorker");
 	}
 
+	@Test
+	public void scanTaskMetricsCountsRejections() throws InterruptedException {
+		BoundedElasticScheduler scheduler = afterTest.autoDispose(new BoundedElasticScheduler(1, 1, Thread::new, 10));
+		CountDownLatch blocker = new CountDownLatch(1);
+		CountDownLatch started = new CountDownLatch(1);
+
+		scheduler.schedule(() -> {
+			started.countDown();
+			try {
+				blocker.await();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		assertThat(started.await(1, TimeUnit.SECONDS)).as("blocking task started").isTrue();
+		scheduler.schedule(() -> {});
+		assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> scheduler.schedule(() -> {}));
+
+		TaskMetrics metrics = scheduler.scan(Scannable.Attr.TASK_METRICS);
+		assertThat(metrics).isNotNull();
+		assertThat(metrics.queued()).as("queued").isOne();
+		assertThat(metrics.rejected()).as("rejected").isOne();
+
+		blocker.countDown();
+		Awaitility.await().atMost(1, TimeUnit.SECONDS).untilAsserted(() ->
+				assertThat(scheduler.scan(Scannable.Attr.TASK_METRICS).completed()).as("completed").isEqualTo(2));
+	}
+
 	@Test
 	public void scanCapacityBounded() {
 		Scheduler scheduler = afterTest.autoDispose(Schedulers.newBoundedElastic(1, 123, Thread::new, 2));
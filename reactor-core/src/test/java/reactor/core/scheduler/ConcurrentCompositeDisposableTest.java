@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.test.FakeDisposable;
+import reactor.test.util.RaceTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ConcurrentCompositeDisposableTest {
+
+	@Test
+	public void add() {
+		FakeDisposable d = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+
+		assertThat(cd.size()).isZero();
+
+		boolean added = cd.add(d);
+
+		assertThat(added).isTrue();
+		assertThat(cd.size()).isEqualTo(1);
+		assertThat(d.isDisposed()).isFalse();
+	}
+
+	@Test
+	public void addAll() {
+		FakeDisposable d1 = new FakeDisposable();
+		FakeDisposable d2 = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+
+		boolean added = cd.addAll(Arrays.asList(d1, d2));
+
+		assertThat(added).isTrue();
+		assertThat(cd.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void removeDoesntDispose() {
+		FakeDisposable d = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.add(d);
+
+		boolean deleted = cd.remove(d);
+
+		assertThat(deleted).isTrue();
+		assertThat(cd.size()).isZero();
+		assertThat(d.isDisposed()).isFalse();
+	}
+
+	@Test
+	public void removeNonexistant() {
+		FakeDisposable d = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.add(new FakeDisposable());
+
+		assertThat(cd.remove(d)).isFalse();
+		assertThat(cd.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void sameResourceAddedTwiceIsRemovedTwice() {
+		FakeDisposable d = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.add(d);
+		cd.add(d);
+
+		assertThat(cd.size()).isEqualTo(2);
+		assertThat(cd.remove(d)).isTrue();
+		assertThat(cd.remove(d)).isTrue();
+		assertThat(cd.remove(d)).isFalse();
+	}
+
+	@Test
+	public void overflowsToNextSegmentsAndReusesTombstones() {
+		ConcurrentCompositeDisposable cd = new ConcurrentCompositeDisposable();
+		List<FakeDisposable> resources = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			FakeDisposable d = new FakeDisposable();
+			resources.add(d);
+			cd.add(d);
+		}
+
+		assertThat(cd.size()).isEqualTo(1000);
+		int segments = segments(cd);
+		assertThat(segments).isGreaterThan(1);
+
+		for (FakeDisposable d : resources) {
+			assertThat(cd.remove(d)).isTrue();
+		}
+		assertThat(cd.size()).isZero();
+
+		for (FakeDisposable d : resources) {
+			cd.add(d);
+		}
+		assertThat(cd.size()).isEqualTo(1000);
+		assertThat(segments(cd)).as("tombstones reused").isEqualTo(segments);
+
+		cd.dispose();
+		assertThat(resources).allMatch(d -> d.disposed == 1);
+	}
+
+	@Test
+	public void disposeDisposesAndDisallowReuse() {
+		FakeDisposable d1 = new FakeDisposable();
+		FakeDisposable d2 = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.add(d1);
+		cd.add(d2);
+
+		cd.dispose();
+
+		assertThat(cd.size()).isZero();
+		assertThat(cd.isDisposed()).isTrue();
+		assertThat(d1.disposed).isEqualTo(1);
+		assertThat(d2.disposed).isEqualTo(1);
+
+		boolean reuse = cd.add(d1);
+		assertThat(reuse).isFalse();
+		assertThat(cd.size()).isZero();
+		assertThat(d1.disposed).isEqualTo(2);
+	}
+
+	@Test
+	public void removeAfterDispose() {
+		FakeDisposable d = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.add(d);
+		cd.dispose();
+
+		assertThat(cd.remove(d)).isFalse();
+		assertThat(d.disposed).isEqualTo(1);
+	}
+
+	@Test
+	public void disposeAfterDispose() {
+		FakeDisposable d = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.add(d);
+		cd.dispose();
+		cd.dispose();
+
+		assertThat(d.disposed).isEqualTo(1);
+	}
+
+	@Test
+	public void multipleErrorsDuringDisposal() {
+		Disposable bad1 = () -> {
+			throw new IllegalStateException("boom1");
+		};
+		Disposable bad2 = () -> {
+			throw new IllegalStateException("boom2");
+		};
+		FakeDisposable good = new FakeDisposable();
+		Disposable.Composite cd = new ConcurrentCompositeDisposable();
+		cd.addAll(Arrays.asList(bad1, bad2, good));
+
+		assertThatExceptionOfType(RuntimeException.class).isThrownBy(cd::dispose)
+		                                                 .withMessage("Multiple exceptions")
+		                                                 .withStackTraceContaining("boom1")
+		                                                 .withStackTraceContaining("boom2");
+
+		assertThat(good.isDisposed()).isTrue();
+	}
+
+	@Test
+	public void addDisposeConcurrent() {
+		for (int i = 0; i < 500; i++) {
+			final FakeDisposable d1 = new FakeDisposable();
+			final Disposable.Composite cd = new ConcurrentCompositeDisposable();
+			cd.add(new FakeDisposable());
+
+			RaceTestUtils.race(() -> cd.add(d1), cd::dispose);
+
+			assertThat(d1.disposed).isEqualTo(1);
+		}
+	}
+
+	@Test
+	public void removeDisposeConcurrent() {
+		for (int i = 0; i < 500; i++) {
+			final FakeDisposable d1 = new FakeDisposable();
+			final Disposable.Composite cd = new ConcurrentCompositeDisposable();
+			cd.add(d1);
+
+			RaceTestUtils.race(() -> cd.remove(d1), cd::dispose);
+
+			assertThat(d1.disposed).isLessThanOrEqualTo(1);
+		}
+	}
+
+	@Test
+	public void addRemoveConcurrent() {
+		for (int i = 0; i < 500; i++) {
+			final FakeDisposable d1 = new FakeDisposable();
+			final FakeDisposable d2 = new FakeDisposable();
+			final Disposable.Composite cd = new ConcurrentCompositeDisposable();
+
+			RaceTestUtils.race(() -> {
+				cd.add(d1);
+				cd.remove(d1);
+			}, () -> {
+				cd.add(d2);
+				cd.remove(d2);
+			});
+
+			assertThat(cd.size()).isZero();
+		}
+	}
+
+	@Test
+	public void inners() {
+		FakeDisposable d1 = new FakeDisposable();
+		FakeDisposable d2 = new FakeDisposable();
+		ConcurrentCompositeDisposable composite = new ConcurrentCompositeDisposable();
+		composite.add(d1);
+		composite.add(d2);
+
+		final Stream<Scannable> inners = composite.inners().map(i -> (Scannable) i);
+
+		assertThat(inners).containsExactlyInAnyOrder(d1, d2);
+	}
+
+	@Test
+	public void scan() {
+		ConcurrentCompositeDisposable composite = new ConcurrentCompositeDisposable();
+
+		assertThat(composite.scan(Scannable.Attr.CANCELLED)).isFalse();
+
+		composite.dispose();
+
+		assertThat(composite.scan(Scannable.Attr.CANCELLED)).isTrue();
+	}
+
+	static int segments(ConcurrentCompositeDisposable cd) {
+		int n = 0;
+		for (ConcurrentCompositeDisposable.Segment s = cd.head; s != null; s = s.next) {
+			n++;
+		}
+		return n;
+	}
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.concurrent.WaitStrategy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class EventLoopSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newEventLoop("EventLoopSchedulerTest", 4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeParallelism() {
+		Schedulers.newEventLoop("test", -1);
+	}
+
+	@Test
+	public void workerKeepsFifoOrder() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker w = afterTest.autoDispose(s.createWorker());
+		List<Integer> seen = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1000);
+
+		for (int i = 0; i < 1000; i++) {
+			int value = i;
+			w.schedule(() -> {
+				//ArrayList is fine since a worker never runs two tasks concurrently
+				seen.add(value);
+				latch.countDown();
+			});
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).as("latch").isTrue();
+		assertThat(seen).hasSize(1000)
+		                .isSorted();
+	}
+
+	@Test
+	public void eachEventLoopGetsItsOwnWaitStrategy() {
+		List<WaitStrategy> created = new ArrayList<>();
+		Scheduler s = afterTest.autoDispose(Schedulers.newEventLoop("ownWaitStrategy", 3, () -> {
+			WaitStrategy strategy = WaitStrategy.liteBlocking();
+			created.add(strategy);
+			return strategy;
+		}));
+
+		assertThat(Scannable.from(s).inners()).hasSize(3);
+		assertThat(created).hasSize(3)
+		                   .doesNotHaveDuplicates();
+	}
+
+	@Test
+	public void eachWaitStrategyWakesUpAndTerminates() throws InterruptedException {
+		List<Supplier<WaitStrategy>> strategies = Arrays.asList(
+				WaitStrategy::blocking,
+				WaitStrategy::liteBlocking,
+				WaitStrategy::busySpin,
+				WaitStrategy::yielding,
+				WaitStrategy::parking,
+				WaitStrategy::sleeping,
+				() -> WaitStrategy.phasedOffLiteLock(1, 1, TimeUnit.MILLISECONDS)
+		);
+		for (Supplier<WaitStrategy> strategy : strategies) {
+			String name = "waitStrategy" + strategy.get().getClass().getSimpleName();
+			Scheduler s = Schedulers.newEventLoop(name, 2, strategy);
+			try {
+				for (int round = 0; round < 3; round++) {
+					//let the event loops go idle before each round
+					Thread.sleep(20);
+					assertThat(Mono.just(round)
+					               .publishOn(s)
+					               .block(Duration.ofSeconds(2)))
+							.as(name + " round " + round)
+							.isEqualTo(round);
+				}
+			}
+			finally {
+				s.dispose();
+			}
+
+			Thread.sleep(100);
+			assertThat(Thread.getAllStackTraces().keySet())
+					.as(name + " threads terminated")
+					.noneMatch(t -> t.getName().startsWith(name) && t.isAlive());
+		}
+	}
+
+	@Test
+	public void rejectsAfterDispose() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker w = s.createWorker();
+		s.dispose();
+
+		assertThat(s.isDisposed()).isTrue();
+		assertThatExceptionOfType(RejectedExecutionException.class)
+				.isThrownBy(() -> w.schedule(() -> { }));
+	}
+
+	@Test
+	public void smokeTestDelay() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		StepVerifier.create(Mono.delay(Duration.ofMillis(100), s))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(90))
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(100))
+		            .expectNext(0L)
+		            .expectNoEvent(Duration.ofMillis(200))
+		            .expectNext(1L)
+		            .expectNoEvent(Duration.ofMillis(200))
+		            .expectNext(2L)
+		            .thenCancel()
+		            .verify();
+	}
+
+	@Test
+	public void instantPeriodicStopsOnDispose() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker w = afterTest.autoDispose(s.createWorker());
+		AtomicInteger count = new AtomicInteger();
+
+		Disposable d = w.schedulePeriodically(count::incrementAndGet, 0, 0, TimeUnit.MILLISECONDS);
+		Thread.sleep(50);
+		d.dispose();
+		Thread.sleep(10);
+		int afterDispose = count.get();
+		Thread.sleep(50);
+
+		assertThat(afterDispose).isPositive();
+		assertThat(count).hasValue(afterDispose);
+	}
+
+	@Test
+	public void restartAfterDispose() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		s.dispose();
+		assertThat(s.isDisposed()).isTrue();
+
+		s.start();
+
+		assertThat(s.isDisposed()).isFalse();
+		assertThat(Mono.just("foo").publishOn(s).block(Duration.ofSeconds(1))).isEqualTo("foo");
+	}
+
+	@Test
+	public void scanName() {
+		Scheduler withNamedFactory = afterTest.autoDispose(Schedulers.newEventLoop("scanName", 3));
+		Scheduler withBasicFactory = afterTest.autoDispose(Schedulers.newEventLoop(3, Thread::new, WaitStrategy::liteBlocking));
+		Scheduler.Worker worker = afterTest.autoDispose(withNamedFactory.createWorker());
+
+		assertThat(Scannable.from(withNamedFactory).scan(Scannable.Attr.NAME))
+				.as("withNamedFactory")
+				.isEqualTo("eventLoop(3,\"scanName\")");
+
+		assertThat(Scannable.from(withBasicFactory).scan(Scannable.Attr.NAME))
+				.as("withBasicFactory")
+				.isEqualTo("eventLoop(3)");
+
+		assertThat(Scannable.from(worker).scan(Scannable.Attr.NAME))
+				.as("worker")
+				.isEqualTo("eventLoop(3,\"scanName\").worker");
+
+		assertThat(Scannable.from(withNamedFactory).inners())
+				.extracting(loop -> loop.scan(Scannable.Attr.NAME))
+				.containsExactly("eventLoop(3,\"scanName\").loop0",
+						"eventLoop(3,\"scanName\").loop1",
+						"eventLoop(3,\"scanName\").loop2");
+	}
+
+	@Test
+	public void scanCapacity() {
+		Scheduler scheduler = afterTest.autoDispose(Schedulers.newEventLoop(12, Thread::new, WaitStrategy::liteBlocking));
+
+		assertThat(Scannable.from(scheduler).scan(Scannable.Attr.CAPACITY)).isEqualTo(12);
+	}
+}
@@ -19,9 +19,11 @@ import java.time.Duration;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.awaitility.Awaitility;
 import org.junit.Test;
 import reactor.core.Scannable;
 import reactor.core.publisher.Flux;
@@ -29,6 +31,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 
 /**
  * @author Stephane Maldini
@@ -197,4 +200,70 @@ public class ParallelSchedulerTest extends AbstractSchedulerTest {
 			scheduler.dispose();
 		}
 	}
+
+	@Test
+	public void scanTaskMetrics() throws InterruptedException {
+		Scheduler scheduler = Schedulers.newParallel(2, Thread::new);
+
+		try {
+			CountDownLatch latch = new CountDownLatch(10);
+			for (int i = 0; i < 10; i++) {
+				scheduler.schedule(latch::countDown);
+			}
+			assertThat(latch.await(1, TimeUnit.SECONDS)).as("tasks ran").isTrue();
+
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> {
+				TaskMetrics metrics = Scannable.from(scheduler).scan(Scannable.Attr.TASK_METRICS);
+				assertThat(metrics).isNotNull();
+				assertThat(metrics.completed()).as("completed").isEqualTo(10);
+				assertThat(metrics.queued()).as("queued").isZero();
+				assertThat(metrics.rejected()).as("rejected").isZero();
+				assertThat(metrics.latency().count()).as("latency count").isEqualTo(10);
+				assertThat(metrics.executionTime().count()).as("executionTime count").isEqualTo(10);
+			});
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void createWorkerWithAffinityPinsThread() throws InterruptedException {
+		Scheduler scheduler = Schedulers.newParallel("affinity", 3);
+
+		try {
+			String[] threads = new String[7];
+			CountDownLatch latch = new CountDownLatch(threads.length);
+			for (int i = 0; i < threads.length; i++) {
+				int index = i;
+				Scheduler.Worker worker = scheduler.createWorker(i);
+				worker.schedule(() -> {
+					threads[index] = Thread.currentThread().getName();
+					worker.dispose();
+					latch.countDown();
+				});
+			}
+			assertThat(latch.await(1, TimeUnit.SECONDS)).as("tasks ran").isTrue();
+
+			assertThat(threads[0]).isEqualTo(threads[3]).isEqualTo(threads[6]);
+			assertThat(threads[1]).isEqualTo(threads[4]);
+			assertThat(threads[2]).isEqualTo(threads[5]);
+			assertThat(threads[0]).isNotEqualTo(threads[1]).isNotEqualTo(threads[2]);
+			assertThat(threads[1]).isNotEqualTo(threads[2]);
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void createWorkerWithAffinityAfterDisposeIsRejected() {
+		Scheduler scheduler = Schedulers.newParallel("affinityDisposed", 3);
+		scheduler.dispose();
+
+		Scheduler.Worker worker = scheduler.createWorker(1);
+
+		assertThatExceptionOfType(RejectedExecutionException.class)
+				.isThrownBy(() -> worker.schedule(() -> { }));
+	}
 }
@@ -22,8 +22,10 @@ import java.time.Duration;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
+import org.awaitility.Awaitility;
 import org.junit.*;
 
+import reactor.core.Disposable;
 import reactor.core.Scannable;
 import reactor.core.publisher.*;
 import reactor.core.scheduler.Scheduler.Worker;
@@ -183,4 +185,62 @@ public class SingleSchedulerTest extends AbstractSchedulerTest {
 			scheduler.dispose();
 		}
 	}
+
+	@Test
+	public void scanTaskMetrics() throws InterruptedException {
+		Scheduler scheduler = Schedulers.newSingle(Thread::new);
+
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			scheduler.schedule(() -> {
+				try {
+					Thread.sleep(10);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				latch.countDown();
+			});
+			scheduler.schedule(() -> {}, 1, TimeUnit.HOURS);
+			assertThat(latch.await(1, TimeUnit.SECONDS)).as("task ran").isTrue();
+
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> {
+				TaskMetrics metrics = Scannable.from(scheduler).scan(Scannable.Attr.TASK_METRICS);
+				assertThat(metrics).isNotNull();
+				assertThat(metrics.completed()).as("completed").isEqualTo(1);
+				assertThat(metrics.queued()).as("queued delayed task").isEqualTo(1);
+				assertThat(metrics.executionTime().maxNanos()).as("executionTime max")
+				                                             .isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(10));
+			});
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
+
+	@Test
+	public void scanTaskMetricsRecordsWheelTasksButNotTicks() throws InterruptedException {
+		Scheduler scheduler = Schedulers.newSingle(Thread::new);
+
+		try {
+			CountDownLatch latch = new CountDownLatch(1);
+			scheduler.schedule(latch::countDown, 50, TimeUnit.MILLISECONDS);
+			Disposable cancelled = scheduler.schedule(() -> {}, 100, TimeUnit.MILLISECONDS);
+
+			assertThat(Scannable.from(scheduler).scan(Scannable.Attr.TASK_METRICS).queued())
+					.as("queued in the wheel").isEqualTo(2);
+			cancelled.dispose();
+			assertThat(latch.await(1, TimeUnit.SECONDS)).as("task ran").isTrue();
+
+			Awaitility.await().atMost(1, TimeUnit.SECONDS).untilAsserted(() -> {
+				TaskMetrics metrics = Scannable.from(scheduler).scan(Scannable.Attr.TASK_METRICS);
+				assertThat(metrics.completed()).as("completed").isEqualTo(1);
+				assertThat(metrics.queued()).as("queued").isZero();
+				assertThat(metrics.latency().count()).as("latency count").isEqualTo(1);
+			});
+		}
+		finally {
+			scheduler.dispose();
+		}
+	}
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+public class TaskMetricsTest {
+
+	@Test
+	public void bucketOf() {
+		assertThat(TaskMetrics.Histogram.bucketOf(-1L)).isZero();
+		assertThat(TaskMetrics.Histogram.bucketOf(0L)).isZero();
+		assertThat(TaskMetrics.Histogram.bucketOf(1L)).isEqualTo(1);
+		assertThat(TaskMetrics.Histogram.bucketOf(2L)).isEqualTo(2);
+		assertThat(TaskMetrics.Histogram.bucketOf(3L)).isEqualTo(2);
+		assertThat(TaskMetrics.Histogram.bucketOf(1024L)).isEqualTo(11);
+		assertThat(TaskMetrics.Histogram.bucketOf(Long.MAX_VALUE)).isEqualTo(63);
+	}
+
+	@Test
+	public void bucketUpperBound() {
+		assertThat(TaskMetrics.Histogram.bucketUpperBoundNanos(0)).isZero();
+		assertThat(TaskMetrics.Histogram.bucketUpperBoundNanos(2)).isEqualTo(3L);
+		assertThat(TaskMetrics.Histogram.bucketUpperBoundNanos(11)).isEqualTo(2047L);
+		assertThat(TaskMetrics.Histogram.bucketUpperBoundNanos(63)).isEqualTo(Long.MAX_VALUE);
+	}
+
+	@Test
+	public void recordAndSnapshot() {
+		TaskMetricsRecorder.HistogramRecorder recorder = new TaskMetricsRecorder.HistogramRecorder();
+		for (int i = 0; i < 99; i++) {
+			recorder.record(100L);
+		}
+		recorder.record(5000L);
+		recorder.record(-10L);
+
+		TaskMetrics.Histogram histogram = recorder.snapshot();
+
+		assertThat(histogram.count()).isEqualTo(101L);
+		assertThat(histogram.bucketCount(0)).as("negative clamped to 0").isEqualTo(1L);
+		assertThat(histogram.bucketCount(7)).isEqualTo(99L);
+		assertThat(histogram.totalNanos()).isEqualTo(99L * 100L + 5000L);
+		assertThat(histogram.maxNanos()).isEqualTo(5000L);
+		assertThat(histogram.percentileNanos(0.5d)).isEqualTo(127L);
+		assertThat(histogram.percentileNanos(1d)).as("capped by max").isEqualTo(5000L);
+	}
+
+	@Test
+	public void percentileOfEmptyHistogram() {
+		assertThat(new TaskMetricsRecorder.HistogramRecorder().snapshot().percentileNanos(0.99d)).isZero();
+	}
+
+	@Test
+	public void percentileRejectsInvalidRatio() {
+		TaskMetrics.Histogram histogram = new TaskMetricsRecorder.HistogramRecorder().snapshot();
+		assertThatIllegalArgumentException().isThrownBy(() -> histogram.percentileNanos(1.5d));
+	}
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TimerWheelTest {
+
+	ScheduledThreadPoolExecutor executor;
+	TimerWheel                  timer;
+
+	@Before
+	public void setUp() {
+		executor = new ScheduledThreadPoolExecutor(1);
+		executor.setRemoveOnCancelPolicy(true);
+		timer = new TimerWheel(executor);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void neverRunsBeforeDeadline() throws InterruptedException {
+		int n = 200;
+		CountDownLatch latch = new CountDownLatch(n);
+		AtomicInteger early = new AtomicInteger();
+
+		for (int i = 0; i < n; i++) {
+			long delay = 1 + (i * 7) % 150;
+			long start = System.nanoTime();
+			timer.schedule(() -> {
+				if (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(delay)) {
+					early.incrementAndGet();
+				}
+				latch.countDown();
+				return null;
+			}, delay, TimeUnit.MILLISECONDS);
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).as("all tasks ran").isTrue();
+		assertThat(early).hasValue(0);
+	}
+
+	@Test
+	public void delaysLongerThanOneRevolution() throws InterruptedException {
+		long delay = TimeUnit.NANOSECONDS.toMillis(TimerWheel.TICK_NANOS * TimerWheel.WHEEL_SIZE) + 100;
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicLong elapsed = new AtomicLong();
+		long start = System.nanoTime();
+
+		timer.schedule(() -> {
+			elapsed.set(System.nanoTime() - start);
+			latch.countDown();
+			return null;
+		}, delay, TimeUnit.MILLISECONDS);
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).as("latch").isTrue();
+		assertThat(elapsed.get()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(delay));
+	}
+
+	@Test
+	public void runsOnTheExecutorThread() throws Exception {
+		Thread executorThread = executor.submit(Thread::currentThread)
+		                                .get(1, TimeUnit.SECONDS);
+		AtomicBoolean sameThread = new AtomicBoolean();
+		CountDownLatch latch = new CountDownLatch(1);
+
+		timer.schedule(() -> {
+			sameThread.set(Thread.currentThread() == executorThread);
+			latch.countDown();
+			return null;
+		}, 10, TimeUnit.MILLISECONDS);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).as("latch").isTrue();
+		assertThat(sameThread).isTrue();
+	}
+
+	@Test
+	public void cancelledTasksDoNotRunAndAreUnlinked() throws Exception {
+		AtomicInteger count = new AtomicInteger();
+		Future<?>[] futures = new Future[1000];
+		for (int i = 0; i < futures.length; i++) {
+			futures[i] = timer.schedule(count::incrementAndGet, 200, TimeUnit.MILLISECONDS);
+		}
+		for (Future<?> f : futures) {
+			assertThat(f.cancel(false)).isTrue();
+			assertThat(f.isCancelled()).isTrue();
+		}
+
+		//wait for the purge tick to unlink the cancelled tasks
+		Thread.sleep(TimeUnit.NANOSECONDS.toMillis(TimerWheel.TICK_NANOS * TimerWheel.PURGE_TICKS) + 50);
+		assertThat(executor.submit(() -> timer.size).get(1, TimeUnit.SECONDS)).isZero();
+
+		Thread.sleep(300);
+		assertThat(count).hasValue(0);
+	}
+
+	@Test
+	public void cancelRunningTaskInterruptsOnlyThatTask() throws InterruptedException {
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Future<?> f = timer.schedule(() -> {
+			running.countDown();
+			try {
+				Thread.sleep(5000);
+			}
+			catch (InterruptedException e) {
+				interrupted.countDown();
+			}
+			return null;
+		}, 10, TimeUnit.MILLISECONDS);
+
+		assertThat(running.await(1, TimeUnit.SECONDS)).as("running").isTrue();
+		f.cancel(true);
+		assertThat(interrupted.await(1, TimeUnit.SECONDS)).as("interrupted").isTrue();
+
+		AtomicBoolean nextInterrupted = new AtomicBoolean(true);
+		CountDownLatch next = new CountDownLatch(1);
+		timer.schedule(() -> {
+			nextInterrupted.set(Thread.currentThread().isInterrupted());
+			next.countDown();
+			return null;
+		}, 5, TimeUnit.MILLISECONDS);
+
+		assertThat(next.await(1, TimeUnit.SECONDS)).as("next").isTrue();
+		assertThat(nextInterrupted).isFalse();
+	}
+
+	@Test
+	public void tickStopsWhenIdle() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		timer.schedule(() -> {
+			latch.countDown();
+			return null;
+		}, 5, TimeUnit.MILLISECONDS);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).as("latch").isTrue();
+		Thread.sleep(20);
+		assertThat(timer.next).isNull();
+		assertThat(executor.getQueue()).isEmpty();
+	}
+
+	@Test
+	public void ticksOnlyWhenTasksAreDue() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		timer.schedule(() -> {
+			latch.countDown();
+			return null;
+		}, 200, TimeUnit.MILLISECONDS);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).as("latch").isTrue();
+		//a tick every millisecond would have completed about 200 ticks
+		assertThat(executor.getCompletedTaskCount()).isLessThan(10);
+	}
+
+	@Test
+	public void earlierTaskScheduledAfterLaterOne() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(1);
+		AtomicLong elapsed = new AtomicLong();
+		long start = System.nanoTime();
+		timer.schedule(() -> null, 500, TimeUnit.MILLISECONDS);
+		timer.schedule(() -> {
+			elapsed.set(System.nanoTime() - start);
+			latch.countDown();
+			return null;
+		}, 10, TimeUnit.MILLISECONDS);
+
+		assertThat(latch.await(1, TimeUnit.SECONDS)).as("latch").isTrue();
+		assertThat(elapsed.get()).isLessThan(TimeUnit.MILLISECONDS.toNanos(400));
+	}
+
+	@Test
+	public void getWaitsForTheResult() throws Exception {
+		Future<?> f = timer.schedule(() -> "done", 10, TimeUnit.MILLISECONDS);
+
+		assertThat(f.get()).isEqualTo("done");
+		assertThat(f.isDone()).isTrue();
+		assertThat(timer.schedule(() -> "timed", 10, TimeUnit.MILLISECONDS)
+		                .get(1, TimeUnit.SECONDS)).isEqualTo("timed");
+	}
+
+	@Test
+	public void getReportsFailureCancellationAndTimeout() {
+		Future<?> failing = timer.schedule(() -> {
+			throw new IllegalStateException("boom");
+		}, 10, TimeUnit.MILLISECONDS);
+		assertThatExceptionOfType(ExecutionException.class)
+				.isThrownBy(failing::get)
+				.withCauseInstanceOf(IllegalStateException.class);
+
+		Future<?> cancelled = timer.schedule(() -> null, 1, TimeUnit.SECONDS);
+		cancelled.cancel(false);
+		assertThatExceptionOfType(CancellationException.class)
+				.isThrownBy(cancelled::get);
+
+		Future<?> late = timer.schedule(() -> null, 1, TimeUnit.SECONDS);
+		assertThatExceptionOfType(TimeoutException.class)
+				.isThrownBy(() -> late.get(10, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void rejectsWhenExecutorIsShutdown() {
+		executor.shutdownNow();
+
+		assertThatExceptionOfType(RejectedExecutionException.class)
+				.isThrownBy(() -> timer.schedule(() -> null, 100, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void parallelAndSingleSchedulersUseTheWheel() throws InterruptedException {
+		Scheduler parallel = Schedulers.newParallel("timerWheelParallel", 2);
+		Scheduler single = Schedulers.newSingle("timerWheelSingle");
+		try {
+			CountDownLatch latch = new CountDownLatch(4);
+			parallel.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+			parallel.createWorker().schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+			single.schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+			single.createWorker().schedule(latch::countDown, 20, TimeUnit.MILLISECONDS);
+
+			assertThat(latch.await(1, TimeUnit.SECONDS)).as("latch").isTrue();
+			assertThat(((ExecutorServiceWorker) parallel.createWorker()).timer).isNotNull();
+			assertThat(((ExecutorServiceWorker) single.createWorker()).timer).isNotNull();
+		}
+		finally {
+			parallel.dispose();
+			single.dispose();
+		}
+	}
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler.Worker;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class TrampolineSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.trampoline();
+	}
+
+	@Override
+	protected boolean shouldCheckDisposeTask() {
+		return false;
+	}
+
+	@Override
+	protected boolean shouldCheckMassWorkerDispose() {
+		return false;
+	}
+
+	@Override
+	protected boolean shouldCheckDirectTimeScheduling() {
+		return false;
+	}
+
+	@Override
+	protected boolean shouldCheckWorkerTimeScheduling() {
+		return false;
+	}
+
+	@Test
+	public void directAndWorkerTimeSchedulingRejected() {
+		Scheduler scheduler = scheduler();
+		Worker worker = scheduler.createWorker();
+		try {
+			assertThatExceptionOfType(RejectedExecutionException.class)
+					.isThrownBy(() -> scheduler.schedule(() -> { }, 100, TimeUnit.MILLISECONDS))
+					.isSameAs(Exceptions.failWithRejectedNotTimeCapable());
+			assertThatExceptionOfType(RejectedExecutionException.class)
+					.isThrownBy(() -> worker.schedulePeriodically(() -> { }, 100, 100, TimeUnit.MILLISECONDS))
+					.isSameAs(Exceptions.failWithRejectedNotTimeCapable());
+		}
+		finally {
+			worker.dispose();
+		}
+	}
+
+	@Test
+	public void recursiveSchedulingDoesNotGrowTheStack() {
+		Worker worker = Schedulers.trampoline().createWorker();
+		AtomicInteger count = new AtomicInteger();
+		Runnable[] task = new Runnable[1];
+		task[0] = () -> {
+			if (count.incrementAndGet() < 1_000_000) {
+				worker.schedule(task[0]);
+			}
+		};
+
+		try {
+			worker.schedule(task[0]);
+			assertThat(count).hasValue(1_000_000);
+		}
+		finally {
+			worker.dispose();
+		}
+	}
+
+	@Test
+	public void reentrantTasksRunInFifoOrderAfterTheOutermostTask() {
+		Scheduler scheduler = Schedulers.trampoline();
+		List<String> order = new ArrayList<>();
+
+		scheduler.schedule(() -> {
+			order.add("a");
+			scheduler.schedule(() -> {
+				order.add("c");
+				scheduler.schedule(() -> order.add("e"));
+			});
+			scheduler.schedule(() -> order.add("d"));
+			order.add("b");
+		});
+
+		assertThat(order).containsExactly("a", "b", "c", "d", "e");
+	}
+
+	@Test
+	public void disposedTrampolinedTaskIsSkipped() {
+		Scheduler scheduler = Schedulers.trampoline();
+		AtomicInteger count = new AtomicInteger();
+
+		scheduler.schedule(() -> {
+			Disposable d = scheduler.schedule(count::incrementAndGet);
+			assertThat(d.isDisposed()).isFalse();
+			d.dispose();
+			scheduler.schedule(count::incrementAndGet);
+		});
+
+		assertThat(count).hasValue(1);
+	}
+
+	@Test
+	public void disposedWorkerSkipsItsTrampolinedTasks() {
+		Worker worker = Schedulers.trampoline().createWorker();
+		AtomicInteger count = new AtomicInteger();
+
+		worker.schedule(() -> {
+			worker.schedule(count::incrementAndGet);
+			worker.dispose();
+		});
+
+		assertThat(count).hasValue(0);
+	}
+
+	@Test
+	public void outermostErrorPropagatesAfterDrain() {
+		Scheduler scheduler = Schedulers.trampoline();
+		AtomicInteger count = new AtomicInteger();
+
+		assertThatExceptionOfType(IllegalStateException.class).isThrownBy(() ->
+				scheduler.schedule(() -> {
+					scheduler.schedule(count::incrementAndGet);
+					throw new IllegalStateException("boom");
+				}));
+
+		assertThat(count).hasValue(1);
+		//the queue is usable again
+		scheduler.schedule(count::incrementAndGet);
+		assertThat(count).hasValue(2);
+	}
+
+	@Test
+	public void trampolinedErrorIsHandled() {
+		AtomicReference<Throwable> handled = new AtomicReference<>();
+		Schedulers.onHandleError((t, e) -> handled.set(e));
+		try {
+			Scheduler scheduler = Schedulers.trampoline();
+			AtomicInteger count = new AtomicInteger();
+
+			scheduler.schedule(() -> {
+				scheduler.schedule(() -> {
+					throw new IllegalStateException("boom");
+				});
+				scheduler.schedule(count::incrementAndGet);
+			});
+
+			assertThat(handled.get()).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+			assertThat(count).hasValue(1);
+		}
+		finally {
+			Schedulers.resetOnHandleError();
+		}
+	}
+
+	@Test
+	public void publishOnAndSubscribeOnStayOnCurrentThread() {
+		Thread current = Thread.currentThread();
+
+		StepVerifier.create(Flux.range(1, 100_000)
+		                        .subscribeOn(Schedulers.trampoline())
+		                        .publishOn(Schedulers.trampoline())
+		                        .filter(i -> Thread.currentThread() != current)
+		                        .count())
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void scanScheduler() {
+		TrampolineScheduler s = (TrampolineScheduler) Schedulers.trampoline();
+
+		assertThat(s.scan(Scannable.Attr.NAME)).isEqualTo(Schedulers.TRAMPOLINE);
+	}
+
+	@Test
+	public void scanWorker() {
+		Worker worker = Schedulers.trampoline().createWorker();
+		Scannable s = (Scannable) worker;
+
+		assertThat(s.scan(Scannable.Attr.TERMINATED)).isFalse();
+		assertThat(s.scan(Scannable.Attr.CANCELLED)).isFalse();
+		assertThat(s.scan(Scannable.Attr.NAME)).isEqualTo(Schedulers.TRAMPOLINE + ".worker");
+
+		worker.dispose();
+		assertThat(s.scan(Scannable.Attr.TERMINATED)).isTrue();
+		assertThat(s.scan(Scannable.Attr.CANCELLED)).isTrue();
+	}
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VirtualThreadElasticSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		//platform threads stand in for virtual threads so that this runs on any JDK
+		return new VirtualThreadElasticScheduler("VirtualThreadElasticSchedulerTest", Thread::new);
+	}
+
+	@Test
+	public void fallsBackToBoundedElasticWhenUnsupported() {
+		Scheduler s = afterTest.autoDispose(Schedulers.newVirtualThreadElastic("fallback"));
+
+		if (VirtualThreadElasticScheduler.SUPPORTED) {
+			assertThat(s).isInstanceOf(VirtualThreadElasticScheduler.class);
+			assertThat(s.toString()).isEqualTo("virtualThreadElastic(\"fallback\")");
+		}
+		else {
+			assertThat(s).isInstanceOf(BoundedElasticScheduler.class);
+			assertThat(s.toString()).startsWith("boundedElastic(\"fallback\"");
+		}
+	}
+
+	@Test
+	public void workerKeepsFifoOrder() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker w = afterTest.autoDispose(s.createWorker());
+		List<Integer> seen = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1000);
+
+		for (int i = 0; i < 1000; i++) {
+			int value = i;
+			w.schedule(() -> {
+				//ArrayList is fine since a worker never runs two tasks concurrently
+				seen.add(value);
+				latch.countDown();
+			});
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).as("latch").isTrue();
+		assertThat(seen).hasSize(1000)
+		                .isSorted();
+	}
+
+	@Test
+	public void blockingWorkersDoNotStarveEachOther() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		int workers = 50;
+		CountDownLatch allBlocked = new CountDownLatch(workers);
+		CountDownLatch release = new CountDownLatch(1);
+
+		for (int i = 0; i < workers; i++) {
+			afterTest.autoDispose(s.createWorker()).schedule(() -> {
+				allBlocked.countDown();
+				try {
+					release.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			});
+		}
+
+		try {
+			assertThat(allBlocked.await(5, TimeUnit.SECONDS))
+					.as("all workers blocking at the same time")
+					.isTrue();
+		}
+		finally {
+			release.countDown();
+		}
+	}
+
+	@Test
+	public void smokeTestDelay() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		StepVerifier.create(Mono.delay(Duration.ofMillis(100), s))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(90))
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(100))
+		            .expectNext(0L)
+		            .expectNoEvent(Duration.ofMillis(200))
+		            .expectNext(1L)
+		            .expectNoEvent(Duration.ofMillis(200))
+		            .expectNext(2L)
+		            .thenCancel()
+		            .verify();
+	}
+
+	@Test
+	public void instantPeriodicStopsOnDispose() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker w = afterTest.autoDispose(s.createWorker());
+		AtomicInteger count = new AtomicInteger();
+
+		Disposable d = w.schedulePeriodically(count::incrementAndGet, 0, 0, TimeUnit.MILLISECONDS);
+		Thread.sleep(50);
+		d.dispose();
+		Thread.sleep(10);
+		int afterDispose = count.get();
+		Thread.sleep(50);
+
+		assertThat(afterDispose).isPositive();
+		assertThat(count).hasValue(afterDispose);
+	}
+
+	@Test
+	public void scanName() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker worker = afterTest.autoDispose(s.createWorker());
+
+		assertThat(Scannable.from(s).scan(Scannable.Attr.NAME))
+				.isEqualTo("virtualThreadElastic(\"VirtualThreadElasticSchedulerTest\")");
+		assertThat(Scannable.from(worker).scan(Scannable.Attr.NAME))
+				.isEqualTo("virtualThreadElastic(\"VirtualThreadElasticSchedulerTest\").worker");
+		assertThat(Scannable.from(s).inners()).containsExactly((Scannable) worker);
+	}
+
+	@Test
+	public void scanCapacity() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		assertThat(Scannable.from(s).scan(Scannable.Attr.CAPACITY)).isEqualTo(Integer.MAX_VALUE);
+	}
+}
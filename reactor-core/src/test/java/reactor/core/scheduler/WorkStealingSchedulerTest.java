@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.core.scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import reactor.core.Disposable;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkStealingSchedulerTest extends AbstractSchedulerTest {
+
+	@Override
+	protected Scheduler scheduler() {
+		return Schedulers.newWorkStealing("WorkStealingSchedulerTest");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeParallelism() {
+		Schedulers.newWorkStealing("test", -1);
+	}
+
+	@Test
+	public void workerKeepsFifoOrder() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(Schedulers.newWorkStealing("workerKeepsFifoOrder", 4));
+		Scheduler.Worker w = afterTest.autoDispose(s.createWorker());
+		List<Integer> seen = new ArrayList<>();
+		CountDownLatch latch = new CountDownLatch(1000);
+
+		for (int i = 0; i < 1000; i++) {
+			int value = i;
+			w.schedule(() -> {
+				//ArrayList is fine since a worker never runs two tasks concurrently
+				seen.add(value);
+				latch.countDown();
+			});
+		}
+
+		assertThat(latch.await(5, TimeUnit.SECONDS)).as("latch").isTrue();
+		assertThat(seen).hasSize(1000)
+		                .isSorted();
+	}
+
+	@Test
+	public void idleLaneStealsPendingWorkers() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(Schedulers.newWorkStealing("idleLaneSteals", 2));
+		//both workers are assigned to the first lane
+		Scheduler.Worker first = afterTest.autoDispose(s.createWorker());
+		s.createWorker().dispose();
+		Scheduler.Worker second = afterTest.autoDispose(s.createWorker());
+
+		CountDownLatch blockFirst = new CountDownLatch(1);
+		CountDownLatch secondDone = new CountDownLatch(1);
+		first.schedule(() -> {
+			try {
+				blockFirst.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		second.schedule(secondDone::countDown);
+
+		try {
+			assertThat(secondDone.await(2, TimeUnit.SECONDS))
+					.as("second worker stolen while first lane is blocked")
+					.isTrue();
+		}
+		finally {
+			blockFirst.countDown();
+		}
+	}
+
+	@Test
+	public void skewedRailsAreSpreadAcrossThreads() {
+		Scheduler s = afterTest.autoDispose(Schedulers.newWorkStealing("skewedRails", 4));
+		Set<String> heavyThreads = ConcurrentHashMap.newKeySet();
+
+		Flux.range(0, 160)
+		    .parallel(16)
+		    .runOn(s)
+		    .doOnNext(i -> {
+			    if (i % 4 == 0) {
+				    heavyThreads.add(Thread.currentThread().getName());
+				    try {
+					    Thread.sleep(1);
+				    }
+				    catch (InterruptedException e) {
+					    Thread.currentThread().interrupt();
+				    }
+			    }
+		    })
+		    .sequential()
+		    .blockLast(Duration.ofSeconds(10));
+
+		assertThat(heavyThreads).as("threads running the heavy rails").hasSizeGreaterThan(1);
+	}
+
+	@Test
+	public void smokeTestDelay() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		StepVerifier.create(Mono.delay(Duration.ofMillis(100), s))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(90))
+		            .expectNext(0L)
+		            .verifyComplete();
+	}
+
+	@Test
+	public void smokeTestInterval() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+
+		StepVerifier.create(Flux.interval(Duration.ofMillis(100), Duration.ofMillis(200), s))
+		            .expectSubscription()
+		            .expectNoEvent(Duration.ofMillis(100))
+		            .expectNext(0L)
+		            .expectNoEvent(Duration.ofMillis(200))
+		            .expectNext(1L)
+		            .expectNoEvent(Duration.ofMillis(200))
+		            .expectNext(2L)
+		            .thenCancel()
+		            .verify();
+	}
+
+	@Test
+	public void instantPeriodicStopsOnDispose() throws InterruptedException {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		Scheduler.Worker w = afterTest.autoDispose(s.createWorker());
+		AtomicInteger count = new AtomicInteger();
+
+		Disposable d = w.schedulePeriodically(count::incrementAndGet, 0, 0, TimeUnit.MILLISECONDS);
+		Thread.sleep(50);
+		d.dispose();
+		Thread.sleep(10);
+		int afterDispose = count.get();
+		Thread.sleep(50);
+
+		assertThat(afterDispose).isPositive();
+		assertThat(count).hasValue(afterDispose);
+	}
+
+	@Test
+	public void restartAfterDispose() {
+		Scheduler s = afterTest.autoDispose(scheduler());
+		s.dispose();
+		assertThat(s.isDisposed()).isTrue();
+
+		s.start();
+
+		assertThat(s.isDisposed()).isFalse();
+		assertThat(Mono.just("foo").publishOn(s).block(Duration.ofSeconds(1))).isEqualTo("foo");
+	}
+
+	@Test
+	public void scanName() {
+		Scheduler withNamedFactory = afterTest.autoDispose(Schedulers.newWorkStealing("scanName", 3));
+		Scheduler withBasicFactory = afterTest.autoDispose(Schedulers.newWorkStealing(3, Thread::new));
+		Scheduler.Worker worker = afterTest.autoDispose(withNamedFactory.createWorker());
+
+		assertThat(Scannable.from(withNamedFactory).scan(Scannable.Attr.NAME))
+				.as("withNamedFactory")
+				.isEqualTo("workStealing(3,\"scanName\")");
+
+		assertThat(Scannable.from(withBasicFactory).scan(Scannable.Attr.NAME))
+				.as("withBasicFactory")
+				.isEqualTo("workStealing(3)");
+
+		assertThat(Scannable.from(worker).scan(Scannable.Attr.NAME))
+				.as("worker")
+				.isEqualTo("workStealing(3,\"scanName\").worker");
+
+		assertThat(Scannable.from(withNamedFactory).inners())
+				.extracting(lane -> lane.scan(Scannable.Attr.NAME))
+				.containsExactly("workStealing(3,\"scanName\").lane0",
+						"workStealing(3,\"scanName\").lane1",
+						"workStealing(3,\"scanName\").lane2");
+	}
+
+	@Test
+	public void scanCapacity() {
+		Scheduler scheduler = afterTest.autoDispose(Schedulers.newWorkStealing(12, Thread::new));
+
+		assertThat(Scannable.from(scheduler).scan(Scannable.Attr.CAPACITY)).isEqualTo(12);
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpmcArrayQueueTest {
+
+	@Test
+	public void mpmcAPI() {
+		assertThat(Queues.mpmc(10).get()).isInstanceOf(MpmcArrayQueue.class);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void shouldRejectNullableValues() {
+		MpmcArrayQueue<Object> q = new MpmcArrayQueue<>(8);
+		q.offer(null);
+	}
+
+	@Test
+	public void capacityIsRoundedUpAndEnforced() {
+		MpmcArrayQueue<Integer> q = new MpmcArrayQueue<>(1);
+
+		assertThat(q.offer(1)).isTrue();
+		assertThat(q.offer(2)).isTrue();
+		assertThat(q.offer(3)).as("offer when full").isFalse();
+		assertThat(Queues.capacity(q)).isEqualTo(2);
+
+		assertThat(q.peek()).isEqualTo(1);
+		assertThat(q.poll()).isEqualTo(1);
+		assertThat(q.offer(3)).as("offer after poll").isTrue();
+		assertThat(q.poll()).isEqualTo(2);
+		assertThat(q.poll()).isEqualTo(3);
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void multiProducerOfferPollRace() throws Exception {
+		final Queue<Integer> q = new MpmcArrayQueue<>(64);
+		final int producers = 3;
+		final int perProducer = 100_000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			final int base = p * perProducer;
+			threads[p] = new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < perProducer; i++) {
+						while (!q.offer(base + i)) {
+							Thread.yield();
+						}
+					}
+				}
+				catch (Throwable e) {
+					error.set(e);
+				}
+			});
+			threads[p].start();
+		}
+		start.countDown();
+
+		int[] last = new int[producers];
+		Arrays.fill(last, -1);
+		int received = 0;
+		while (received < producers * perProducer) {
+			Integer v = q.poll();
+			if (v == null) {
+				Thread.yield();
+				continue;
+			}
+			int producer = v / perProducer;
+			int index = v % perProducer;
+			assertThat(index).as("FIFO order of producer %s", producer).isEqualTo(last[producer] + 1);
+			last[producer] = index;
+			received++;
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertThat(error.get()).isNull();
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void multiConsumerRace() throws Exception {
+		final MpmcArrayQueue<Integer> q = new MpmcArrayQueue<>(16);
+		final int n = 100_000;
+		final AtomicLong sum = new AtomicLong();
+		final AtomicLong count = new AtomicLong();
+
+		Thread producer = new Thread(() -> {
+			for (int i = 1; i <= n; i++) {
+				while (!q.offer(i)) {
+					Thread.yield();
+				}
+			}
+		});
+		Runnable consume = () -> {
+			while (count.get() < n) {
+				Integer v = q.poll();
+				if (v == null) {
+					Thread.yield();
+					continue;
+				}
+				sum.addAndGet(v);
+				count.incrementAndGet();
+			}
+		};
+		Thread consumer = new Thread(consume);
+		producer.start();
+		consumer.start();
+		consume.run();
+		producer.join();
+		consumer.join();
+
+		assertThat(count.get()).isEqualTo(n);
+		assertThat(sum.get()).isEqualTo(n * (n + 1L) / 2);
+	}
+}
@@ -1,5 +1,7 @@
 package reactor.util.concurrent;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
@@ -134,4 +136,34 @@ public class MpscLinkedQueueTest {
 		t2.join();
 	}
 
+	@Test
+	public void shouldDrainUpToLimit() {
+		MpscLinkedQueue<Integer> q = new MpscLinkedQueue<>();
+		q.test(0, 1);
+		q.test(2, 3);
+		List<Integer> drained = new ArrayList<>();
+
+		assertThat(q.drain(drained::add, 3)).isEqualTo(3);
+		assertThat(drained).containsExactly(0, 1, 2);
+		assertThat(q).hasSize(1);
+
+		assertThat(q.drain(drained::add, 10)).isEqualTo(1);
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.drain(drained::add, 10)).isZero();
+	}
+
+	@Test
+	public void shouldFillInOneSwap() {
+		MpscLinkedQueue<Integer> q = new MpscLinkedQueue<>();
+		AtomicInteger counter = new AtomicInteger();
+		q.offer(-1);
+
+		assertThat(q.fill(counter::getAndIncrement, 4)).isEqualTo(4);
+		assertThat(q.fill(counter::getAndIncrement, 0)).isZero();
+		assertThat(q).hasSize(5);
+
+		List<Integer> drained = new ArrayList<>();
+		q.drain(drained::add, Integer.MAX_VALUE);
+		assertThat(drained).containsExactly(-1, 0, 1, 2, 3);
+	}
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MpscUnboundedArrayQueueTest {
+
+	@Test
+	public void mpscUnboundedArrayAPI() {
+		assertThat(Queues.mpscUnboundedArray(10).get()).isInstanceOf(MpscUnboundedArrayQueue.class);
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void shouldRejectNullableValues() {
+		MpscUnboundedArrayQueue<Object> q = new MpscUnboundedArrayQueue<>(8);
+		q.offer(null);
+	}
+
+	@Test
+	public void shouldLinkChunks() {
+		MpscUnboundedArrayQueue<Integer> q = new MpscUnboundedArrayQueue<>(3);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(q.offer(i)).isTrue();
+		}
+		assertThat(q).hasSize(10);
+		assertThat(q.peek()).isEqualTo(0);
+		assertThat(Queues.capacity(q)).isEqualTo(Integer.MAX_VALUE);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(q.poll()).isEqualTo(i);
+			assertThat(q).hasSize(9 - i);
+		}
+		assertThat(q.poll()).isNull();
+		assertThat(q.peek()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+
+	@Test
+	public void shouldBeEmptyAtChunkBoundary() {
+		MpscUnboundedArrayQueue<Integer> q = new MpscUnboundedArrayQueue<>(2);
+		q.offer(1);
+		q.offer(2);
+		q.poll();
+		q.poll();
+
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.peek()).isNull();
+
+		q.offer(3);
+		assertThat(q.isEmpty()).isFalse();
+		assertThat(q.peek()).isEqualTo(3);
+		assertThat(q.poll()).isEqualTo(3);
+	}
+
+	@Test
+	public void shouldClearQueue() {
+		MpscUnboundedArrayQueue<Integer> q = new MpscUnboundedArrayQueue<>(2);
+		for (int i = 0; i < 5; i++) {
+			q.offer(i);
+		}
+
+		q.clear();
+
+		assertThat(q.isEmpty()).as("isEmpty() true").isTrue();
+		assertThat(q).hasSize(0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void shouldNotAllowElementsRemoving() {
+		MpscUnboundedArrayQueue<Object> q = new MpscUnboundedArrayQueue<>(8);
+
+		q.offer(1);
+		q.remove(1);
+	}
+
+	@Test
+	public void multiProducerOfferPollRace() throws Exception {
+		final Queue<Integer> q = new MpscUnboundedArrayQueue<>(16);
+		final int producers = 3;
+		final int perProducer = 100_000;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> error = new AtomicReference<>();
+		Thread[] threads = new Thread[producers];
+		for (int p = 0; p < producers; p++) {
+			final int base = p * perProducer;
+			threads[p] = new Thread(() -> {
+				try {
+					start.await();
+					for (int i = 0; i < perProducer; i++) {
+						while (!q.offer(base + i)) {
+							Thread.yield();
+						}
+					}
+				}
+				catch (Throwable e) {
+					error.set(e);
+				}
+			});
+			threads[p].start();
+		}
+		start.countDown();
+
+		int[] last = new int[producers];
+		Arrays.fill(last, -1);
+		int received = 0;
+		while (received < producers * perProducer) {
+			Integer v = q.poll();
+			if (v == null) {
+				Thread.yield();
+				continue;
+			}
+			int producer = v / perProducer;
+			int index = v % perProducer;
+			assertThat(index).as("FIFO order of producer %s", producer).isEqualTo(last[producer] + 1);
+			last[producer] = index;
+			received++;
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+
+		assertThat(error.get()).isNull();
+		assertThat(q.poll()).isNull();
+		assertThat(q.isEmpty()).isTrue();
+	}
+}
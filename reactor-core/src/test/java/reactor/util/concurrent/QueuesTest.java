@@ -81,6 +81,29 @@ public class QueuesTest {
 		assertThat(Queues.capacity(q)).isEqualTo(Integer.MAX_VALUE);
 	}
 
+	@Test
+	public void capacityUnboundedMpscArrayQueue() {
+		Queue q = Queues.mpscUnboundedArray(16).get();
+
+		assertThat(Queues.capacity(q)).isEqualTo(Integer.MAX_VALUE);
+	}
+
+	@Test
+	public void capacityBoundedMultiproducerQueues() {
+		assertThat(Queues.capacity(Queues.mpscArray(10).get())).isEqualTo(16);
+		assertThat(Queues.capacity(Queues.mpmc(10).get())).isEqualTo(16);
+	}
+
+	@Test
+	public void multiproducerQueuesRejectInvalidCapacity() {
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> Queues.mpscArray(0))
+		                                                         .withMessage("capacity > 0 required but it was 0");
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> Queues.mpmc(-1))
+		                                                         .withMessage("capacity > 0 required but it was -1");
+		assertThatExceptionOfType(IllegalArgumentException.class).isThrownBy(() -> Queues.mpscUnboundedArray(0))
+		                                                         .withMessage("chunkSize > 0 required but it was 0");
+	}
+
 	@Test
 	public void capacityOneQueue() {
 		Queue q = Queues.one().get();
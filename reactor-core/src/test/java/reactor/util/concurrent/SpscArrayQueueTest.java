@@ -1,6 +1,10 @@
 package reactor.util.concurrent;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -88,4 +92,35 @@ public class SpscArrayQueueTest {
 			assertThat(q.peek()).isEqualTo(1);
 			assertThat(q.size()).isEqualTo(2);		}
 	}
+
+	@Test
+	public void shouldDrainUpToLimit() {
+		SpscArrayQueue<Integer> q = new SpscArrayQueue<>(8);
+		for (int i = 0; i < 5; i++) {
+			q.offer(i);
+		}
+		List<Integer> drained = new ArrayList<>();
+
+		assertThat(q.drain(drained::add, 3)).isEqualTo(3);
+		assertThat(drained).containsExactly(0, 1, 2);
+		assertThat(q).hasSize(2);
+
+		assertThat(q.drain(drained::add, 10)).isEqualTo(2);
+		assertThat(drained).containsExactly(0, 1, 2, 3, 4);
+		assertThat(q.isEmpty()).isTrue();
+		assertThat(q.drain(drained::add, 10)).isZero();
+	}
+
+	@Test
+	public void shouldFillUpToCapacity() {
+		SpscArrayQueue<Integer> q = new SpscArrayQueue<>(8);
+		AtomicInteger counter = new AtomicInteger();
+
+		assertThat(q.fill(counter::getAndIncrement, 5)).isEqualTo(5);
+		assertThat(q.fill(counter::getAndIncrement, 5)).as("stops when full").isEqualTo(3);
+		assertThat(counter).as("supplier only called for added elements").hasValue(8);
+		assertThat(q).hasSize(8);
+		assertThat(q.poll()).isEqualTo(0);
+		assertThat(q.fill(counter::getAndIncrement, 5)).isEqualTo(1);
+	}
 }
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package reactor.util.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SpscLinkedArrayQueueTest {
+
+	@Test
+	public void shouldDrainAcrossLinks() {
+		SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<>(8);
+		for (int i = 0; i < 20; i++) {
+			q.offer(i);
+		}
+		List<Integer> drained = new ArrayList<>();
+
+		assertThat(q.drain(drained::add, 15)).isEqualTo(15);
+		assertThat(q).hasSize(5);
+		assertThat(q.drain(drained::add, 15)).isEqualTo(5);
+		assertThat(q.isEmpty()).isTrue();
+
+		for (int i = 0; i < 20; i++) {
+			assertThat(drained.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	public void shouldDrainPairsOffered() {
+		SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<>(8);
+		for (int i = 0; i < 10; i++) {
+			q.test(2 * i, 2 * i + 1);
+		}
+		List<Integer> drained = new ArrayList<>();
+
+		assertThat(q.drain(drained::add, Integer.MAX_VALUE)).isEqualTo(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(drained.get(i)).isEqualTo(i);
+		}
+	}
+
+	@Test
+	public void shouldFillUnbounded() {
+		SpscLinkedArrayQueue<Integer> q = new SpscLinkedArrayQueue<>(8);
+		AtomicInteger counter = new AtomicInteger();
+
+		assertThat(q.fill(counter::getAndIncrement, 20)).isEqualTo(20);
+		assertThat(q).hasSize(20);
+		for (int i = 0; i < 20; i++) {
+			assertThat(q.poll()).isEqualTo(i);
+		}
+	}
+}
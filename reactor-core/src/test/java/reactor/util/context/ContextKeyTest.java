@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.util.context;
+
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+public class ContextKeyTest {
+
+	static final ContextKey<String> TYPED = ContextKey.of("typed");
+
+	@Test
+	public void keysWithSameNameAreDistinct() {
+		ContextKey<String> other = ContextKey.of("typed");
+
+		assertThat(other).isNotEqualTo(TYPED);
+		assertThat(other.name()).isEqualTo(TYPED.name());
+		assertThat(other.toString()).isEqualTo("typed");
+
+		Context context = Context.of(TYPED, "foo");
+		assertThat(context.hasKey(other)).isFalse();
+		assertThat(context.getOrEmpty(other)).isEmpty();
+	}
+
+	@Test
+	public void keyIsNotEqualToItsName() {
+		Context context = Context.of(TYPED, "foo", "typed", "bar");
+
+		assertThat(context.size()).isEqualTo(2);
+		assertThat(context.get(TYPED)).isEqualTo("foo");
+		assertThat(context.<String>get("typed")).isEqualTo("bar");
+	}
+
+	@Test
+	public void resolvedInEveryContextSize() {
+		for (int size = 0; size <= 10; size++) {
+			Context context = Context.empty();
+			for (int i = 0; i < size; i++) {
+				context = context.put(i, i);
+			}
+			Context withKey = context.put(TYPED, "foo");
+
+			assertThat(withKey.get(TYPED)).as("size %d", size).isEqualTo("foo");
+			assertThat(withKey.getOrDefault(TYPED, "bar")).as("size %d", size).isEqualTo("foo");
+			assertThat(withKey.getOrEmpty(TYPED)).as("size %d", size).hasValue("foo");
+			assertThat(withKey.put(TYPED, "baz").get(TYPED)).as("size %d", size).isEqualTo("baz");
+
+			assertThat(context.getOrDefault(TYPED, "bar")).as("size %d", size).isEqualTo("bar");
+			assertThat(context.getOrEmpty(TYPED)).as("size %d", size).isEmpty();
+			assertThat(withKey.delete(TYPED).hasKey(TYPED)).as("size %d", size).isFalse();
+		}
+	}
+
+	@Test
+	public void getMissingKeyThrows() {
+		assertThatExceptionOfType(NoSuchElementException.class)
+				.isThrownBy(() -> Context.of(1, 2).get(TYPED))
+				.withMessage("Context does not contain key: typed");
+	}
+}
@@ -425,4 +425,108 @@ public class ContextNTest {
 		assertThat(contextN).containsEntry("A", -1);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void putKeepsPreviousVersionsIntact() {
+		Context[] versions = new Context[33];
+		versions[6] = c;
+		for (int i = 7; i <= 32; i++) {
+			versions[i] = versions[i - 1].put(i, "v" + i);
+		}
+		Context replaced = versions[32].put(20, "replaced");
+
+		for (int i = 6; i <= 32; i++) {
+			assertThat(versions[i].size()).as("size of version %d", i).isEqualTo(i);
+			assertThat(versions[i].hasKey(i + 1)).as("version %d", i).isFalse();
+		}
+		assertThat(versions[32].<String>get(20)).isEqualTo("v20");
+		assertThat(replaced.<String>get(20)).isEqualTo("replaced");
+		assertThat(replaced.stream().map(Map.Entry::getKey).collect(Collectors.toList()))
+				.as("replacing keeps the insertion order")
+				.isEqualTo(versions[32].stream().map(Map.Entry::getKey).collect(Collectors.toList()));
+	}
+
+	@Test
+	public void putSharesUntouchedBranches() {
+		ContextN big = c;
+		for (int i = 7; i <= 32; i++) {
+			big = (ContextN) big.put(i, i);
+		}
+		ContextN put = (ContextN) big.put(1, "replaced");
+
+		assertThat(put.root).isNotSameAs(big.root);
+		assertThat(put.root.array).hasSameSizeAs(big.root.array);
+		int shared = 0;
+		for (int i = 0; i < put.root.array.length; i++) {
+			if (put.root.array[i] == big.root.array[i]) {
+				shared++;
+			}
+		}
+		assertThat(shared).isEqualTo(put.root.array.length - 1);
+	}
+
+	@Test
+	public void collidingHashes() {
+		Object[] keys = new Object[10];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = new CollidingKey(i);
+		}
+		Context context = Context.empty();
+		for (Object key : keys) {
+			context = context.put(key, key.toString());
+		}
+
+		assertThat(context).isInstanceOf(ContextN.class);
+		for (Object key : keys) {
+			assertThat(context.<String>get(key)).isEqualTo(key.toString());
+		}
+		assertThat(context.hasKey(new CollidingKey(10))).isFalse();
+
+		Context deleted = context.delete(keys[3]).delete(keys[0]);
+		assertThat(deleted.hasKey(keys[3])).isFalse();
+		assertThat(deleted.stream().map(Map.Entry::getKey))
+				.containsExactly(keys[1], keys[2], keys[4], keys[5], keys[6], keys[7], keys[8], keys[9]);
+		assertThat(context.size()).isEqualTo(10);
+	}
+
+	@Test
+	public void deleteKeepsInsertionOrder() {
+		Context context = c.put(7, "G").put(8, "H").delete(2).delete(7);
+
+		assertThat(context).hasToString("ContextN{1=A, 3=C, 4=D, 5=E, 6=F, 8=H}");
+	}
+
+	@Test
+	public void entriesAreSortedOnce() {
+		ContextN.Leaf[] entries = c.entries();
+
+		assertThat(c.entries()).isSameAs(entries);
+		assertThat(c.stream().map(Map.Entry::getKey)).containsExactly(1, 2, 3, 4, 5, 6);
+
+		c.accept(7, "G");
+		assertThat(c.entries()).isNotSameAs(entries).hasSize(7);
+	}
+
+	static final class CollidingKey {
+
+		final int id;
+
+		CollidingKey(int id) {
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof CollidingKey && ((CollidingKey) o).id == id;
+		}
+
+		@Override
+		public int hashCode() {
+			return 42;
+		}
+
+		@Override
+		public String toString() {
+			return "key" + id;
+		}
+	}
+}
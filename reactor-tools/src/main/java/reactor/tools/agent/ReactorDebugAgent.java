@@ -72,14 +72,7 @@ public class ReactorDebugAgent {
 					return null;
 				}
 
-				if (
-						className == null ||
-								className.startsWith("java/") ||
-								className.startsWith("jdk/") ||
-								className.startsWith("sun/") ||
-								className.startsWith("com/sun/") ||
-								className.startsWith("reactor/core/")
-				) {
+				if (className == null || isExcluded(className)) {
 					return null;
 				}
 
@@ -94,29 +87,55 @@ public class ReactorDebugAgent {
 					return null;
 				}
 
-				ClassReader cr = new ClassReader(bytes);
-				ClassWriter cw = new ClassWriter(cr, ClassWriter.COMPUTE_MAXS);
+				return ReactorDebugAgent.transform(bytes);
+			}
+		};
 
-				AtomicBoolean changed = new AtomicBoolean();
-				ClassVisitor classVisitor = new ReactorDebugClassVisitor(cw, changed);
+		instrumentation.addTransformer(transformer, true);
+	}
 
-				try {
-					cr.accept(classVisitor, 0);
-				}
-				catch (Throwable e) {
-					e.printStackTrace();
-					throw e;
-				}
+	/**
+	 * Check if a class, given its internal name, belongs to a package that is never
+	 * instrumented (the JDK and Reactor itself).
+	 */
+	static boolean isExcluded(String className) {
+		return className.startsWith("java/") ||
+				className.startsWith("jdk/") ||
+				className.startsWith("sun/") ||
+				className.startsWith("com/sun/") ||
+				className.startsWith("reactor/core/");
+	}
 
-				if (!changed.get()) {
-					return null;
-				}
+	/**
+	 * Add the call-site and return information to the given class bytes.
+	 *
+	 * @return the instrumented class bytes, or null if the class was left unchanged
+	 */
+	static byte[] transform(byte[] bytes) {
+		ClassReader cr = new ClassReader(bytes);
+		if (ReactorDebugInstrumenter.isInstrumented(cr)) {
+			// already instrumented at build time
+			return null;
+		}
 
-				return cw.toByteArray();
-			}
-		};
+		ClassWriter cw = new ClassWriter(cr, ClassWriter.COMPUTE_MAXS);
 
-		instrumentation.addTransformer(transformer, true);
+		AtomicBoolean changed = new AtomicBoolean();
+		ClassVisitor classVisitor = new ReactorDebugClassVisitor(cw, changed);
+
+		try {
+			cr.accept(classVisitor, 0);
+		}
+		catch (Throwable e) {
+			e.printStackTrace();
+			throw e;
+		}
+
+		if (!changed.get()) {
+			return null;
+		}
+
+		return cw.toByteArray();
 	}
 
 	public static synchronized void processExistingClasses() {
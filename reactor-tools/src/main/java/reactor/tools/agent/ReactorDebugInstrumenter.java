@@ -0,0 +1,362 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.tools.agent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import net.bytebuddy.jar.asm.ClassReader;
+import net.bytebuddy.jar.asm.Opcodes;
+
+/**
+ * Build-time counterpart of the {@link ReactorDebugAgent}: applies the same call-site
+ * instrumentation to the classes of a jar or of a classes directory ahead of time, so
+ * that the application can be started in debug mode without installing the agent and
+ * without paying for the class transformation at startup.
+ * <p>
+ * It can be run from the command line with the {@code reactor-tools} jar:
+ * <pre>
+ * java -jar reactor-tools.jar [--cache &lt;dir&gt;] &lt;input jar or directory&gt; &lt;output jar or directory&gt;
+ * </pre>
+ * or from a build, e.g. as a Gradle {@code JavaExec} task running after {@code jar}, or
+ * with the Maven {@code exec-maven-plugin} in the {@code package} phase, with
+ * {@code reactor.tools.agent.ReactorDebugInstrumenter} as the main class.
+ * <p>
+ * When given a cache directory, the transformation result of each class is stored there,
+ * keyed on the class bytes and on the version of the instrumentation, so that rebuilding
+ * a jar only transforms the classes that changed.
+ * <p>
+ * As the instrumented classes are altered, signature files of signed jars are not copied
+ * over. Classes that are already instrumented are left as is, both by this instrumenter and
+ * by the agent, so that pre-instrumented jars can be mixed with the agent.
+ */
+public final class ReactorDebugInstrumenter {
+
+	static final String HOOKS              = "reactor/core/publisher/Hooks";
+	static final String ADD_CALL_SITE_INFO = "addCallSiteInfo";
+	static final String ADD_RETURN_INFO    = "addReturnInfo";
+
+	static final int CONSTANT_METHODREF = 10;
+
+	/**
+	 * Instrument the given jar or directory.
+	 *
+	 * @param args {@code [--cache <dir>] <input> <output>}
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public static void main(String[] args) throws IOException {
+		Path cache = null;
+		int i = 0;
+		if (args.length > 0 && args[0].equals("--cache")) {
+			if (args.length < 2) {
+				usage();
+				return;
+			}
+			cache = Paths.get(args[1]);
+			i = 2;
+		}
+		if (args.length - i != 2) {
+			usage();
+			return;
+		}
+		Path input = Paths.get(args[i]);
+		Path output = Paths.get(args[i + 1]);
+
+		int instrumented = new ReactorDebugInstrumenter(cache).instrument(input, output);
+		System.out.println("Instrumented " + instrumented + " classes from " + input + " into " + output);
+	}
+
+	static void usage() {
+		System.err.println("Usage: ReactorDebugInstrumenter [--cache <dir>] <input jar or directory> <output jar or directory>");
+		System.exit(1);
+	}
+
+	/**
+	 * Add the call-site information to the given class, the same way as the
+	 * {@link ReactorDebugAgent} does.
+	 *
+	 * @param classBytes the bytes of the class
+	 * @return the instrumented class bytes, or the given bytes if the class needs no
+	 * instrumentation
+	 */
+	public static byte[] instrument(byte[] classBytes) {
+		ClassReader reader = new ClassReader(classBytes);
+		if (ReactorDebugAgent.isExcluded(reader.getClassName())
+				|| (reader.getAccess() & (Opcodes.ACC_ANNOTATION | Opcodes.ACC_SYNTHETIC | Opcodes.ACC_MODULE)) != 0) {
+			return classBytes;
+		}
+		byte[] transformed = ReactorDebugAgent.transform(classBytes);
+		return transformed == null ? classBytes : transformed;
+	}
+
+	final Path   cacheDirectory;
+	final String fingerprint;
+
+	/**
+	 * Create an instrumenter that transforms every class.
+	 */
+	public ReactorDebugInstrumenter() {
+		this(null);
+	}
+
+	/**
+	 * Create an instrumenter that caches the transformed classes in the given
+	 * directory, or transforms every class if it is {@code null}.
+	 *
+	 * @param cacheDirectory the cache directory, possibly {@code null}
+	 */
+	public ReactorDebugInstrumenter(Path cacheDirectory) {
+		this.cacheDirectory = cacheDirectory;
+		this.fingerprint = cacheDirectory == null ? null : instrumentationFingerprint();
+	}
+
+	/**
+	 * Instrument a jar into another jar, or a directory of classes into another (or the
+	 * same) directory.
+	 *
+	 * @param input the jar or directory to instrument
+	 * @param output the jar or directory to write
+	 * @return the number of classes that have been instrumented
+	 * @throws IOException if reading the input or writing the output fails
+	 */
+	public int instrument(Path input, Path output) throws IOException {
+		if (cacheDirectory != null) {
+			Files.createDirectories(cacheDirectory);
+		}
+		if (Files.isDirectory(input)) {
+			return instrumentDirectory(input, output);
+		}
+		return instrumentJar(input, output);
+	}
+
+	int instrumentJar(Path input, Path output) throws IOException {
+		if (output.getParent() != null) {
+			Files.createDirectories(output.getParent());
+		}
+		Path tmp = Files.createTempFile(output.toAbsolutePath().getParent(), output.getFileName().toString(), ".tmp");
+		int instrumented = 0;
+		try (ZipFile zip = new ZipFile(input.toFile());
+		     ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(tmp))) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (isSignature(name)) {
+					continue;
+				}
+				ZipEntry copy = new ZipEntry(name);
+				copy.setTime(entry.getTime());
+				if (entry.getComment() != null) {
+					copy.setComment(entry.getComment());
+				}
+				out.putNextEntry(copy);
+				if (!entry.isDirectory()) {
+					try (InputStream in = zip.getInputStream(entry)) {
+						if (name.endsWith(".class")) {
+							byte[] bytes = readAll(in);
+							byte[] result = instrumentCached(bytes);
+							if (result != bytes) {
+								instrumented++;
+							}
+							out.write(result);
+						}
+						else {
+							copy(in, out);
+						}
+					}
+				}
+				out.closeEntry();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(tmp);
+			throw e;
+		}
+		move(tmp, output);
+		return instrumented;
+	}
+
+	int instrumentDirectory(Path input, Path output) throws IOException {
+		boolean inPlace = Files.exists(output) && Files.isSameFile(input, output);
+		List<Path> files;
+		try (Stream<Path> walk = Files.walk(input)) {
+			files = walk.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		int instrumented = 0;
+		for (Path file : files) {
+			Path target = output.resolve(input.relativize(file).toString());
+			if (!file.toString().endsWith(".class")) {
+				if (!inPlace) {
+					Files.createDirectories(target.getParent());
+					Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+				}
+				continue;
+			}
+			byte[] bytes = Files.readAllBytes(file);
+			byte[] result = instrumentCached(bytes);
+			if (result != bytes) {
+				instrumented++;
+			}
+			else if (inPlace) {
+				continue;
+			}
+			Files.createDirectories(target.getParent());
+			Files.write(target, result);
+		}
+		return instrumented;
+	}
+
+	byte[] instrumentCached(byte[] bytes) throws IOException {
+		if (cacheDirectory == null) {
+			return instrument(bytes);
+		}
+		//an empty cache entry records a class that needs no instrumentation
+		Path entry = cacheDirectory.resolve(sha256(fingerprint, bytes));
+		if (Files.isRegularFile(entry)) {
+			byte[] cached = Files.readAllBytes(entry);
+			return cached.length == 0 ? bytes : cached;
+		}
+		byte[] result = instrument(bytes);
+		Path tmp = Files.createTempFile(cacheDirectory, entry.getFileName().toString(), ".tmp");
+		Files.write(tmp, result == bytes ? new byte[0] : result);
+		move(tmp, entry);
+		return result;
+	}
+
+	/**
+	 * Check if a class has already been instrumented, that is if its constant pool holds
+	 * a method reference to one of the {@code Hooks} methods that are reserved to the
+	 * instrumentation. Only the method references are decoded, so that a string or a
+	 * member of the class that happens to have the same name doesn't count.
+	 */
+	static boolean isInstrumented(ClassReader reader) {
+		char[] buffer = null;
+		for (int i = 1, n = reader.getItemCount(); i < n; i++) {
+			int offset = reader.getItem(i);
+			//the second slot of a long or double constant has no offset
+			if (offset == 0 || reader.readByte(offset - 1) != CONSTANT_METHODREF) {
+				continue;
+			}
+			if (buffer == null) {
+				buffer = new char[reader.getMaxStringLength()];
+			}
+			if (!HOOKS.equals(reader.readClass(offset, buffer))) {
+				continue;
+			}
+			int nameAndType = reader.getItem(reader.readUnsignedShort(offset + 2));
+			String name = reader.readUTF8(nameAndType, buffer);
+			if (ADD_CALL_SITE_INFO.equals(name) || ADD_RETURN_INFO.equals(name)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	static boolean isSignature(String name) {
+		if (!name.startsWith("META-INF/") || name.indexOf('/', "META-INF/".length()) >= 0) {
+			return false;
+		}
+		return name.endsWith(".SF") || name.endsWith(".RSA") || name.endsWith(".DSA") || name.endsWith(".EC");
+	}
+
+	/**
+	 * Compute a fingerprint of the classes performing the instrumentation, so that
+	 * cached classes are not reused across versions of the instrumentation.
+	 */
+	static String instrumentationFingerprint() {
+		Class<?>[] classes = {
+				ReactorDebugAgent.class,
+				ReactorDebugClassVisitor.class,
+				CallSiteInfoAddingMethodVisitor.class,
+				ReturnHandlingMethodVisitor.class
+		};
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (Class<?> clazz : classes) {
+			String resource = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1) + ".class";
+			try (InputStream in = clazz.getResourceAsStream(resource)) {
+				if (in != null) {
+					copy(in, bytes);
+				}
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+		return sha256("", bytes.toByteArray());
+	}
+
+	static String sha256(String salt, byte[] bytes) {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		for (int i = 0; i < salt.length(); i++) {
+			digest.update((byte) salt.charAt(i));
+		}
+		byte[] hash = digest.digest(bytes);
+		StringBuilder sb = new StringBuilder(hash.length * 2);
+		for (byte b : hash) {
+			sb.append(Character.forDigit((b >> 4) & 0xF, 16))
+			  .append(Character.forDigit(b & 0xF, 16));
+		}
+		return sb.toString();
+	}
+
+	static void move(Path source, Path target) throws IOException {
+		try {
+			Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException e) {
+			Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	static byte[] readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		copy(in, out);
+		return out.toByteArray();
+	}
+
+	static void copy(InputStream in, OutputStream out) throws IOException {
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = in.read(buffer)) != -1) {
+			out.write(buffer, 0, n);
+		}
+	}
+}
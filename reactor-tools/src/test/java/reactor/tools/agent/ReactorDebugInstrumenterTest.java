@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2011-Present VMware Inc. or its affiliates, All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *        https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package reactor.tools.agent;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import net.bytebuddy.jar.asm.ClassReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.Scannable;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * This test does not install the agent, the classes are instrumented offline and
+ * loaded in a dedicated class loader.
+ */
+public class ReactorDebugInstrumenterTest {
+
+	static final String FIXTURE_ENTRY = Fixture.class.getName().replace('.', '/') + ".class";
+
+	@TempDir
+	Path tmp;
+
+	@Test
+	public void shouldInstrumentJar() throws Exception {
+		Path input = fixtureJar();
+		Path output = tmp.resolve("instrumented.jar");
+
+		int instrumented = new ReactorDebugInstrumenter().instrument(input, output);
+
+		assertThat(instrumented).isEqualTo(1);
+		assertThat(stepName(input)).isEqualTo("map");
+		assertThat(stepName(output))
+				.startsWith("Flux.map ⇢ at reactor.tools.agent.ReactorDebugInstrumenterTest$Fixture.get(ReactorDebugInstrumenterTest.java:");
+	}
+
+	@Test
+	public void shouldCopyResourcesAndDropSignatures() throws Exception {
+		Path output = tmp.resolve("instrumented.jar");
+
+		new ReactorDebugInstrumenter().instrument(fixtureJar(), output);
+
+		try (ZipFile zip = new ZipFile(output.toFile())) {
+			assertThat(zip.stream().map(ZipEntry::getName))
+					.containsExactly("META-INF/MANIFEST.MF", FIXTURE_ENTRY, "resource.txt");
+			try (InputStream in = zip.getInputStream(zip.getEntry("resource.txt"))) {
+				assertThat(ReactorDebugInstrumenter.readAll(in)).containsExactly(new byte[]{1, 2, 3});
+			}
+		}
+	}
+
+	@Test
+	public void shouldReuseCachedClasses() throws Exception {
+		Path input = fixtureJar();
+		Path cache = tmp.resolve("cache");
+		Path first = tmp.resolve("first.jar");
+		Path second = tmp.resolve("second.jar");
+
+		new ReactorDebugInstrumenter(cache).instrument(input, first);
+		List<Path> entries;
+		try (Stream<Path> files = Files.list(cache)) {
+			entries = files.collect(Collectors.toList());
+		}
+		assertThat(entries).hasSize(1);
+		assertThat(Files.readAllBytes(entries.get(0))).containsExactly(fixtureClass(first));
+
+		int instrumented = new ReactorDebugInstrumenter(cache).instrument(input, second);
+
+		assertThat(instrumented).isEqualTo(1);
+		assertThat(fixtureClass(second)).containsExactly(fixtureClass(first));
+	}
+
+	@Test
+	public void shouldInstrumentDirectoryInPlaceOnce() throws Exception {
+		Path classes = tmp.resolve("classes");
+		Path file = classes.resolve(FIXTURE_ENTRY);
+		Files.createDirectories(file.getParent());
+		Files.write(file, originalFixtureClass());
+
+		assertThat(new ReactorDebugInstrumenter().instrument(classes, classes)).isEqualTo(1);
+		byte[] instrumented = Files.readAllBytes(file);
+
+		assertThat(new ReactorDebugInstrumenter().instrument(classes, classes)).isZero();
+		assertThat(Files.readAllBytes(file)).containsExactly(instrumented);
+	}
+
+	@Test
+	public void shouldNotInstrumentReactorClasses() throws Exception {
+		byte[] bytes;
+		try (InputStream in = Flux.class.getResourceAsStream("Flux.class")) {
+			bytes = ReactorDebugInstrumenter.readAll(in);
+		}
+
+		assertThat(ReactorDebugInstrumenter.instrument(bytes)).isSameAs(bytes);
+	}
+
+	@Test
+	public void shouldNotMistakeHookNamesForInstrumentation() throws Exception {
+		byte[] bytes;
+		try (InputStream in = NamingFixture.class.getResourceAsStream("ReactorDebugInstrumenterTest$NamingFixture.class")) {
+			bytes = ReactorDebugInstrumenter.readAll(in);
+		}
+
+		byte[] instrumented = ReactorDebugInstrumenter.instrument(bytes);
+
+		assertThat(ReactorDebugInstrumenter.isInstrumented(new ClassReader(bytes))).isFalse();
+		assertThat(instrumented).isNotSameAs(bytes);
+		assertThat(ReactorDebugInstrumenter.isInstrumented(new ClassReader(instrumented))).isTrue();
+		assertThat(ReactorDebugInstrumenter.instrument(instrumented)).isSameAs(instrumented);
+	}
+
+	Path fixtureJar() throws IOException {
+		Path jar = tmp.resolve("fixture.jar");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+			out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+			out.write("Manifest-Version: 1.0\r\n".getBytes());
+			out.putNextEntry(new ZipEntry("META-INF/SIGNER.SF"));
+			out.write("Signature-Version: 1.0\r\n".getBytes());
+			out.putNextEntry(new ZipEntry(FIXTURE_ENTRY));
+			out.write(originalFixtureClass());
+			out.putNextEntry(new ZipEntry("resource.txt"));
+			out.write(new byte[]{1, 2, 3});
+		}
+		return jar;
+	}
+
+	static byte[] originalFixtureClass() throws IOException {
+		try (InputStream in = ReactorDebugInstrumenterTest.class.getClassLoader().getResourceAsStream(FIXTURE_ENTRY)) {
+			return ReactorDebugInstrumenter.readAll(in);
+		}
+	}
+
+	static byte[] fixtureClass(Path jar) throws IOException {
+		try (ZipFile zip = new ZipFile(jar.toFile());
+		     InputStream in = zip.getInputStream(zip.getEntry(FIXTURE_ENTRY))) {
+			return ReactorDebugInstrumenter.readAll(in);
+		}
+	}
+
+	static String stepName(Path jar) throws Exception {
+		ClassLoader parent = ReactorDebugInstrumenterTest.class.getClassLoader();
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{jar.toUri().toURL()}, parent) {
+			@Override
+			protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+				if (!name.equals(Fixture.class.getName())) {
+					return super.loadClass(name, resolve);
+				}
+				synchronized (getClassLoadingLock(name)) {
+					Class<?> loaded = findLoadedClass(name);
+					return loaded != null ? loaded : findClass(name);
+				}
+			}
+		}) {
+			Supplier<?> fixture = (Supplier<?>) loader.loadClass(Fixture.class.getName())
+			                                          .getDeclaredConstructor()
+			                                          .newInstance();
+			return Scannable.from(fixture.get()).stepName();
+		}
+	}
+
+	public static class Fixture implements Supplier<Flux<Integer>> {
+
+		@Override
+		public Flux<Integer> get() {
+			return Flux.just(1).map(i -> i + 1);
+		}
+	}
+
+	public static class NamingFixture implements Supplier<Flux<String>> {
+
+		String addCallSiteInfo = "addReturnInfo";
+
+		@Override
+		public Flux<String> get() {
+			return Flux.just(addCallSiteInfo).map(s -> s + "addCallSiteInfo");
+		}
+	}
+}